@@ -1,30 +1,41 @@
 package com.asim.auth.common.jwt;
 
 import com.asim.auth.common.exception.UnauthorizedException;
-import com.asim.auth.infrastructure.config.CacheConfigs;
+import com.asim.auth.infrastructure.security.SessionRevocationIndex;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class JwtToolsImpl implements JwtTools {
 
-    private final CacheManager cacheManager;
+    private static final String ACCESS_TYPE = "access";
+    private static final String REFRESH_TYPE = "refresh";
+    // outcomes of a validation, the reasons of an invalid token are left to the logs to keep the tags bounded
+    private static final String VALID = "valid";
+    private static final String REVOKED = "revoked";
+    private static final String EXPIRED = "expired";
+    private static final String INVALID = "invalid";
+    private static final List<String> RESULTS = List.of(VALID, REVOKED, EXPIRED, INVALID);
+
+    private final SessionRevocationIndex sessionRevocationIndex;
+    private final Map<String, Timer> generationTimers;
+    private final Map<String, Map<String, Timer>> validationTimers;
 
     @Value("${jwt.access.secret}")
     private String accessJwtSecret;
@@ -38,14 +49,37 @@ public class JwtToolsImpl implements JwtTools {
     @Value("${jwt.refresh.expiry}")
     private long refreshJwtExpiration;
 
+    public JwtToolsImpl(SessionRevocationIndex sessionRevocationIndex, MeterRegistry meterRegistry) {
+        this.sessionRevocationIndex = sessionRevocationIndex;
+        this.generationTimers = new HashMap<>();
+        this.validationTimers = new HashMap<>();
+        for (String type : List.of(ACCESS_TYPE, REFRESH_TYPE)) {
+            generationTimers.put(type, Timer.builder("jwt.generation")
+                    .description("Signing of tokens")
+                    .tag("type", type)
+                    .register(meterRegistry));
+
+            Map<String, Timer> byResult = new HashMap<>();
+            for (String result : RESULTS) {
+                byResult.put(result, Timer.builder("jwt.validation")
+                        .description("Verification and parsing of tokens, including the revocation check")
+                        .tag("type", type)
+                        .tag("result", result)
+                        .register(meterRegistry));
+            }
+            validationTimers.put(type, byResult);
+        }
+    }
+
     @Override
     public String generateToken(Long userId, String sessionId, String type) {
         if (type == null || userId == null || sessionId == null) {
             throw new IllegalArgumentException("User ID, session ID, and token type must not be null");
         }
 
-        String secret = type.equals("access") ? accessJwtSecret : refreshJwtSecret;
-        long expiryMs = type.equals("access") ? accessJwtExpiration : refreshJwtExpiration;
+        long start = System.nanoTime();
+        String secret = type.equals(ACCESS_TYPE) ? accessJwtSecret : refreshJwtSecret;
+        long expiryMs = type.equals(ACCESS_TYPE) ? accessJwtExpiration : refreshJwtExpiration;
 
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
@@ -59,32 +93,38 @@ public class JwtToolsImpl implements JwtTools {
 
         SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
 
-        return Jwts.builder()
+        String token = Jwts.builder()
                 .claims(claims)
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(key, Jwts.SIG.HS256)
                 .compact();
+        generationTimers.get(metricType(type)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }
 
     @Override
     public Map<String, Object> validateAndParseToken(String token, String type) {
+        long start = System.nanoTime();
+        String result = INVALID;
         try {
             Map<String, Object> claims = parseToken(token, type);
 
             // Check if the session has been invalidated
             String sessionId = claims.get("sessionId").toString();
-            Cache cache = cacheManager.getCache(CacheConfigs.INVALID_SESSION);
-            if (cache != null && cache.get(sessionId) != null) {
+            if (sessionRevocationIndex.isRevoked(sessionId)) {
+                result = REVOKED;
                 throw new UnauthorizedException("Session has been invalidated");
             }
 
+            result = VALID;
             return claims;
         } catch (SignatureException ex) {
             throw new UnauthorizedException("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
             throw new UnauthorizedException("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
+            result = EXPIRED;
             throw new UnauthorizedException("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
             throw new UnauthorizedException("Unsupported JWT token");
@@ -95,12 +135,14 @@ public class JwtToolsImpl implements JwtTools {
         } catch (Exception ex) {
             log.error("Error validating and parsing JWT token", ex);
             throw new UnauthorizedException(ex.getMessage());
+        } finally {
+            validationTimers.get(metricType(type)).get(result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
     @Override
     public Map<String, Object> parseToken(String token, String type) {
-        String secret = type.equals("access") ? accessJwtSecret : refreshJwtSecret;
+        String secret = type.equals(ACCESS_TYPE) ? accessJwtSecret : refreshJwtSecret;
 
         SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         Claims claims = Jwts.parser()
@@ -116,4 +158,9 @@ public class JwtToolsImpl implements JwtTools {
 
         return new HashMap<>(claims);
     }
-}
\ No newline at end of file
+
+    //any type other than access is signed with the refresh secret, and is tagged as such
+    private static String metricType(String type) {
+        return ACCESS_TYPE.equals(type) ? ACCESS_TYPE : REFRESH_TYPE;
+    }
+}
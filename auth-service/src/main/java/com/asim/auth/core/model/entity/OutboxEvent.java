@@ -0,0 +1,62 @@
+package com.asim.auth.core.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A change that business-service has not acknowledged yet, written in the transaction of the change itself.
+ * Events of the same user are delivered in id order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+@Entity
+@Table(name = "outbox_events",
+        indexes = {
+                @Index(name = "idx_outbox_user_id", columnList = "user_id, id"),
+                @Index(name = "idx_outbox_next_attempt_at", columnList = "next_attempt_at")
+        }
+)
+public class OutboxEvent {
+    public enum Type {USER_CREATED, SESSION_BLOCKED}
+
+    // one id per nextval: pooled blocks would let a node hand out ids below those another node already used,
+    // and the events of a user are delivered in id order
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_id_seq")
+    @SequenceGenerator(name = "outbox_event_id_seq", sequenceName = "outbox_event_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // the user name for USER_CREATED, the session id for SESSION_BLOCKED
+    @Column(nullable = false)
+    private String payload;
+
+    // traceparent of the request that made the change, null when it was not traced
+    @Column(name = "trace_parent", length = 55)
+    private String traceParent;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
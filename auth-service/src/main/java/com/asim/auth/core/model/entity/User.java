@@ -22,7 +22,7 @@ import lombok.experimental.SuperBuilder;
 public class User extends TimeAuditable {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_id_seq")
-    @SequenceGenerator(name = "user_id_seq", sequenceName = "user_id_seq", initialValue = 1, allocationSize = 1)
+    @SequenceGenerator(name = "user_id_seq", sequenceName = "user_id_seq", initialValue = 1, allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
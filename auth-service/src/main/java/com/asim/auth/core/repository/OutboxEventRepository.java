@@ -0,0 +1,46 @@
+package com.asim.auth.core.repository;
+
+import com.asim.auth.core.model.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The oldest pending event of every user, when it is due. Later events of a user wait for it to be delivered.
+     * Rows locked by another dispatcher are skipped (lock timeout -2 is SKIP LOCKED),
+     * and so are the events behind them, since their head still exists.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from OutboxEvent e
+            where e.nextAttemptAt <= :now
+              and not exists (select p.id from OutboxEvent p where p.userId = e.userId and p.id < e.id)
+            order by e.id
+            """)
+    List<OutboxEvent> findDueHeads(Instant now, Pageable pageable);
+
+    /**
+     * Pushes back an event that was not delivered, unless its lease ran out and another dispatcher claimed it.
+     *
+     * @return 1 if the event was rescheduled
+     */
+    @Modifying
+    @Query("""
+            update OutboxEvent e set e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt
+            where e.id = :id and e.nextAttemptAt = :leasedUntil
+            """)
+    int reschedule(Long id, Instant leasedUntil, int attempts, Instant nextAttemptAt);
+}
@@ -8,8 +8,9 @@ import com.asim.auth.core.model.mapper.UserInternalMapper;
 import com.asim.auth.core.model.mapper.UserPublicMapper;
 import com.asim.auth.core.repository.UserRepository;
 import com.asim.auth.infrastructure.config.CacheConfigs;
-import com.asim.auth.infrastructure.grpc.GrpcClientService;
+import com.asim.auth.infrastructure.outbox.Outbox;
 import com.asim.auth.infrastructure.security.JwtAuthenticationToken;
+import com.asim.auth.infrastructure.security.SessionRevocationIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,6 +20,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
 import java.util.UUID;
@@ -33,8 +35,9 @@ public class SessionServiceImpl implements SessionService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTools jwtTools;
     private final UserInternalMapper userInternalMapper;
-    private final GrpcClientService grpcClientService;
+    private final Outbox outbox;
     private final CacheManager cacheManager;
+    private final SessionRevocationIndex sessionRevocationIndex;
 
     @Value("${jwt.access.expiry}")
     private long accessJwtExpiration;
@@ -68,6 +71,7 @@ public class SessionServiceImpl implements SessionService {
     }
 
     @Override
+    @Transactional
     public void logout() {
         var sessionId = getSessionId();
 
@@ -77,11 +81,12 @@ public class SessionServiceImpl implements SessionService {
             throw new IllegalStateException("Cache for invalid sessions is not configured");
         }
         cache.put(sessionId, true);
+        sessionRevocationIndex.revoke(sessionId);
 
-        // send the sessionId to business service via gRPC
-        var isDone = grpcClientService.blockSession(sessionId);
+        // record the sessionId for business service, it is sent once committed
+        outbox.sessionBlocked(getUserId(), sessionId);
 
-        log.info("Session invalidation is done: {}", isDone);
+        log.info("Session invalidation is done: {}", sessionId);
     }
 
     private TokenResponse generateTokensById(Long userId, String sessionId, String refreshToken) {
@@ -99,6 +104,15 @@ public class SessionServiceImpl implements SessionService {
                 .build();
     }
 
+    private Long getUserId() {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof Long userId) {
+            return userId;
+        }
+
+        throw new UnauthorizedException("User not authenticated");
+    }
+
     private String getSessionId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth instanceof JwtAuthenticationToken jwtAuth) {
@@ -10,12 +10,13 @@ import com.asim.auth.core.model.mapper.UserInputMapper;
 import com.asim.auth.core.model.mapper.UserInternalMapper;
 import com.asim.auth.core.model.mapper.UserPublicMapper;
 import com.asim.auth.core.repository.UserRepository;
-import com.asim.auth.infrastructure.grpc.GrpcClientService;
+import com.asim.auth.infrastructure.outbox.Outbox;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -27,8 +28,9 @@ public class UserServiceImpl implements UserService {
     private final UserPublicMapper userPublicMapper;
     private final UserInternalMapper userInternalMapper;
     private final PasswordEncoder passwordEncoder;
-    private final GrpcClientService grpcClientService;
+    private final Outbox outbox;
 
+    @Transactional
     public UserPublic registerUser(UserInput userInput) {
         // Check if a user already exists by name
         if (userRepository.existsByName(userInput.getName())) {
@@ -42,11 +44,11 @@ public class UserServiceImpl implements UserService {
         var user = userInputMapper.toEntity(userInput);
         user = userRepository.save(user);
 
-        // send to business service via gRPC
+        // record it for business service in the same transaction, it is sent once committed
         var userInternal = userInternalMapper.toDto(user);
-        var isDone = grpcClientService.sendUserCreated(userInternal);
+        outbox.userCreated(userInternal);
 
-        log.info("User registration is done: {}", isDone);
+        log.info("User registration is done: {}", user.getId());
 
         return userPublicMapper.toDto(user);
     }
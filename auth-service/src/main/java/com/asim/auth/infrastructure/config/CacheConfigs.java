@@ -1,8 +1,10 @@
 package com.asim.auth.infrastructure.config;
 
+import com.asim.auth.infrastructure.security.SessionRevocationIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.cache.support.CompositeCacheManager;
@@ -11,6 +13,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -37,6 +41,8 @@ public class CacheConfigs {
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
         RedisCacheManager redisCacheManager = redisCacheManager(connectionFactory);
+        //not a bean of its own, the caches are created now so their meters are bound on startup
+        redisCacheManager.initializeCaches();
         ConcurrentMapCacheManager runtimeCacheManager = runtimeMemoryCacheManager();
 
         CompositeCacheManager compositeCacheManager = new CompositeCacheManager();
@@ -46,6 +52,22 @@ public class CacheConfigs {
         return compositeCacheManager;
     }
 
+    /**
+     * Subscribes in-process indexes to invalidations broadcast by other nodes.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            SimpleAsyncTaskExecutorBuilder taskExecutorBuilder,
+                                                                            SessionRevocationIndex sessionRevocationIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        //every message is dispatched on a new thread, a virtual one when spring.threads.virtual.enabled is set
+        container.setTaskExecutor(taskExecutorBuilder.threadNamePrefix("redis-listener-").build());
+        container.addMessageListener(sessionRevocationIndex, new ChannelTopic(SessionRevocationIndex.REVOCATION_CHANNEL));
+
+        return container;
+    }
+
 
     private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
         // serializers for Redis
@@ -67,6 +89,8 @@ public class CacheConfigs {
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(customRedisCacheConfigurations)
                 .transactionAware()
+                // hits, misses, puts and removals for the cache meters
+                .enableStatistics()
                 .build();
     }
 
@@ -0,0 +1,86 @@
+package com.asim.auth.infrastructure.config;
+
+import com.asim.auth.infrastructure.tracing.RepositoryTracingAspect;
+import com.asim.auth.infrastructure.tracing.SpanExporter;
+import com.asim.auth.infrastructure.tracing.Tracer;
+import com.asim.auth.infrastructure.tracing.TracingObservationHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ClientInterceptor;
+import io.lettuce.core.tracing.MicrometerTracing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcClientInterceptor;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.observation.ObservationRegistry;
+import net.devh.boot.grpc.client.interceptor.GrpcGlobalClientInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Distributed tracing on top of the Micrometer observations, exported to a file of JSON spans
+ * ({@code tracing.export.file}). A trace follows a request through:
+ * - the HTTP server observation of Spring Boot, continuing the caller's {@code traceparent} header;
+ * - Spring Security and the repository calls;
+ * - every Redis command;
+ * - the outbox, whose events keep the {@code traceparent} of the request that recorded them, up to the batches synced
+ * to business-service, which link to those traces and pass their own {@code traceparent} in the gRPC metadata.
+ * {@code tracing.sampling.probability} is the share of the new traces exported.
+ * Off unless {@code tracing.enabled} is set: the load test turns it on, a deployment opts in with a low sampling rate.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true", matchIfMissing = false)
+public class TracingConfig {
+
+    // meters of the observations only made for their spans, they duplicate the grpc.client.* and lettuce.command.* ones
+    private static final Set<String> SPAN_ONLY_OBSERVATIONS = Set.of(
+            "grpc.client", "grpc.client.active", "grpc.client.received", "grpc.client.sent",
+            "lettuce", "lettuce.active");
+
+    @Bean
+    public SpanExporter spanExporter(@Value("${tracing.export.file:logs/auth-spans.jsonl}") Path file,
+                                     @Value("${tracing.export.queue-size:8192}") int queueSize,
+                                     @Value("${tracing.export.max-file-size:100MB}") DataSize maxFileSize,
+                                     ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new SpanExporter(file, queueSize, maxFileSize.toBytes(), objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public Tracer tracer(@Value("${spring.application.name}") String service,
+                         @Value("${tracing.sampling.probability:0.01}") double samplingProbability,
+                         SpanExporter spanExporter) {
+        return new Tracer(service, samplingProbability, spanExporter);
+    }
+
+    @Bean
+    public TracingObservationHandler tracingObservationHandler(Tracer tracer) {
+        return new TracingObservationHandler(tracer);
+    }
+
+    @Bean
+    public RepositoryTracingAspect repositoryTracingAspect(ObservationRegistry observationRegistry, Tracer tracer) {
+        return new RepositoryTracingAspect(observationRegistry, tracer);
+    }
+
+    @Bean
+    @GrpcGlobalClientInterceptor
+    public ClientInterceptor observationGrpcClientInterceptor(ObservationRegistry observationRegistry) {
+        return new ObservationGrpcClientInterceptor(observationRegistry);
+    }
+
+    @Bean
+    public ClientResourcesBuilderCustomizer redisTracingCustomizer(ObservationRegistry observationRegistry,
+                                                                   @Value("${spring.application.name}") String service) {
+        return builder -> builder.tracing(new MicrometerTracing(observationRegistry, service));
+    }
+
+    @Bean
+    public MeterFilter spanOnlyObservationMeterFilter() {
+        return MeterFilter.deny(id -> SPAN_ONLY_OBSERVATIONS.contains(id.getName()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.asim.auth.infrastructure.grpc;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker for the calls to business-service.
+ * - Closed: calls go through, {@code failureThreshold} failures in a row open it.
+ * - Open: calls are refused without touching the network until {@code openDuration} has passed.
+ * - Half-open: a single trial call is let through, its outcome closes or reopens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger failures = new AtomicInteger();
+    // 0 while closed, otherwise the time it was opened
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicInteger trials = new AtomicInteger();
+    private final LongSupplier nanoTime;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoTime) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return Whether a call may be made now, when it is, its outcome must be reported
+     */
+    public boolean tryAcquire() {
+        long opened = openedAt.get();
+        if (opened == 0) return true;
+        if (nanoTime.getAsLong() - opened < openNanos) return false;
+
+        //half-open, only one trial at a time
+        return trials.compareAndSet(0, 1);
+    }
+
+    /**
+     * @return How long the circuit stays open, zero when it is closed or half-open
+     */
+    public Duration remainingOpen() {
+        long opened = openedAt.get();
+        if (opened == 0) return Duration.ZERO;
+        return Duration.ofNanos(Math.max(0, openNanos - (nanoTime.getAsLong() - opened)));
+    }
+
+    public void onSuccess() {
+        failures.set(0);
+        openedAt.set(0);
+        trials.set(0);
+    }
+
+    public void onFailure() {
+        if (openedAt.get() != 0) {
+            //the trial failed, stay open for another period
+            openedAt.set(nanoTime.getAsLong());
+            trials.set(0);
+        } else if (failures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(nanoTime.getAsLong());
+        }
+    }
+
+    public State getState() {
+        long opened = openedAt.get();
+        if (opened == 0) return State.CLOSED;
+        return nanoTime.getAsLong() - opened < openNanos ? State.OPEN : State.HALF_OPEN;
+    }
+}
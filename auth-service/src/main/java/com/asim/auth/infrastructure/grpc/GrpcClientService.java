@@ -2,8 +2,16 @@ package com.asim.auth.infrastructure.grpc;
 
 import com.asim.auth.core.model.dto.UserInternal;
 
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Syncs auth changes to business-service without blocking the caller.
+ * The returned future completes once business-service acknowledged the change,
+ * or exceptionally once the retries are exhausted; the failure is logged either way.
+ * The {@code traceParent} is the trace of the request behind the change, null when it was not traced.
+ */
 public interface GrpcClientService {
-    boolean sendUserCreated(UserInternal user);
+    CompletableFuture<Void> sendUserCreated(UserInternal user, String traceParent);
 
-    boolean blockSession(String sessionId);
+    CompletableFuture<Void> blockSession(String sessionId, String traceParent);
 }
@@ -1,52 +1,333 @@
 package com.asim.auth.infrastructure.grpc;
 
 import com.asim.auth.core.model.dto.UserInternal;
+import com.asim.auth.infrastructure.tracing.LinkedObservationContext;
 import com.asim.grpc.generated.*;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Sends the changes asynchronously, so register and logout do not wait for the round trip.
+ * - Calls made within a short window are coalesced and sent as one client stream of batches
+ * ({@code SendUsersCreated}, {@code BlockSessions}), acknowledged per item.
+ * - Every stream has a deadline.
+ * - Transient failures (unavailable, deadline exceeded, or an item business-service did not apply) are retried
+ * with exponential backoff and jitter, up to the configured attempts.
+ * - A circuit breaker stops calling a business-service that keeps failing. A send it refuses does not use up an
+ * attempt, it waits for the circuit to half-open instead, so a change is not given up without reaching the network.
+ * It still fails after {@code max-attempts} refusals, so a long outage does not hold changes forever.
+ * Once the attempts are exhausted, the failure is logged with the user or session id and the future fails.
+ * Every stream sent is observed as {@code grpc.client.sync}, its span links to the traces of the changes it carries.
+ */
 @Service
 @Slf4j
 public class GrpcClientServiceImpl implements GrpcClientService {
 
+    private static final Set<Status.Code> RETRYABLE = EnumSet.of(
+            Status.Code.UNAVAILABLE,
+            Status.Code.DEADLINE_EXCEEDED,
+            Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.ABORTED,
+            Status.Code.UNKNOWN);
+    // at most as many links per batch span as OpenTelemetry keeps by default
+    private static final int MAX_LINKS = 128;
+
+    private final Duration deadline;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration batchWindow;
+    private final int batchSize;
+    private final CircuitBreaker circuitBreaker;
+    private final ObservationRegistry observationRegistry;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("grpc-client-sync").daemon().factory());
+    private final Batcher<NewUser, NewUserBatch> createdUsers = new Batcher<>("sendUsersCreated",
+            GrpcServiceGrpc.GrpcServiceStub::sendUsersCreated,
+            users -> NewUserBatch.newBuilder().addAllUsers(users).build());
+    private final Batcher<InvalidateToken, InvalidateTokenBatch> blockedSessions = new Batcher<>("blockSessions",
+            GrpcServiceGrpc.GrpcServiceStub::blockSessions,
+            tokens -> InvalidateTokenBatch.newBuilder().addAllTokens(tokens).build());
+
     @GrpcClient("grpc-service")
-    private GrpcServiceGrpc.GrpcServiceBlockingStub grpcServiceStub;
+    private GrpcServiceGrpc.GrpcServiceStub grpcServiceStub;
+
+    public GrpcClientServiceImpl(@Value("${grpc.client.grpc-service.sync.deadline:2s}") Duration deadline,
+                                 @Value("${grpc.client.grpc-service.sync.max-attempts:5}") int maxAttempts,
+                                 @Value("${grpc.client.grpc-service.sync.initial-backoff:200ms}") Duration initialBackoff,
+                                 @Value("${grpc.client.grpc-service.sync.max-backoff:5s}") Duration maxBackoff,
+                                 @Value("${grpc.client.grpc-service.sync.batch-window:20ms}") Duration batchWindow,
+                                 @Value("${grpc.client.grpc-service.sync.batch-size:500}") int batchSize,
+                                 @Value("${grpc.client.grpc-service.sync.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                 @Value("${grpc.client.grpc-service.sync.circuit-breaker.open-duration:10s}") Duration openDuration,
+                                 ObservationRegistry observationRegistry) {
+        this.deadline = deadline;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.batchWindow = batchWindow;
+        this.batchSize = batchSize;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.observationRegistry = observationRegistry;
+    }
 
     @Override
-    public boolean sendUserCreated(UserInternal user) {
-        try {
-            NewUser newUser = NewUser.newBuilder()
-                    .setId(user.getId())
-                    .setName(user.getName())
-                    .build();
+    public CompletableFuture<Void> sendUserCreated(UserInternal user, String traceParent) {
+        NewUser newUser = NewUser.newBuilder()
+                .setId(user.getId())
+                .setName(user.getName())
+                .build();
 
-            NewUserSynced response = grpcServiceStub.sendUserCreated(newUser);
-            log.info("User created notification sent successfully: {}", response.getSuccess());
-            return response.getSuccess();
-        } catch (Exception e) {
-            log.error("Error sending user created notification", e);
-            return false;
-        }
+        return createdUsers.add(newUser, "user " + user.getId(), traceParent);
     }
 
     @Override
-    public boolean blockSession(String sessionId) {
-        try {
-            InvalidateToken request = InvalidateToken.newBuilder()
-                    .setSessionId(sessionId)
-                    .build();
+    public CompletableFuture<Void> blockSession(String sessionId, String traceParent) {
+        InvalidateToken request = InvalidateToken.newBuilder()
+                .setSessionId(sessionId)
+                .build();
 
-            TokenInvalidated response = grpcServiceStub.blockSession(request);
-            log.info("Session invalidation request sent successfully: {}", response.getSuccess());
-            return response.getSuccess();
-        } catch (Exception e) {
-            log.error("Error sending session invalidation request", e);
-            return false;
+        return blockedSessions.add(request, "session " + sessionId, traceParent);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        //send what is still waiting for its window, the retries in flight are reported as failed
+        createdUsers.flush();
+        blockedSessions.flush();
+        scheduler.shutdownNow();
+    }
+
+    private static boolean isRetryable(Throwable t) {
+        return t instanceof StatusRuntimeException e && RETRYABLE.contains(e.getStatus().getCode());
+    }
+
+    //jitter: between half and all of the exponential backoff, so the retries of many calls do not arrive together
+    private long backoffMillis(int attempt) {
+        long exponential = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long bound = Math.max(1, Math.min(exponential, maxBackoff.toMillis()));
+        return ThreadLocalRandom.current().nextLong(bound / 2, bound + 1);
+    }
+
+    /**
+     * A change waiting to be acknowledged by business-service.
+     */
+    private static final class Item<T> {
+        private final T message;
+        private final String subject;
+        private final String traceParent;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private int attempt = 1;
+        private int refusals;
+
+        Item(T message, String subject, String traceParent) {
+            this.message = message;
+            this.subject = subject;
+            this.traceParent = traceParent;
         }
     }
 
-    private void logError(String operation, Exception e) {
-        log.error("gRPC operation '{}' failed: {}", operation, e.getMessage());
+    /**
+     * Collects the items of one operation during the batch window, then sends them all over one stream,
+     * {@code batchSize} items per message.
+     */
+    private final class Batcher<T, B> {
+        private final String operation;
+        private final BiFunction<GrpcServiceGrpc.GrpcServiceStub, StreamObserver<BatchAck>, StreamObserver<B>> stream;
+        private final Function<List<T>, B> toBatch;
+        //a lock rather than a monitor, callers may be virtual threads
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<Item<T>> pending = new ArrayList<>();
+        private boolean flushScheduled;
+
+        Batcher(String operation,
+                BiFunction<GrpcServiceGrpc.GrpcServiceStub, StreamObserver<BatchAck>, StreamObserver<B>> stream,
+                Function<List<T>, B> toBatch) {
+            this.operation = operation;
+            this.stream = stream;
+            this.toBatch = toBatch;
+        }
+
+        CompletableFuture<Void> add(T message, String subject, String traceParent) {
+            Item<T> item = new Item<>(message, subject, traceParent);
+            enqueue(item);
+            return item.result;
+        }
+
+        void flush() {
+            List<Item<T>> items;
+            lock.lock();
+            try {
+                items = pending;
+                pending = new ArrayList<>();
+                flushScheduled = false;
+            } finally {
+                lock.unlock();
+            }
+
+            if (!items.isEmpty()) send(items);
+        }
+
+        private void enqueue(Item<T> item) {
+            boolean schedule;
+            lock.lock();
+            try {
+                pending.add(item);
+                schedule = !flushScheduled;
+                flushScheduled = true;
+            } finally {
+                lock.unlock();
+            }
+
+            if (schedule) {
+                try {
+                    scheduler.schedule(this::flush, batchWindow.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    //shutting down, send right away
+                    flush();
+                }
+            }
+        }
+
+        private void send(List<Item<T>> items) {
+            Observation observation = Observation.createNotStarted("grpc.client.sync",
+                            () -> new LinkedObservationContext(links(items)), observationRegistry)
+                    .lowCardinalityKeyValue("operation", operation)
+                    .start();
+            if (!circuitBreaker.tryAcquire()) {
+                Throwable open = Status.UNAVAILABLE.withDescription("circuit breaker is open").asRuntimeException();
+                observation.error(open);
+                observation.stop();
+                items.forEach(item -> retryWhenClosed(item, open));
+                return;
+            }
+
+            //the scope makes the gRPC call a child of the batch, the acknowledgements are timed by the call itself
+            try (Observation.Scope scope = observation.openScope()) {
+                StreamObserver<B> requests = stream.apply(
+                        grpcServiceStub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS),
+                        new AckObserver(items));
+                for (int from = 0; from < items.size(); from += batchSize) {
+                    List<T> messages = new ArrayList<>(Math.min(batchSize, items.size() - from));
+                    for (Item<T> item : items.subList(from, Math.min(from + batchSize, items.size()))) {
+                        messages.add(item.message);
+                    }
+                    requests.onNext(toBatch.apply(messages));
+                }
+                requests.onCompleted();
+            } catch (RuntimeException e) {
+                circuitBreaker.onFailure();
+                observation.error(e);
+                items.forEach(item -> retryOrFail(item, e));
+            } finally {
+                observation.stop();
+            }
+        }
+
+        private List<String> links(List<Item<T>> items) {
+            List<String> links = new ArrayList<>();
+            for (Item<T> item : items) {
+                if (links.size() == MAX_LINKS) break;
+                if (item.traceParent != null) links.add(item.traceParent);
+            }
+            return links;
+        }
+
+        //a refused send never reached business-service, it is tried again once the circuit lets a trial through
+        private void retryWhenClosed(Item<T> item, Throwable t) {
+            item.refusals++;
+            if (item.refusals < maxAttempts) {
+                //while a trial is in flight the circuit is half-open with nothing left to wait, the backoff spaces the tries
+                long delay = circuitBreaker.remainingOpen().toMillis() + backoffMillis(item.refusals);
+                log.debug("gRPC operation '{}' for {} refused by the circuit breaker, retrying in {}ms",
+                        operation, item.subject, delay);
+                try {
+                    scheduler.schedule(() -> enqueue(item), delay, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    //shutting down, report what we have
+                }
+            }
+
+            log.error("gRPC operation '{}' for {} refused {} time(s) by the circuit breaker, business-service is out of sync",
+                    operation, item.subject, item.refusals, t);
+            item.result.completeExceptionally(t);
+        }
+
+        private void retryOrFail(Item<T> item, Throwable t) {
+            if (item.attempt < maxAttempts && isRetryable(t)) {
+                long delay = backoffMillis(item.attempt);
+                log.warn("gRPC operation '{}' for {} failed on attempt {}, retrying in {}ms: {}",
+                        operation, item.subject, item.attempt, delay, t.getMessage());
+                item.attempt++;
+                try {
+                    scheduler.schedule(() -> enqueue(item), delay, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    //shutting down, report what we have
+                }
+            }
+
+            log.error("gRPC operation '{}' for {} failed after {} attempt(s), business-service is out of sync",
+                    operation, item.subject, item.attempt, t);
+            item.result.completeExceptionally(t);
+        }
+
+        /**
+         * Completes the items from the per-item acknowledgements, or retries them all when the stream fails.
+         */
+        private final class AckObserver implements StreamObserver<BatchAck> {
+            private final List<Item<T>> items;
+            private BatchAck ack = BatchAck.getDefaultInstance();
+
+            AckObserver(List<Item<T>> items) {
+                this.items = items;
+            }
+
+            @Override
+            public void onNext(BatchAck value) {
+                ack = value;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                circuitBreaker.onFailure();
+                items.forEach(item -> retryOrFail(item, t));
+            }
+
+            @Override
+            public void onCompleted() {
+                circuitBreaker.onSuccess();
+                int applied = 0;
+                for (int i = 0; i < items.size(); i++) {
+                    Item<T> item = items.get(i);
+                    if (i < ack.getSuccessCount() && ack.getSuccess(i)) {
+                        item.result.complete(null);
+                        applied++;
+                    } else {
+                        retryOrFail(item, Status.UNAVAILABLE.withDescription("business-service did not apply it").asRuntimeException());
+                    }
+                }
+                log.info("gRPC operation '{}' applied {} of {} items", operation, applied, items.size());
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -49,7 +49,7 @@ public class ExceptionHandlerLoggingAspect {
             }
 
             HttpServletRequest request = attributes.getRequest();
-            String requestId = (String) request.getAttribute("requestId");
+            String requestId = (String) request.getAttribute(RequestLoggingInterceptor.REQUEST_ID_ATTRIBUTE);
             String errorId = (String) request.getAttribute("errorId");
 
             requestId = requestId == null ? "unknown" : requestId;
@@ -0,0 +1,59 @@
+package com.asim.auth.infrastructure.outbox;
+
+import com.asim.auth.core.model.dto.UserInternal;
+import com.asim.auth.core.model.entity.OutboxEvent;
+import com.asim.auth.core.repository.OutboxEventRepository;
+import com.asim.auth.infrastructure.tracing.Span;
+import com.asim.auth.infrastructure.tracing.Tracer;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+/**
+ * Records the changes business-service must learn about, in the transaction that makes them,
+ * so a change is never committed without its event, nor an event sent for a change that rolled back.
+ * The dispatcher is woken up once the transaction commits, the events do not wait for its next poll.
+ * Each event keeps the trace of the request that recorded it, which the batch delivering it links to.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final ObservationRegistry observationRegistry;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userCreated(UserInternal user) {
+        record(OutboxEvent.Type.USER_CREATED, user.getId(), user.getName());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sessionBlocked(Long userId, String sessionId) {
+        record(OutboxEvent.Type.SESSION_BLOCKED, userId, sessionId);
+    }
+
+    private void record(OutboxEvent.Type type, Long userId, String payload) {
+        Span span = Tracer.currentSpan(observationRegistry);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(type)
+                .userId(userId)
+                .payload(payload)
+                .traceParent(span == null ? null : span.context().traceparent())
+                .nextAttemptAt(Instant.now())
+                .build());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.wakeUp();
+            }
+        });
+    }
+}
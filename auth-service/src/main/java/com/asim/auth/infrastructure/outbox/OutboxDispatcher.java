@@ -0,0 +1,190 @@
+package com.asim.auth.infrastructure.outbox;
+
+import com.asim.auth.core.model.dto.UserInternal;
+import com.asim.auth.core.model.entity.OutboxEvent;
+import com.asim.auth.core.repository.OutboxEventRepository;
+import com.asim.auth.infrastructure.grpc.GrpcClientService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drains the outbox to business-service.
+ * <p>
+ * Every round claims the oldest due event of up to {@code outbox.batch-size} users in a short transaction, by
+ * pushing their next attempt {@code outbox.lease} ahead, so other dispatchers skip them and the events queued behind
+ * them. It then sends them all at once outside any transaction (the gRPC client coalesces them into one stream), and
+ * in a second short transaction deletes the acknowledged ones and pushes the others back with a backoff. An event
+ * whose dispatcher died is sent again once its lease runs out, so the lease must outlast {@code outbox.send-timeout}.
+ * Delivery is at least once: an event acknowledged by business-service but not deleted (a crash, an expired lease,
+ * or an answer after the send timeout) is sent again. business-service applies the events idempotently, a user that
+ * already exists with the same id and name and a session already blocked count as done, so the effect is exactly once.
+ * <p>
+ * The dispatcher runs every {@code outbox.dispatch-interval} and right after a change commits.
+ * The number of pending events is exposed as {@code outbox.backlog}.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final GrpcClientService grpcClientService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration lease;
+    private final Duration maxBackoff;
+    private final ReentrantLock dispatching = new ReentrantLock();
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter delivered;
+    private final Counter failed;
+    private volatile boolean requested;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            GrpcClientService grpcClientService,
+                            TransactionTemplate transactionTemplate,
+                            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${outbox.batch-size:500}") int batchSize,
+                            @Value("${outbox.send-timeout:15s}") Duration sendTimeout,
+                            @Value("${outbox.lease:1m}") Duration lease,
+                            @Value("${outbox.max-backoff:5m}") Duration maxBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.grpcClientService = grpcClientService;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.lease = lease;
+        this.maxBackoff = maxBackoff;
+
+        Gauge.builder("outbox.backlog", backlog, AtomicLong::get)
+                .description("Events not yet acknowledged by business-service")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("outbox.dispatched")
+                .description("Outbox events sent to business-service")
+                .tag("result", "delivered")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.dispatched")
+                .description("Outbox events sent to business-service")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Dispatches soon on another thread, so the committing request does not wait.
+     */
+    public void wakeUp() {
+        taskExecutor.execute(this::dispatch);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch-interval:1s}")
+    public void dispatch() {
+        //one dispatch per node at a time, a wake-up during a dispatch makes it run another round
+        if (!dispatching.tryLock()) {
+            requested = true;
+            return;
+        }
+        try {
+            do {
+                requested = false;
+                while (dispatchRound() > 0) ;
+            } while (requested);
+            backlog.set(outboxEventRepository.count());
+        } catch (RuntimeException ex) {
+            log.error("Outbox dispatch failed, the events stay pending", ex);
+        } finally {
+            dispatching.unlock();
+        }
+    }
+
+    /**
+     * @return The number of events delivered
+     */
+    private int dispatchRound() {
+        //the column keeps microseconds, the lease is compared as stored when the round settles
+        Instant leasedUntil = Instant.now().plus(lease).truncatedTo(ChronoUnit.MICROS);
+        List<OutboxEvent> events = transactionTemplate.execute(status -> claim(leasedUntil));
+        if (events == null || events.isEmpty()) return 0;
+
+        List<CompletableFuture<Void>> sent = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) sent.add(send(event));
+        try {
+            CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException ex) {
+            //some failed or are still retrying, handled one by one below
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Long> done = new ArrayList<>();
+        List<OutboxEvent> pending = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            CompletableFuture<Void> future = sent.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                done.add(event.getId());
+            } else {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                pending.add(event);
+                log.warn("Outbox event {} ({} of user {}) not delivered after {} round(s), next attempt at {}",
+                        event.getId(), event.getType(), event.getUserId(), event.getAttempts(), event.getNextAttemptAt());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!done.isEmpty()) outboxEventRepository.deleteAllByIdInBatch(done);
+            //an event whose lease ran out meanwhile belongs to the dispatcher that claimed it again
+            for (OutboxEvent event : pending)
+                outboxEventRepository.reschedule(event.getId(), leasedUntil, event.getAttempts(), event.getNextAttemptAt());
+        });
+
+        delivered.increment(done.size());
+        failed.increment(pending.size());
+        return done.size();
+    }
+
+    private List<OutboxEvent> claim(Instant leasedUntil) {
+        List<OutboxEvent> events = outboxEventRepository.findDueHeads(Instant.now(), PageRequest.of(0, batchSize));
+        //written on commit
+        for (OutboxEvent event : events) event.setNextAttemptAt(leasedUntil);
+        return events;
+    }
+
+    private CompletableFuture<Void> send(OutboxEvent event) {
+        return switch (event.getType()) {
+            case USER_CREATED -> grpcClientService.sendUserCreated(new UserInternal(event.getUserId(), event.getPayload()),
+                    event.getTraceParent());
+            case SESSION_BLOCKED -> grpcClientService.blockSession(event.getPayload(), event.getTraceParent());
+        };
+    }
+
+    //doubles from 1 second up to the maximum, the gRPC client already retried within the round
+    private Duration backoff(int attempts) {
+        Duration backoff = Duration.ofSeconds(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
@@ -0,0 +1,227 @@
+package com.asim.auth.infrastructure.security;
+
+import com.asim.auth.infrastructure.config.CacheConfigs;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local index of invalidated sessions, so that checking a token does not need a Redis round trip.
+ * <p>
+ * It combines a bloom filter, which can answer "never revoked" for almost every token, with a bounded exact set
+ * of recently revoked sessions. Lookups are resolved as follows:
+ * <ul>
+ *     <li>Filter negative: the session was not revoked, answered locally.</li>
+ *     <li>Filter positive and present in the exact set: the session is revoked, answered locally.</li>
+ *     <li>Filter positive but absent from the exact set: either a false positive (about 1% by default) or an entry
+ *     pushed out of the bounded set. The Redis {@code invalidSession} cache, which stays the source of truth,
+ *     decides.</li>
+ * </ul>
+ * The index is fed by logouts, broadcast to the other nodes over Redis pub/sub,
+ * and backfilled from Redis on startup. Until the backfill completes every lookup goes to Redis.
+ * Entries live at least as long as a refresh token, since refresh tokens of a revoked session are checked here too.
+ */
+@Slf4j
+@Component
+public class SessionRevocationIndex implements MessageListener {
+
+    public static final String REVOCATION_CHANNEL = "auth:session:revoked";
+    private static final String REDIS_KEY_PREFIX = "auth:" + CacheConfigs.INVALID_SESSION + "::";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, Boolean> revokedSessions;
+    private final long ttlMillis;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+
+    // Bloom filters cannot remove entries, so they are rotated every TTL and the previous generation is kept
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile long currentCreatedAt;
+    private volatile boolean backfilled;
+    private final ReentrantLock rotationLock = new ReentrantLock();
+
+    public SessionRevocationIndex(CacheManager cacheManager,
+                                  StringRedisTemplate redisTemplate,
+                                  @Value("${jwt.refresh.expiry}") long refreshJwtExpiration,
+                                  @Value("${session-revocation.expected-insertions:100000}") int expectedInsertions,
+                                  @Value("${session-revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.ttlMillis = refreshJwtExpiration;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.revokedSessions = Caffeine.newBuilder()
+                .maximumSize(expectedInsertions)
+                .expireAfterWrite(Duration.ofMillis(refreshJwtExpiration))
+                .build();
+        this.current = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.previous = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.currentCreatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Checks whether the session has been invalidated.
+     *
+     * @param sessionId The session identifier from the token
+     * @return true if the session is revoked
+     */
+    public boolean isRevoked(String sessionId) {
+        if (!backfilled) {
+            return isRevokedInRedis(sessionId);
+        }
+
+        rotateIfExpired();
+        if (!current.mightContain(sessionId) && !previous.mightContain(sessionId)) {
+            return false;
+        }
+        if (revokedSessions.getIfPresent(sessionId) != null) {
+            return true;
+        }
+
+        // false positive or evicted from the exact set
+        boolean revoked = isRevokedInRedis(sessionId);
+        if (revoked) {
+            revokedSessions.put(sessionId, true);
+        }
+        return revoked;
+    }
+
+    /**
+     * Records the session as revoked on this node and broadcasts it to the other nodes.
+     *
+     * @param sessionId The session identifier to revoke
+     */
+    public void revoke(String sessionId) {
+        add(sessionId);
+        try {
+            redisTemplate.convertAndSend(REVOCATION_CHANNEL, sessionId);
+        } catch (RuntimeException ex) {
+            log.error("Failed to broadcast revocation of session {}, other nodes will find it through Redis", sessionId, ex);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int count = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(REDIS_KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                add(keys.next().substring(REDIS_KEY_PREFIX.length()));
+                count++;
+            }
+            backfilled = true;
+            log.info("Session revocation index backfilled with {} sessions", count);
+        } catch (RuntimeException ex) {
+            log.error("Failed to backfill session revocation index, lookups will keep going to Redis", ex);
+        }
+    }
+
+    private void add(String sessionId) {
+        rotateIfExpired();
+        current.put(sessionId);
+        revokedSessions.put(sessionId, true);
+    }
+
+    private boolean isRevokedInRedis(String sessionId) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(CacheConfigs.INVALID_SESSION);
+        return cache != null && cache.get(sessionId) != null;
+    }
+
+    private void rotateIfExpired() {
+        if (System.currentTimeMillis() - currentCreatedAt < ttlMillis) {
+            return;
+        }
+        //a lock rather than a monitor, a virtual thread waiting on a monitor pins its carrier
+        rotationLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (now - currentCreatedAt >= ttlMillis) {
+                previous = current;
+                current = new BloomFilter(expectedInsertions, falsePositiveRate);
+                currentCreatedAt = now;
+            }
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    /**
+     * Lock-free bloom filter over strings, using double hashing of a 64-bit FNV-1a hash.
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long optimalBits = (long) (-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+            this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                long mask = 1L << bit;
+                int index = bit >>> 6;
+                long word;
+                do {
+                    word = bits.get(index);
+                    if ((word & mask) != 0) break;
+                } while (!bits.compareAndSet(index, word, word | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            // final avalanche so both halves are well distributed
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.asim.auth.infrastructure.tracing;
+
+import io.micrometer.observation.Observation;
+
+import java.util.List;
+
+/**
+ * Context of an observation done on behalf of work started by other traces, such as a batch of outbox events.
+ * Its span starts a trace of its own and links to those traces, rather than being the child of only one of them.
+ */
+public class LinkedObservationContext extends Observation.Context {
+
+    private final List<String> links;
+
+    /**
+     * @param links The {@code traceparent} of every trace the observation acts for
+     */
+    public LinkedObservationContext(List<String> links) {
+        this.links = links;
+    }
+
+    public List<String> getLinks() {
+        return links;
+    }
+}
@@ -0,0 +1,56 @@
+package com.asim.auth.infrastructure.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.repository.Repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps every Spring Data repository call made within a trace in a span named after the repository and the method,
+ * e.g. {@code UserRepository.findByName}. Repository calls are leaves, so this is a plain span rather than an
+ * observation: their timing is already recorded as {@code spring.data.repository.invocations}.
+ */
+@Aspect
+public class RepositoryTracingAspect {
+
+    private final ObservationRegistry observationRegistry;
+    private final Tracer tracer;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryTracingAspect(ObservationRegistry observationRegistry, Tracer tracer) {
+        this.observationRegistry = observationRegistry;
+        this.tracer = tracer;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span parent = Tracer.currentSpan(observationRegistry);
+        if (parent == null) return joinPoint.proceed();
+
+        String name = repositoryName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName();
+        Span span = tracer.start(name, Tracer.INTERNAL, parent.context());
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            span.error(t);
+            throw t;
+        } finally {
+            tracer.end(span);
+        }
+    }
+
+    //the repository interface the proxy implements, save() and the like are declared by the Spring Data interfaces
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> {
+            for (Class<?> userInterface : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+                if (Repository.class.isAssignableFrom(userInterface)) return userInterface.getSimpleName();
+            }
+            return type.getSimpleName();
+        });
+    }
+}
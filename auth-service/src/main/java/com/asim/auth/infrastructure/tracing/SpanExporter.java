@@ -0,0 +1,126 @@
+package com.asim.auth.infrastructure.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends the ended spans to a file, one JSON object per line, which stands in for a trace collector.
+ * Once the file reaches its maximum size it is moved to {@code <file>.1} (replacing the previous one) and a new file is
+ * started, so the export never takes more than twice that size on disk.
+ * <p>
+ * Spans are queued and written by a single background thread, the traced threads never wait for the disk.
+ * When the queue is full the span is dropped and counted as {@code tracing.spans{result=dropped}}:
+ * a trace missing a span is better than a request slowed down by its own tracing.
+ */
+@Slf4j
+public class SpanExporter implements AutoCloseable {
+
+    private static final long POLL_MILLIS = 200;
+
+    private final Path file;
+    private final Path rotated;
+    private final long maxFileSize;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Span> queue;
+    private final Counter exported;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public SpanExporter(Path file, int queueSize, long maxFileSize, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.file = file;
+        this.rotated = file.resolveSibling(file.getFileName() + ".1");
+        this.maxFileSize = maxFileSize;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.exported = Counter.builder("tracing.spans")
+                .description("Spans handed to the exporter")
+                .tag("result", "exported")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("tracing.spans")
+                .description("Spans handed to the exporter")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        this.writer = Thread.ofPlatform().name("span-exporter").daemon().start(this::write);
+    }
+
+    public void export(Span span) {
+        if (queue.offer(span)) {
+            exported.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes what is still queued, then stops.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void write() {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            log.error("Cannot create the directory of {}, spans are not exported", file, e);
+            return;
+        }
+
+        Writer out = null;
+        try {
+            long size = Files.exists(file) ? Files.size(file) : 0;
+            out = open();
+            while (running || !queue.isEmpty()) {
+                Span span = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (span == null) continue;
+
+                String line = objectMapper.writeValueAsString(span) + '\n';
+                //characters, not bytes: close enough for a cap, the spans are mostly ASCII
+                if (size > 0 && size + line.length() > maxFileSize) {
+                    out.close();
+                    Files.move(file, rotated, StandardCopyOption.REPLACE_EXISTING);
+                    out = open();
+                    size = 0;
+                }
+                out.write(line);
+                size += line.length();
+                //flush once the burst is written, not per span
+                if (queue.isEmpty()) out.flush();
+            }
+        } catch (IOException e) {
+            log.error("Span export to {} failed, spans are no longer exported", file, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(out);
+        }
+    }
+
+    private Writer open() throws IOException {
+        return Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void close(Writer out) {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Span export file {} could not be closed", file, e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.asim.auth.infrastructure.tracing;
+
+import com.asim.auth.infrastructure.logging.RequestLoggingInterceptor;
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * Turns observations into spans, next to the meters Spring Boot already records from them:
+ * - HTTP requests are server spans, continuing the trace of the caller's {@code traceparent} or starting a new one.
+ * - Calls sent (gRPC, Redis commands) are client spans, the gRPC ones pass {@code traceparent} on.
+ * - A batch synced to business-service ({@link LinkedObservationContext}) starts a trace of its own,
+ * linked to the traces of the requests that made the changes it carries.
+ * - Any other observation made within a trace (Spring Security, the outbox) is an internal span.
+ * Observations outside any trace, such as the Redis commands of a scheduled task, are not traced.
+ * <p>
+ * HTTP requests also get the trace id as request attribute, for the access log,
+ * and their span gets the request id, so a slow access-log record leads to its trace and back.
+ */
+public class TracingObservationHandler implements ObservationHandler<Observation.Context> {
+
+    private final Tracer tracer;
+
+    public TracingObservationHandler(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        Span parent = parentSpan(context);
+        TraceContext parentContext = parent != null ? parent.context() : null;
+        String kind = Tracer.INTERNAL;
+
+        if (context instanceof ReceiverContext<?> receiver) {
+            kind = receiver.getKind().name();
+            if (parentContext == null) parentContext = TraceContext.parse(extract(receiver));
+        } else if (context instanceof SenderContext<?> sender) {
+            kind = sender.getKind().name();
+            if (parent == null) return;
+        } else if (parent == null && !(context instanceof LinkedObservationContext)) {
+            return;
+        }
+
+        Span span = tracer.start(context.getName(), kind, parentContext);
+        context.put(Span.class, span);
+        if (context instanceof LinkedObservationContext linked) linked.getLinks().forEach(span::link);
+        if (context instanceof SenderContext<?> sender) inject(sender, span.context().traceparent());
+        if (context instanceof ServerRequestObservationContext request) {
+            request.getCarrier().setAttribute(RequestLoggingInterceptor.TRACE_ID_ATTRIBUTE, span.getTraceId());
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Span span = context.get(Span.class);
+        if (span == null) return;
+
+        if (context.getContextualName() != null) span.name(context.getContextualName());
+        for (KeyValue keyValue : context.getAllKeyValues()) span.attribute(keyValue.getKey(), keyValue.getValue());
+        if (context.getError() != null) span.error(context.getError());
+        if (context instanceof ServerRequestObservationContext request
+                && request.getCarrier().getAttribute(RequestLoggingInterceptor.REQUEST_ID_ATTRIBUTE) instanceof String requestId) {
+            span.attribute("request.id", requestId);
+        }
+        tracer.end(span);
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+
+    private static Span parentSpan(Observation.Context context) {
+        ObservationView parent = context.getParentObservation();
+        return parent == null ? null : parent.getContextView().get(Span.class);
+    }
+
+    private static <C> String extract(ReceiverContext<C> receiver) {
+        C carrier = receiver.getCarrier();
+        return carrier == null ? null : receiver.getGetter().get(carrier, TraceContext.TRACEPARENT);
+    }
+
+    //some senders (Redis) have nothing to carry the context in
+    private static <C> void inject(SenderContext<C> sender, String traceparent) {
+        C carrier = sender.getCarrier();
+        if (carrier != null && sender.getSetter() != null) sender.getSetter().set(carrier, TraceContext.TRACEPARENT, traceparent);
+    }
+}
@@ -0,0 +1,5 @@
+-- Runs before Hibernate starts (spring.sql.init), so it reads the increments already aligned.
+-- Sequences created before pooled ids hand out one id per nextval. With an increment of 50 the next value is past
+-- every id given out so far, whether it is read as the high (pooled) or the low (pooled-lo) end of its block.
+-- Idempotent, and a no-op on a fresh database where Hibernate creates the sequences itself.
+ALTER SEQUENCE IF EXISTS user_id_seq INCREMENT BY 50;
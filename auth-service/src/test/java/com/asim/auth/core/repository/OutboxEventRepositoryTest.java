@@ -0,0 +1,107 @@
+package com.asim.auth.core.repository;
+
+import com.asim.auth.core.model.entity.OutboxEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("Outbox Event Repository Tests")
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+    private OutboxEvent event(long userId, Instant nextAttemptAt) {
+        return entityManager.persistFlushFind(OutboxEvent.builder()
+                .type(OutboxEvent.Type.SESSION_BLOCKED)
+                .userId(userId)
+                .payload("session-" + userId)
+                .nextAttemptAt(nextAttemptAt)
+                .build());
+    }
+
+    @Nested
+    @DisplayName("Due Heads Tests")
+    class DueHeadsTests {
+        @Test
+        @DisplayName("should find only the oldest event of every user when users have several")
+        void whenUsersHaveSeveralEvents_thenOnlyTheirOldestIsFound() {
+            // Arrange
+            OutboxEvent first = event(1L, now);
+            event(1L, now);
+            OutboxEvent other = event(2L, now);
+
+            // Act & Assert
+            assertThat(outboxEventRepository.findDueHeads(now, PageRequest.of(0, 10)))
+                    .extracting(OutboxEvent::getId)
+                    .containsExactly(first.getId(), other.getId());
+        }
+
+        @Test
+        @DisplayName("should hold back the whole user when the oldest event is leased or backing off")
+        void whenHeadNotDue_thenLaterEventsOfTheUserWait() {
+            // Arrange
+            event(1L, now.plusSeconds(60));
+            event(1L, now);
+            OutboxEvent other = event(2L, now);
+
+            // Act & Assert
+            assertThat(outboxEventRepository.findDueHeads(now, PageRequest.of(0, 10)))
+                    .extracting(OutboxEvent::getId)
+                    .containsExactly(other.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Reschedule Tests")
+    class RescheduleTests {
+        @Test
+        @DisplayName("should push the event back when it still carries the round's lease")
+        void whenLeaseHeld_thenEventIsRescheduled() {
+            // Arrange
+            Instant leasedUntil = now.plusSeconds(60);
+            OutboxEvent event = event(1L, leasedUntil);
+
+            // Act
+            int updated = outboxEventRepository.reschedule(event.getId(), leasedUntil, 1, now.plusSeconds(1));
+            entityManager.clear();
+
+            // Assert
+            assertThat(updated).isEqualTo(1);
+            OutboxEvent rescheduled = entityManager.find(OutboxEvent.class, event.getId());
+            assertThat(rescheduled.getAttempts()).isEqualTo(1);
+            assertThat(rescheduled.getNextAttemptAt()).isEqualTo(now.plusSeconds(1));
+        }
+
+        @Test
+        @DisplayName("should leave the event alone when another dispatcher claimed it again")
+        void whenLeaseTakenOver_thenEventIsLeftAlone() {
+            // Arrange
+            Instant leasedUntil = now.plusSeconds(60);
+            OutboxEvent event = event(1L, now.plusSeconds(120));
+
+            // Act
+            int updated = outboxEventRepository.reschedule(event.getId(), leasedUntil, 1, now.plusSeconds(1));
+            entityManager.clear();
+
+            // Assert
+            assertThat(updated).isZero();
+            assertThat(entityManager.find(OutboxEvent.class, event.getId()).getAttempts()).isZero();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.asim.auth.infrastructure.grpc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Circuit Breaker Tests")
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker(3, OPEN_DURATION, now::get);
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private void elapse(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Nested
+    @DisplayName("Closed Tests")
+    class ClosedTests {
+        @Test
+        @DisplayName("should let calls through when failures stay under the threshold")
+        void whenFailuresUnderThreshold_thenCallsGoThrough() {
+            // Act
+            fail(2);
+
+            // Assert
+            assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            assertThat(circuitBreaker.remainingOpen()).isZero();
+        }
+
+        @Test
+        @DisplayName("should count only consecutive failures when a call succeeds in between")
+        void whenSuccessBetweenFailures_thenCountRestarts() {
+            // Act
+            fail(2);
+            circuitBreaker.onSuccess();
+            fail(2);
+
+            // Assert
+            assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+    }
+
+    @Nested
+    @DisplayName("Open Tests")
+    class OpenTests {
+        @Test
+        @DisplayName("should refuse calls until the open duration has passed when failures reach the threshold")
+        void whenFailuresReachThreshold_thenCallsAreRefused() {
+            // Act
+            fail(3);
+            elapse(Duration.ofSeconds(4));
+
+            // Assert
+            assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+            assertThat(circuitBreaker.tryAcquire()).isFalse();
+            assertThat(circuitBreaker.remainingOpen()).isEqualTo(Duration.ofSeconds(6));
+        }
+    }
+
+    @Nested
+    @DisplayName("Half-Open Tests")
+    class HalfOpenTests {
+        @BeforeEach
+        void setUp() {
+            fail(3);
+            elapse(OPEN_DURATION);
+        }
+
+        @Test
+        @DisplayName("should let a single trial through when the open duration has passed")
+        void whenOpenDurationPassed_thenOneTrialGoesThrough() {
+            // Act & Assert
+            assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+            assertThat(circuitBreaker.remainingOpen()).isZero();
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            assertThat(circuitBreaker.tryAcquire()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should close when the trial succeeds")
+        void whenTrialSucceeds_thenCircuitCloses() {
+            // Arrange
+            circuitBreaker.tryAcquire();
+
+            // Act
+            circuitBreaker.onSuccess();
+
+            // Assert
+            assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should reopen for another period when the trial fails")
+        void whenTrialFails_thenCircuitReopens() {
+            // Arrange
+            circuitBreaker.tryAcquire();
+
+            // Act
+            circuitBreaker.onFailure();
+
+            // Assert
+            assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+            assertThat(circuitBreaker.tryAcquire()).isFalse();
+            assertThat(circuitBreaker.remainingOpen()).isEqualTo(OPEN_DURATION);
+
+            elapse(OPEN_DURATION);
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+        }
+    }
+}
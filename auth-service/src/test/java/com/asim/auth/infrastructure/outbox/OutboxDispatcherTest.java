@@ -0,0 +1,194 @@
+package com.asim.auth.infrastructure.outbox;
+
+import com.asim.auth.core.model.dto.UserInternal;
+import com.asim.auth.core.model.entity.OutboxEvent;
+import com.asim.auth.core.repository.OutboxEventRepository;
+import com.asim.auth.infrastructure.grpc.GrpcClientService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Outbox Dispatcher Tests")
+class OutboxDispatcherTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(1);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private GrpcClientService grpcClientService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new OutboxDispatcher(outboxEventRepository, grpcClientService, new TransactionTemplate(transactionManager),
+                new SyncTaskExecutor(), meterRegistry, 500, Duration.ofMillis(200), LEASE, MAX_BACKOFF);
+    }
+
+    private static OutboxEvent userCreated(long id, long userId, int attempts) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(OutboxEvent.Type.USER_CREATED)
+                .userId(userId)
+                .payload("user-" + userId)
+                .attempts(attempts)
+                .nextAttemptAt(Instant.now())
+                .build();
+    }
+
+    //the due heads of the first round, then nothing is due
+    private void due(OutboxEvent... events) {
+        when(outboxEventRepository.findDueHeads(any(), any())).thenReturn(new ArrayList<>(List.of(events)), new ArrayList<>());
+    }
+
+    private void delivers(long userId, CompletableFuture<Void> result) {
+        when(grpcClientService.sendUserCreated(new UserInternal(userId, "user-" + userId), null)).thenReturn(result);
+    }
+
+    private double dispatched(String result) {
+        return meterRegistry.get("outbox.dispatched").tag("result", result).counter().count();
+    }
+
+    @Nested
+    @DisplayName("Round Tests")
+    class RoundTests {
+        @Test
+        @DisplayName("should claim the heads with a lease before sending them when a round starts")
+        void whenRoundStarts_thenHeadsAreLeasedBeforeTheyAreSent() {
+            // Arrange
+            OutboxEvent event = userCreated(1L, 10L, 0);
+            due(event);
+            Instant[] nextAttemptAtWhenSent = new Instant[1];
+            when(grpcClientService.sendUserCreated(any(), any())).thenAnswer(invocation -> {
+                nextAttemptAtWhenSent[0] = event.getNextAttemptAt();
+                return CompletableFuture.completedFuture(null);
+            });
+            Instant start = Instant.now();
+
+            // Act
+            dispatcher.dispatch();
+
+            // Assert
+            verify(outboxEventRepository, times(2)).findDueHeads(any(), eq(PageRequest.of(0, 500)));
+            assertThat(nextAttemptAtWhenSent[0]).isCloseTo(start.plus(LEASE), within(5, ChronoUnit.SECONDS));
+            //claim, settle, and the claim that finds nothing due
+            verify(transactionManager, times(3)).commit(any());
+        }
+
+        @Test
+        @DisplayName("should settle a round before claiming the next one")
+        void whenRoundDelivers_thenNextRoundIsClaimedAfterSettling() {
+            // Arrange
+            due(userCreated(1L, 10L, 0), userCreated(2L, 20L, 0));
+            delivers(10L, CompletableFuture.completedFuture(null));
+            delivers(20L, CompletableFuture.completedFuture(null));
+
+            // Act
+            dispatcher.dispatch();
+
+            // Assert
+            InOrder inOrder = inOrder(outboxEventRepository, grpcClientService);
+            inOrder.verify(outboxEventRepository).findDueHeads(any(), any());
+            inOrder.verify(grpcClientService, times(2)).sendUserCreated(any(), any());
+            inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+            inOrder.verify(outboxEventRepository).findDueHeads(any(), any());
+            verifyNoMoreInteractions(grpcClientService);
+        }
+
+        @Test
+        @DisplayName("should not open a second transaction when nothing is due")
+        void whenNothingDue_thenNothingIsSent() {
+            // Arrange
+            when(outboxEventRepository.findDueHeads(any(), any())).thenReturn(new ArrayList<>());
+
+            // Act
+            dispatcher.wakeUp();
+
+            // Assert
+            verifyNoInteractions(grpcClientService);
+            verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+            verify(transactionManager, times(1)).commit(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Settlement Tests")
+    class SettlementTests {
+        @Test
+        @DisplayName("should delete only the acknowledged events and reschedule the others under the round's lease")
+        void whenSomeEventsAreNotAcknowledged_thenOnlyAcknowledgedOnesAreDeleted() {
+            // Arrange
+            due(userCreated(1L, 10L, 0), userCreated(2L, 20L, 0), userCreated(3L, 30L, 0));
+            delivers(10L, CompletableFuture.completedFuture(null));
+            delivers(20L, CompletableFuture.failedFuture(new IllegalStateException("unavailable")));
+            //never answered within the send timeout
+            delivers(30L, new CompletableFuture<>());
+
+            // Act
+            dispatcher.dispatch();
+
+            // Assert
+            verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+            ArgumentCaptor<Instant> leasedUntil = ArgumentCaptor.forClass(Instant.class);
+            verify(outboxEventRepository).reschedule(eq(2L), leasedUntil.capture(), eq(1), any());
+            verify(outboxEventRepository).reschedule(eq(3L), eq(leasedUntil.getValue()), eq(1), any());
+            assertThat(dispatched("delivered")).isEqualTo(1);
+            assertThat(dispatched("failed")).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should double the backoff per attempt up to the maximum when an event keeps failing")
+        void whenEventKeepsFailing_thenBackoffDoublesUpToMaximum() {
+            // Arrange
+            due(userCreated(1L, 10L, 0), userCreated(2L, 20L, 3), userCreated(3L, 30L, 12));
+            CompletableFuture<Void> failed = CompletableFuture.failedFuture(new IllegalStateException("unavailable"));
+            when(grpcClientService.sendUserCreated(any(), any())).thenReturn(failed);
+            Instant start = Instant.now();
+
+            // Act
+            dispatcher.dispatch();
+
+            // Assert
+            ArgumentCaptor<Instant> nextAttemptAt = ArgumentCaptor.forClass(Instant.class);
+            verify(outboxEventRepository).reschedule(eq(1L), any(), eq(1), nextAttemptAt.capture());
+            verify(outboxEventRepository).reschedule(eq(2L), any(), eq(4), nextAttemptAt.capture());
+            verify(outboxEventRepository).reschedule(eq(3L), any(), eq(13), nextAttemptAt.capture());
+            assertThat(nextAttemptAt.getAllValues().get(0)).isCloseTo(start.plusSeconds(1), within(1, ChronoUnit.SECONDS));
+            assertThat(nextAttemptAt.getAllValues().get(1)).isCloseTo(start.plusSeconds(8), within(1, ChronoUnit.SECONDS));
+            assertThat(nextAttemptAt.getAllValues().get(2)).isCloseTo(start.plus(MAX_BACKOFF), within(1, ChronoUnit.SECONDS));
+            verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        }
+    }
+}
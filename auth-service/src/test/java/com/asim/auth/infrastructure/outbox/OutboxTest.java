@@ -0,0 +1,137 @@
+package com.asim.auth.infrastructure.outbox;
+
+import com.asim.auth.core.model.dto.UserInternal;
+import com.asim.auth.core.model.entity.OutboxEvent;
+import com.asim.auth.core.repository.OutboxEventRepository;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Outbox Tests")
+class OutboxTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxDispatcher outboxDispatcher;
+
+    private Outbox outbox;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        //a transaction manager without a resource, enough for the propagation rules and the synchronizations
+        AbstractPlatformTransactionManager transactionManager = new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected boolean isExistingTransaction(Object transaction) {
+                return TransactionSynchronizationManager.isActualTransactionActive();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+
+        ProxyFactory proxyFactory = new ProxyFactory(new Outbox(outboxEventRepository, outboxDispatcher, ObservationRegistry.create()));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        outbox = (Outbox) proxyFactory.getProxy();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Nested
+    @DisplayName("Propagation Tests")
+    class PropagationTests {
+        @Test
+        @DisplayName("should refuse to record when no transaction is active")
+        void whenNoTransaction_thenRecordingIsRefused() {
+            // Act & Assert
+            assertThatThrownBy(() -> outbox.userCreated(new UserInternal(1L, "john")))
+                    .isInstanceOf(IllegalTransactionStateException.class);
+            assertThatThrownBy(() -> outbox.sessionBlocked(1L, "session-1"))
+                    .isInstanceOf(IllegalTransactionStateException.class);
+            verifyNoInteractions(outboxEventRepository, outboxDispatcher);
+        }
+
+        @Test
+        @DisplayName("should save the event in the caller's transaction when one is active")
+        void whenTransactionActive_thenEventIsSaved() {
+            // Act
+            transactionTemplate.executeWithoutResult(status -> outbox.sessionBlocked(7L, "session-1"));
+
+            // Assert
+            ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+            verify(outboxEventRepository).save(saved.capture());
+            assertThat(saved.getValue().getType()).isEqualTo(OutboxEvent.Type.SESSION_BLOCKED);
+            assertThat(saved.getValue().getUserId()).isEqualTo(7L);
+            assertThat(saved.getValue().getPayload()).isEqualTo("session-1");
+            assertThat(saved.getValue().getAttempts()).isZero();
+            assertThat(saved.getValue().getNextAttemptAt()).isNotNull();
+            assertThat(saved.getValue().getTraceParent()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Wake-Up Tests")
+    class WakeUpTests {
+        @Test
+        @DisplayName("should wake the dispatcher only after the transaction commits")
+        void whenTransactionCommits_thenDispatcherIsWokenAfterwards() {
+            // Act
+            transactionTemplate.executeWithoutResult(status -> {
+                outbox.userCreated(new UserInternal(1L, "john"));
+                verify(outboxDispatcher, never()).wakeUp();
+            });
+
+            // Assert
+            verify(outboxDispatcher).wakeUp();
+        }
+
+        @Test
+        @DisplayName("should not wake the dispatcher when the transaction rolls back")
+        void whenTransactionRollsBack_thenDispatcherIsNotWoken() {
+            // Act
+            transactionTemplate.executeWithoutResult(status -> {
+                outbox.userCreated(new UserInternal(1L, "john"));
+                status.setRollbackOnly();
+            });
+
+            // Assert
+            verify(outboxDispatcher, never()).wakeUp();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.asim.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the book title and author name filters over a synthetic catalog of a million books,
+ * with the trigram indexes (as created by TrigramSearchSupport) against a sequential scan.
+ * The scan is what the previous B-tree indexes amounted to for {@code like '%x%'}, it is forced by disabling index scans.
+ * <p>
+ * Needs the PostgreSQL of compose.yaml (or {@code -Dbench.db.url/user/password}). The catalog is generated once
+ * into separate {@code bench_books} and {@code bench_authors} tables, so application data is not touched.
+ * Run {@link #main}, or {@code java -jar benchmarks/target/benchmarks.jar BookSearchBenchmark}
+ * after {@code mvn -pl benchmarks -am package}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookSearchBenchmark {
+    private static final int BOOKS = 1_000_000;
+    private static final int AUTHORS = 50_000;
+
+    //the listing query of the title/author filters, a page and its count
+    private static final String PAGE = """
+            select b.id, b.title, a.name from bench_books b join bench_authors a on a.id = b.author_id
+            where lower(b.title) like ? and lower(a.name) like ? order by b.id limit 10""";
+    private static final String COUNT = """
+            select count(*) from bench_books b join bench_authors a on a.id = b.author_id
+            where lower(b.title) like ? and lower(a.name) like ?""";
+    //the ranked search
+    private static final String RANKED = """
+            select b.id, b.title from bench_books b
+            where lower(b.title) like ? order by word_similarity(?, lower(b.title)) desc, b.id limit 10""";
+
+    @Param({"trigram", "scan"})
+    public String index;
+
+    //a frequent word and a rare combination
+    @Param({"harbor", "ember lantern 4217"})
+    public String title;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5434/business_db"),
+                System.getProperty("bench.db.user", "business_user"),
+                System.getProperty("bench.db.password", "pg_business_password"));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create extension if not exists pg_trgm");
+            if (!catalogExists(statement)) generateCatalog(statement);
+
+            boolean scan = "scan".equals(index);
+            statement.execute("set enable_bitmapscan = " + !scan);
+            statement.execute("set enable_indexscan = " + !scan);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long filterPageAndCount() throws SQLException {
+        String titlePattern = "%" + title + "%";
+        long result = 0;
+
+        try (PreparedStatement page = connection.prepareStatement(PAGE)) {
+            page.setString(1, titlePattern);
+            page.setString(2, "%");
+            try (ResultSet rows = page.executeQuery()) {
+                while (rows.next()) result += rows.getLong(1);
+            }
+        }
+
+        try (PreparedStatement count = connection.prepareStatement(COUNT)) {
+            count.setString(1, titlePattern);
+            count.setString(2, "%");
+            try (ResultSet rows = count.executeQuery()) {
+                rows.next();
+                result += rows.getLong(1);
+            }
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public long rankedSearch() throws SQLException {
+        long result = 0;
+
+        try (PreparedStatement ranked = connection.prepareStatement(RANKED)) {
+            ranked.setString(1, "%" + title + "%");
+            ranked.setString(2, title);
+            try (ResultSet rows = ranked.executeQuery()) {
+                while (rows.next()) result += rows.getLong(1);
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean catalogExists(Statement statement) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("select to_regclass('bench_books') is not null")) {
+            rows.next();
+            if (!rows.getBoolean(1)) return false;
+        }
+        try (ResultSet rows = statement.executeQuery("select count(*) from bench_books")) {
+            rows.next();
+            return rows.getLong(1) >= BOOKS;
+        }
+    }
+
+    /**
+     * Titles of three words out of 40 plus a number, so a single word matches about 7% of the rows
+     * and a full combination a handful.
+     */
+    private static void generateCatalog(Statement statement) throws SQLException {
+        String words = "array['amber','harbor','ember','lantern','river','stone','willow','cinder','meadow','falcon'," +
+                "'silver','hollow','thunder','garden','winter','shadow','copper','forest','mirror','island'," +
+                "'crimson','valley','echo','orchard','raven','summit','tide','velvet','marble','canyon'," +
+                "'beacon','frost','harvest','ivory','juniper','kestrel','lagoon','maple','nectar','quartz']";
+
+        statement.execute("drop table if exists bench_books");
+        statement.execute("drop table if exists bench_authors");
+        statement.execute("create table bench_authors (id bigint primary key, name varchar(255) not null)");
+        statement.execute("create table bench_books (id bigint primary key, title varchar(255) not null, author_id bigint not null)");
+
+        statement.execute("insert into bench_authors select i, 'Author ' || (" + words + ")[1 + i % 40] || ' ' || i " +
+                "from generate_series(1, " + AUTHORS + ") i");
+        statement.execute("insert into bench_books select i, " +
+                "(" + words + ")[1 + i % 40] || ' ' || (" + words + ")[1 + (i / 40) % 40] || ' ' || " +
+                "(" + words + ")[1 + (i / 1600) % 40] || ' ' || (i % 10000), 1 + i % " + AUTHORS + " " +
+                "from generate_series(1, " + BOOKS + ") i");
+
+        //the indexes of the entities and of TrigramSearchSupport
+        statement.execute("create index bench_idx_book_title on bench_books (title)");
+        statement.execute("create index bench_idx_author_name on bench_authors (name)");
+        statement.execute("create index bench_idx_book_title_trgm on bench_books using gin (lower(title) gin_trgm_ops)");
+        statement.execute("create index bench_idx_author_name_trgm on bench_authors using gin (lower(name) gin_trgm_ops)");
+        statement.execute("analyze bench_books");
+        statement.execute("analyze bench_authors");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
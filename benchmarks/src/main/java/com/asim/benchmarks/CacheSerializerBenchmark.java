@@ -0,0 +1,98 @@
+package com.asim.benchmarks;
+
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.infrastructure.cache.serialization.AuthorDtoCodec;
+import com.asim.business.infrastructure.cache.serialization.BinaryCacheSerializer;
+import com.asim.business.infrastructure.cache.serialization.BookDtoCodec;
+import com.asim.business.infrastructure.cache.serialization.UserViewDtoCodec;
+import com.asim.business.infrastructure.config.JacksonMapperConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a cached BookDto in the previous JSON form (default typing) against the binary form.
+ * Payload sizes are printed before the run. Redis stores the value bytes as is,
+ * so the per entry memory difference (MEMORY USAGE) follows the payload difference.
+ * <p>
+ * Run {@link #main}, or {@code java -jar benchmarks/target/benchmarks.jar CacheSerializerBenchmark}
+ * after {@code mvn -pl benchmarks -am package},
+ * add {@code -prof gc} for allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    private RedisSerializer<Object> json;
+    private RedisSerializer<Object> binary;
+    private BookDto book;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() {
+        json = jsonSerializer();
+        binary = new BinaryCacheSerializer(List.of(new BookDtoCodec(), new AuthorDtoCodec(), new UserViewDtoCodec()), json);
+        book = sampleBook();
+        jsonBytes = json.serialize(book);
+        binaryBytes = binary.serialize(book);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return json.serialize(book);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binary.serialize(book);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public Object deserializeBinary() {
+        return binary.deserialize(binaryBytes);
+    }
+
+    private static RedisSerializer<Object> jsonSerializer() {
+        // same setup as CacheConfigs used before the binary form
+        ObjectMapper objectMapper = new JacksonMapperConfig().objectMapper();
+        objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL);
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
+
+    private static BookDto sampleBook() {
+        ZonedDateTime now = ZonedDateTime.now();
+        AuthorDto author = new AuthorDto("Author Name", 45, 2L, now, now, "creator", "creator", 0);
+        return new BookDto("1234567890123", "Spring Boot Essentials", author, 1L, now, now, "creator", "editor", 3);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        RedisSerializer<Object> json = jsonSerializer();
+        RedisSerializer<Object> binary = new BinaryCacheSerializer(List.of(new BookDtoCodec(), new AuthorDtoCodec()), json);
+        BookDto book = sampleBook();
+        System.out.printf("BookDto payload: json=%d bytes, binary=%d bytes%n",
+                json.serialize(book).length, binary.serialize(book).length);
+
+        new Runner(new OptionsBuilder()
+                .include(CacheSerializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.asim.benchmarks;
+
+import com.asim.business.common.util.ContradictionUtils;
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link ContradictionUtils#doesContradict} as run when a book names an existing author
+ * (AuthorService.matchAuthor), for the three shapes the provided author takes:
+ * - equal: the same author as stored, answered by {@code equals}.
+ * - reference: only the id and version, every field is read reflectively and none contradicts.
+ * - contradicting: a different name, the field walk stops at the first field.
+ * <p>
+ * Run {@link #main}, or {@code java -jar benchmarks/target/benchmarks.jar ContradictionUtilsBenchmark}
+ * after {@code mvn -pl benchmarks -am package}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContradictionUtilsBenchmark {
+
+    @Param({"equal", "reference", "contradicting"})
+    public String provided;
+
+    private AuthorDto stored;
+    private AuthorDto providedAuthor;
+
+    @Setup
+    public void setUp() {
+        ZonedDateTime now = ZonedDateTime.now();
+        stored = author("Author Name", now);
+
+        providedAuthor = switch (provided) {
+            case "equal" -> author("Author Name", now);
+            case "reference" -> AuthorDto.builder().id(1L).version(3).build();
+            case "contradicting" -> author("Another Name", now);
+            default -> throw new IllegalArgumentException(provided);
+        };
+    }
+
+    private static AuthorDto author(String name, ZonedDateTime now) {
+        return AuthorDto.builder()
+                .id(1L)
+                .name(name)
+                .age(50)
+                .createdAt(now)
+                .updatedAt(now)
+                .createdBy("creator")
+                .lastModifiedBy("editor")
+                .version(3)
+                .build();
+    }
+
+    @Benchmark
+    public boolean doesContradict() {
+        return ContradictionUtils.doesContradict(stored, providedAuthor);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContradictionUtilsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,131 @@
+package com.asim.benchmarks;
+
+import com.asim.business.common.model.mapper.BaseEntityDtoMapper;
+import com.asim.business.common.model.mapper.EntityDtoMapper;
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import com.asim.business.domain.author.model.entity.Author;
+import com.asim.business.domain.author.model.mapper.AuthorMapper;
+import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.domain.book.model.entity.Book;
+import com.asim.business.domain.book.model.mapper.BookMapper;
+import com.asim.business.domain.user.model.dto.UserViewDto;
+import com.asim.business.domain.user.model.entity.Role;
+import com.asim.business.domain.user.model.entity.User;
+import com.asim.business.domain.user.model.mapper.UserViewMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a single entity to DTO conversion, ModelMapper against the hand written mappers.
+ * Run with {@code -prof gc} to get the allocations per mapping ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Run {@link #main}, or {@code java -jar benchmarks/target/benchmarks.jar EntityDtoMapperBenchmark}
+ * after {@code mvn -pl benchmarks -am package},
+ * add {@code -prof gc} for allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityDtoMapperBenchmark {
+
+    private EntityDtoMapper<Book, BookDto> modelMapperBooks;
+    private EntityDtoMapper<Author, AuthorDto> modelMapperAuthors;
+    private EntityDtoMapper<User, UserViewDto> modelMapperUsers;
+
+    private BookMapper bookMapper;
+    private AuthorMapper authorMapper;
+    private UserViewMapper userViewMapper;
+
+    private Book book;
+    private BookDto bookDto;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapperBooks = new BaseEntityDtoMapper<>(modelMapper, Book.class, BookDto.class) {
+        };
+        modelMapperAuthors = new BaseEntityDtoMapper<>(modelMapper, Author.class, AuthorDto.class) {
+        };
+        modelMapperUsers = new BaseEntityDtoMapper<>(modelMapper, User.class, UserViewDto.class) {
+        };
+
+        authorMapper = new AuthorMapper();
+        bookMapper = new BookMapper(authorMapper);
+        userViewMapper = new UserViewMapper();
+
+        ZonedDateTime now = ZonedDateTime.now();
+        Author author = Author.builder().id(1L).name("Author Name").age(50).build();
+        author.setCreatedAt(now);
+        author.setCreatedBy("creator");
+        author.setVersion(0);
+
+        book = Book.builder().id(1L).isbn("1234567890").title("Book Title").author(author).build();
+        book.setCreatedAt(now);
+        book.setUpdatedAt(now);
+        book.setCreatedBy("creator");
+        book.setLastModifiedBy("editor");
+        book.setVersion(1);
+
+        bookDto = bookMapper.toDto(book);
+
+        user = User.builder().id(1L).name("user").role(Role.EDITOR).build();
+        user.setCreatedAt(now);
+        user.setVersion(0);
+    }
+
+    @Benchmark
+    public BookDto bookToDtoModelMapper() {
+        return modelMapperBooks.toDto(book);
+    }
+
+    @Benchmark
+    public BookDto bookToDtoSpecialized() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public Book bookToEntityModelMapper() {
+        return modelMapperBooks.toEntity(bookDto);
+    }
+
+    @Benchmark
+    public Book bookToEntitySpecialized() {
+        return bookMapper.toEntity(bookDto);
+    }
+
+    @Benchmark
+    public AuthorDto authorToDtoModelMapper() {
+        return modelMapperAuthors.toDto(book.getAuthor());
+    }
+
+    @Benchmark
+    public AuthorDto authorToDtoSpecialized() {
+        return authorMapper.toDto(book.getAuthor());
+    }
+
+    @Benchmark
+    public UserViewDto userToDtoModelMapper() {
+        return modelMapperUsers.toDto(user);
+    }
+
+    @Benchmark
+    public UserViewDto userToDtoSpecialized() {
+        return userViewMapper.toDto(user);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EntityDtoMapperBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.asim.benchmarks;
+
+import com.asim.business.infrastructure.security.JwtClaims;
+import com.asim.business.infrastructure.security.JwtTools;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-token cost of access token verification.
+ * {@code perCallParser} reproduces the previous implementation that rebuilt the key and parser for every request,
+ * {@code cachedParser} goes through {@link JwtTools} with its cached parser and typed claims.
+ * <p>
+ * Run {@link #main}, or {@code java -jar benchmarks/target/benchmarks.jar JwtToolsBenchmark}
+ * after {@code mvn -pl benchmarks -am package},
+ * add {@code -prof gc} to also compare allocations per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtToolsBenchmark {
+
+    private static final String SECRET = "benchmark-access-secret-with-at-least-256-bits-of-entropy";
+
+    private JwtTools jwtTools;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTools = new JwtTools(null, new SimpleMeterRegistry(), SECRET);
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", 1L);
+        claims.put("type", "access");
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("sessionId", UUID.randomUUID().toString());
+
+        token = Jwts.builder()
+                .claims(claims)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public Map<String, Object> perCallParser() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Claims claims = Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+
+        if (!claims.get("type").equals("access")) {
+            throw new IllegalStateException();
+        }
+
+        return new HashMap<>(claims);
+    }
+
+    @Benchmark
+    public JwtClaims cachedParser() {
+        return jwtTools.parseToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtToolsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.asim.benchmarks;
+
+import com.asim.business.common.model.dto.PageSlice;
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.infrastructure.config.JacksonMapperConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a page of books as the response body, with the application's {@link ObjectMapper}:
+ * - page: the {@code Page<BookDto>} the listings return, serialized bean-style with its pageable and sort.
+ * - pagedModel: the same page as Spring Data's stable {@link PagedModel} (content and page metadata only).
+ * - pageSlice: the {@code ?withTotal=false} form.
+ * The body sizes are printed before the run.
+ * <p>
+ * Run {@link #main}, or {@code java -jar benchmarks/target/benchmarks.jar PageSerializationBenchmark}
+ * after {@code mvn -pl benchmarks -am package}, add {@code -prof gc} for allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Page<BookDto> page;
+    private PagedModel<BookDto> pagedModel;
+    private PageSlice<BookDto> pageSlice;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new JacksonMapperConfig().objectMapper();
+
+        ZonedDateTime now = ZonedDateTime.now();
+        List<BookDto> books = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            AuthorDto author = AuthorDto.builder()
+                    .id(i % 7 + 1).name("Author " + (i % 7 + 1)).age(50)
+                    .createdAt(now).updatedAt(now).createdBy("creator").lastModifiedBy("editor").version(1)
+                    .build();
+            books.add(BookDto.builder()
+                    .id(i).isbn(String.valueOf(1_000_000_000L + i)).title("Book Title " + i).author(author)
+                    .createdAt(now).updatedAt(now).createdBy("creator").lastModifiedBy("editor").version(2)
+                    .build());
+        }
+
+        page = new PageImpl<>(books, PageRequest.of(3, size, Sort.by("title")), 10_000);
+        pagedModel = new PagedModel<>(page);
+        pageSlice = new PageSlice<>(books, 3, size, true);
+
+        System.out.printf("%nbody bytes for %d books: page=%d, pagedModel=%d, pageSlice=%d%n", size,
+                serializePage().length, serializePagedModel().length, serializePageSlice().length);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializePagedModel() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagedModel);
+    }
+
+    @Benchmark
+    public byte[] serializePageSlice() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pageSlice);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PageSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
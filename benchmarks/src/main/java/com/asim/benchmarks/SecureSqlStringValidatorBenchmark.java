@@ -0,0 +1,55 @@
+package com.asim.benchmarks;
+
+import com.asim.business.common.annotation.validation.patterns.SecureSqlStringValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the SQL injection check run on validated string fields, per input:
+ * - title: a typical book title, no match so the whole pattern is tried at every position.
+ * - long: a 2000 character free text without a match, shows how the scan grows with the input.
+ * - injection: a classic {@code ' or 1=1 --}, found early.
+ * <p>
+ * Run {@link #main}, or {@code java -jar benchmarks/target/benchmarks.jar SecureSqlStringValidatorBenchmark}
+ * after {@code mvn -pl benchmarks -am package}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecureSqlStringValidatorBenchmark {
+
+    @Param({"title", "long", "injection"})
+    public String input;
+
+    private SecureSqlStringValidator validator;
+    private String value;
+
+    @Setup
+    public void setUp() {
+        validator = new SecureSqlStringValidator();
+        value = switch (input) {
+            case "title" -> "The Lantern at the Edge of the Harbor";
+            case "long" -> "An ember lantern, a harbor at dusk and the select few who stayed. ".repeat(40).substring(0, 2000);
+            case "injection" -> "Harbor' or 1=1 --";
+            default -> throw new IllegalArgumentException(input);
+        };
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(value, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SecureSqlStringValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
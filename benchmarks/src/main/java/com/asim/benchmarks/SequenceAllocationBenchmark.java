@@ -0,0 +1,123 @@
+package com.asim.benchmarks;
+
+import com.asim.business.domain.author.model.entity.Author;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to insert 500 authors in one transaction through Hibernate, per id strategy:
+ * - sequence: a sequence incremented by 1, one nextval round trip and one insert statement per row
+ * (what a database created before pooling does until its sequences are altered).
+ * - pooled: the sequence incremented by 50 with the pooled-lo optimizer, one nextval per 50 rows.
+ * - pooled-batched: plus ordered JDBC batches of 50, as configured in application.properties.
+ * <p>
+ * Every statement crosses a socket: by default an H2 database served over TCP on loopback, or the database given by
+ * {@code -Dbench.db.url/user/password} (use a scratch database, the {@code authors} table is dropped).
+ * Run {@link #main}, or {@code java -jar benchmarks/target/benchmarks.jar SequenceAllocationBenchmark}
+ * after {@code mvn -pl benchmarks -am package}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SequenceAllocationBenchmark {
+    private static final int AUTHORS_PER_TRANSACTION = 500;
+
+    @Param({"sequence", "pooled", "pooled-batched"})
+    public String strategy;
+
+    private Server server;
+    private SingleConnectionDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private long next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = System.getProperty("bench.db.url");
+        if (url == null) {
+            server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:writes;DB_CLOSE_DELAY=-1";
+        }
+        String user = System.getProperty("bench.db.user", "sa");
+        String password = System.getProperty("bench.db.password", "");
+
+        //the increment Hibernate finds decides the allocation (increment_size_mismatch_strategy=fix)
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists authors");
+            statement.execute("drop sequence if exists author_id_seq");
+            statement.execute("create sequence author_id_seq start with 1 increment by " + ("sequence".equals(strategy) ? 1 : 50));
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.hbm2ddl.auto", "update");
+        properties.put("hibernate.id.sequence.increment_size_mismatch_strategy", "fix");
+        properties.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        if ("pooled-batched".equals(strategy)) {
+            properties.put("hibernate.jdbc.batch_size", "50");
+            properties.put("hibernate.order_inserts", "true");
+            properties.put("hibernate.order_updates", "true");
+        }
+
+        dataSource = new SingleConnectionDataSource(url, user, password, true);
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(Author.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.destroy();
+        if (server != null) server.stop();
+    }
+
+    @Benchmark
+    public long insertAuthors() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            Author author = null;
+            for (int i = 0; i < AUTHORS_PER_TRANSACTION; i++) {
+                author = new Author();
+                author.setName("Author " + next++);
+                author.setAge(40);
+                author.setCreatedBy("benchmark");
+                author.setLastModifiedBy("benchmark");
+                entityManager.persist(author);
+            }
+            entityManager.getTransaction().commit();
+            return author.getId();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SequenceAllocationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
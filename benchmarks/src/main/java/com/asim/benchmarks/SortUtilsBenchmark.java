@@ -0,0 +1,82 @@
+package com.asim.benchmarks;
+
+import com.asim.business.common.util.ReflectionHelper;
+import com.asim.business.common.util.ReflectionUtils;
+import com.asim.business.common.util.SortUtils;
+import com.asim.business.domain.book.model.dto.BookDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Sort;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning the {@code sort} query parameter of a listing into a {@link Sort}, validated against {@link BookDto}.
+ * {@code cachedFields} keeps the field names between calls like the runtime memory cache in front of
+ * {@link ReflectionUtils} does, {@code uncachedFields} walks the class (and its nested DTOs) on every call.
+ * <p>
+ * Run {@link #main}, or {@code java -jar benchmarks/target/benchmarks.jar SortUtilsBenchmark}
+ * after {@code mvn -pl benchmarks -am package}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortUtilsBenchmark {
+
+    //as bound by Spring from ?sort=..., one field and three fields including a nested one
+    @Param({"title,asc", "title,asc,author.name,desc,createdAt,desc"})
+    public String sort;
+
+    private String[] sortParameter;
+    private SortUtils cachedFields;
+    private SortUtils uncachedFields;
+
+    @Setup
+    public void setUp() {
+        sortParameter = sort.split(",");
+
+        ReflectionHelper reflectionHelper = new ReflectionHelper();
+        uncachedFields = new SortUtils(new ReflectionUtils(reflectionHelper));
+        cachedFields = new SortUtils(new MemoizedReflectionUtils(reflectionHelper));
+    }
+
+    @Benchmark
+    public Sort cachedFields() {
+        return cachedFields.createObject(sortParameter, BookDto.class);
+    }
+
+    @Benchmark
+    public Sort uncachedFields() {
+        return uncachedFields.createObject(sortParameter, BookDto.class);
+    }
+
+    /**
+     * Stands in for the Spring cache proxy of {@link ReflectionUtils#getFieldNames}.
+     */
+    private static final class MemoizedReflectionUtils extends ReflectionUtils {
+        private final Map<Class<?>, Set<String>> fieldNames = new ConcurrentHashMap<>();
+
+        MemoizedReflectionUtils(ReflectionHelper reflectionHelper) {
+            super(reflectionHelper);
+        }
+
+        @Override
+        public Set<String> getFieldNames(Class<?> clazz) {
+            return fieldNames.computeIfAbsent(clazz, super::getFieldNames);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SortUtilsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,21 @@
+package com.asim.business.common.annotation.springdoc.method;
+
+import com.asim.business.common.model.dto.BatchResult;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import java.lang.annotation.*;
+
+/**
+ * Response for a processed batch, with the result of every item (200).
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ApiResponses(@ApiResponse(responseCode = "200", description = "Batch processed, check the status of each item",
+        content = @Content(schema = @Schema(implementation = BatchResult.class)))
+)
+public @interface BatchProcessedApiResponse {
+}
@@ -0,0 +1,20 @@
+package com.asim.business.common.annotation.springdoc.method;
+
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import java.lang.annotation.*;
+
+/**
+ * Response for a conditional request whose If-None-Match still matches the resource (304).
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ApiResponses({
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag given in If-None-Match, no body is sent",
+                headers = @Header(name = "ETag", description = "The current entity tag"))
+})
+public @interface NotModifiedApiResponse {
+}
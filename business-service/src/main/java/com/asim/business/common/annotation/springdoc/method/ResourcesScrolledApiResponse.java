@@ -0,0 +1,21 @@
+package com.asim.business.common.annotation.springdoc.method;
+
+import com.asim.business.common.model.dto.CursorSlice;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import java.lang.annotation.*;
+
+/**
+ * Response for resources retrieved with keyset pagination & sorting (200).
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ApiResponses(@ApiResponse(responseCode = "200", description = "Slice of requested resources retrieved successfully",
+        content = @Content(schema = @Schema(implementation = CursorSlice.class)))
+)
+public @interface ResourcesScrolledApiResponse {
+}
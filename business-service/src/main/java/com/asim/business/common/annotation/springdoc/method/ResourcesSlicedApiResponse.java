@@ -0,0 +1,21 @@
+package com.asim.business.common.annotation.springdoc.method;
+
+import com.asim.business.common.model.dto.PageSlice;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import java.lang.annotation.*;
+
+/**
+ * Response for resources retrieved with pagination & sorting but without totals (200).
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ApiResponses(@ApiResponse(responseCode = "200", description = "Page of requested resources retrieved successfully, without totals",
+        content = @Content(schema = @Schema(implementation = PageSlice.class)))
+)
+public @interface ResourcesSlicedApiResponse {
+}
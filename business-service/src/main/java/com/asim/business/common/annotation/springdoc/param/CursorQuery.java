@@ -0,0 +1,16 @@
+package com.asim.business.common.annotation.springdoc.param;
+
+import io.swagger.v3.oas.annotations.Parameter;
+
+import java.lang.annotation.*;
+
+/**
+ * Query parameter for the keyset pagination cursor.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Parameter(description = "Opaque cursor to continue after. Empty for the first slice, then the 'nextCursor' of the previous response. " +
+        "The sort must stay the same while scrolling. e.g. ?after=", required = true, example = "")
+public @interface CursorQuery {
+}
@@ -0,0 +1,23 @@
+package com.asim.business.common.annotation.web;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a GET handler of a single versioned resource that its service caches by id.
+ * A conditional request (If-None-Match) is then answered from the cached version before the handler runs,
+ * so a 304 costs neither a query nor mapping or writing the DTO.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CachedVersion {
+    /**
+     * The cache holding the resource DTO by id.
+     */
+    String value();
+
+    /**
+     * The path variable holding the id.
+     */
+    String idVariable() default "id";
+}
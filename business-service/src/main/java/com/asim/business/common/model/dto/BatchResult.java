@@ -0,0 +1,51 @@
+package com.asim.business.common.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch operation, reported per item so one bad item does not fail the others.
+ * Items are in the order of the request, the index points back into it.
+ *
+ * @param <T> the type of the resource
+ */
+@Getter
+@AllArgsConstructor
+public class BatchResult<T> {
+    private final int succeeded;
+    private final int failed;
+    private final List<Item<T>> items;
+
+    public static <T> BatchResult<T> of(List<Item<T>> items) {
+        int succeeded = 0;
+        for (Item<T> item : items) if (item.getStatus() == Status.CREATED) succeeded++;
+
+        return new BatchResult<>(succeeded, items.size() - succeeded, items);
+    }
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Item<T> {
+        private final int index;
+        private final Status status;
+        // Set only when created
+        private final T resource;
+        // Set only when failed
+        private final String error;
+
+        public static <T> Item<T> created(int index, T resource) {
+            return new Item<>(index, Status.CREATED, resource, null);
+        }
+
+        public static <T> Item<T> failed(int index, String error) {
+            return new Item<>(index, Status.FAILED, null, error);
+        }
+    }
+}
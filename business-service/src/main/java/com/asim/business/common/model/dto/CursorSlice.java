@@ -0,0 +1,27 @@
+package com.asim.business.common.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+
+/**
+ * A slice of resources retrieved with keyset (cursor) pagination.
+ * Unlike a page, it does not carry totals, so no count query is needed to build it.
+ *
+ * @param <T> the type of the content
+ */
+@Getter
+@AllArgsConstructor
+public class CursorSlice<T> {
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    // Opaque token to be passed as ?after= to get the next slice, null if this is the last slice
+    private final String nextCursor;
+
+    public static <T> CursorSlice<T> of(Window<T> window, String nextCursor) {
+        return new CursorSlice<>(window.getContent(), window.size(), window.hasNext(), nextCursor);
+    }
+}
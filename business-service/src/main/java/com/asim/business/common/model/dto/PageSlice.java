@@ -0,0 +1,26 @@
+package com.asim.business.common.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * A page of resources retrieved without totals.
+ * One more row than the page size is read to know whether a next page exists, so no count query is needed to build it.
+ *
+ * @param <T> the type of the content
+ */
+@Getter
+@AllArgsConstructor
+public class PageSlice<T> {
+    private final List<T> content;
+    private final int page;
+    private final int size;
+    private final boolean hasNext;
+
+    public static <T> PageSlice<T> of(Slice<T> slice) {
+        return new PageSlice<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
@@ -0,0 +1,122 @@
+package com.asim.business.common.util;
+
+import com.asim.business.common.exception.BadRequestException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Utility class for encoding and decoding the opaque cursors of keyset pagination.
+ * A cursor holds the sort-key values of the last returned row (plus the id as a tiebreaker),
+ * encoded as base64url JSON, e.g. {"title":"Dune","id":42}.
+ */
+@Component
+@RequiredArgsConstructor
+public final class CursorUtils {
+
+    private static final String CURSOR_PARAM = "Cursor query parameter";
+    private static final String ID_PROPERTY = "id";
+    private static final TypeReference<LinkedHashMap<String, Object>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Decodes a cursor into a keyset position and validates it against the requested sort.
+     * An empty cursor means the beginning of the result.
+     *
+     * @param cursor     Cursor as received from the client
+     * @param sort       Sort the cursor should have been created with
+     * @param modelClass Class to resolve the key types against (e.g. BookDto)
+     * @return The position to scroll from
+     */
+    public KeysetScrollPosition decode(String cursor, Sort sort, Class<?> modelClass) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, Object> keys;
+        try {
+            keys = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+        } catch (IllegalArgumentException | IOException ex) {
+            throw malformedCursor();
+        }
+
+        if (keys == null || !keys.keySet().equals(expectedKeys(sort))) {
+            throw new BadRequestException(CURSOR_PARAM, "The cursor does not match the requested sort. Keep the same sort while scrolling.");
+        }
+
+        // JSON loses the key types (e.g. dates become strings), restore them from the model
+        Map<String, Object> typedKeys = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> key : keys.entrySet()) {
+            if (key.getValue() == null) throw malformedCursor();
+
+            try {
+                Class<?> type = PropertyPath.from(key.getKey(), modelClass).getLeafType();
+                typedKeys.put(key.getKey(), objectMapper.convertValue(key.getValue(), type));
+            } catch (PropertyReferenceException | IllegalArgumentException ex) {
+                throw malformedCursor();
+            }
+        }
+
+        return ScrollPosition.forward(typedKeys);
+    }
+
+    /**
+     * Encodes the position of the last element of a window as a cursor.
+     *
+     * @param window Window returned by a keyset query
+     * @return The cursor to get the next window, or null if there is none
+     */
+    public String encode(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+
+        ScrollPosition position = window.positionAt(window.size() - 1);
+        if (!(position instanceof KeysetScrollPosition keysetPosition)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded as a cursor");
+        }
+
+        // A null key cannot be compared in the next query, so the field is not usable for scrolling
+        keysetPosition.getKeys().forEach((field, value) -> {
+            if (value == null)
+                throw new BadRequestException("Sort query parameter", "Field '" + field + "' has empty values and cannot be used with a cursor.");
+        });
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(keysetPosition.getKeys());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to encode cursor", ex);
+        }
+    }
+
+    private BadRequestException malformedCursor() {
+        return new BadRequestException(CURSOR_PARAM, "Malformed cursor. Use the 'nextCursor' of the previous response.");
+    }
+
+    /**
+     * The keys of a cursor are the sort properties and the id, which keyset queries append as a tiebreaker.
+     */
+    private Set<String> expectedKeys(Sort sort) {
+        Set<String> keys = new LinkedHashSet<>();
+        sort.forEach(order -> keys.add(order.getProperty()));
+        keys.add(ID_PROPERTY);
+        return keys;
+    }
+}
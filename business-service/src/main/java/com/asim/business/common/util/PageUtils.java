@@ -0,0 +1,34 @@
+package com.asim.business.common.util;
+
+import org.springframework.data.domain.*;
+
+/**
+ * Utility class for paginated listings that avoid the count query.
+ */
+public final class PageUtils {
+    /**
+     * The scroll position to read a page from with an offset scroll.
+     * An offset position is exclusive (the offset of the last row already seen), so the first page starts from the initial one.
+     *
+     * @param pageable Requested page
+     * @return The position before the first row of the page
+     */
+    public static OffsetScrollPosition startOf(Pageable pageable) {
+        long offset = pageable.getOffset();
+        return offset == 0 ? ScrollPosition.offset() : ScrollPosition.offset(offset - 1);
+    }
+
+    /**
+     * Turns a slice into a page with an estimated total.
+     * The estimate may lag behind, so the total is never less than what the slice shows, and exact on the last page.
+     *
+     * @param slice          Slice of the requested page
+     * @param estimatedTotal Estimated number of all resources
+     * @return Page with the content of the slice
+     */
+    public static <T> Page<T> withEstimatedTotal(Slice<T> slice, long estimatedTotal) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        long total = slice.hasNext() ? Math.max(estimatedTotal, seen + 1) : seen;
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+}
@@ -0,0 +1,22 @@
+package com.asim.business.common.util;
+
+/**
+ * A mixin interface for DTOs of versioned (optimistically locked) entities.
+ * The id and version identify a representation, so they serve as its entity tag (ETag).
+ */
+public interface Versioned {
+
+    Long getId();
+
+    Integer getVersion();
+
+    /**
+     * Identifies the representation, it changes whenever the resource changes.
+     * Not a getter, so it is not serialized.
+     *
+     * @return The tag, e.g. 12-3 for the version 3 of the resource 12
+     */
+    default String versionTag() {
+        return getId() + "-" + getVersion();
+    }
+}
@@ -7,6 +7,7 @@ import com.asim.business.common.annotation.springdoc.param.PageSizeQuery;
 import com.asim.business.common.annotation.springdoc.param.SortQuery;
 import com.asim.business.common.annotation.validation.domain.Name;
 import com.asim.business.common.annotation.validation.domain.ValidID;
+import com.asim.business.common.model.dto.PageSlice;
 import com.asim.business.domain.author.controller.annotation.springdoc.method.AuthorCreatedApiResponse;
 import com.asim.business.domain.author.controller.annotation.springdoc.method.AuthorRetrievedApiResponse;
 import com.asim.business.domain.author.controller.annotation.springdoc.method.AuthorUpdatedApiResponse;
@@ -65,15 +66,45 @@ public interface AuthorApi {
 
     @Operation(summary = "Get an author")
     @AuthorRetrievedApiResponse
+    @NotModifiedApiResponse
     @ResourceNotFoundApiResponse
     AuthorDto getAuthor(@ValidID @IdParam Long id);
 
 
     @Operation(summary = "Get all authors with pagination, sorting and filtering")
     @ResourcesRetrievedApiResponse
+    @NotModifiedApiResponse
     Page<AuthorDto> getAuthors(
             @PageNumberQuery int page,
             @PageSizeQuery int size,
             @SortQuery String[] sort,
             @Name @AuthorNameQuery String name);
+
+
+    @Operation(
+            summary = "Get authors with pagination, sorting and filtering, without totals",
+            description = "Selected with ?withTotal=false. Same as the paginated listing, but the matching authors are not counted: " +
+                    "one more author than the page size is read and 'hasNext' tells whether a next page exists."
+    )
+    @ResourcesSlicedApiResponse
+    @NotModifiedApiResponse
+    PageSlice<AuthorDto> getAuthorsWithoutTotal(
+            @PageNumberQuery int page,
+            @PageSizeQuery int size,
+            @SortQuery String[] sort,
+            @Name @AuthorNameQuery String name);
+
+
+    @Operation(
+            summary = "Get authors with pagination, sorting and filtering, with an approximate total",
+            description = "Selected with ?withTotal=approximate. Without a filter, the total is estimated from the database statistics " +
+                    "instead of counted, it is exact on the last page. With a filter, the total is counted as in the paginated listing."
+    )
+    @ResourcesRetrievedApiResponse
+    @NotModifiedApiResponse
+    Page<AuthorDto> getAuthorsWithApproximateTotal(
+            @PageNumberQuery int page,
+            @PageSizeQuery int size,
+            @SortQuery String[] sort,
+            @Name @AuthorNameQuery String name);
 }
\ No newline at end of file
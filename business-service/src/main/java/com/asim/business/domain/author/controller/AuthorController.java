@@ -1,8 +1,11 @@
 package com.asim.business.domain.author.controller;
 
+import com.asim.business.common.annotation.web.CachedVersion;
+import com.asim.business.common.model.dto.PageSlice;
 import com.asim.business.common.util.SortUtils;
 import com.asim.business.domain.author.model.dto.AuthorDto;
 import com.asim.business.domain.author.service.AuthorService;
+import com.asim.business.infrastructure.config.CacheConfigs;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -25,6 +28,7 @@ public class AuthorController implements AuthorApi {
     }
 
     @GetMapping("/{id}")
+    @CachedVersion(CacheConfigs.AUTHORS)
     public AuthorDto getAuthor(@PathVariable Long id) {
         return authorService.getAuthor(id);
     }
@@ -53,4 +57,30 @@ public class AuthorController implements AuthorApi {
 
         return authorService.getAuthors(pageable, name);
     }
+
+    @GetMapping(params = "withTotal=false")
+    public PageSlice<AuthorDto> getAuthorsWithoutTotal(
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "sort", required = false) String[] sort,
+            @RequestParam(name = "name", required = false) String name) {
+
+        Sort sortObj = sortUtils.createObject(sort, AuthorDto.class);
+        Pageable pageable = PageRequest.of(page, size, sortObj);
+
+        return PageSlice.of(authorService.getAuthorsSlice(pageable, name));
+    }
+
+    @GetMapping(params = "withTotal=approximate")
+    public Page<AuthorDto> getAuthorsWithApproximateTotal(
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "sort", required = false) String[] sort,
+            @RequestParam(name = "name", required = false) String name) {
+
+        Sort sortObj = sortUtils.createObject(sort, AuthorDto.class);
+        Pageable pageable = PageRequest.of(page, size, sortObj);
+
+        return authorService.getAuthorsWithEstimatedTotal(pageable, name);
+    }
 }
\ No newline at end of file
@@ -4,6 +4,10 @@ import com.asim.business.domain.author.model.dto.AuthorDto;
 import com.asim.business.domain.author.model.dto.AuthorDtoValidator;
 import com.asim.business.domain.author.service.AuthorService;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Facade for author operations.
  * Delegates to {@link AuthorService}
@@ -16,6 +20,26 @@ public interface AuthorFacade {
      */
     AuthorDto findMatchingAuthor(AuthorDto authorDto);
 
+    /**
+     * @see AuthorService#matchAuthor(AuthorDto, AuthorDto)
+     */
+    AuthorDto matchAuthor(AuthorDto dbAuthor, AuthorDto providedAuthor);
+
+    /**
+     * @see AuthorService#addAuthors(List)
+     */
+    List<AuthorDto> addAuthors(List<AuthorDto> authors);
+
+    /**
+     * @see AuthorService#getAuthorsByNames(Collection)
+     */
+    List<AuthorDto> getAuthorsByNames(Collection<String> names);
+
+    /**
+     * @see AuthorService#getAuthorsByIds(Collection)
+     */
+    Map<Long, AuthorDto> getAuthorsByIds(Collection<Long> ids);
+
     /**
      * @see AuthorDtoValidator#validateOnCreate(AuthorDto)
      */
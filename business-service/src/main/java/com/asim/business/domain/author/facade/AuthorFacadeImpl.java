@@ -6,6 +6,10 @@ import com.asim.business.domain.author.service.AuthorService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @RequiredArgsConstructor
 public class AuthorFacadeImpl implements AuthorFacade {
@@ -17,6 +21,26 @@ public class AuthorFacadeImpl implements AuthorFacade {
         return authorService.findMatchingAuthor(authorDto);
     }
 
+    @Override
+    public AuthorDto matchAuthor(AuthorDto dbAuthor, AuthorDto providedAuthor) {
+        return authorService.matchAuthor(dbAuthor, providedAuthor);
+    }
+
+    @Override
+    public List<AuthorDto> addAuthors(List<AuthorDto> authors) {
+        return authorService.addAuthors(authors);
+    }
+
+    @Override
+    public List<AuthorDto> getAuthorsByNames(Collection<String> names) {
+        return authorService.getAuthorsByNames(names);
+    }
+
+    @Override
+    public Map<Long, AuthorDto> getAuthorsByIds(Collection<Long> ids) {
+        return authorService.getAuthorsByIds(ids);
+    }
+
     @Override
     public void validateAuthorToCreate(AuthorDto authorDto) {
         authorDtoValidator.validateOnCreate(authorDto);
@@ -7,6 +7,7 @@ import com.asim.business.common.annotation.validation.domain.Age;
 import com.asim.business.common.annotation.validation.domain.Name;
 import com.asim.business.common.annotation.validation.domain.ReadOnlyId;
 import com.asim.business.common.util.ContradictionCheckable;
+import com.asim.business.common.util.Versioned;
 import jakarta.validation.groups.Default;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,7 +26,7 @@ import java.time.ZonedDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class AuthorDto implements ContradictionCheckable<AuthorDto> {
+public class AuthorDto implements ContradictionCheckable<AuthorDto>, Versioned {
     @Name
     @RequiredString(groups = {OnCreate.class})
     private String name;
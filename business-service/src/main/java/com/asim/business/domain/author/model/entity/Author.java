@@ -31,6 +31,6 @@ public class Author extends Auditable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_id_seq")
-    @SequenceGenerator(name = "author_id_seq", sequenceName = "author_id_seq", initialValue = 1, allocationSize = 1)
+    @SequenceGenerator(name = "author_id_seq", sequenceName = "author_id_seq", initialValue = 1, allocationSize = 50)
     private Long id;
 }
@@ -1,19 +1,47 @@
 package com.asim.business.domain.author.model.mapper;
 
-import com.asim.business.common.model.mapper.BaseEntityDtoMapper;
+import com.asim.business.common.model.mapper.EntityDtoMapper;
 import com.asim.business.domain.author.model.dto.AuthorDto;
 import com.asim.business.domain.author.model.entity.Author;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 /**
  * Maps Author entity to AuthorDto and vice versa.
+ * Written field by field, so no reflection or type map lookup is involved per conversion.
  */
 @Component
-public class AuthorMapper extends BaseEntityDtoMapper<Author, AuthorDto> {
+public class AuthorMapper implements EntityDtoMapper<Author, AuthorDto> {
 
-    public AuthorMapper(ModelMapper modelMapper) {
-        super(modelMapper, Author.class, AuthorDto.class);
+    @Override
+    public Author toEntity(AuthorDto dto) {
+        if (dto == null) return null;
+
+        Author author = new Author();
+        author.setId(dto.getId());
+        author.setName(dto.getName());
+        author.setAge(dto.getAge());
+        author.setCreatedAt(dto.getCreatedAt());
+        author.setUpdatedAt(dto.getUpdatedAt());
+        author.setCreatedBy(dto.getCreatedBy());
+        author.setLastModifiedBy(dto.getLastModifiedBy());
+        author.setVersion(dto.getVersion());
+
+        return author;
     }
 
-}
\ No newline at end of file
+    @Override
+    public AuthorDto toDto(Author entity) {
+        if (entity == null) return null;
+
+        return new AuthorDto(
+                entity.getName(),
+                entity.getAge(),
+                entity.getId(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt(),
+                entity.getCreatedBy(),
+                entity.getLastModifiedBy(),
+                entity.getVersion()
+        );
+    }
+}
@@ -1,11 +1,38 @@
 package com.asim.business.domain.author.repository;
 
 import com.asim.business.domain.author.model.entity.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long>, JpaSpecificationExecutor<Author> {
     boolean existsByNameAndAge(String name, Integer age);
+
+    List<Author> findAllByNameIn(Collection<String> names);
+
+    //the cached books embed their author, they are dropped when it changes
+    @Query("select b.id from Book b where b.author.id = :authorId")
+    List<Long> findBookIds(Long authorId);
+
+    @Query("select a.id as id, a.name as name from Author a")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SearchEntry> streamSearchEntries();
+
+    /**
+     * The fields of an author kept by the in-memory search index.
+     */
+    interface SearchEntry {
+        Long getId();
+
+        String getName();
+    }
 }
\ No newline at end of file
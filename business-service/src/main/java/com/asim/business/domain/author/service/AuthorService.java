@@ -7,6 +7,11 @@ import com.asim.business.common.exception.ResourceNotFoundException;
 import com.asim.business.domain.author.model.dto.AuthorDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface AuthorService {
     /**
@@ -18,6 +23,15 @@ public interface AuthorService {
      */
     AuthorDto addAuthor(AuthorDto author) throws DuplicateResourceException;
 
+    /**
+     * Adds authors in one transaction, inserted in JDBC batches.
+     * The caller is expected to have checked for duplicates, a duplicate fails the whole call.
+     *
+     * @param authors AuthorDto list
+     * @return AuthorDto list in the same order
+     */
+    List<AuthorDto> addAuthors(List<AuthorDto> authors);
+
     /**
      * Gets author by ID
      *
@@ -27,6 +41,24 @@ public interface AuthorService {
      */
     AuthorDto getAuthor(Long id) throws ResourceNotFoundException;
 
+    /**
+     * Gets authors by IDs in one go.
+     * Cached authors are served from the cache, the rest are loaded with a single query and cached.
+     * Unknown IDs are absent from the result.
+     *
+     * @param ids Author IDs
+     * @return AuthorDto by ID
+     */
+    Map<Long, AuthorDto> getAuthorsByIds(Collection<Long> ids);
+
+    /**
+     * Gets all authors having one of the names, with a single query.
+     *
+     * @param names Author names
+     * @return AuthorDto list
+     */
+    List<AuthorDto> getAuthorsByNames(Collection<String> names);
+
     /**
      * Updates author
      *
@@ -52,6 +84,27 @@ public interface AuthorService {
      */
     Page<AuthorDto> getAuthors(Pageable pageable, String name);
 
+    /**
+     * Gets authors with pagination, sorting and filtering, without a count query.
+     * One more author than the page size is read to tell whether a next page exists.
+     *
+     * @param pageable Pagination and sorting information
+     * @param name     Optional name filter
+     * @return Slice of AuthorDto
+     */
+    Slice<AuthorDto> getAuthorsSlice(Pageable pageable, String name);
+
+    /**
+     * Gets authors with pagination, sorting and filtering, estimating the total of an unfiltered listing.
+     * The estimate comes from the database statistics instead of a count query.
+     * With a filter, or where no estimate is available, the total is counted as in {@link #getAuthors(Pageable, String)}.
+     *
+     * @param pageable Pagination and sorting information
+     * @param name     Optional name filter
+     * @return Page of AuthorDto
+     */
+    Page<AuthorDto> getAuthorsWithEstimatedTotal(Pageable pageable, String name);
+
     /**
      * Finds author and matches.
      * The matching is done by comparing only non-null fields.
@@ -63,4 +116,15 @@ public interface AuthorService {
      * @throws OptimisticLockException   if version mismatch
      */
     AuthorDto findMatchingAuthor(AuthorDto authorDto) throws NoIdIsProvidedException, ResourceNotFoundException, OptimisticLockException;
+
+    /**
+     * Matches a provided author against an already loaded one.
+     * The matching is done by comparing only non-null fields.
+     *
+     * @param dbAuthor       the stored author
+     * @param providedAuthor the author as provided by the user
+     * @return dbAuthor if matches, null if it does not match
+     * @throws OptimisticLockException if version mismatch
+     */
+    AuthorDto matchAuthor(AuthorDto dbAuthor, AuthorDto providedAuthor) throws OptimisticLockException;
 }
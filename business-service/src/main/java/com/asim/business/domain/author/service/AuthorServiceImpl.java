@@ -5,34 +5,52 @@ import com.asim.business.common.exception.NoIdIsProvidedException;
 import com.asim.business.common.exception.OptimisticLockException;
 import com.asim.business.common.exception.ResourceNotFoundException;
 import com.asim.business.common.model.mapper.EntityDtoMapper;
+import com.asim.business.common.util.PageUtils;
 import com.asim.business.domain.author.model.dto.AuthorDto;
 import com.asim.business.domain.author.model.entity.Author;
 import com.asim.business.domain.author.repository.AuthorRepository;
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.cache.TieredCache;
 import com.asim.business.infrastructure.config.CacheConfigs;
+import com.asim.business.infrastructure.persistence.TableStatistics;
+import com.asim.business.infrastructure.search.BookSearchIndex;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @CacheConfig(cacheNames = CacheConfigs.AUTHORS)
 public class AuthorServiceImpl implements AuthorService {
+    private static final String AUTHORS_TABLE = "authors";
 
     private final AuthorRepository authorRepository;
     private final EntityDtoMapper<Author, AuthorDto> authorMapper;
 
     private final EntityManager entityManager;
-
+    private final CacheManager cacheManager;
+    private final BookSearchIndex bookSearchIndex;
+    private final TableStatistics tableStatistics;
+    private final QueryResultCache queryResultCache;
 
     @Override
     @Transactional
@@ -47,9 +65,31 @@ public class AuthorServiceImpl implements AuthorService {
         author = authorRepository.save(author);
 
         entityManager.flush(); //flush to get the fields by the db
+        bookSearchIndex.authorSaved(author.getId(), author.getName());
+        //a new author has no books yet
+        queryResultCache.invalidate(QueryResultCache.AUTHORS);
         return authorMapper.toDto(author);
     }
 
+    @Override
+    @Transactional
+    public List<AuthorDto> addAuthors(List<AuthorDto> authorDtos) {
+        List<Author> authors = new ArrayList<>(authorDtos.size());
+        for (AuthorDto authorDto : authorDtos) authors.add(authorMapper.toEntity(authorDto));
+
+        //insert into authors ... (batched)
+        authors = authorRepository.saveAll(authors);
+        entityManager.flush();
+
+        List<AuthorDto> saved = new ArrayList<>(authors.size());
+        for (Author author : authors) {
+            bookSearchIndex.authorSaved(author.getId(), author.getName());
+            saved.add(authorMapper.toDto(author));
+        }
+        queryResultCache.invalidate(QueryResultCache.AUTHORS);
+        return saved;
+    }
+
     @Override
     @Cacheable(key = "#id")
     public AuthorDto getAuthor(Long id) {
@@ -59,6 +99,40 @@ public class AuthorServiceImpl implements AuthorService {
         return authorMapper.toDto(author);
     }
 
+    @Override
+    public Map<Long, AuthorDto> getAuthorsByIds(Collection<Long> ids) {
+        Map<Long, AuthorDto> authors = new HashMap<>(ids.size() * 2);
+        Cache cache = cacheManager.getCache(CacheConfigs.AUTHORS);
+
+        //same entries as getAuthor(id) is caching, the L1 misses are read from Redis in one round trip
+        if (cache != null) authors.putAll(TieredCache.getAll(cache, ids, AuthorDto.class));
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            if (!authors.containsKey(id)) misses.add(id);
+        }
+
+        if (misses.isEmpty()) return authors;
+
+        //select * from authors where id in (...)
+        for (Author author : authorRepository.findAllById(misses)) {
+            AuthorDto authorDto = authorMapper.toDto(author);
+            authors.put(authorDto.getId(), authorDto);
+            if (cache != null) cache.put(authorDto.getId(), authorDto);
+        }
+
+        return authors;
+    }
+
+    @Override
+    public List<AuthorDto> getAuthorsByNames(Collection<String> names) {
+        //select * from authors where name in (...)
+        List<Author> authors = authorRepository.findAllByNameIn(names);
+
+        List<AuthorDto> authorDtos = new ArrayList<>(authors.size());
+        for (Author author : authors) authorDtos.add(authorMapper.toDto(author));
+        return authorDtos;
+    }
+
     @Override
     @Transactional
     @CachePut(key = "#id")
@@ -77,6 +151,10 @@ public class AuthorServiceImpl implements AuthorService {
         author = authorRepository.save(author);
 
         entityManager.flush();
+        bookSearchIndex.authorSaved(author.getId(), author.getName());
+        evictBooksOf(id);
+        //books are filtered and sorted by their author too
+        queryResultCache.invalidate(QueryResultCache.AUTHORS, QueryResultCache.BOOKS);
         return authorMapper.toDto(author);
     }
 
@@ -88,11 +166,53 @@ public class AuthorServiceImpl implements AuthorService {
             throw new ResourceNotFoundException("Author", id);
         }
 
+        evictBooksOf(id);
         authorRepository.deleteById(id);
+        bookSearchIndex.authorDeleted(id);
+        queryResultCache.invalidate(QueryResultCache.AUTHORS, QueryResultCache.BOOKS);
     }
 
     @Override
     public Page<AuthorDto> getAuthors(Pageable pageable, String name) {
+        //the same page was listed since the last author change, hydrated from the author cache
+        QueryResultCache.Query query = QueryResultCache.Query.of(QueryResultCache.AUTHORS, pageable).filter("name", name);
+        Optional<QueryResultCache.Result> cached = queryResultCache.get(query);
+        if (cached.isPresent()) {
+            List<Long> ids = cached.get().idList();
+            Map<Long, AuthorDto> authors = getAuthorsByIds(ids);
+
+            //an author deleted in the meantime is left out
+            List<AuthorDto> ordered = new ArrayList<>(ids.size());
+            for (Long id : ids) if (authors.containsKey(id)) ordered.add(authors.get(id));
+            return new PageImpl<>(ordered, pageable, cached.get().total());
+        }
+
+        Page<AuthorDto> authors = authorRepository.findAll(filterBy(name), pageable).map(authorMapper::toDto);
+        queryResultCache.put(query, authors.map(AuthorDto::getId).getContent(), authors.getTotalElements());
+        return authors;
+    }
+
+    @Override
+    public Slice<AuthorDto> getAuthorsSlice(Pageable pageable, String name) {
+        //select * from authors where ... order by ... offset page * size limit size + 1
+        Window<Author> authorsWindow = authorRepository.findBy(filterBy(name),
+                query -> query.sortBy(pageable.getSort()).limit(pageable.getPageSize()).scroll(PageUtils.startOf(pageable)));
+
+        return new SliceImpl<>(authorsWindow.map(authorMapper::toDto).getContent(), pageable, authorsWindow.hasNext());
+    }
+
+    @Override
+    public Page<AuthorDto> getAuthorsWithEstimatedTotal(Pageable pageable, String name) {
+        //a filtered total cannot be taken from the table statistics
+        if (StringUtils.hasLength(name)) return getAuthors(pageable, name);
+
+        OptionalLong estimate = tableStatistics.estimateRows(AUTHORS_TABLE);
+        if (estimate.isEmpty()) return getAuthors(pageable, null);
+
+        return PageUtils.withEstimatedTotal(getAuthorsSlice(pageable, null), estimate.getAsLong());
+    }
+
+    private Specification<Author> filterBy(String name) {
         //easier to extend than the query methods
         Specification<Author> spec = Specification.where(null);
 
@@ -103,8 +223,20 @@ public class AuthorServiceImpl implements AuthorService {
                     criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
         }
 
-        Page<Author> authorsPage = authorRepository.findAll(spec, pageable);
-        return authorsPage.map(authorMapper::toDto);
+        return spec;
+    }
+
+    /**
+     * The cached books embed their author, and its version is part of their ETag.
+     * Left in place, they would keep serving (and answering 304 for) the previous author.
+     * The eviction is applied when the transaction commits (transaction-aware cache manager).
+     */
+    private void evictBooksOf(Long authorId) {
+        Cache books = cacheManager.getCache(CacheConfigs.BOOKS);
+        if (books == null) return;
+
+        //select id from books where author_id = ?
+        for (Long bookId : authorRepository.findBookIds(authorId)) books.evict(bookId);
     }
 
     @Override
@@ -114,6 +246,11 @@ public class AuthorServiceImpl implements AuthorService {
         if (id == null) throw new NoIdIsProvidedException("Author");
         AuthorDto dbAuthor = getAuthor(id);
 
+        return matchAuthor(dbAuthor, providedAuthor);
+    }
+
+    @Override
+    public AuthorDto matchAuthor(AuthorDto dbAuthor, AuthorDto providedAuthor) {
         // Check if versions match
         Integer dbVersion = dbAuthor.getVersion();
         Integer providedVersion = providedAuthor.getVersion();
@@ -1,6 +1,7 @@
 package com.asim.business.domain.book.controller;
 
 import com.asim.business.common.annotation.springdoc.method.*;
+import com.asim.business.common.annotation.springdoc.param.CursorQuery;
 import com.asim.business.common.annotation.springdoc.param.IdParam;
 import com.asim.business.common.annotation.springdoc.param.PageNumberQuery;
 import com.asim.business.common.annotation.springdoc.param.PageSizeQuery;
@@ -8,19 +9,30 @@ import com.asim.business.common.annotation.springdoc.param.SortQuery;
 import com.asim.business.common.annotation.validation.domain.BookTitle;
 import com.asim.business.common.annotation.validation.domain.Name;
 import com.asim.business.common.annotation.validation.domain.ValidID;
+import com.asim.business.common.model.dto.BatchResult;
+import com.asim.business.common.model.dto.CursorSlice;
+import com.asim.business.common.model.dto.PageSlice;
 import com.asim.business.domain.book.controller.annotation.springdoc.method.BookCreatedApiResponse;
 import com.asim.business.domain.book.controller.annotation.springdoc.method.BookRetrievedApiResponse;
 import com.asim.business.domain.book.controller.annotation.springdoc.method.BookUpdatedApiResponse;
+import com.asim.business.domain.book.controller.annotation.springdoc.method.BooksExportedApiResponse;
 import com.asim.business.domain.book.controller.annotation.springdoc.param.AuthorNameQuery;
 import com.asim.business.domain.book.controller.annotation.springdoc.param.BookTitleQuery;
 import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.domain.book.service.BookBatchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 /**
  * API documentation for book management operations.
@@ -47,6 +59,20 @@ public interface BookApi {
                     BookDto book);
 
 
+    @Operation(
+            summary = "Create books in bulk",
+            description = "Creates up to " + BookBatchService.MAX_ITEMS + " books in one request, meant for catalog imports. " +
+                    "Every book is validated as in a single creation and created independently, a failing book does not abort the others; " +
+                    "check the status of each item in the result. " +
+                    "An author is either referenced by id and version, or given by name and age; an existing author with the same name and age is reused.",
+            security = {@SecurityRequirement(name = "bearerAuth")}
+    )
+    @BatchProcessedApiResponse
+    BatchResult<BookDto> addBooks(@NotEmpty @Size(max = BookBatchService.MAX_ITEMS)
+                                  @RequestBody(description = "Books, excluding auto-generated fields", required = true)
+                                  List<BookDto> books);
+
+
     @Operation(
             summary = "Update a book",
             description = "Updates a book by its ID. The ID must be a valid positive number. Only fields that are not auto-generated can be updated.",
@@ -75,6 +101,7 @@ public interface BookApi {
             description = "Retrieves a book by its ID. The ID must be a valid positive number."
     )
     @BookRetrievedApiResponse
+    @NotModifiedApiResponse
     @ResourceNotFoundApiResponse
     BookDto getBook(@ValidID @IdParam Long id);
 
@@ -84,10 +111,83 @@ public interface BookApi {
             description = "Retrieves a paginated list of books. Supports sorting and filtering by title and author name."
     )
     @ResourcesRetrievedApiResponse
+    @NotModifiedApiResponse
     Page<BookDto> getBooks(
             @PageNumberQuery int page,
             @PageSizeQuery int size,
             @SortQuery String[] sort,
             @BookTitle @BookTitleQuery String title,
             @Name @AuthorNameQuery String author);
-}
\ No newline at end of file
+
+
+    @Operation(
+            summary = "Get books with pagination, sorting and filtering, without totals",
+            description = "Selected with ?withTotal=false. Same as the paginated listing, but the matching books are not counted: " +
+                    "one more book than the page size is read and 'hasNext' tells whether a next page exists. " +
+                    "Meant for clients that only page forward, as counting costs as much as the filtering itself."
+    )
+    @ResourcesSlicedApiResponse
+    @NotModifiedApiResponse
+    PageSlice<BookDto> getBooksWithoutTotal(
+            @PageNumberQuery int page,
+            @PageSizeQuery int size,
+            @SortQuery String[] sort,
+            @BookTitle @BookTitleQuery String title,
+            @Name @AuthorNameQuery String author);
+
+
+    @Operation(
+            summary = "Get books with pagination, sorting and filtering, with an approximate total",
+            description = "Selected with ?withTotal=approximate. Without filters, the total is estimated from the database statistics " +
+                    "instead of counted, it is exact on the last page. With filters, the total is counted as in the paginated listing."
+    )
+    @ResourcesRetrievedApiResponse
+    @NotModifiedApiResponse
+    Page<BookDto> getBooksWithApproximateTotal(
+            @PageNumberQuery int page,
+            @PageSizeQuery int size,
+            @SortQuery String[] sort,
+            @BookTitle @BookTitleQuery String title,
+            @Name @AuthorNameQuery String author);
+
+
+    @Operation(
+            summary = "Search books by title and author name",
+            description = "Retrieves a paginated list of books containing the title and/or author name, most relevant first. " +
+                    "Backed by a trigram index where available. At least one of title or author is required, sorting is by relevance."
+    )
+    @ResourcesRetrievedApiResponse
+    @NotModifiedApiResponse
+    Page<BookDto> searchBooks(
+            @PageNumberQuery int page,
+            @PageSizeQuery int size,
+            @BookTitle @BookTitleQuery String title,
+            @Name @AuthorNameQuery String author);
+
+
+    @Operation(
+            summary = "Scroll books with a cursor, sorting and filtering",
+            description = "Retrieves the books after a cursor (keyset pagination) without computing totals. " +
+                    "Start with an empty cursor and continue with the returned 'nextCursor' until 'hasNext' is false. " +
+                    "Supports the same sorting and filtering as the paginated listing."
+    )
+    @ResourcesScrolledApiResponse
+    @NotModifiedApiResponse
+    CursorSlice<BookDto> scrollBooks(
+            @CursorQuery String after,
+            @PageSizeQuery int size,
+            @SortQuery String[] sort,
+            @BookTitle @BookTitleQuery String title,
+            @Name @AuthorNameQuery String author);
+
+
+    @Operation(
+            summary = "Export all books as NDJSON",
+            description = "Streams every book, ordered by id, as newline delimited JSON (one book per line). " +
+                    "Meant for mirroring the catalog instead of paging through it. Supports the same filtering as the paginated listing."
+    )
+    @BooksExportedApiResponse
+    ResponseEntity<StreamingResponseBody> exportBooks(
+            @BookTitle @BookTitleQuery String title,
+            @Name @AuthorNameQuery String author);
+}
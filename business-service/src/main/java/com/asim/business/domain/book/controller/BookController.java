@@ -1,22 +1,39 @@
 package com.asim.business.domain.book.controller;
 
+import com.asim.business.common.annotation.web.CachedVersion;
+import com.asim.business.common.exception.BadRequestException;
+import com.asim.business.common.model.dto.BatchResult;
+import com.asim.business.common.model.dto.CursorSlice;
+import com.asim.business.common.model.dto.PageSlice;
+import com.asim.business.common.util.CursorUtils;
 import com.asim.business.common.util.SortUtils;
 import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.domain.book.service.BookBatchService;
 import com.asim.business.domain.book.service.BookService;
+import com.asim.business.infrastructure.config.CacheConfigs;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/books")
 @RequiredArgsConstructor
 public class BookController implements BookApi {
     private final BookService bookService;
+    private final BookBatchService bookBatchService;
     private final SortUtils sortUtils;
+    private final CursorUtils cursorUtils;
+    private final ObjectMapper objectMapper;
 
 
     @PostMapping
@@ -25,7 +42,13 @@ public class BookController implements BookApi {
         return bookService.addBook(book);
     }
 
+    @PostMapping("/batch")
+    public BatchResult<BookDto> addBooks(@RequestBody List<BookDto> books) {
+        return bookBatchService.addBooks(books);
+    }
+
     @GetMapping("/{id}")
+    @CachedVersion(CacheConfigs.BOOKS)
     public BookDto getBook(@PathVariable Long id) {
         return bookService.getBook(id);
     }
@@ -54,4 +77,90 @@ public class BookController implements BookApi {
 
         return bookService.getBooks(pageable, title, author);
     }
-}
\ No newline at end of file
+
+    @GetMapping(params = {"withTotal=false", "!after"})
+    public PageSlice<BookDto> getBooksWithoutTotal(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String[] sort,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author) {
+
+        Sort sortObj = sortUtils.createObject(sort, BookDto.class);
+        Pageable pageable = PageRequest.of(page, size, sortObj);
+
+        return PageSlice.of(bookService.getBooksSlice(pageable, title, author));
+    }
+
+    @GetMapping(params = {"withTotal=approximate", "!after"})
+    public Page<BookDto> getBooksWithApproximateTotal(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String[] sort,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author) {
+
+        Sort sortObj = sortUtils.createObject(sort, BookDto.class);
+        Pageable pageable = PageRequest.of(page, size, sortObj);
+
+        return bookService.getBooksWithEstimatedTotal(pageable, title, author);
+    }
+
+    @GetMapping("/search")
+    public Page<BookDto> searchBooks(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author) {
+
+        if ((title == null || title.isEmpty()) && (author == null || author.isEmpty()))
+            throw new BadRequestException("Search", "A title or an author should be provided");
+
+        return bookService.searchBooks(PageRequest.of(page, size), title, author);
+    }
+
+    @GetMapping(params = "after")
+    public CursorSlice<BookDto> scrollBooks(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String[] sort,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author) {
+
+        if (size < 1) throw new BadRequestException("Page size", "It should be at least 1");
+
+        Sort sortObj = sortUtils.createObject(sort, BookDto.class);
+        KeysetScrollPosition position = cursorUtils.decode(after, sortObj, BookDto.class);
+
+        Window<BookDto> books = bookService.getBooks(position, size, sortObj, title, author);
+        return CursorSlice.of(books, cursorUtils.encode(books));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author) {
+
+        //written while the books are read, nothing is collected in between
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            bookService.exportBooks(title, author, book -> {
+                try {
+                    generator.writeObject(book);
+                    generator.writeRaw('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+
+            generator.close();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
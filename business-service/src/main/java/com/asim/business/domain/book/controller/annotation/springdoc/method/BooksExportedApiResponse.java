@@ -0,0 +1,21 @@
+package com.asim.business.domain.book.controller.annotation.springdoc.method;
+
+import com.asim.business.domain.book.model.dto.BookDto;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import java.lang.annotation.*;
+
+/**
+ * SpringDoc Api Response for books exported as newline delimited JSON, one book per line (200).
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ApiResponses(@ApiResponse(responseCode = "200", description = "Books streamed successfully, one JSON object per line",
+        content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = BookDto.class)))
+)
+public @interface BooksExportedApiResponse {
+}
@@ -5,6 +5,10 @@ import com.asim.business.domain.author.model.dto.AuthorDto;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 @Component
 public class AuthorGatewayImpl implements AuthorGateway {
     //**only as types** Author & AuthorDto are directly referenced in book
@@ -20,6 +24,26 @@ public class AuthorGatewayImpl implements AuthorGateway {
         return authorFacade.findMatchingAuthor(authorDto);
     }
 
+    @Override
+    public AuthorDto matchAuthor(AuthorDto dbAuthor, AuthorDto providedAuthor) {
+        return authorFacade.matchAuthor(dbAuthor, providedAuthor);
+    }
+
+    @Override
+    public List<AuthorDto> addAuthors(List<AuthorDto> authors) {
+        return authorFacade.addAuthors(authors);
+    }
+
+    @Override
+    public List<AuthorDto> getAuthorsByNames(Collection<String> names) {
+        return authorFacade.getAuthorsByNames(names);
+    }
+
+    @Override
+    public Map<Long, AuthorDto> getAuthorsByIds(Collection<Long> ids) {
+        return authorFacade.getAuthorsByIds(ids);
+    }
+
     @Override
     public void validateAuthorToCreate(AuthorDto authorDto) {
         authorFacade.validateAuthorToCreate(authorDto);
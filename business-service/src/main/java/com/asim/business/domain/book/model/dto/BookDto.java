@@ -5,6 +5,7 @@ import com.asim.business.common.annotation.validation.RequiredString;
 import com.asim.business.common.annotation.validation.domain.BookTitle;
 import com.asim.business.common.annotation.validation.domain.Isbn;
 import com.asim.business.common.annotation.validation.domain.ReadOnlyId;
+import com.asim.business.common.util.Versioned;
 import com.asim.business.domain.author.model.dto.AuthorDto;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.groups.Default;
@@ -25,7 +26,7 @@ import java.time.ZonedDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class BookDto {
+public class BookDto implements Versioned {
     @RequiredString(groups = {OnCreate.class})
     @Isbn
     private String isbn;
@@ -54,6 +55,15 @@ public class BookDto {
     @ReadOnly(groups = {OnCreate.class})
     private Integer version;
 
+    /**
+     * The author is embedded, so its version is part of the tag as well.
+     */
+    @Override
+    public String versionTag() {
+        if (author == null || author.getVersion() == null) return Versioned.super.versionTag();
+        return Versioned.super.versionTag() + "-" + author.getVersion();
+    }
+
     /**
      * Validation group to enforce the existence of the field in addition to the default validations. (required)
      */
@@ -1,18 +1,67 @@
 package com.asim.business.domain.book.model.mapper;
 
-import com.asim.business.common.model.mapper.BaseEntityDtoMapper;
+import com.asim.business.common.model.mapper.EntityDtoMapper;
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import com.asim.business.domain.author.model.entity.Author;
+import com.asim.business.domain.author.model.mapper.AuthorMapper;
 import com.asim.business.domain.book.model.dto.BookDto;
 import com.asim.business.domain.book.model.entity.Book;
-import org.modelmapper.ModelMapper;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
 
 /**
- * Maps Book entity to BookDto and vice versa.
+ * Maps Book entity to BookDto and vice versa, including the nested author.
+ * Written field by field, so no reflection or type map lookup is involved per conversion.
+ * A lazy author that is not loaded yet is mapped to its id only, so mapping never triggers a select.
  */
 @Component
-public class BookMapper extends BaseEntityDtoMapper<Book, BookDto> {
+@RequiredArgsConstructor
+public class BookMapper implements EntityDtoMapper<Book, BookDto> {
 
-    public BookMapper(ModelMapper modelMapper) {
-        super(modelMapper, Book.class, BookDto.class);
+    private final AuthorMapper authorMapper;
+
+    @Override
+    public Book toEntity(BookDto dto) {
+        if (dto == null) return null;
+
+        Book book = new Book();
+        book.setId(dto.getId());
+        book.setIsbn(dto.getIsbn());
+        book.setTitle(dto.getTitle());
+        book.setAuthor(authorMapper.toEntity(dto.getAuthor()));
+        book.setCreatedAt(dto.getCreatedAt());
+        book.setUpdatedAt(dto.getUpdatedAt());
+        book.setCreatedBy(dto.getCreatedBy());
+        book.setLastModifiedBy(dto.getLastModifiedBy());
+        book.setVersion(dto.getVersion());
+
+        return book;
+    }
+
+    @Override
+    public BookDto toDto(Book entity) {
+        if (entity == null) return null;
+
+        return new BookDto(
+                entity.getIsbn(),
+                entity.getTitle(),
+                toAuthorDto(entity.getAuthor()),
+                entity.getId(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt(),
+                entity.getCreatedBy(),
+                entity.getLastModifiedBy(),
+                entity.getVersion()
+        );
+    }
+
+    private AuthorDto toAuthorDto(Author author) {
+        if (author == null || Hibernate.isInitialized(author)) return authorMapper.toDto(author);
+
+        //reading the id of a proxy does not initialize it
+        AuthorDto authorDto = new AuthorDto();
+        authorDto.setId(author.getId());
+        return authorDto;
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,41 @@
 package com.asim.business.domain.book.repository;
 
 import com.asim.business.domain.book.model.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    Set<String> findExistingIsbns(Collection<String> isbns);
+
+    //only the indexed columns, the author id is read from the foreign key without a join
+    @Query("select b.id as id, b.title as title, b.author.id as authorId from Book b")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SearchEntry> streamSearchEntries();
+
+    @Query("select b.id as id, b.title as title, b.author.id as authorId from Book b where b.id = :id")
+    Optional<SearchEntry> findSearchEntry(Long id);
+
+    /**
+     * The fields of a book kept by the in-memory search index.
+     */
+    interface SearchEntry {
+        Long getId();
+
+        String getTitle();
+
+        Long getAuthorId();
+    }
 }
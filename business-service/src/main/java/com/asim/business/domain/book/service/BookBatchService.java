@@ -0,0 +1,24 @@
+package com.asim.business.domain.book.service;
+
+import com.asim.business.common.model.dto.BatchResult;
+import com.asim.business.domain.book.model.dto.BookDto;
+
+import java.util.List;
+
+public interface BookBatchService {
+    /**
+     * Maximum number of books accepted in one batch
+     */
+    int MAX_ITEMS = 1000;
+
+    /**
+     * Adds books in bulk.
+     * Every book is validated and created independently, a failing book does not abort the others.
+     * Authors are either referenced by id (and version) or given as new, a new author that already exists
+     * with the same name and age is reused instead of duplicated.
+     *
+     * @param books BookDto list
+     * @return result per book, in the same order
+     */
+    BatchResult<BookDto> addBooks(List<BookDto> books);
+}
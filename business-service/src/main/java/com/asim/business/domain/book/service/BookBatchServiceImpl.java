@@ -0,0 +1,288 @@
+package com.asim.business.domain.book.service;
+
+import com.asim.business.common.exception.DuplicateResourceException;
+import com.asim.business.common.exception.IllegalAttemptToModify;
+import com.asim.business.common.exception.OptimisticLockException;
+import com.asim.business.common.exception.ResourceNotFoundException;
+import com.asim.business.common.model.dto.BatchResult;
+import com.asim.business.common.model.mapper.EntityDtoMapper;
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import com.asim.business.domain.author.model.entity.Author;
+import com.asim.business.domain.book.gateway.AuthorGateway;
+import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.domain.book.model.entity.Book;
+import com.asim.business.domain.book.repository.BookRepository;
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.search.BookSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Bulk creation of books, meant for catalog imports.
+ * Instead of a round trip per book (and per author), the work is done in phases over the whole batch:
+ * - Validation of every item, with the same rules as a single creation.
+ * - One query for the isbns that already exist.
+ * - One lookup for the referenced authors (through the author cache), one query for the new authors that already exist.
+ * - The remaining new authors are inserted together.
+ * - Books are inserted in chunks, each chunk in its own transaction and sent in JDBC batches with pooled ids.
+ * A failing item is reported in the result and does not abort the others.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookBatchServiceImpl implements BookBatchService {
+    //books per transaction, a multiple of hibernate.jdbc.batch_size
+    static final int CHUNK_SIZE = 500;
+
+    private final BookRepository bookRepository;
+    private final EntityDtoMapper<Book, BookDto> bookMapper;
+    private final AuthorGateway authorGateway;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final BookSearchIndex bookSearchIndex;
+    private final QueryResultCache queryResultCache;
+
+    @Override
+    public BatchResult<BookDto> addBooks(List<BookDto> books) {
+        List<BatchResult.Item<BookDto>> items = new ArrayList<>(Collections.nCopies(books.size(), null));
+
+        List<Pending> pending = new ArrayList<>(books.size());
+        for (int i = 0; i < books.size(); i++) {
+            String error = validate(books.get(i));
+            if (error != null) items.set(i, BatchResult.Item.failed(i, error));
+            else pending.add(new Pending(i, books.get(i), null));
+        }
+
+        pending = rejectExistingIsbns(pending, items);
+        pending = resolveExistingAuthors(pending, items);
+        pending = resolveNewAuthors(pending, items);
+        insert(pending, items);
+
+        return BatchResult.of(items);
+    }
+
+    private String validate(BookDto book) {
+        if (book == null) return "Book is missing";
+
+        Set<ConstraintViolation<BookDto>> violations = validator.validate(book, BookDto.OnCreate.class);
+        if (!violations.isEmpty()) return describe(violations, "");
+
+        //a new author is created with the book, so it is validated as well
+        if (book.getAuthor().getId() != null) return null;
+
+        Set<ConstraintViolation<AuthorDto>> authorViolations = validator.validate(book.getAuthor(), AuthorDto.OnCreate.class);
+        return authorViolations.isEmpty() ? null : describe(authorViolations, "author.");
+    }
+
+    private static String describe(Set<? extends ConstraintViolation<?>> violations, String prefix) {
+        List<String> messages = new ArrayList<>(violations.size());
+        for (ConstraintViolation<?> violation : violations)
+            messages.add(prefix + violation.getPropertyPath() + ": " + violation.getMessage());
+
+        Collections.sort(messages);
+        return "Validation failed, " + String.join("; ", messages);
+    }
+
+    private List<Pending> rejectExistingIsbns(List<Pending> pending, List<BatchResult.Item<BookDto>> items) {
+        if (pending.isEmpty()) return pending;
+
+        Set<String> isbns = new HashSet<>();
+        for (Pending item : pending) isbns.add(item.book.getIsbn());
+
+        //select isbn from books where isbn in (...)
+        Set<String> existing = bookRepository.findExistingIsbns(isbns);
+
+        //the first occurrence in the batch wins
+        Set<String> seen = new HashSet<>();
+        List<Pending> remaining = new ArrayList<>(pending.size());
+        for (Pending item : pending) {
+            String isbn = item.book.getIsbn();
+            if (existing.contains(isbn) || !seen.add(isbn))
+                fail(items, item, new DuplicateResourceException("Book", "isbn", isbn).getMessage());
+            else remaining.add(item);
+        }
+
+        return remaining;
+    }
+
+    /**
+     * Authors referenced by id must exist and match, as in a single creation.
+     */
+    private List<Pending> resolveExistingAuthors(List<Pending> pending, List<BatchResult.Item<BookDto>> items) {
+        Set<Long> ids = new HashSet<>();
+        for (Pending item : pending)
+            if (item.book.getAuthor().getId() != null) ids.add(item.book.getAuthor().getId());
+
+        Map<Long, AuthorDto> authors = ids.isEmpty() ? Map.of() : authorGateway.getAuthorsByIds(ids);
+
+        List<Pending> remaining = new ArrayList<>(pending.size());
+        for (Pending item : pending) {
+            AuthorDto provided = item.book.getAuthor();
+            if (provided.getId() == null) {
+                remaining.add(item);
+                continue;
+            }
+
+            AuthorDto dbAuthor = authors.get(provided.getId());
+            if (dbAuthor == null) {
+                fail(items, item, new ResourceNotFoundException("Author", provided.getId()).getMessage());
+                continue;
+            }
+
+            try {
+                if (authorGateway.matchAuthor(dbAuthor, provided) == null)
+                    throw new IllegalAttemptToModify("Author", provided.getId(), "An existing author cannot be modified through /books.");
+
+                item.author = dbAuthor;
+                remaining.add(item);
+            } catch (OptimisticLockException | IllegalAttemptToModify ex) {
+                fail(items, item, ex.getMessage());
+            }
+        }
+
+        return remaining;
+    }
+
+    /**
+     * New authors are matched by name and age (unique together), existing ones are reused and the rest created once.
+     */
+    private List<Pending> resolveNewAuthors(List<Pending> pending, List<BatchResult.Item<BookDto>> items) {
+        Map<String, List<Pending>> byAuthor = new LinkedHashMap<>();
+        for (Pending item : pending)
+            if (item.author == null)
+                byAuthor.computeIfAbsent(authorKey(item.book.getAuthor()), key -> new ArrayList<>()).add(item);
+
+        if (byAuthor.isEmpty()) return pending;
+
+        Set<String> names = new HashSet<>();
+        for (List<Pending> group : byAuthor.values()) names.add(group.get(0).book.getAuthor().getName());
+
+        //select * from authors where name in (...)
+        Map<String, AuthorDto> existing = new HashMap<>();
+        for (AuthorDto author : authorGateway.getAuthorsByNames(names)) existing.put(authorKey(author), author);
+
+        List<String> toCreate = new ArrayList<>();
+        for (String key : byAuthor.keySet())
+            if (existing.containsKey(key)) assign(byAuthor.get(key), existing.get(key));
+            else toCreate.add(key);
+
+        createAuthors(toCreate, byAuthor, items);
+
+        List<Pending> remaining = new ArrayList<>(pending.size());
+        for (Pending item : pending) if (item.author != null) remaining.add(item);
+        return remaining;
+    }
+
+    private void createAuthors(List<String> keys, Map<String, List<Pending>> byAuthor, List<BatchResult.Item<BookDto>> items) {
+        if (keys.isEmpty()) return;
+
+        List<AuthorDto> authors = new ArrayList<>(keys.size());
+        for (String key : keys) authors.add(newAuthor(byAuthor.get(key).get(0).book.getAuthor()));
+
+        try {
+            List<AuthorDto> created = authorGateway.addAuthors(authors);
+            for (int i = 0; i < keys.size(); i++) assign(byAuthor.get(keys.get(i)), created.get(i));
+
+        } catch (DataIntegrityViolationException ex) {
+            //created concurrently by another request, isolate the conflicting ones
+            log.debug("Creating {} authors at once failed, creating them one by one", keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                List<Pending> group = byAuthor.get(keys.get(i));
+                try {
+                    assign(group, authorGateway.addAuthors(List.of(authors.get(i))).get(0));
+                } catch (DataIntegrityViolationException duplicate) {
+                    AuthorDto author = authors.get(i);
+                    String message = new DuplicateResourceException("Author", "name & age", author.getName() + "," + author.getAge()).getMessage();
+                    for (Pending item : group) fail(items, item, message);
+                }
+            }
+        }
+    }
+
+    private void insert(List<Pending> pending, List<BatchResult.Item<BookDto>> items) {
+        for (int from = 0; from < pending.size(); from += CHUNK_SIZE) {
+            List<Pending> chunk = pending.subList(from, Math.min(from + CHUNK_SIZE, pending.size()));
+
+            try {
+                List<Book> saved = transactionTemplate.execute(status -> save(chunk));
+                for (int i = 0; i < chunk.size(); i++) created(items, chunk.get(i), saved.get(i));
+
+            } catch (DataIntegrityViolationException ex) {
+                //a row conflicted with a concurrent write, the chunk is rolled back, so retry one by one to isolate it
+                log.debug("Inserting a chunk of {} books failed, inserting them one by one", chunk.size());
+                for (Pending item : chunk) {
+                    try {
+                        List<Book> saved = transactionTemplate.execute(status -> save(List.of(item)));
+                        created(items, item, saved.get(0));
+                    } catch (DataIntegrityViolationException duplicate) {
+                        fail(items, item, new DuplicateResourceException("Book", "isbn", item.book.getIsbn()).getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Book> save(List<Pending> chunk) {
+        List<Book> books = new ArrayList<>(chunk.size());
+        for (Pending item : chunk) {
+            Book book = bookMapper.toEntity(item.book);
+            book.setAuthor(entityManager.getReference(Author.class, item.author.getId()));
+            books.add(book);
+        }
+
+        //insert into books ... (batched)
+        books = bookRepository.saveAllAndFlush(books);
+        //applied to the search index once the chunk commits
+        for (Book book : books) bookSearchIndex.bookSaved(book.getId(), book.getTitle(), book.getAuthor().getId());
+        queryResultCache.invalidate(QueryResultCache.BOOKS);
+
+        //the persistence context may live as long as the request, do not let it grow with every chunk
+        entityManager.clear();
+        return books;
+    }
+
+    private void created(List<BatchResult.Item<BookDto>> items, Pending item, Book book) {
+        BookDto bookDto = bookMapper.toDto(book);
+        bookDto.setAuthor(item.author);
+        items.set(item.index, BatchResult.Item.created(item.index, bookDto));
+    }
+
+    private static void fail(List<BatchResult.Item<BookDto>> items, Pending item, String error) {
+        items.set(item.index, BatchResult.Item.failed(item.index, error));
+    }
+
+    private static void assign(List<Pending> group, AuthorDto author) {
+        for (Pending item : group) item.author = author;
+    }
+
+    private static AuthorDto newAuthor(AuthorDto provided) {
+        AuthorDto author = new AuthorDto();
+        author.setName(provided.getName());
+        author.setAge(provided.getAge());
+        return author;
+    }
+
+    private static String authorKey(AuthorDto author) {
+        return author.getName() + '\u0000' + author.getAge();
+    }
+
+    /**
+     * An item still to be created, with its resolved author once known.
+     */
+    @AllArgsConstructor
+    private static final class Pending {
+        final int index;
+        final BookDto book;
+        AuthorDto author;
+    }
+}
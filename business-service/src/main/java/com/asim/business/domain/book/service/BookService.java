@@ -5,8 +5,14 @@ import com.asim.business.common.exception.IllegalAttemptToModify;
 import com.asim.business.common.exception.NoIdIsProvidedException;
 import com.asim.business.common.exception.ResourceNotFoundException;
 import com.asim.business.domain.book.model.dto.BookDto;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.function.Consumer;
 
 public interface BookService {
     /**
@@ -53,4 +59,62 @@ public interface BookService {
      * @return Page of BookDto
      */
     Page<BookDto> getBooks(Pageable pageable, String title, String author);
+
+    /**
+     * Gets books with pagination, sorting and filtering, without a count query.
+     * One more book than the page size is read to tell whether a next page exists.
+     *
+     * @param pageable Pagination and sorting information
+     * @param title    Optional title filter
+     * @param author   Optional author name filter
+     * @return Slice of BookDto
+     */
+    Slice<BookDto> getBooksSlice(Pageable pageable, String title, String author);
+
+    /**
+     * Gets books with pagination, sorting and filtering, estimating the total of an unfiltered listing.
+     * The estimate comes from the database statistics instead of a count query.
+     * With filters, or where no estimate is available, the total is counted as in {@link #getBooks(Pageable, String, String)}.
+     *
+     * @param pageable Pagination and sorting information
+     * @param title    Optional title filter
+     * @param author   Optional author name filter
+     * @return Page of BookDto
+     */
+    Page<BookDto> getBooksWithEstimatedTotal(Pageable pageable, String title, String author);
+
+    /**
+     * Searches books by title and/or author name (substring), ranked by relevance instead of a requested sort.
+     * With trigram support the rank is the trigram word similarity, otherwise earlier and tighter matches come first.
+     *
+     * @param pageable Pagination information, its sort is ignored
+     * @param title    Optional title search term
+     * @param author   Optional author name search term
+     * @return Page of BookDto, most relevant first
+     */
+    Page<BookDto> searchBooks(Pageable pageable, String title, String author);
+
+    /**
+     * Gets books after a keyset position with sorting and filtering.
+     * No count query is executed.
+     *
+     * @param position Position to continue after
+     * @param size     Maximum number of books
+     * @param sort     Sorting information, the id is appended as a tiebreaker
+     * @param title    Optional title filter
+     * @param author   Optional author name filter
+     * @return Window of BookDto
+     */
+    Window<BookDto> getBooks(KeysetScrollPosition position, int size, Sort sort, String title, String author);
+
+    /**
+     * Streams all books matching the filters, ordered by id, to the consumer one by one.
+     * The books are read with a forward-only cursor and not kept, so memory does not grow with the catalog.
+     * The consumer is called within the read transaction, it should not block for long.
+     *
+     * @param title    Optional title filter
+     * @param author   Optional author name filter
+     * @param consumer Receives every book
+     */
+    void exportBooks(String title, String author, Consumer<BookDto> consumer);
 }
@@ -4,42 +4,85 @@ import com.asim.business.common.exception.IllegalAttemptToModify;
 import com.asim.business.common.exception.NoIdIsProvidedException;
 import com.asim.business.common.exception.ResourceNotFoundException;
 import com.asim.business.common.model.mapper.EntityDtoMapper;
+import com.asim.business.common.util.PageUtils;
 import com.asim.business.domain.author.model.dto.AuthorDto;
 import com.asim.business.domain.author.model.entity.Author;
 import com.asim.business.domain.book.gateway.AuthorGateway;
 import com.asim.business.domain.book.model.dto.BookDto;
 import com.asim.business.domain.book.model.entity.Book;
 import com.asim.business.domain.book.repository.BookRepository;
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.cache.TieredCache;
 import com.asim.business.infrastructure.config.CacheConfigs;
+import com.asim.business.infrastructure.persistence.TableStatistics;
+import com.asim.business.infrastructure.search.BookSearchIndex;
+import com.asim.business.infrastructure.search.TrigramSearchSupport;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 /**
  * Book service provides the external functionality of:
  * - Creating a new author. (in create book)
  * reason: especially for a new db it's highly likely that the author creation is part of the book creation process.
  * pros: the user don't need multiple requests to perform this coupled operation.
  * cons: introduces a dependency between the book and author services, complicating the book service.
+ * - Resolving the (lazy) authors of the returned books.
+ * All authors of a page are resolved at once through the author cache, so listing costs one author query at most.
+ * - Answering the title/author filters from the in-memory search index when it is enabled.
+ * The index gives the ids of the page, the books are taken from the book cache, and no count query is needed.
+ * - Caching the ids and total of the listed pages in the query result cache, dropped by every book or author change.
+ * A repeated listing then only hydrates its page from the book cache.
  */
 @Service
 @Validated
 @RequiredArgsConstructor
 @CacheConfig(cacheNames = CacheConfigs.BOOKS)
 public class BookServiceImpl implements BookService {
+    //rows per round trip of the export cursor, also how often the persistence context is cleared
+    static final int EXPORT_FETCH_SIZE = 500;
+    private static final String BOOKS_TABLE = "books";
+
     private final BookRepository bookRepository;
     private final EntityDtoMapper<Book, BookDto> bookMapper;
     private final AuthorGateway authorGateway;
     private final EntityManager entityManager;
+    private final TrigramSearchSupport trigramSearchSupport;
+    private final BookSearchIndex bookSearchIndex;
+    private final CacheManager cacheManager;
+    private final TableStatistics tableStatistics;
+    private final QueryResultCache queryResultCache;
 
     /**
      * Can create or assign an existing author to a book.
@@ -54,7 +97,8 @@ public class BookServiceImpl implements BookService {
 
         Book book = bookMapper.toEntity(bookDto);
 
-        if (author.getId() != null) {
+        boolean newAuthor = author.getId() == null;
+        if (!newAuthor) {
             //Fix: InvalidDataAccessApiUsageException: detached entity passed to persist
             //Due to cascade.persist, an existing entity is passed to persist.
             Author authorRef = entityManager.getReference(Author.class, author.getId());
@@ -64,7 +108,14 @@ public class BookServiceImpl implements BookService {
         book = bookRepository.save(book);
 
         entityManager.flush();
-        return bookMapper.toDto(book);
+
+        //the author is created with the book, not through the author service
+        if (newAuthor) bookSearchIndex.authorSaved(book.getAuthor().getId(), book.getAuthor().getName());
+        bookSearchIndex.bookSaved(book.getId(), book.getTitle(), book.getAuthor().getId());
+        if (newAuthor) queryResultCache.invalidate(QueryResultCache.BOOKS, QueryResultCache.AUTHORS);
+        else queryResultCache.invalidate(QueryResultCache.BOOKS);
+
+        return toDto(book);
     }
 
     @Override
@@ -74,7 +125,7 @@ public class BookServiceImpl implements BookService {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book", id));
 
-        return bookMapper.toDto(book);
+        return toDto(book);
     }
 
     /**
@@ -108,7 +159,10 @@ public class BookServiceImpl implements BookService {
         book = bookRepository.save(book);
 
         entityManager.flush();
-        return bookMapper.toDto(book);
+        bookSearchIndex.bookSaved(book.getId(), book.getTitle(), book.getAuthor().getId());
+        queryResultCache.invalidate(QueryResultCache.BOOKS);
+
+        return toDto(book);
     }
 
     @Override
@@ -118,10 +172,186 @@ public class BookServiceImpl implements BookService {
             throw new ResourceNotFoundException("Book", id);
         }
         bookRepository.deleteById(id);
+        bookSearchIndex.bookDeleted(id);
+        queryResultCache.invalidate(QueryResultCache.BOOKS);
     }
 
     @Override
     public Page<BookDto> getBooks(Pageable pageable, String title, String author) {
+        if (StringUtils.hasLength(title) || StringUtils.hasLength(author)) {
+            //empty when the index is disabled, not built yet or does not keep the requested sort
+            Optional<List<Long>> ids = bookSearchIndex.findBookIds(title, author, pageable.getSort());
+            if (ids.isPresent()) return getBooks(ids.get(), pageable);
+        }
+
+        //the same page was listed since the last book or author change
+        QueryResultCache.Query query = QueryResultCache.Query.of(QueryResultCache.BOOKS, pageable)
+                .filter("title", title)
+                .filter("author", author);
+        Optional<QueryResultCache.Result> cached = queryResultCache.get(query);
+        if (cached.isPresent())
+            return new PageImpl<>(getBooksByIds(cached.get().idList()), pageable, cached.get().total());
+
+        Page<Book> booksPage = bookRepository.findAll(filterBy(title, author), pageable);
+        Map<Long, AuthorDto> authors = resolveAuthors(booksPage.getContent());
+        Page<BookDto> books = booksPage.map(book -> toDto(book, authors));
+
+        queryResultCache.put(query, books.map(BookDto::getId).getContent(), books.getTotalElements());
+        return books;
+    }
+
+    @Override
+    public Slice<BookDto> getBooksSlice(Pageable pageable, String title, String author) {
+        if (StringUtils.hasLength(title) || StringUtils.hasLength(author)) {
+            //the index knows the total anyway
+            Optional<List<Long>> ids = bookSearchIndex.findBookIds(title, author, pageable.getSort());
+            if (ids.isPresent()) return getBooks(ids.get(), pageable);
+        }
+
+        //select * from books where ... order by ... offset page * size limit size + 1
+        Window<Book> booksWindow = bookRepository.findBy(filterBy(title, author),
+                query -> query.sortBy(pageable.getSort()).limit(pageable.getPageSize()).scroll(PageUtils.startOf(pageable)));
+
+        Map<Long, AuthorDto> authors = resolveAuthors(booksWindow.getContent());
+        return new SliceImpl<>(booksWindow.map(book -> toDto(book, authors)).getContent(), pageable, booksWindow.hasNext());
+    }
+
+    @Override
+    public Page<BookDto> getBooksWithEstimatedTotal(Pageable pageable, String title, String author) {
+        //a filtered total cannot be taken from the table statistics
+        if (StringUtils.hasLength(title) || StringUtils.hasLength(author)) return getBooks(pageable, title, author);
+
+        OptionalLong estimate = tableStatistics.estimateRows(BOOKS_TABLE);
+        if (estimate.isEmpty()) return getBooks(pageable, null, null);
+
+        return PageUtils.withEstimatedTotal(getBooksSlice(pageable, null, null), estimate.getAsLong());
+    }
+
+    @Override
+    public Page<BookDto> searchBooks(Pageable pageable, String title, String author) {
+        //the rank is the order, a requested sort would override it
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+
+        Page<Book> booksPage = bookRepository.findAll(filterBy(title, author).and(rankBy(title, author)), unsorted);
+
+        Map<Long, AuthorDto> authors = resolveAuthors(booksPage.getContent());
+        return booksPage.map(book -> toDto(book, authors));
+    }
+
+    @Override
+    public Window<BookDto> getBooks(KeysetScrollPosition position, int size, Sort sort, String title, String author) {
+        //where (sort keys) > (cursor keys) order by sort keys, id limit size + 1
+        Window<Book> booksWindow = bookRepository.findBy(filterBy(title, author),
+                query -> query.sortBy(sort).limit(size).scroll(position));
+
+        Map<Long, AuthorDto> authors = resolveAuthors(booksWindow.getContent());
+        return booksWindow.map(book -> toDto(book, authors));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(String title, String author, Consumer<BookDto> consumer) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = criteriaBuilder.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+
+        //select * from books join authors where ... order by id
+        //the author is fetched in the same row, no batch lookups are needed while streaming
+        root.fetch("author");
+        Predicate predicate = filterBy(title, author).toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) query.where(predicate);
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        try (Stream<Book> books = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+
+            int count = 0;
+            for (Iterator<Book> iterator = books.iterator(); iterator.hasNext(); ) {
+                consumer.accept(bookMapper.toDto(iterator.next()));
+
+                //the cursor keeps reading, only the already mapped entities are dropped
+                if (++count % EXPORT_FETCH_SIZE == 0) entityManager.clear();
+            }
+        }
+    }
+
+    /**
+     * A page of the given (sorted) ids, its total is the number of ids.
+     */
+    private Page<BookDto> getBooks(List<Long> ids, Pageable pageable) {
+        if (pageable.isUnpaged()) return new PageImpl<>(getBooksByIds(ids), pageable, ids.size());
+
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(getBooksByIds(ids.subList(from, to)), pageable, ids.size());
+    }
+
+    /**
+     * Books in the order of the ids, taken from the book cache (same entries as getBook) and loaded in one query on a miss.
+     * A book deleted in the meantime is left out.
+     */
+    private List<BookDto> getBooksByIds(List<Long> ids) {
+        Map<Long, BookDto> books = new HashMap<>(ids.size() * 2);
+        Cache cache = cacheManager.getCache(CacheConfigs.BOOKS);
+
+        //the L1 misses are read from Redis in one round trip
+        if (cache != null) books.putAll(TieredCache.getAll(cache, ids, BookDto.class));
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            if (!books.containsKey(id)) misses.add(id);
+        }
+
+        if (!misses.isEmpty()) {
+            //select * from books where id in (...)
+            List<Book> loaded = bookRepository.findAllById(misses);
+            Map<Long, AuthorDto> authors = resolveAuthors(loaded);
+            for (Book book : loaded) {
+                BookDto bookDto = toDto(book, authors);
+                books.put(bookDto.getId(), bookDto);
+                if (cache != null) cache.put(bookDto.getId(), bookDto);
+            }
+        }
+
+        List<BookDto> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookDto book = books.get(id);
+            if (book != null) ordered.add(book);
+        }
+        return ordered;
+    }
+
+    private BookDto toDto(Book book) {
+        return toDto(book, resolveAuthors(List.of(book)));
+    }
+
+    private BookDto toDto(Book book, Map<Long, AuthorDto> authors) {
+        BookDto bookDto = bookMapper.toDto(book);
+
+        //an unloaded author is mapped to its id only, swap it for the resolved one
+        AuthorDto author = bookDto.getAuthor();
+        if (author != null && author.getId() != null && authors.containsKey(author.getId()))
+            bookDto.setAuthor(authors.get(author.getId()));
+
+        return bookDto;
+    }
+
+    /**
+     * Collects the authors that are not loaded yet and resolves them in one batch.
+     * Instead of a select per book (N+1) or a join per row, it is one lookup per page.
+     */
+    private Map<Long, AuthorDto> resolveAuthors(List<Book> books) {
+        Set<Long> ids = new HashSet<>();
+        for (Book book : books) {
+            Author author = book.getAuthor();
+            if (author != null && !Hibernate.isInitialized(author)) ids.add(author.getId());
+        }
+
+        return ids.isEmpty() ? Map.of() : authorGateway.getAuthorsByIds(ids);
+    }
+
+    private Specification<Book> filterBy(String title, String author) {
         Specification<Book> spec = Specification.where(null);
 
         //select * from book where title like %title% and author.name like %author%
@@ -139,8 +369,46 @@ public class BookServiceImpl implements BookService {
                     ));
         }
 
-        Page<Book> booksPage = bookRepository.findAll(spec, pageable);
-        return booksPage.map(bookMapper::toDto);
+        return spec;
+    }
+
+    /**
+     * Orders by relevance to the search terms, the id breaks ties so pages are stable.
+     * Adds no predicate, the filtering is left to {@link #filterBy}, and the count query drops the order.
+     */
+    private Specification<Book> rankBy(String title, String author) {
+        boolean trigram = trigramSearchSupport.isAvailable();
+
+        return (root, query, criteriaBuilder) -> {
+            List<Order> orders = new ArrayList<>();
+            Expression<String> bookTitle = criteriaBuilder.lower(root.get("title"));
+            Expression<String> authorName = criteriaBuilder.lower(root.get("author").get("name"));
+
+            if (trigram) {
+                //order by word_similarity(title) + word_similarity(author.name) desc
+                Expression<Double> rank = criteriaBuilder.literal(0.0);
+                if (title != null && !title.isEmpty())
+                    rank = criteriaBuilder.sum(rank, similarity(criteriaBuilder, title, bookTitle));
+                if (author != null && !author.isEmpty())
+                    rank = criteriaBuilder.sum(rank, similarity(criteriaBuilder, author, authorName));
+                orders.add(criteriaBuilder.desc(rank));
+            } else {
+                //order by locate(title), locate(author.name), length(title)
+                if (title != null && !title.isEmpty())
+                    orders.add(criteriaBuilder.asc(criteriaBuilder.locate(bookTitle, title.toLowerCase())));
+                if (author != null && !author.isEmpty())
+                    orders.add(criteriaBuilder.asc(criteriaBuilder.locate(authorName, author.toLowerCase())));
+                orders.add(criteriaBuilder.asc(criteriaBuilder.length(root.get("title"))));
+            }
+
+            orders.add(criteriaBuilder.asc(root.get("id")));
+            query.orderBy(orders);
+            return null;
+        };
+    }
+
+    private static Expression<Double> similarity(CriteriaBuilder criteriaBuilder, String term, Expression<String> value) {
+        return criteriaBuilder.function("word_similarity", Double.class, criteriaBuilder.literal(term.toLowerCase()), value);
     }
 
     /**
@@ -1,18 +1,41 @@
 package com.asim.business.domain.user.model.mapper;
 
-import com.asim.business.common.model.mapper.BaseEntityDtoMapper;
+import com.asim.business.common.model.mapper.EntityDtoMapper;
 import com.asim.business.domain.user.model.dto.UserViewDto;
 import com.asim.business.domain.user.model.entity.User;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 /**
  * Maps User entity to UserViewDto and vice versa.
+ * Written field by field, so no reflection or type map lookup is involved per conversion.
  */
 @Component
-public class UserViewMapper extends BaseEntityDtoMapper<User, UserViewDto> {
+public class UserViewMapper implements EntityDtoMapper<User, UserViewDto> {
 
-    public UserViewMapper(ModelMapper modelMapper) {
-        super(modelMapper, User.class, UserViewDto.class);
+    @Override
+    public User toEntity(UserViewDto dto) {
+        if (dto == null) return null;
+
+        User user = new User();
+        user.setName(dto.getName());
+        user.setRole(dto.getRole());
+        user.setCreatedAt(dto.getCreatedAt());
+        user.setUpdatedAt(dto.getUpdatedAt());
+        user.setVersion(dto.getVersion());
+
+        return user;
+    }
+
+    @Override
+    public UserViewDto toDto(User entity) {
+        if (entity == null) return null;
+
+        return new UserViewDto(
+                entity.getName(),
+                entity.getRole(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt(),
+                entity.getVersion()
+        );
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import com.asim.business.domain.user.model.dto.UserViewDto;
 import com.asim.business.domain.user.model.entity.Role;
 import com.asim.business.domain.user.model.entity.User;
 import com.asim.business.domain.user.repository.UserRepository;
+import com.asim.business.infrastructure.cache.UserRoleNearCache;
 import com.asim.business.infrastructure.config.CacheConfigs;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +33,7 @@ public class UserServiceImpl implements UserService {
     private final EntityDtoMapper<User, UserViewDto> userMapper;
     private final EntityManager entityManager;
     private final CacheManager cacheManager;
+    private final UserRoleNearCache userRoleNearCache;
 
     @Override
     @Transactional
@@ -84,6 +86,7 @@ public class UserServiceImpl implements UserService {
         if (cache != null) {
             cache.put(user.getId(), result);
         }
+        userRoleNearCache.invalidate(user.getId());
 
         return result;
     }
@@ -0,0 +1,257 @@
+package com.asim.business.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process cache of listing results, keyed by the normalized query (filters, sort, page and size).
+ * Only the ids of the page and the total are kept, the resources themselves are taken from their own caches,
+ * so a cached listing costs no query at all when its entries are cached too.
+ * <p>
+ * Every region (books, authors) has a generation counter that is part of the key. A mutation bumps the generation of
+ * the regions it may change once its transaction commits, which drops all their listings at once without walking the
+ * cache; the old entries are never read again and age out. A listing read before the bump is stored under the old
+ * generation, so it cannot be served after the change is visible.
+ * <p>
+ * Bumps are broadcast over Redis pub/sub so every node drops its listings.
+ * If a message is lost, the entries still expire after the configured TTL, which bounds how long a stale listing is served.
+ * <p>
+ * Hits and misses are counted per query shape, the region with the filters present and the sort, as
+ * {@code cache.query.gets{shape, result}} and {@code cache.query.hit.ratio{shape}}.
+ */
+@Slf4j
+@Component
+public class QueryResultCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "business:query-result:invalidate";
+    public static final String BOOKS = "book";
+    public static final String AUTHORS = "author";
+    private static final String METRICS_NAME = "queryResult";
+
+    private final Cache<String, Result> results;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    // messages carry the sender so a node does not bump twice for its own change
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public QueryResultCache(StringRedisTemplate redisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${cache.query.enabled:true}") boolean enabled,
+                            @Value("${cache.query.maximum-size:10000}") long maximumSize,
+                            @Value("${cache.query.ttl:1m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        // exposes cache.gets{result=hit|miss}, cache.evictions and cache.size over all shapes
+        CaffeineCacheMetrics.monitor(meterRegistry, results, METRICS_NAME);
+    }
+
+    /**
+     * Returns the cached result of the query, and remembers the current generation of its region for {@link #put}.
+     *
+     * @param query The listing query
+     * @return The ids of the page and the total, or empty on a miss
+     */
+    public Optional<Result> get(Query query) {
+        if (!enabled || !query.isCacheable()) return Optional.empty();
+
+        query.generation = generation(query.region).get();
+        Result result = results.getIfPresent(query.generation + ":" + query.key);
+        shapes.computeIfAbsent(query.shape, ShapeStats::new).record(result != null);
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * Caches the result of a query that missed, under the generation seen by {@link #get}.
+     * If the region changed meanwhile, the entry is stored under a generation no longer read.
+     *
+     * @param query The listing query, already passed to {@link #get}
+     * @param ids   The ids of the page, in order
+     * @param total The total of the listing
+     */
+    public void put(Query query, List<Long> ids, long total) {
+        if (!enabled || !query.isCacheable() || query.generation < 0) return;
+
+        long[] page = new long[ids.size()];
+        for (int i = 0; i < page.length; i++) page[i] = ids.get(i);
+        results.put(query.generation + ":" + query.key, new Result(page, total));
+    }
+
+    /**
+     * Drops the listings of the regions on this node and on every other node.
+     * When called inside a transaction, it is deferred until commit,
+     * so a listing read before the change is visible cannot be cached as the new one.
+     *
+     * @param regions The changed regions, {@link #BOOKS} or {@link #AUTHORS}
+     */
+    public void invalidate(String... regions) {
+        if (!enabled) return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(regions);
+                    broadcast(regions);
+                }
+            });
+        } else {
+            bump(regions);
+            broadcast(regions);
+        }
+    }
+
+    /**
+     * Bumps the regions changed on another node, published as {@code nodeId \n region[,region]}.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 2);
+        if (parts.length < 2 || parts[0].equals(nodeId)) return;
+
+        bump(parts[1].split(","));
+    }
+
+    private void bump(String... regions) {
+        for (String region : regions) generation(region).incrementAndGet();
+    }
+
+    private AtomicLong generation(String region) {
+        return generations.computeIfAbsent(region, r -> new AtomicLong());
+    }
+
+    private void broadcast(String[] regions) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "\n" + String.join(",", regions));
+        } catch (RuntimeException ex) {
+            log.error("Failed to broadcast the invalidation of {} listings, other nodes will expire them by TTL", Arrays.toString(regions), ex);
+        }
+    }
+
+    /**
+     * The ids of a cached page, in order, and the total of the listing.
+     */
+    public record Result(long[] ids, long total) {
+        public List<Long> idList() {
+            List<Long> list = new ArrayList<>(ids.length);
+            for (long id : ids) list.add(id);
+            return list;
+        }
+    }
+
+    /**
+     * A listing query, normalized so equivalent requests share an entry:
+     * filters are matched ignoring case, and empty filters are the same as absent ones.
+     */
+    public static final class Query {
+        private final String region;
+        private final Pageable pageable;
+        private final StringBuilder filters = new StringBuilder();
+        private final StringJoiner filterNames = new StringJoiner(",", "[", "]");
+        private String key;
+        private String shape;
+        private long generation = -1;
+
+        private Query(String region, Pageable pageable) {
+            this.region = region;
+            this.pageable = pageable;
+        }
+
+        public static Query of(String region, Pageable pageable) {
+            return new Query(region, pageable);
+        }
+
+        public Query filter(String name, String value) {
+            if (StringUtils.hasLength(value)) {
+                filters.append(name).append('=').append(value.toLowerCase(Locale.ROOT)).append('&');
+                filterNames.add(name);
+            }
+            return this;
+        }
+
+        //an unpaged listing has no bound, it is not worth keeping
+        private boolean isCacheable() {
+            if (pageable.isUnpaged()) return false;
+            if (key == null) {
+                String sort = sort(pageable.getSort());
+                key = filters + "|" + sort + "|" + pageable.getPageNumber() + "|" + pageable.getPageSize();
+                shape = region + filterNames + " sort=" + sort;
+            }
+            return true;
+        }
+
+        private static String sort(Sort sort) {
+            if (sort.isUnsorted()) return "unsorted";
+
+            StringJoiner orders = new StringJoiner(",");
+            for (Sort.Order order : sort) {
+                orders.add(order.getProperty() + ":" + order.getDirection() + (order.isIgnoreCase() ? ":ignoreCase" : ""));
+            }
+            return orders.toString();
+        }
+    }
+
+    /**
+     * Hit and miss counts of a query shape. The shapes are bounded, the sort properties are validated against the entity.
+     */
+    private final class ShapeStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        ShapeStats(String shape) {
+            FunctionCounter.builder("cache.query.gets", hits, LongAdder::sum)
+                    .description("Listing lookups of the query result cache")
+                    .tags("shape", shape, "result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("cache.query.gets", misses, LongAdder::sum)
+                    .description("Listing lookups of the query result cache")
+                    .tags("shape", shape, "result", "miss")
+                    .register(meterRegistry);
+            Gauge.builder("cache.query.hit.ratio", this, ShapeStats::hitRatio)
+                    .description("Share of listing lookups answered by the query result cache")
+                    .tag("shape", shape)
+                    .register(meterRegistry);
+        }
+
+        void record(boolean hit) {
+            (hit ? hits : misses).increment();
+        }
+
+        double hitRatio() {
+            long hit = hits.sum();
+            long total = hit + misses.sum();
+            return total == 0 ? 0 : (double) hit / total;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.asim.business.infrastructure.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache with a bounded in-process L1 in front of a shared L2 (Redis).
+ * Reads are served from L1 when possible and fill it from L2 otherwise.
+ * Writes go to both tiers and are broadcast, so other nodes drop their L1 copy.
+ * <p>
+ * Unlike Redis, L1 hands out the same instance to every reader, so cached values must be treated as read-only.
+ * <p>
+ * An invalidation can land while a reader is fetching the old value from L2. Each invalidation bumps the stamp of its
+ * key, and a reader only keeps what it put in L1 when the stamp did not move meanwhile, so a late fill cannot
+ * resurrect an evicted value until the L1 TTL.
+ * <p>
+ * Several keys can be looked up at once ({@link #getAll(Cache, Collection, Class)}), the L1 misses are then read from
+ * Redis with a single MGET rather than one round trip per key.
+ * <p>
+ * L1 keeps its own statistics, L2 outcomes are counted here and L2 round trips are timed as {@code cache.l2.latency},
+ * see {@link TieredCacheMetrics} for the meters built from them.
+ */
+public class TieredCache implements Cache {
+
+    //keys share stamps by hash, a collision only skips a fill
+    private static final int STAMP_STRIPES = 1024;
+
+    private final Cache l2;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final TieredCacheManager.Broadcaster broadcaster;
+    private final StringRedisTemplate redisTemplate;
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder removals = new LongAdder();
+    private final Timer l2Gets;
+    private final Timer l2Loads;
+    private final Timer l2Puts;
+    private final Timer l2Evicts;
+    private final AtomicLongArray keyStamps = new AtomicLongArray(STAMP_STRIPES);
+    private final AtomicLong clearStamp = new AtomicLong();
+
+    TieredCache(Cache l2,
+                com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+                TieredCacheManager.Broadcaster broadcaster,
+                StringRedisTemplate redisTemplate,
+                MeterRegistry meterRegistry) {
+        this.l2 = l2;
+        this.l1 = l1;
+        this.broadcaster = broadcaster;
+        this.redisTemplate = redisTemplate;
+        this.l2Gets = l2Timer(meterRegistry, "get");
+        this.l2Loads = l2Timer(meterRegistry, "load");
+        this.l2Puts = l2Timer(meterRegistry, "put");
+        this.l2Evicts = l2Timer(meterRegistry, "evict");
+    }
+
+    //one timer per operation, the loads include the time of the loader on a miss
+    private Timer l2Timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("cache.l2.latency")
+                .description("Time spent in the shared tier of a tiered cache")
+                .tag("cache", getName())
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return l2.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getL1() {
+        return l1;
+    }
+
+    @Override
+    public ValueWrapper get(@NonNull Object key) {
+        // L1 keys follow Redis, where every key is stored in its string form
+        String l1Key = key.toString();
+        Object value = l1.getIfPresent(l1Key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        long stamp = stamp(l1Key);
+        long start = System.nanoTime();
+        ValueWrapper wrapper = l2.get(key);
+        l2Gets.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (wrapper != null && wrapper.get() != null) {
+            l2Hits.increment();
+            fill(l1Key, wrapper.get(), stamp);
+        } else {
+            l2Misses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    public <T> T get(@NonNull Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        return checked(wrapper != null ? wrapper.get() : null, type);
+    }
+
+    /**
+     * Looks up several keys of a cache. A tiered cache, even behind its transaction-aware decorator, reads its L1
+     * misses from L2 in one round trip, any other cache is read key by key.
+     *
+     * @return The values found, by key, the keys not cached are left out
+     */
+    public static <K, T> Map<K, T> getAll(Cache cache, Collection<K> keys, Class<T> type) {
+        Cache target = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+        if (target instanceof TieredCache tiered) return tiered.getAll(keys, type);
+
+        Map<K, T> found = new HashMap<>(keys.size() * 2);
+        for (K key : keys) {
+            T value = cache.get(key, type);
+            if (value != null) found.put(key, value);
+        }
+        return found;
+    }
+
+    private <K, T> Map<K, T> getAll(Collection<K> keys, Class<T> type) {
+        Map<K, T> found = new HashMap<>(keys.size() * 2);
+        List<K> misses = new ArrayList<>();
+        for (K key : keys) {
+            Object value = l1.getIfPresent(key.toString());
+            if (value != null) found.put(key, checked(value, type));
+            else misses.add(key);
+        }
+        if (misses.isEmpty()) return found;
+
+        long[] stamps = new long[misses.size()];
+        for (int i = 0; i < stamps.length; i++) stamps[i] = stamp(misses.get(i).toString());
+
+        long start = System.nanoTime();
+        List<Object> values = l2GetAll(misses);
+        l2Gets.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        for (int i = 0; i < stamps.length; i++) {
+            Object value = values.get(i);
+            if (value == null) {
+                l2Misses.increment();
+                continue;
+            }
+            l2Hits.increment();
+            fill(misses.get(i).toString(), value, stamps[i]);
+            found.put(misses.get(i), checked(value, type));
+        }
+        return found;
+    }
+
+    //MGET on the keys the Redis cache would use, a non-Redis L2 is read key by key
+    private List<Object> l2GetAll(List<?> keys) {
+        List<Object> values = new ArrayList<>(keys.size());
+        if (!(l2 instanceof RedisCache redisCache)) {
+            for (Object key : keys) {
+                ValueWrapper wrapper = l2.get(key);
+                values.add(wrapper != null ? wrapper.get() : null);
+            }
+            return values;
+        }
+
+        RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        byte[][] rawKeys = new byte[keys.size()][];
+        for (int i = 0; i < rawKeys.length; i++) {
+            String key = configuration.usePrefix() ? configuration.getKeyPrefixFor(getName()) + keys.get(i) : keys.get(i).toString();
+            rawKeys[i] = bytes(configuration.getKeySerializationPair().write(key));
+        }
+
+        List<byte[]> rawValues = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(rawKeys));
+        for (int i = 0; i < rawKeys.length; i++) {
+            byte[] raw = rawValues != null && i < rawValues.size() ? rawValues.get(i) : null;
+            values.add(raw == null ? null : configuration.getValueSerializationPair().read(ByteBuffer.wrap(raw)));
+        }
+        return values;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T checked(Object value, Class<T> type) {
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        String l1Key = key.toString();
+        Object value = l1.getIfPresent(l1Key);
+        if (value != null) {
+            return (T) value;
+        }
+
+        long stamp = stamp(l1Key);
+        boolean[] missed = {false};
+        long start = System.nanoTime();
+        T loaded = l2.get(key, () -> {
+            missed[0] = true;
+            return valueLoader.call();
+        });
+        l2Loads.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        (missed[0] ? l2Misses : l2Hits).increment();
+        if (loaded != null) {
+            fill(l1Key, loaded, stamp);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(@NonNull Object key, Object value) {
+        long start = System.nanoTime();
+        l2.put(key, value);
+        l2Puts.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        puts.increment();
+        invalidated(key.toString());
+        if (value != null) {
+            l1.put(key.toString(), value);
+        } else {
+            l1.invalidate(key.toString());
+        }
+        broadcaster.evict(getName(), key.toString());
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        long start = System.nanoTime();
+        l2.evict(key);
+        l2Evicts.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        removals.increment();
+        invalidated(key.toString());
+        l1.invalidate(key.toString());
+        broadcaster.evict(getName(), key.toString());
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        clearStamp.incrementAndGet();
+        l1.invalidateAll();
+        broadcaster.clear(getName());
+    }
+
+    long l2HitCount() {
+        return l2Hits.sum();
+    }
+
+    long l2MissCount() {
+        return l2Misses.sum();
+    }
+
+    long putCount() {
+        return puts.sum();
+    }
+
+    long removalCount() {
+        return removals.sum();
+    }
+
+    /**
+     * Drops an entry from this node's L1 only, on behalf of another node.
+     */
+    void evictLocal(String key) {
+        invalidated(key);
+        l1.invalidate(key);
+    }
+
+    /**
+     * Drops all entries from this node's L1 only, on behalf of another node.
+     */
+    void clearLocal() {
+        clearStamp.incrementAndGet();
+        l1.invalidateAll();
+    }
+
+    //both counters only grow, so the sum moves whenever either does
+    private long stamp(String l1Key) {
+        return clearStamp.get() + keyStamps.get(stripe(l1Key));
+    }
+
+    //bumped before the L1 entry is dropped, see fill
+    private void invalidated(String l1Key) {
+        keyStamps.incrementAndGet(stripe(l1Key));
+    }
+
+    private static int stripe(String l1Key) {
+        return (l1Key.hashCode() & Integer.MAX_VALUE) % STAMP_STRIPES;
+    }
+
+    /**
+     * Puts a value read from L2 into L1, unless the key was invalidated since the stamp was taken.
+     * An invalidation between the check and the put has not seen the value yet, the second check takes it back out.
+     */
+    private void fill(String l1Key, Object value, long stamp) {
+        if (stamp(l1Key) != stamp) return;
+
+        l1.put(l1Key, value);
+        if (stamp(l1Key) != stamp) l1.asMap().remove(l1Key, value);
+    }
+}
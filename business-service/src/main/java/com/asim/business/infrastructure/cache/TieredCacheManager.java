@@ -0,0 +1,156 @@
+package com.asim.business.infrastructure.cache;
+
+import com.asim.business.infrastructure.config.L1CacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager that puts a per-node Caffeine L1 in front of each Redis (L2) cache.
+ * <p>
+ * Puts, evicts and clears are applied to both tiers after the surrounding transaction commits,
+ * then broadcast over Redis pub/sub so the other nodes drop their L1 entry.
+ * A lost message leaves a stale L1 entry for at most the L1 TTL of that cache.
+ * <p>
+ * Local-only caches (e.g. reflection results) are plain in-memory caches and are never broadcast.
+ */
+@Slf4j
+public class TieredCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "business:cache:invalidate";
+    private static final String EVICT = "evict";
+    private static final String CLEAR = "clear";
+
+    private final CacheManager redisCacheManager;
+    private final L1CacheProperties l1CacheProperties;
+    private final Set<String> localCacheNames;
+    private final Broadcaster broadcaster;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TieredCache> tieredCaches = new ConcurrentHashMap<>();
+    // messages carry the sender so a node does not evict what it just wrote
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public TieredCacheManager(CacheManager redisCacheManager,
+                              L1CacheProperties l1CacheProperties,
+                              StringRedisTemplate redisTemplate,
+                              Set<String> localCacheNames,
+                              MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.l1CacheProperties = l1CacheProperties;
+        this.localCacheNames = localCacheNames;
+        this.broadcaster = new Broadcaster(redisTemplate, nodeId);
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        setTransactionAware(true);
+    }
+
+    @Override
+    @NonNull
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        localCacheNames.forEach(name -> caches.add(new ConcurrentMapCache(name, false)));
+        redisCacheManager.getCacheNames().forEach(name -> caches.add(tiered(name)));
+        return caches;
+    }
+
+    @Override
+    protected Cache getMissingCache(@NonNull String name) {
+        return tiered(name);
+    }
+
+    @Override
+    @NonNull
+    protected Cache decorateCache(@NonNull Cache cache) {
+        // local caches were never transaction aware
+        return localCacheNames.contains(cache.getName()) ? cache : super.decorateCache(cache);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 4);
+        if (parts.length < 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+
+        TieredCache cache = tieredCaches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else if (EVICT.equals(parts[1]) && parts.length == 4) {
+            cache.evictLocal(parts[3]);
+        }
+    }
+
+    private Cache tiered(String name) {
+        Cache l2 = redisCacheManager.getCache(name);
+        if (l2 == null) {
+            return null;
+        }
+
+        L1CacheProperties.Spec spec = l1CacheProperties.specFor(name);
+        if (spec.getMaximumSize() <= 0) {
+            return l2;
+        }
+
+        TieredCache cache = new TieredCache(l2, Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build(), broadcaster, redisTemplate, meterRegistry);
+        tieredCaches.put(name, cache);
+        return cache;
+    }
+
+    public Map<String, TieredCache> getTieredCaches() {
+        return Map.copyOf(tieredCaches);
+    }
+
+    /**
+     * Publishes L1 invalidations to the other nodes as {@code nodeId \n operation \n cacheName [\n key]}.
+     */
+    static class Broadcaster {
+        private final StringRedisTemplate redisTemplate;
+        private final String nodeId;
+
+        Broadcaster(StringRedisTemplate redisTemplate, String nodeId) {
+            this.redisTemplate = redisTemplate;
+            this.nodeId = nodeId;
+        }
+
+        void evict(String cacheName, String key) {
+            publish(nodeId + "\n" + EVICT + "\n" + cacheName + "\n" + key);
+        }
+
+        void clear(String cacheName) {
+            publish(nodeId + "\n" + CLEAR + "\n" + cacheName);
+        }
+
+        private void publish(String message) {
+            try {
+                redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+            } catch (RuntimeException ex) {
+                log.error("Failed to broadcast cache invalidation, other nodes will expire it by L1 TTL", ex);
+            }
+        }
+    }
+}
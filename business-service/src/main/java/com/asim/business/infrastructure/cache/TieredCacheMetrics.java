@@ -0,0 +1,77 @@
+package com.asim.business.infrastructure.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Meters of a {@link TieredCache}, bound by Spring Boot for every tiered cache of the cache manager.
+ * <p>
+ * The common cache meters describe the cache as a whole: a get is a hit when either tier answers it,
+ * a miss when both miss, and evictions are the L1 entries dropped for size.
+ * {@code cache.tier.gets} splits the gets per tier, {@code cache.removals} counts explicit evicts.
+ * The latency of the L2 round trips is recorded by the cache itself as {@code cache.l2.latency}.
+ */
+public class TieredCacheMetrics extends CacheMeterBinder<TieredCache> {
+
+    public TieredCacheMetrics(TieredCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TieredCache cache = getCache();
+        return cache == null ? null : cache.getL1().estimatedSize();
+    }
+
+    @Override
+    protected long hitCount() {
+        TieredCache cache = getCache();
+        return cache == null ? 0 : cache.getL1().stats().hitCount() + cache.l2HitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        TieredCache cache = getCache();
+        return cache == null ? null : cache.l2MissCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TieredCache cache = getCache();
+        return cache == null ? null : cache.getL1().stats().evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        TieredCache cache = getCache();
+        return cache == null ? 0 : cache.putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TieredCache cache = getCache();
+        tierGets(registry, cache, "l1", "hit", c -> c.getL1().stats().hitCount());
+        tierGets(registry, cache, "l1", "miss", c -> c.getL1().stats().missCount());
+        tierGets(registry, cache, "l2", "hit", TieredCache::l2HitCount);
+        tierGets(registry, cache, "l2", "miss", TieredCache::l2MissCount);
+
+        FunctionCounter.builder("cache.removals", cache, TieredCache::removalCount)
+                .tags(getTagsWithCacheName())
+                .description("Cache removals")
+                .register(registry);
+    }
+
+    private void tierGets(MeterRegistry registry, TieredCache cache, String tier, String result,
+                          ToLongFunction<TieredCache> count) {
+        FunctionCounter.builder("cache.tier.gets", cache, c -> count.applyAsLong(c))
+                .tags(getTagsWithCacheName())
+                .tag("tier", tier)
+                .tag("result", result)
+                .description("Gets answered by each tier of the cache")
+                .register(registry);
+    }
+}
@@ -0,0 +1,112 @@
+package com.asim.business.infrastructure.cache;
+
+import com.asim.business.domain.user.model.entity.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of user roles, sitting in front of the Redis {@code user} cache.
+ * It saves the Redis round trip and deserialization the authentication filter would otherwise pay per request.
+ * <p>
+ * Role changes are broadcast over Redis pub/sub so every node drops its entry.
+ * If a message is lost, the entry still expires after the configured TTL, which bounds how long a stale role is honored.
+ */
+@Slf4j
+@Component
+public class UserRoleNearCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "business:user-role:invalidate";
+    private static final String METRICS_NAME = "userRole";
+
+    private final Cache<Long, Role> roles;
+    private final StringRedisTemplate redisTemplate;
+
+    public UserRoleNearCache(StringRedisTemplate redisTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${cache.user-role.maximum-size:10000}") long maximumSize,
+                             @Value("${cache.user-role.ttl:30s}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.roles = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        // exposes cache.gets{result=hit|miss}, cache.evictions and cache.size
+        CaffeineCacheMetrics.monitor(meterRegistry, roles, METRICS_NAME);
+    }
+
+    /**
+     * Returns the role of the user, loading it only if it is not cached locally.
+     *
+     * @param userId The user identifier
+     * @param loader Resolves the role on a miss, typically through the Redis backed user service
+     * @return The user's role
+     */
+    public Role getRole(Long userId, Function<Long, Role> loader) {
+        Role role = roles.getIfPresent(userId);
+        if (role != null) return role;
+
+        //loaded outside the cache, a loading get holds a map lock meanwhile, which pins a virtual thread
+        //concurrent misses may load the same role twice, the same value is cached either way
+        role = loader.apply(userId);
+        if (role != null) roles.put(userId, role);
+        return role;
+    }
+
+    /**
+     * Drops the user's role on this node and on every other node.
+     * When called inside a transaction, the broadcast is deferred until commit,
+     * so other nodes cannot reload the old role from Redis before the change is visible.
+     *
+     * @param userId The user identifier
+     */
+    public void invalidate(Long userId) {
+        roles.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(userId);
+                }
+            });
+        } else {
+            broadcast(userId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            roles.invalidate(Long.valueOf(body));
+        } catch (NumberFormatException ex) {
+            log.warn("Ignoring malformed user role invalidation message: {}", body);
+        }
+    }
+
+    private void broadcast(Long userId) {
+        // the sender also receives its own message, which only repeats the local invalidation
+        roles.invalidate(userId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId.toString());
+        } catch (RuntimeException ex) {
+            log.error("Failed to broadcast role invalidation for user {}, other nodes will expire it by TTL", userId, ex);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.asim.business.infrastructure.cache.serialization;
+
+import com.asim.business.domain.author.model.dto.AuthorDto;
+
+public class AuthorDtoCodec implements BinaryCodec<AuthorDto> {
+
+    @Override
+    public Class<AuthorDto> type() {
+        return AuthorDto.class;
+    }
+
+    @Override
+    public byte typeId() {
+        return 2;
+    }
+
+    @Override
+    public void write(AuthorDto value, BinaryWriter writer) {
+        writer.writeLong(1, value.getId());
+        writer.writeString(2, value.getName());
+        writer.writeInt(3, value.getAge());
+        writer.writeDateTime(4, value.getCreatedAt());
+        writer.writeDateTime(5, value.getUpdatedAt());
+        writer.writeString(6, value.getCreatedBy());
+        writer.writeString(7, value.getLastModifiedBy());
+        writer.writeInt(8, value.getVersion());
+    }
+
+    @Override
+    public AuthorDto read(BinaryReader reader) {
+        AuthorDto dto = new AuthorDto();
+        while (reader.nextField()) {
+            switch (reader.field()) {
+                case 1 -> dto.setId(reader.readLong());
+                case 2 -> dto.setName(reader.readString());
+                case 3 -> dto.setAge(reader.readInt());
+                case 4 -> dto.setCreatedAt(reader.readDateTime());
+                case 5 -> dto.setUpdatedAt(reader.readDateTime());
+                case 6 -> dto.setCreatedBy(reader.readString());
+                case 7 -> dto.setLastModifiedBy(reader.readString());
+                case 8 -> dto.setVersion(reader.readInt());
+                default -> reader.skip();
+            }
+        }
+        return dto;
+    }
+}
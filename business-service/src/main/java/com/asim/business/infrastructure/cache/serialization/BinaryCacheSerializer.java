@@ -0,0 +1,72 @@
+package com.asim.business.infrastructure.cache.serialization;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis value serializer writing a compact, versioned binary form for types with a registered {@link BinaryCodec}.
+ * <p>
+ * Layout: {@code MAGIC, typeId, formatVersion, tagged fields...}.
+ * Any other type, such as the flags of the invalidated sessions cache, goes through the fallback serializer.
+ * Payloads that do not start with {@code MAGIC} are handed to the fallback as well,
+ * so entries written in JSON before the switch are still readable until they expire.
+ */
+public class BinaryCacheSerializer implements RedisSerializer<Object> {
+
+    // not a valid first byte of UTF-8 encoded JSON
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte FORMAT_VERSION = 1;
+
+    private final Map<Class<?>, BinaryCodec<?>> codecsByType = new HashMap<>();
+    private final Map<Byte, BinaryCodec<?>> codecsById = new HashMap<>();
+    private final RedisSerializer<Object> fallback;
+
+    public BinaryCacheSerializer(List<BinaryCodec<?>> codecs, RedisSerializer<Object> fallback) {
+        for (BinaryCodec<?> codec : codecs) {
+            if (codecsById.put(codec.typeId(), codec) != null) {
+                throw new IllegalArgumentException("Duplicate cache codec type id " + codec.typeId());
+            }
+            codecsByType.put(codec.type(), codec);
+        }
+        this.fallback = fallback;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) return new byte[0];
+
+        BinaryCodec<Object> codec = (BinaryCodec<Object>) codecsByType.get(value.getClass());
+        if (codec == null) {
+            return fallback.serialize(value);
+        }
+
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeByte(MAGIC);
+        writer.writeByte(codec.typeId());
+        writer.writeByte(FORMAT_VERSION);
+        codec.write(value, writer);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+
+        BinaryReader reader = new BinaryReader(bytes, 1, bytes.length);
+        byte typeId = (byte) reader.readByte();
+        // the format version is kept for layout changes that tagged fields cannot absorb
+        reader.readByte();
+
+        BinaryCodec<?> codec = codecsById.get(typeId);
+        // a type introduced by a newer node, treated as a cache miss
+        return codec == null ? null : codec.read(reader);
+    }
+}
@@ -0,0 +1,27 @@
+package com.asim.business.infrastructure.cache.serialization;
+
+/**
+ * Writes and reads one cached type in the binary cache format.
+ * <p>
+ * Fields are tagged with a number, so a codec must never reuse or renumber a field.
+ * Readers skip fields they do not know and leave missing fields null,
+ * which lets nodes running different versions share the same cache entries.
+ *
+ * @param <T> the cached type
+ */
+public interface BinaryCodec<T> {
+
+    /**
+     * @return the type handled by this codec
+     */
+    Class<T> type();
+
+    /**
+     * @return identifier written in every payload of this type, unique among the registered codecs
+     */
+    byte typeId();
+
+    void write(T value, BinaryWriter writer);
+
+    T read(BinaryReader reader);
+}
@@ -0,0 +1,140 @@
+package com.asim.business.infrastructure.cache.serialization;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Reads tagged fields written by {@link BinaryWriter}.
+ * Typical use is a loop over {@link #nextField()} with a switch on {@link #field()},
+ * calling {@link #skip()} for unknown fields.
+ */
+public final class BinaryReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+    private int field;
+    private int wireType;
+
+    BinaryReader(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Advances to the next field.
+     *
+     * @return false when there are no more fields
+     */
+    public boolean nextField() {
+        if (position >= limit) return false;
+        long tag = varLong();
+        field = (int) (tag >>> 3);
+        wireType = (int) (tag & 0x7);
+        return true;
+    }
+
+    public int field() {
+        return field;
+    }
+
+    public Long readLong() {
+        expect(BinaryWriter.VARINT);
+        return unZigZag(varLong());
+    }
+
+    public Integer readInt() {
+        return Math.toIntExact(readLong());
+    }
+
+    public String readString() {
+        expect(BinaryWriter.BYTES);
+        int length = length();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads an enum constant, returning null for constants unknown to this version.
+     */
+    public <E extends Enum<E>> E readEnum(Class<E> type) {
+        String name = readString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    public ZonedDateTime readDateTime() {
+        expect(BinaryWriter.INSTANT);
+        long seconds = unZigZag(varLong());
+        int nanos = (int) varLong();
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), ZoneOffset.UTC);
+    }
+
+    public <T> T readNested(BinaryCodec<T> codec) {
+        expect(BinaryWriter.BYTES);
+        int length = length();
+        T value = codec.read(new BinaryReader(buffer, position, position + length));
+        position += length;
+        return value;
+    }
+
+    /**
+     * Skips the current field, used for fields written by a newer version.
+     */
+    public void skip() {
+        switch (wireType) {
+            case BinaryWriter.VARINT -> varLong();
+            case BinaryWriter.BYTES -> {
+                int length = length();
+                position += length;
+            }
+            case BinaryWriter.INSTANT -> {
+                varLong();
+                varLong();
+            }
+            default -> throw new SerializationException("Unknown wire type " + wireType + " for field " + field);
+        }
+    }
+
+    int readByte() {
+        if (position >= limit) throw new SerializationException("Unexpected end of cached value");
+        return buffer[position++] & 0xFF;
+    }
+
+    private void expect(int expectedWireType) {
+        if (wireType != expectedWireType) {
+            throw new SerializationException("Field " + field + " has wire type " + wireType + ", expected " + expectedWireType);
+        }
+    }
+
+    private int length() {
+        long length = varLong();
+        if (length < 0 || position + length > limit) {
+            throw new SerializationException("Field " + field + " exceeds the cached value");
+        }
+        return (int) length;
+    }
+
+    private long varLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new SerializationException("Malformed varint in cached value");
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,107 @@
+package com.asim.business.infrastructure.cache.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+/**
+ * Appends tagged fields to a growable buffer. Null values are not written at all.
+ */
+public final class BinaryWriter {
+
+    static final int VARINT = 0;
+    static final int BYTES = 1;
+    static final int INSTANT = 2;
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter() {
+        this(64);
+    }
+
+    BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public void writeLong(int field, Long value) {
+        if (value == null) return;
+        tag(field, VARINT);
+        varLong(zigZag(value));
+    }
+
+    public void writeInt(int field, Integer value) {
+        if (value == null) return;
+        writeLong(field, value.longValue());
+    }
+
+    public void writeString(int field, String value) {
+        if (value == null) return;
+        tag(field, BYTES);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        varLong(bytes.length);
+        raw(bytes, bytes.length);
+    }
+
+    public void writeEnum(int field, Enum<?> value) {
+        if (value == null) return;
+        writeString(field, value.name());
+    }
+
+    /**
+     * Stores the instant only, values are read back in UTC as the JSON form did.
+     */
+    public void writeDateTime(int field, ZonedDateTime value) {
+        if (value == null) return;
+        tag(field, INSTANT);
+        varLong(zigZag(value.toEpochSecond()));
+        varLong(value.getNano());
+    }
+
+    public <T> void writeNested(int field, T value, BinaryCodec<T> codec) {
+        if (value == null) return;
+        BinaryWriter nested = new BinaryWriter();
+        codec.write(value, nested);
+        tag(field, BYTES);
+        varLong(nested.position);
+        raw(nested.buffer, nested.position);
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void tag(int field, int wireType) {
+        varLong(((long) field << 3) | wireType);
+    }
+
+    private void varLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void raw(byte[] bytes, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, 0, buffer, position, length);
+        position += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,51 @@
+package com.asim.business.infrastructure.cache.serialization;
+
+import com.asim.business.domain.book.model.dto.BookDto;
+
+public class BookDtoCodec implements BinaryCodec<BookDto> {
+
+    private final AuthorDtoCodec authorCodec = new AuthorDtoCodec();
+
+    @Override
+    public Class<BookDto> type() {
+        return BookDto.class;
+    }
+
+    @Override
+    public byte typeId() {
+        return 1;
+    }
+
+    @Override
+    public void write(BookDto value, BinaryWriter writer) {
+        writer.writeLong(1, value.getId());
+        writer.writeString(2, value.getIsbn());
+        writer.writeString(3, value.getTitle());
+        writer.writeNested(4, value.getAuthor(), authorCodec);
+        writer.writeDateTime(5, value.getCreatedAt());
+        writer.writeDateTime(6, value.getUpdatedAt());
+        writer.writeString(7, value.getCreatedBy());
+        writer.writeString(8, value.getLastModifiedBy());
+        writer.writeInt(9, value.getVersion());
+    }
+
+    @Override
+    public BookDto read(BinaryReader reader) {
+        BookDto dto = new BookDto();
+        while (reader.nextField()) {
+            switch (reader.field()) {
+                case 1 -> dto.setId(reader.readLong());
+                case 2 -> dto.setIsbn(reader.readString());
+                case 3 -> dto.setTitle(reader.readString());
+                case 4 -> dto.setAuthor(reader.readNested(authorCodec));
+                case 5 -> dto.setCreatedAt(reader.readDateTime());
+                case 6 -> dto.setUpdatedAt(reader.readDateTime());
+                case 7 -> dto.setCreatedBy(reader.readString());
+                case 8 -> dto.setLastModifiedBy(reader.readString());
+                case 9 -> dto.setVersion(reader.readInt());
+                default -> reader.skip();
+            }
+        }
+        return dto;
+    }
+}
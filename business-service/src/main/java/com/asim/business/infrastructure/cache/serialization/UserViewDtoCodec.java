@@ -0,0 +1,42 @@
+package com.asim.business.infrastructure.cache.serialization;
+
+import com.asim.business.domain.user.model.dto.UserViewDto;
+import com.asim.business.domain.user.model.entity.Role;
+
+public class UserViewDtoCodec implements BinaryCodec<UserViewDto> {
+
+    @Override
+    public Class<UserViewDto> type() {
+        return UserViewDto.class;
+    }
+
+    @Override
+    public byte typeId() {
+        return 3;
+    }
+
+    @Override
+    public void write(UserViewDto value, BinaryWriter writer) {
+        writer.writeString(1, value.getName());
+        writer.writeEnum(2, value.getRole());
+        writer.writeDateTime(3, value.getCreatedAt());
+        writer.writeDateTime(4, value.getUpdatedAt());
+        writer.writeInt(5, value.getVersion());
+    }
+
+    @Override
+    public UserViewDto read(BinaryReader reader) {
+        UserViewDto dto = new UserViewDto();
+        while (reader.nextField()) {
+            switch (reader.field()) {
+                case 1 -> dto.setName(reader.readString());
+                case 2 -> dto.setRole(reader.readEnum(Role.class));
+                case 3 -> dto.setCreatedAt(reader.readDateTime());
+                case 4 -> dto.setUpdatedAt(reader.readDateTime());
+                case 5 -> dto.setVersion(reader.readInt());
+                default -> reader.skip();
+            }
+        }
+        return dto;
+    }
+}
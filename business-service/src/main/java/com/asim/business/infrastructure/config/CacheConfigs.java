@@ -1,16 +1,30 @@
 package com.asim.business.infrastructure.config;
 
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.cache.TieredCache;
+import com.asim.business.infrastructure.cache.TieredCacheManager;
+import com.asim.business.infrastructure.cache.TieredCacheMetrics;
+import com.asim.business.infrastructure.cache.UserRoleNearCache;
+import com.asim.business.infrastructure.cache.serialization.AuthorDtoCodec;
+import com.asim.business.infrastructure.cache.serialization.BinaryCacheSerializer;
+import com.asim.business.infrastructure.cache.serialization.BookDtoCodec;
+import com.asim.business.infrastructure.cache.serialization.UserViewDtoCodec;
+import com.asim.business.infrastructure.search.BookSearchIndex;
+import com.asim.business.infrastructure.security.SessionRevocationIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
-import org.springframework.cache.support.CompositeCacheManager;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -34,19 +48,54 @@ public class CacheConfigs {
     private static final String CACHE_NAME_PREFIX = "business:";
     private static final Long DEFAULT_EXPIRATION = 7L;// in days
     private final ObjectMapper objectMapper;
+    private final L1CacheProperties l1CacheProperties;
     @Value("${jwt.access.expiry}")
     private long accessJwtExpiration;
 
+    /**
+     * Redis caches (L2) fronted by per-node L1 caches sized by {@link L1CacheProperties},
+     * plus the in-memory {@code runtime} cache which is local only.
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TieredCacheManager cacheManager(RedisConnectionFactory connectionFactory, StringRedisTemplate redisTemplate,
+                                           MeterRegistry meterRegistry) {
         RedisCacheManager redisCacheManager = redisCacheManager(connectionFactory);
-        ConcurrentMapCacheManager runtimeCacheManager = runtimeMemoryCacheManager();
+        redisCacheManager.initializeCaches();
 
-        CompositeCacheManager compositeCacheManager = new CompositeCacheManager();
-        compositeCacheManager.setCacheManagers(List.of(runtimeCacheManager, redisCacheManager));
-        compositeCacheManager.setFallbackToNoOpCache(false);
+        return new TieredCacheManager(redisCacheManager, l1CacheProperties, redisTemplate, Set.of(RUNTIME_MEMORY_CACHE),
+                meterRegistry);
+    }
 
-        return compositeCacheManager;
+    /**
+     * Lets Spring Boot bind the meters of the tiered caches, the Redis only and local caches have built-in binders.
+     */
+    @Bean
+    public CacheMeterBinderProvider<TieredCache> tieredCacheMeterBinderProvider() {
+        return TieredCacheMetrics::new;
+    }
+
+    /**
+     * Subscribes in-process caches and indexes to invalidations broadcast by other nodes.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            SimpleAsyncTaskExecutorBuilder taskExecutorBuilder,
+                                                                            TieredCacheManager cacheManager,
+                                                                            UserRoleNearCache userRoleNearCache,
+                                                                            SessionRevocationIndex sessionRevocationIndex,
+                                                                            BookSearchIndex bookSearchIndex,
+                                                                            QueryResultCache queryResultCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        //every message is dispatched on a new thread, a virtual one when spring.threads.virtual.enabled is set
+        container.setTaskExecutor(taskExecutorBuilder.threadNamePrefix("redis-listener-").build());
+        container.addMessageListener(cacheManager, new ChannelTopic(TieredCacheManager.INVALIDATION_CHANNEL));
+        container.addMessageListener(userRoleNearCache, new ChannelTopic(UserRoleNearCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(sessionRevocationIndex, new ChannelTopic(SessionRevocationIndex.REVOCATION_CHANNEL));
+        container.addMessageListener(bookSearchIndex, new ChannelTopic(BookSearchIndex.CHANGE_CHANNEL));
+        container.addMessageListener(queryResultCache, new ChannelTopic(QueryResultCache.INVALIDATION_CHANNEL));
+
+        return container;
     }
 
 
@@ -58,15 +107,17 @@ public class CacheConfigs {
                 ObjectMapper.DefaultTyping.NON_FINAL
         );
 
-        // serializers for Redis
+        // serializers for Redis, DTOs are written in binary and anything else in JSON
         GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(cacheObjectMapper);
+        BinaryCacheSerializer valueSerializer = new BinaryCacheSerializer(
+                List.of(new BookDtoCodec(), new AuthorDtoCodec(), new UserViewDtoCodec()), jsonSerializer);
         StringRedisSerializer stringSerializer = new StringRedisSerializer();
 
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(stringSerializer))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(jsonSerializer))
+                        .fromSerializer(valueSerializer))
                 .entryTtl(Duration.ofDays(DEFAULT_EXPIRATION))
                 .prefixCacheNameWith(CACHE_NAME_PREFIX)
                 .disableCachingNullValues();
@@ -76,8 +127,9 @@ public class CacheConfigs {
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(customRedisCacheConfigurations)
-                .transactionAware()
                 .initialCacheNames(Set.of(INVALID_SESSION, USERS, AUTHORS, BOOKS))
+                // hits, misses, puts and removals for the cache meters
+                .enableStatistics()
                 .build();
     }
 
@@ -91,8 +143,4 @@ public class CacheConfigs {
 
         return cacheConfigurations;
     }
-
-    private ConcurrentMapCacheManager runtimeMemoryCacheManager() {
-        return new ConcurrentMapCacheManager(RUNTIME_MEMORY_CACHE);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.asim.business.infrastructure.config;
+
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class GrpcServerConfig {
+
+    /**
+     * With virtual threads enabled (spring.threads.virtual.enabled), gRPC calls run on a virtual thread each,
+     * like the HTTP requests, instead of the default cached pool of platform threads.
+     * The calls block on the database and Redis, so a thread per call costs nothing while waiting.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public GrpcServerConfigurer virtualThreadExecutorConfigurer() {
+        return serverBuilder -> serverBuilder.executor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
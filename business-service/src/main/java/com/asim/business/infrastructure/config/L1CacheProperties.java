@@ -0,0 +1,47 @@
+package com.asim.business.infrastructure.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sizing of the per-node L1 caches that sit in front of Redis.
+ * Each cache name can override the defaults, a maximum size of 0 disables L1 for that cache.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "cache.l1")
+@Getter
+@Setter
+public class L1CacheProperties {
+
+    private Spec defaults = new Spec(1000L, Duration.ofMinutes(5));
+    private Map<String, Spec> caches = new HashMap<>();
+
+    public Spec specFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        if (spec == null) {
+            return defaults;
+        }
+
+        return new Spec(
+                spec.getMaximumSize() != null ? spec.getMaximumSize() : defaults.getMaximumSize(),
+                spec.getTtl() != null ? spec.getTtl() : defaults.getTtl()
+        );
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Spec {
+        private Long maximumSize;
+        private Duration ttl;
+    }
+}
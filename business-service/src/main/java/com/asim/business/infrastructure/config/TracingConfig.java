@@ -0,0 +1,85 @@
+package com.asim.business.infrastructure.config;
+
+import com.asim.business.infrastructure.tracing.RepositoryTracingAspect;
+import com.asim.business.infrastructure.tracing.SpanExporter;
+import com.asim.business.infrastructure.tracing.Tracer;
+import com.asim.business.infrastructure.tracing.TracingObservationHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ServerInterceptor;
+import io.lettuce.core.tracing.MicrometerTracing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.observation.ObservationRegistry;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Distributed tracing on top of the Micrometer observations, exported to a file of JSON spans
+ * ({@code tracing.export.file}). A trace follows a request through:
+ * - the HTTP server observation of Spring Boot, continuing the caller's {@code traceparent} header;
+ * - the gRPC calls received from auth-service, whose {@code traceparent} comes in the call metadata;
+ * - Spring Security, the role lookup of the JWT filter and the repository calls;
+ * - every Redis command, hence every L2 cache operation.
+ * {@code tracing.sampling.probability} is the share of the new traces exported.
+ * Off unless {@code tracing.enabled} is set: the load test turns it on, a deployment opts in with a low sampling rate.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true", matchIfMissing = false)
+public class TracingConfig {
+
+    // meters of the observations only made for their spans, they duplicate the grpc.server.* and lettuce.command.* ones
+    private static final Set<String> SPAN_ONLY_OBSERVATIONS = Set.of(
+            "grpc.server", "grpc.server.active", "grpc.server.received", "grpc.server.sent", "grpc.server.cancelled",
+            "lettuce", "lettuce.active");
+
+    @Bean
+    public SpanExporter spanExporter(@Value("${tracing.export.file:logs/business-spans.jsonl}") Path file,
+                                     @Value("${tracing.export.queue-size:8192}") int queueSize,
+                                     @Value("${tracing.export.max-file-size:100MB}") DataSize maxFileSize,
+                                     ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new SpanExporter(file, queueSize, maxFileSize.toBytes(), objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public Tracer tracer(@Value("${spring.application.name}") String service,
+                         @Value("${tracing.sampling.probability:0.01}") double samplingProbability,
+                         SpanExporter spanExporter) {
+        return new Tracer(service, samplingProbability, spanExporter);
+    }
+
+    @Bean
+    public TracingObservationHandler tracingObservationHandler(Tracer tracer) {
+        return new TracingObservationHandler(tracer);
+    }
+
+    @Bean
+    public RepositoryTracingAspect repositoryTracingAspect(ObservationRegistry observationRegistry, Tracer tracer) {
+        return new RepositoryTracingAspect(observationRegistry, tracer);
+    }
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    public ServerInterceptor observationGrpcServerInterceptor(ObservationRegistry observationRegistry) {
+        return new ObservationGrpcServerInterceptor(observationRegistry);
+    }
+
+    @Bean
+    public ClientResourcesBuilderCustomizer redisTracingCustomizer(ObservationRegistry observationRegistry,
+                                                                   @Value("${spring.application.name}") String service) {
+        return builder -> builder.tracing(new MicrometerTracing(observationRegistry, service));
+    }
+
+    @Bean
+    public MeterFilter spanOnlyObservationMeterFilter() {
+        return MeterFilter.deny(id -> SPAN_ONLY_OBSERVATIONS.contains(id.getName()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.asim.business.infrastructure.config;
 
 import com.asim.business.infrastructure.logging.RequestLoggingInterceptor;
+import com.asim.business.infrastructure.web.ConditionalGetInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -10,9 +11,11 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
     private final RequestLoggingInterceptor loggingInterceptor;
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(loggingInterceptor);
+        registry.addInterceptor(conditionalGetInterceptor);
     }
 }
\ No newline at end of file
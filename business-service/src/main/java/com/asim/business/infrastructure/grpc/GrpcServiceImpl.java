@@ -7,6 +7,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
 
+import java.util.List;
+import java.util.function.Function;
+
 @GrpcService
 @RequiredArgsConstructor
 @Slf4j
@@ -43,4 +46,52 @@ public class GrpcServiceImpl extends GrpcServiceGrpc.GrpcServiceImplBase {
         responseObserver.onNext(response);
         responseObserver.onCompleted();
     }
-}
\ No newline at end of file
+
+    @Override
+    public StreamObserver<NewUserBatch> sendUsersCreated(StreamObserver<BatchAck> responseObserver) {
+        return new BatchObserver<>("sendUsersCreated", responseObserver,
+                batch -> userSyncServiceImpl.processUserCreations(
+                        batch.getUsersList().stream().map(grpcUserMapper::toUserCeateDto).toList()));
+    }
+
+    @Override
+    public StreamObserver<InvalidateTokenBatch> blockSessions(StreamObserver<BatchAck> responseObserver) {
+        return new BatchObserver<>("blockSessions", responseObserver,
+                batch -> userSyncServiceImpl.invalidateTokens(
+                        batch.getTokensList().stream().map(InvalidateToken::getSessionId).toList()));
+    }
+
+    /**
+     * Applies every batch as it arrives and acknowledges all items, in order, once the client completes the stream.
+     */
+    private static final class BatchObserver<B> implements StreamObserver<B> {
+        private final String operation;
+        private final StreamObserver<BatchAck> responseObserver;
+        private final Function<B, List<Boolean>> apply;
+        private final BatchAck.Builder ack = BatchAck.newBuilder();
+
+        BatchObserver(String operation, StreamObserver<BatchAck> responseObserver, Function<B, List<Boolean>> apply) {
+            this.operation = operation;
+            this.responseObserver = responseObserver;
+            this.apply = apply;
+        }
+
+        @Override
+        public void onNext(B batch) {
+            ack.addAllSuccess(apply.apply(batch));
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // the client resends what it did not get acknowledged
+            log.warn("Stream '{}' was cancelled after {} items: {}", operation, ack.getSuccessCount(), t.getMessage());
+        }
+
+        @Override
+        public void onCompleted() {
+            log.info("Stream '{}' applied {} items", operation, ack.getSuccessCount());
+            responseObserver.onNext(ack.build());
+            responseObserver.onCompleted();
+        }
+    }
+}
@@ -3,86 +3,79 @@ package com.asim.business.infrastructure.logging;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Interceptor to log incoming requests and outgoing responses.
+ * Interceptor writing one access-log record per request, as {@code key=value} pairs once the request completed.
+ * <p>
+ * It runs on every request, so it only reads what the record needs: headers and parameters are collected only when
+ * DEBUG is enabled for this class, and request ids are a per-node prefix plus a counter rather than a random UUID.
+ * The records go through the asynchronous appenders of logback-spring.xml, which drop them under overload instead of
+ * blocking the request. With tracing enabled, the record also carries the trace id of the request.
+ * The user is read from the security context, still set when the request completes inside the security filter chain.
  */
 @Slf4j
 @Component
 public class RequestLoggingInterceptor implements HandlerInterceptor {
 
-    private static final List<String> SENSITIVE_HEADERS = Arrays.asList(
-            "authorization", "cookie", "set-cookie"
-    );
+    public static final String REQUEST_ID_HEADER = "X-Request-ID";
+    public static final String REQUEST_ID_ATTRIBUTE = "requestId";
+    // set by the tracing observation handler when the request starts
+    public static final String TRACE_ID_ATTRIBUTE = "traceId";
+    private static final String START_TIME_ATTRIBUTE = "startTime";
+    private static final String REDACTED = "[REDACTED]";
+
+    // ids are unique per node: a random prefix drawn on startup, then a counter
+    private static final String ID_PREFIX = Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE) + "-";
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         // Use existing request ID from header if present (for distributed tracing)
-        String requestId = request.getHeader("X-Request-ID");
-        if (requestId == null) {
-            requestId = UUID.randomUUID().toString();
-        }
-
-        request.setAttribute("requestId", requestId);
-        request.setAttribute("startTime", System.currentTimeMillis());
-
-        // Get authenticated user if available
-        String username = getUserName();
-
-        // Get client IP (handling proxies)
-        String clientIp = getClientIp(request);
-
-        // Log request details
-        log.info("[{}] REQUEST: {} {} - User: {} - IP: {} - Content-Type: {}",
-                requestId,
-                request.getMethod(),
-                request.getRequestURI(),
-                username,
-                clientIp,
-                request.getContentType());
-
-        // Log request parameters if present
-        if (!request.getParameterMap().isEmpty()) {
-            String params = request.getParameterMap().entrySet().stream()
-                    .map(entry -> entry.getKey() + "=" + String.join(",", entry.getValue()))
-                    .collect(Collectors.joining(", "));
-            log.debug("[{}] request parameters: {}", requestId, params);
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isEmpty()) {
+            requestId = ID_PREFIX + Long.toHexString(ID_SEQUENCE.incrementAndGet());
         }
 
-        // Log request headers (excluding sensitive ones)
-        logHeaders(request, requestId);
+        request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+        request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
 
+        if (log.isDebugEnabled()) {
+            log.debug("requestId={} parameters={} requestHeaders={}", requestId, parameters(request), headers(request));
+        }
         return true;
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        String requestId = (String) request.getAttribute("requestId");
-        long startTime = (Long) request.getAttribute("startTime");
-        long duration = System.currentTimeMillis() - startTime;
+        Object requestId = request.getAttribute(REQUEST_ID_ATTRIBUTE);
+        Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+        long durationMs = startTime instanceof Long start ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) : -1;
+        Object traceId = request.getAttribute(TRACE_ID_ATTRIBUTE);
+        if (traceId == null) traceId = "-";
 
         if (ex != null) {
-            log.error("[{}] Exception: {} - {} ms", requestId, ex.getMessage(), duration);
-        } else {
-            // Get authenticated user if available
-            String username = getUserName();
-
-            // Log response headers (excluding sensitive ones)
-            logHeaders(response, requestId);
-
-            log.info("[{}] RESPONSE: {} {} - User: {} - {} ms - Content-Type: {}",
-                    requestId,
-                    response.getStatus(),
-                    request.getRequestURI(),
-                    username,
-                    duration,
-                    response.getContentType());
+            log.error("requestId={} traceId={} method={} uri={} status={} durationMs={} ip={} user={} exception=\"{}\"",
+                    requestId, traceId, request.getMethod(), request.getRequestURI(), response.getStatus(), durationMs,
+                    getClientIp(request), getUserName(), ex.getMessage());
+            return;
+        }
 
+        log.info("requestId={} traceId={} method={} uri={} status={} durationMs={} ip={} user={}",
+                requestId, traceId, request.getMethod(), request.getRequestURI(), response.getStatus(), durationMs,
+                getClientIp(request), getUserName());
+        if (log.isDebugEnabled()) {
+            log.debug("requestId={} responseHeaders={}", requestId, headers(response));
         }
     }
 
@@ -105,58 +98,56 @@ public class RequestLoggingInterceptor implements HandlerInterceptor {
     }
 
     /**
-     * Log headers from the request.
-     * Sensitive headers are redacted.
+     * Get authenticated username (the user id for a JWT) if available or "anonymous".
      */
-    private void logHeaders(HttpServletRequest request, String requestId) {
-        Enumeration<String> headerNames = request.getHeaderNames();
-        Map<String, String> headers = new HashMap<>();
+    private String getUserName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken)
+            return "anonymous";
+        return authentication.getName();
+    }
 
-        while (headerNames.hasMoreElements()) {
-            String headerName = headerNames.nextElement().toLowerCase();
-            if (!SENSITIVE_HEADERS.contains(headerName)) {
-                headers.put(headerName, request.getHeader(headerName));
-            } else {
-                headers.put(headerName, "[REDACTED]");
-            }
+    private String parameters(HttpServletRequest request) {
+        StringBuilder parameters = new StringBuilder("{");
+        for (Map.Entry<String, String[]> parameter : request.getParameterMap().entrySet()) {
+            if (parameters.length() > 1) parameters.append(", ");
+            parameters.append(parameter.getKey()).append('=').append(String.join(",", parameter.getValue()));
         }
+        return parameters.append('}').toString();
+    }
 
-        if (!headers.isEmpty()) {
-            log.debug("[{}] -- request headers: {}", requestId, headers);
+    /**
+     * Headers of the request, sensitive ones are redacted.
+     */
+    private String headers(HttpServletRequest request) {
+        StringBuilder headers = new StringBuilder("{");
+        Enumeration<String> headerNames = request.getHeaderNames();
+        while (headerNames.hasMoreElements()) {
+            String headerName = headerNames.nextElement();
+            appendHeader(headers, headerName, request.getHeader(headerName));
         }
+        return headers.append('}').toString();
     }
 
     /**
-     * Log headers from the response.
-     * Sensitive headers are redacted.
+     * Headers of the response, sensitive ones are redacted.
      */
-    private void logHeaders(HttpServletResponse response, String requestId) {
-        Collection<String> headerNames = response.getHeaderNames();
-        Map<String, String> headers = new HashMap<>();
-
-        for (String headerName : headerNames) {
-            String headerNameLower = headerName.toLowerCase();
-            if (!SENSITIVE_HEADERS.contains(headerNameLower)) {
-                headers.put(headerName, response.getHeader(headerName));
-            } else {
-                headers.put(headerName, "[REDACTED]");
-            }
+    private String headers(HttpServletResponse response) {
+        StringBuilder headers = new StringBuilder("{");
+        for (String headerName : response.getHeaderNames()) {
+            appendHeader(headers, headerName, response.getHeader(headerName));
         }
+        return headers.append('}').toString();
+    }
 
-        if (!headers.isEmpty()) {
-            log.debug("[{}] -- response headers: {}", requestId, headers);
-        }
+    private void appendHeader(StringBuilder headers, String name, String value) {
+        if (headers.length() > 1) headers.append(", ");
+        headers.append(name).append('=').append(isSensitive(name) ? REDACTED : value);
     }
 
-    /**
-     * Get authenticated username if available or "anonymous".
-     */
-    private String getUserName() {
-        String username = "anonymous";
-//            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-//            if (authentication != null && authentication.isAuthenticated()) {
-//                username = authentication.getName();
-//            }
-        return username;
+    private boolean isSensitive(String headerName) {
+        return headerName.equalsIgnoreCase("authorization")
+                || headerName.equalsIgnoreCase("cookie")
+                || headerName.equalsIgnoreCase("set-cookie");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.asim.business.infrastructure.persistence;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+
+/**
+ * Row count estimates from the PostgreSQL planner statistics, instead of a {@code count(*)} that reads the whole table.
+ * Estimated as the planner does: the rows per page of the last analyze times the current number of pages,
+ * so the estimate follows inserts and deletes between analyzes, but it stays an estimate.
+ * On other databases (H2 in tests), or before the first analyze, there is no estimate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TableStatistics {
+    static final String ESTIMATE = """
+            select case when c.reltuples < 0 or c.relpages = 0 then null
+                   else (c.reltuples / c.relpages * (pg_relation_size(c.oid) / current_setting('block_size')::int))::bigint end
+            from pg_class c where c.oid = to_regclass(?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    /**
+     * @param table Table name, e.g. books
+     * @return The estimated number of rows, or empty if it cannot be estimated
+     */
+    public OptionalLong estimateRows(String table) {
+        try {
+            if (!isPostgres()) return OptionalLong.empty();
+
+            Long rows = jdbcTemplate.queryForObject(ESTIMATE, Long.class, table);
+            return rows == null ? OptionalLong.empty() : OptionalLong.of(rows);
+
+        } catch (DataAccessException ex) {
+            log.warn("Row count of {} could not be estimated: {}", table, ex.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(database);
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,446 @@
+package com.asim.business.infrastructure.search;
+
+import com.asim.business.domain.author.model.entity.Author;
+import com.asim.business.domain.author.repository.AuthorRepository;
+import com.asim.business.domain.book.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory search over the book titles and author names (search.index.enabled), answering the title/author
+ * filters of the book listing with the matching book ids, already sorted, so the database only hydrates one page.
+ * <p>
+ * It keeps a trigram {@link InvertedIndex} for the titles and one for the author names, plus the author of every
+ * book, so the listing sorts by id and author are served as well. Other sorts go to the database, the text ones (title,
+ * isbn) included: PostgreSQL orders text by the database collation (en_US.utf8 by default), which Java's string order
+ * does not match (it skips hyphens at first, for one), and the order of a listing must not depend on which path or node
+ * answered it.
+ * <p>
+ * The index is built in the background once the application is ready, until then every filter goes to the database.
+ * It is kept in sync by the book and author mutations, applied after their transaction commits and broadcast over
+ * Redis pub/sub, so the other nodes reload the changed row. A lost message leaves the other nodes stale until the next
+ * rebuild, so the database stays the source of truth for anything else than listing.
+ * <p>
+ * Its size, estimated memory use and rebuild time are exposed as the {@code search.index.*} metrics.
+ */
+@Slf4j
+@Component
+public class BookSearchIndex implements MessageListener {
+
+    public static final String CHANGE_CHANNEL = "business:search:changed";
+    private static final String BOOK = "book";
+    private static final String AUTHOR = "author";
+    private static final Set<String> SORTABLE = Set.of("id", "author");
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer rebuildTimer;
+    private final boolean enabled;
+    // messages carry the sender so a node does not reload what it just applied
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by the lock, the changes are non-null while a rebuild runs, to be replayed on the new snapshot
+    private Snapshot snapshot = new Snapshot();
+    private List<Consumer<Snapshot>> changesDuringRebuild;
+    private volatile boolean ready;
+    // published by every write, so the gauges neither walk the index nor wait on the lock
+    private volatile int bookCount;
+    private volatile long estimatedBytes;
+
+    public BookSearchIndex(BookRepository bookRepository,
+                           AuthorRepository authorRepository,
+                           StringRedisTemplate redisTemplate,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${search.index.enabled:false}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        Gauge.builder("search.index.books", this, index -> index.bookCount)
+                .description("Books in the in-memory search index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.memory", this, index -> index.estimatedBytes)
+                .description("Estimated heap used by the in-memory search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("search.index.rebuild")
+                .description("Time to build the in-memory search index from the database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) return;
+
+        //a large catalog takes a while, the database answers meanwhile
+        Thread.ofPlatform().name("book-search-index").daemon().start(this::rebuild);
+    }
+
+    /**
+     * Builds a new index from the database and swaps it in. Changes made meanwhile are replayed on it.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) return;
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        Snapshot built = new Snapshot();
+        try {
+            //select id, name from authors; select id, title, author_id from books (streamed)
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<AuthorRepository.SearchEntry> authors = authorRepository.streamSearchEntries()) {
+                    authors.forEach(author -> built.putAuthor(author.getId(), author.getName()));
+                }
+                try (Stream<BookRepository.SearchEntry> books = bookRepository.streamSearchEntries()) {
+                    books.forEach(book -> built.putBook(book.getId(), book.getTitle(), book.getAuthorId()));
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.error("Failed to build the book search index, filters keep going to the database", ex);
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> change.accept(built));
+            changesDuringRebuild = null;
+            snapshot = built;
+            publishSize();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Book search index built with {} books and {} authors in {} ms, using about {} KB",
+                built.books.size(), built.authorNames.size(), TimeUnit.NANOSECONDS.toMillis(elapsed), built.estimatedBytes() / 1024);
+    }
+
+    /**
+     * @return true once the index is built and can answer filters
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds the books whose title and author name contain the given terms (case-insensitive), like the database filter.
+     *
+     * @param title  Title term, ignored if empty
+     * @param author Author name term, ignored if empty
+     * @param sort   Order of the result, the id breaks ties
+     * @return The ids of all matching books in order, or empty if the index cannot answer (not built, or the sort is not kept)
+     */
+    public Optional<List<Long>> findBookIds(String title, String author, Sort sort) {
+        if (!ready || !isSortable(sort)) return Optional.empty();
+
+        Comparator<BookEntry> comparator = comparator(sort);
+        lock.readLock().lock();
+        try {
+            return Optional.of(snapshot.find(title, author, comparator));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void bookSaved(Long id, String title, Long authorId) {
+        change(BOOK, id, snapshot -> snapshot.putBook(id, title, authorId));
+    }
+
+    public void bookDeleted(Long id) {
+        change(BOOK, id, snapshot -> snapshot.removeBook(id));
+    }
+
+    public void authorSaved(Long id, String name) {
+        change(AUTHOR, id, snapshot -> snapshot.putAuthor(id, name));
+    }
+
+    public void authorDeleted(Long id) {
+        change(AUTHOR, id, snapshot -> snapshot.removeAuthor(id));
+    }
+
+    /**
+     * Reloads the row changed on another node, published as {@code nodeId \n book|author \n id}.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!enabled) return;
+
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 3 || parts[0].equals(nodeId)) return;
+
+        try {
+            long id = Long.parseLong(parts[2]);
+            if (BOOK.equals(parts[1])) {
+                Optional<BookRepository.SearchEntry> book = bookRepository.findSearchEntry(id);
+                apply(book.<Consumer<Snapshot>>map(entry -> snapshot -> snapshot.putBook(id, entry.getTitle(), entry.getAuthorId()))
+                        .orElse(snapshot -> snapshot.removeBook(id)));
+            } else if (AUTHOR.equals(parts[1])) {
+                Optional<Author> author = authorRepository.findById(id);
+                apply(author.<Consumer<Snapshot>>map(entry -> snapshot -> snapshot.putAuthor(id, entry.getName()))
+                        .orElse(snapshot -> snapshot.removeAuthor(id)));
+            }
+        } catch (NumberFormatException ex) {
+            log.warn("Ignoring malformed search index change message: {}", parts[2]);
+        } catch (RuntimeException ex) {
+            log.error("Failed to reload {} {} into the search index, it stays stale until the next rebuild", parts[1], parts[2], ex);
+        }
+    }
+
+    /**
+     * Applies the change once the surrounding transaction commits, so rolled back changes are never searchable.
+     */
+    private void change(String type, Long id, Consumer<Snapshot> change) {
+        if (!enabled || id == null) return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                    broadcast(type, id);
+                }
+            });
+        } else {
+            apply(change);
+            broadcast(type, id);
+        }
+    }
+
+    private void apply(Consumer<Snapshot> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(snapshot);
+            if (changesDuringRebuild != null) changesDuringRebuild.add(change);
+            publishSize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void broadcast(String type, Long id) {
+        try {
+            redisTemplate.convertAndSend(CHANGE_CHANNEL, nodeId + "\n" + type + "\n" + id);
+        } catch (RuntimeException ex) {
+            log.error("Failed to broadcast the change of {} {}, other nodes stay stale until their next rebuild", type, id, ex);
+        }
+    }
+
+    //called with the write lock held
+    private void publishSize() {
+        bookCount = snapshot.books.size();
+        estimatedBytes = snapshot.estimatedBytes();
+    }
+
+    private static boolean isSortable(Sort sort) {
+        for (Sort.Order order : sort)
+            if (!SORTABLE.contains(order.getProperty()) || order.isIgnoreCase()) return false;
+        return true;
+    }
+
+    private static Comparator<BookEntry> comparator(Sort sort) {
+        Comparator<BookEntry> byId = Comparator.comparingLong(BookEntry::id);
+        Comparator<BookEntry> comparator = null;
+
+        for (Sort.Order order : sort) {
+            Comparator<BookEntry> next = switch (order.getProperty()) {
+                //the database sorts a relation by its foreign key
+                case "author" -> Comparator.comparingLong(BookEntry::authorId);
+                default -> byId;
+            };
+            if (order.isDescending()) next = next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private record BookEntry(long id, long authorId) {
+    }
+
+    /**
+     * The indexed state, not thread-safe, guarded by the lock of the owner.
+     */
+    private static final class Snapshot {
+        private static final long[] NONE = new long[0];
+        //HashMap node, boxed key and record
+        private static final long BOOK_BYTES = 64 + 32 + 32;
+
+        final InvertedIndex titles = new InvertedIndex();
+        final InvertedIndex authorNames = new InvertedIndex();
+        final Map<Long, BookEntry> books = new HashMap<>();
+        final Map<Long, BookIds> booksByAuthor = new HashMap<>();
+        // of the two maps above, kept up to date by every change
+        private long entriesBytes;
+
+        void putBook(long id, String title, long authorId) {
+            BookEntry entry = new BookEntry(id, authorId);
+            BookEntry previous = books.put(id, entry);
+            if (previous == null) entriesBytes += BOOK_BYTES;
+
+            if (previous == null || previous.authorId() != authorId) {
+                if (previous != null) unlink(previous.authorId(), id);
+                link(authorId, id);
+            }
+            titles.put(id, title);
+        }
+
+        void removeBook(long id) {
+            BookEntry previous = books.remove(id);
+            if (previous == null) return;
+
+            entriesBytes -= BOOK_BYTES;
+            unlink(previous.authorId(), id);
+            titles.remove(id);
+        }
+
+        void putAuthor(long id, String name) {
+            authorNames.put(id, name);
+        }
+
+        void removeAuthor(long id) {
+            authorNames.remove(id);
+        }
+
+        List<Long> find(String title, String author, Comparator<BookEntry> comparator) {
+            List<BookEntry> matches = new ArrayList<>();
+
+            if (StringUtils.hasLength(title)) {
+                Set<Long> authorIds = null;
+                if (StringUtils.hasLength(author)) {
+                    authorIds = new HashSet<>();
+                    for (long authorId : authorNames.search(author)) authorIds.add(authorId);
+                }
+
+                for (long id : titles.search(title)) {
+                    BookEntry book = books.get(id);
+                    if (authorIds == null || authorIds.contains(book.authorId())) matches.add(book);
+                }
+
+            } else if (StringUtils.hasLength(author)) {
+                for (long authorId : authorNames.search(author)) {
+                    BookIds ids = booksByAuthor.get(authorId);
+                    for (long id : ids == null ? NONE : ids.toArray()) matches.add(books.get(id));
+                }
+
+            } else {
+                matches.addAll(books.values());
+            }
+
+            matches.sort(comparator);
+
+            List<Long> ids = new ArrayList<>(matches.size());
+            for (BookEntry book : matches) ids.add(book.id());
+            return ids;
+        }
+
+        /**
+         * Rough heap footprint of the indexes and the kept fields.
+         */
+        long estimatedBytes() {
+            return titles.estimatedBytes() + authorNames.estimatedBytes() + entriesBytes;
+        }
+
+        private void link(long authorId, long bookId) {
+            BookIds ids = booksByAuthor.get(authorId);
+            if (ids == null) {
+                ids = new BookIds();
+                booksByAuthor.put(authorId, ids);
+                entriesBytes += 64 + ids.bytes();
+            }
+            entriesBytes += ids.add(bookId);
+        }
+
+        private void unlink(long authorId, long bookId) {
+            BookIds ids = booksByAuthor.get(authorId);
+            if (ids != null && ids.remove(bookId) == 0) {
+                booksByAuthor.remove(authorId);
+                entriesBytes -= 64 + ids.bytes();
+            }
+        }
+    }
+
+    /**
+     * Growable array of the book ids of an author, most authors only have a few.
+     */
+    private static final class BookIds {
+        private long[] ids = new long[2];
+        private int size;
+
+        /**
+         * @return the bytes the array grew by
+         */
+        long add(long id) {
+            long grown = 0;
+            if (size == ids.length) {
+                grown = 8L * size;
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+            return grown;
+        }
+
+        /**
+         * @return the remaining count
+         */
+        int remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] != id) continue;
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                size--;
+                break;
+            }
+            return size;
+        }
+
+        long bytes() {
+            return 16 + 8L * ids.length;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.asim.business.infrastructure.search;
+
+import java.util.*;
+
+/**
+ * Trigram inverted index answering "which ids have a text containing this term" (case-insensitive), like {@code like '%term%'}.
+ * Every text gets an ordinal, and every trigram (3 consecutive chars) a posting list of the ordinals of the texts having it.
+ * A term of 3+ chars can only be in texts that have all of its trigrams, so only the intersection of their postings is verified.
+ * <p>
+ * Compact by construction: ordinals are appended in increasing order, so posting lists stay sorted int arrays without re-sorting.
+ * A changed or removed text only marks its ordinal dead, the index compacts itself once dead ordinals dominate.
+ * The estimated heap footprint is kept up to date by every change, so reading it costs nothing.
+ * <p>
+ * Not thread-safe, guarded by the owner.
+ */
+final class InvertedIndex {
+    //below this many dead ordinals compaction is not worth it
+    private static final int MIN_DEAD_TO_COMPACT = 1024;
+    //rough sizes: array header, string object plus its compact Latin-1 bytes, HashMap node with boxed key and value
+    private static final long ARRAY_BYTES = 16;
+    private static final long STRING_BYTES = 40;
+    private static final long ENTRY_BYTES = 64;
+
+    private long[] ids = new long[16];
+    private String[] texts = new String[16];
+    private int count;
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    private int deadCount;
+    private long estimatedBytes = arraysBytes(ids.length);
+
+    /**
+     * Indexes the text of the id, replacing its previous text.
+     */
+    void put(long id, String text) {
+        String normalized = normalize(text);
+
+        Integer previous = ordinals.get(id);
+        if (previous != null) {
+            if (texts[previous].equals(normalized)) return;
+            kill(previous);
+        }
+
+        int ordinal = append(id, normalized);
+        if (ordinals.put(id, ordinal) == null) estimatedBytes += ENTRY_BYTES;
+
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            long trigram = trigram(normalized, i);
+            if (!seen.add(trigram)) continue;
+
+            PostingList list = postings.get(trigram);
+            if (list == null) {
+                list = new PostingList();
+                postings.put(trigram, list);
+                estimatedBytes += ENTRY_BYTES + list.bytes();
+            }
+            estimatedBytes += list.add(ordinal);
+        }
+
+        compactIfNeeded();
+    }
+
+    void remove(long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) return;
+
+        estimatedBytes -= ENTRY_BYTES;
+        kill(ordinal);
+        compactIfNeeded();
+    }
+
+    /**
+     * @return ids whose text contains the term, in no particular order
+     */
+    long[] search(String term) {
+        String normalized = normalize(term);
+        LongCollector result = new LongCollector();
+
+        //too short to have a trigram, verify every text
+        if (normalized.length() < 3) {
+            for (int ordinal = 0; ordinal < count; ordinal++)
+                if (!dead.get(ordinal) && texts[ordinal].contains(normalized)) result.add(ids[ordinal]);
+            return result.toArray();
+        }
+
+        List<PostingList> lists = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            long trigram = trigram(normalized, i);
+            if (!seen.add(trigram)) continue;
+
+            PostingList list = postings.get(trigram);
+            if (list == null) return new long[0];
+            lists.add(list);
+        }
+
+        //walk the rarest trigram, look the ordinals up in the others
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        PostingList rarest = lists.get(0);
+
+        candidates:
+        for (int i = 0; i < rarest.size; i++) {
+            int ordinal = rarest.ordinals[i];
+            if (dead.get(ordinal)) continue;
+
+            for (int j = 1; j < lists.size(); j++)
+                if (!lists.get(j).contains(ordinal)) continue candidates;
+
+            //the trigrams may be there but not adjacent
+            if (texts[ordinal].contains(normalized)) result.add(ids[ordinal]);
+        }
+
+        return result.toArray();
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Rough heap footprint, counting arrays, strings (compact Latin-1) and map entries.
+     */
+    long estimatedBytes() {
+        return estimatedBytes + dead.size() / 8;
+    }
+
+    private int append(long id, String text) {
+        if (count == ids.length) {
+            estimatedBytes += arraysBytes(count * 2) - arraysBytes(count);
+            ids = Arrays.copyOf(ids, count * 2);
+            texts = Arrays.copyOf(texts, count * 2);
+        }
+
+        ids[count] = id;
+        texts[count] = text;
+        estimatedBytes += STRING_BYTES + text.length();
+        return count++;
+    }
+
+    private void kill(int ordinal) {
+        estimatedBytes -= STRING_BYTES + texts[ordinal].length();
+        dead.set(ordinal);
+        texts[ordinal] = null;
+        deadCount++;
+    }
+
+    //the id and text arrays
+    private static long arraysBytes(int length) {
+        return 2 * (ARRAY_BYTES + 8L * length);
+    }
+
+    /**
+     * Re-indexes the live texts from scratch once most ordinals are dead.
+     */
+    private void compactIfNeeded() {
+        if (deadCount < MIN_DEAD_TO_COMPACT || deadCount < ordinals.size()) return;
+
+        long[] liveIds = new long[ordinals.size()];
+        String[] liveTexts = new String[ordinals.size()];
+        int live = 0;
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            if (dead.get(ordinal)) continue;
+            liveIds[live] = ids[ordinal];
+            liveTexts[live++] = texts[ordinal];
+        }
+
+        ids = new long[Math.max(16, live * 2)];
+        texts = new String[ids.length];
+        count = 0;
+        ordinals.clear();
+        postings.clear();
+        dead.clear();
+        deadCount = 0;
+        estimatedBytes = arraysBytes(ids.length);
+
+        for (int i = 0; i < live; i++) put(liveIds[i], liveTexts[i]);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    /**
+     * Sorted, growable array of ordinals.
+     */
+    private static final class PostingList {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        /**
+         * Ordinals are handed out in increasing order, appending keeps the list sorted.
+         *
+         * @return the bytes the list grew by
+         */
+        long add(int ordinal) {
+            long grown = 0;
+            if (size == ordinals.length) {
+                grown = 4L * size;
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+            return grown;
+        }
+
+        long bytes() {
+            return ARRAY_BYTES + 16 + 4L * ordinals.length;
+        }
+
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+        }
+    }
+
+    private static final class LongCollector {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
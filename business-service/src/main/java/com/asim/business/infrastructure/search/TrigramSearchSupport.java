@@ -0,0 +1,109 @@
+package com.asim.business.infrastructure.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Substring search through PostgreSQL trigram (pg_trgm) GIN indexes.
+ * A B-tree index cannot serve {@code lower(title) like '%x%'} because of the leading wildcard,
+ * a trigram index on {@code lower(title)} can, so the title and author name filters stop scanning the whole table.
+ * The indexes are on expressions Hibernate (ddl-auto) does not manage, so they are created here once the schema is up.
+ * A concurrent build that failed (or whose node died) leaves an INVALID index behind, which {@code if not exists}
+ * would keep forever and the planner never uses: such an index is dropped and built again. The nodes build one at a
+ * time under an advisory lock, so an index another node is still building is not mistaken for a failed one.
+ * On other databases (H2 in tests), or without the privilege to create the extension, it stays unavailable
+ * and searches fall back to the plain (scanning) like.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrigramSearchSupport {
+    static final String EXTENSION = "create extension if not exists pg_trgm";
+    static final List<TrigramIndex> INDEXES = List.of(
+            new TrigramIndex("idx_book_title_trgm", "books using gin (lower(title) gin_trgm_ops)"),
+            new TrigramIndex("idx_author_name_trgm", "authors using gin (lower(name) gin_trgm_ops)")
+    );
+    private static final String LOCK_KEY = "hashtext('business:trigram-search-indexes')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean available;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            //one connection: the advisory lock belongs to the session
+            available = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) this::createIndexes));
+            if (available) log.info("Trigram search indexes are ready");
+
+        } catch (DataAccessException ex) {
+            log.warn("Trigram search indexes could not be created, searching with plain like: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * @return true if the trigram functions and indexes can be used
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    private boolean createIndexes(Connection connection) throws SQLException {
+        String database = connection.getMetaData().getDatabaseProductName();
+        if (!"PostgreSQL".equals(database)) {
+            log.info("Trigram search is not supported on {}, searching with plain like", database);
+            return false;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(EXTENSION);
+            statement.execute("select pg_advisory_lock(" + LOCK_KEY + ")");
+            try {
+                for (TrigramIndex index : INDEXES) {
+                    if (Boolean.FALSE.equals(isValid(connection, index.name()))) {
+                        log.warn("Trigram index {} was left invalid by a failed build, building it again", index.name());
+                        statement.execute("drop index concurrently if exists " + index.name());
+                    }
+                    //concurrently: do not block writes while building on an existing catalog
+                    statement.execute("create index concurrently if not exists " + index.name() + " on " + index.definition());
+
+                    if (!Boolean.TRUE.equals(isValid(connection, index.name()))) {
+                        log.warn("Trigram index {} is not valid, searching with plain like", index.name());
+                        return false;
+                    }
+                }
+            } finally {
+                statement.execute("select pg_advisory_unlock(" + LOCK_KEY + ")");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether the index can be used by queries, null when it does not exist
+     */
+    private static Boolean isValid(Connection connection, String index) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement("select indisvalid from pg_index where indexrelid = to_regclass(?)")) {
+            query.setString(1, index);
+            try (ResultSet result = query.executeQuery()) {
+                return result.next() ? result.getBoolean(1) : null;
+            }
+        }
+    }
+
+    record TrigramIndex(String name, String definition) {
+    }
+}
@@ -1,6 +1,9 @@
 package com.asim.business.infrastructure.security;
 
 import com.asim.business.domain.user.service.UserService;
+import com.asim.business.infrastructure.cache.UserRoleNearCache;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,7 +20,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
 @Slf4j
 @Component
@@ -26,6 +28,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTools jwtTools;
     private final UserService userService;
+    private final UserRoleNearCache userRoleNearCache;
+    private final ObservationRegistry observationRegistry;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -37,12 +41,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String jwtToken = extractJwtFromRequest(request);
 
         if (jwtToken != null && !jwtToken.isEmpty()) {
-            Map<String, Object> claims = jwtTools.validateAndParseToken(jwtToken);
-            Long userId = Long.valueOf(claims.get("userId").toString());
-            String sessionId = claims.get("sessionId").toString();
+            JwtClaims claims = jwtTools.validateAndParseToken(jwtToken);
+            Long userId = claims.userId();
+            String sessionId = claims.sessionId();
 
-            // Fetch user to get the role
-            String role = userService.getUser(userId).getRole().name();
+            // Fetch user to get the role, served from the in-process cache when possible
+            String role = lookUpRole(userId);
 
             // Create authority based on user role
             List<SimpleGrantedAuthority> authorities = List.of(
@@ -59,6 +63,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Observed as {@code security.role.lookup}, tagged with whether the near cache answered,
+     * so the requests that paid for a user load stand out in their trace.
+     */
+    private String lookUpRole(Long userId) {
+        boolean[] loaded = {false};
+        Observation observation = Observation.start("security.role.lookup", observationRegistry);
+        try (Observation.Scope scope = observation.openScope()) {
+            return userRoleNearCache.getRole(userId, id -> {
+                loaded[0] = true;
+                return userService.getUser(id).getRole();
+            }).name();
+        } catch (RuntimeException ex) {
+            observation.error(ex);
+            throw ex;
+        } finally {
+            observation.lowCardinalityKeyValue("near-cache", loaded[0] ? "miss" : "hit").stop();
+        }
+    }
+
     private String extractJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,26 @@
+package com.asim.business.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Immutable, typed view of the claims carried by an access token.
+ * Only the claims the service relies on are extracted, so the parsed payload map can be discarded.
+ *
+ * @param userId    The authenticated user's identifier
+ * @param sessionId Session identifier used for invalidation checks
+ * @param type      Token type, "access" for tokens accepted by this service
+ * @param expiresAt Expiration time of the token
+ */
+public record JwtClaims(Long userId, String sessionId, String type, Instant expiresAt) {
+
+    public static JwtClaims from(Claims claims) {
+        return new JwtClaims(
+                claims.get("userId", Number.class).longValue(),
+                claims.get("sessionId", String.class),
+                claims.get("type", String.class),
+                claims.getExpiration().toInstant()
+        );
+    }
+}
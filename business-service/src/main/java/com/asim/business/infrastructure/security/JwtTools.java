@@ -1,49 +1,77 @@
 package com.asim.business.infrastructure.security;
 
 import com.asim.business.common.exception.UnauthorizedException;
-import com.asim.business.infrastructure.config.CacheConfigs;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtTools {
 
-    private final CacheManager cacheManager;
+    private static final String ACCESS_TYPE = "access";
+    // outcomes of a validation, the reasons of an invalid token are left to the logs to keep the tags bounded
+    private static final String VALID = "valid";
+    private static final String REVOKED = "revoked";
+    private static final String EXPIRED = "expired";
+    private static final String INVALID = "invalid";
 
-    @Value("${jwt.access.secret}")
-    private String secret;
+    private final SessionRevocationIndex sessionRevocationIndex;
+    private final Map<String, Timer> validationTimers;
 
-    public Map<String, Object> validateAndParseToken(String token) {
+    // Key and parser are thread-safe and immutable, they are built once
+    // the secret is read at startup only, rotating it means restarting the service
+    private final JwtParser parser;
+
+    public JwtTools(SessionRevocationIndex sessionRevocationIndex, MeterRegistry meterRegistry,
+                    @Value("${jwt.access.secret}") String secret) {
+        this.sessionRevocationIndex = sessionRevocationIndex;
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.validationTimers = Map.of(
+                VALID, validationTimer(meterRegistry, VALID),
+                REVOKED, validationTimer(meterRegistry, REVOKED),
+                EXPIRED, validationTimer(meterRegistry, EXPIRED),
+                INVALID, validationTimer(meterRegistry, INVALID));
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.validation")
+                .description("Verification and parsing of access tokens, including the revocation check")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public JwtClaims validateAndParseToken(String token) {
+        long start = System.nanoTime();
+        String result = INVALID;
         try {
-            Map<String, Object> claims = parseToken(token);
+            JwtClaims claims = parseToken(token);
 
             // Check if the session has been invalidated
-            String sessionId = claims.get("sessionId").toString();
-            Cache cache = cacheManager.getCache(CacheConfigs.INVALID_SESSION);
-            if (cache != null && cache.get(sessionId) != null) {
+            if (sessionRevocationIndex.isRevoked(claims.sessionId())) {
+                result = REVOKED;
                 throw new UnauthorizedException("Session has been invalidated");
             }
 
+            result = VALID;
             return claims;
         } catch (SignatureException ex) {
             throw new UnauthorizedException("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
             throw new UnauthorizedException("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
+            result = EXPIRED;
             throw new UnauthorizedException("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
             throw new UnauthorizedException("Unsupported JWT token");
@@ -54,22 +82,19 @@ public class JwtTools {
         } catch (Exception ex) {
             log.error("Unexpected Error validating and parsing JWT token", ex);
             throw new UnauthorizedException(ex.getMessage());
+        } finally {
+            validationTimers.get(result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
-    public Map<String, Object> parseToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public JwtClaims parseToken(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
 
         // Check if the token type matches
-        if (!claims.get("type").equals("access")) {
+        if (!ACCESS_TYPE.equals(claims.get("type"))) {
             throw new UnauthorizedException("Invalid token type. Expected: \"access\", Found: " + claims.get("type"));
         }
 
-        return new HashMap<>(claims);
+        return JwtClaims.from(claims);
     }
 }
@@ -2,8 +2,14 @@ package com.asim.business.infrastructure.sync;
 
 import com.asim.business.domain.user.model.dto.UserCreateDto;
 
+import java.util.List;
+
 public interface AuthServiceSyncService {
     boolean processUserCreation(UserCreateDto user);
 
     boolean invalidateToken(String sessionId);
+
+    List<Boolean> processUserCreations(List<UserCreateDto> users);
+
+    List<Boolean> invalidateTokens(List<String> sessionIds);
 }
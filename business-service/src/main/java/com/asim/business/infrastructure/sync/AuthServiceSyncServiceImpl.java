@@ -1,19 +1,26 @@
 package com.asim.business.infrastructure.sync;
 
+import com.asim.business.common.exception.DuplicateResourceException;
+import com.asim.business.common.exception.ResourceNotFoundException;
 import com.asim.business.domain.user.facade.UserFacade;
 import com.asim.business.domain.user.model.dto.UserCreateDto;
 import com.asim.business.infrastructure.config.CacheConfigs;
+import com.asim.business.infrastructure.security.SessionRevocationIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthServiceSyncServiceImpl implements AuthServiceSyncService {
 
     private final UserFacade userFacade;
+    private final SessionRevocationIndex sessionRevocationIndex;
 
     @Override
     public boolean processUserCreation(UserCreateDto user) {
@@ -25,6 +32,14 @@ public class AuthServiceSyncServiceImpl implements AuthServiceSyncService {
             log.info("User created successfully: {}", createdUser.getName());
 
             return true;
+        } catch (DuplicateResourceException e) {
+            // auth-service delivers at least once, a replay of a user already created is done, not failed
+            if (isAlreadyCreated(user)) {
+                log.info("User {} was already created, replay ignored", user.getId());
+                return true;
+            }
+            log.error("Error processing user creation: {}", e.getMessage());
+            return false;
         } catch (Exception e) {
             log.error("Error processing user creation: {}", e.getMessage());
             return false; // or handle the error as needed
@@ -32,13 +47,38 @@ public class AuthServiceSyncServiceImpl implements AuthServiceSyncService {
 
     }
 
+    private boolean isAlreadyCreated(UserCreateDto user) {
+        try {
+            return user.getName().equals(userFacade.getUser(user.getId()).getName());
+        } catch (ResourceNotFoundException e) {
+            // the name is taken by another user
+            return false;
+        }
+    }
+
     @Override
     @Cacheable(value = CacheConfigs.INVALID_SESSION, key = "#sessionId")
     public boolean invalidateToken(String sessionId) {
         log.info("Invalidating token with session ID: {}", sessionId);
+        sessionRevocationIndex.revoke(sessionId);
         // The @Cacheable will store the sessionId in the "invalidated sessions" cache
         // Returning true means this session is now invalidated
         return true;
     }
 
-}
\ No newline at end of file
+    @Override
+    public List<Boolean> processUserCreations(List<UserCreateDto> users) {
+        // every user is created in its own transaction, so one failure does not undo the others
+        List<Boolean> results = new ArrayList<>(users.size());
+        for (UserCreateDto user : users) {
+            results.add(processUserCreation(user));
+        }
+        return results;
+    }
+
+    @Override
+    public List<Boolean> invalidateTokens(List<String> sessionIds) {
+        log.info("Invalidating {} tokens", sessionIds.size());
+        return sessionRevocationIndex.revokeAll(sessionIds);
+    }
+}
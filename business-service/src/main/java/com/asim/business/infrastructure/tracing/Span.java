@@ -0,0 +1,68 @@
+package com.asim.business.infrastructure.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One timed hop of a trace, exported as a line of JSON once it ended.
+ * The start is wall-clock time so spans of both services line up, the duration is measured with the monotonic clock.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Span {
+
+    private final String service;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    @JsonIgnore
+    private final boolean sampled;
+    private final String kind;
+    private final long startEpochMicros;
+    @JsonIgnore
+    private final long startNanos;
+    private String name;
+    private long durationMicros;
+    private String error;
+    private Map<String, String> attributes;
+
+    Span(String service, TraceContext context, String parentSpanId, String name, String kind) {
+        Instant now = Instant.now();
+        this.service = service;
+        this.traceId = context.traceId();
+        this.spanId = context.spanId();
+        this.sampled = context.sampled();
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startEpochMicros = TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + now.getNano() / 1000;
+        this.startNanos = System.nanoTime();
+    }
+
+    public TraceContext context() {
+        return new TraceContext(traceId, spanId, sampled);
+    }
+
+    public void name(String name) {
+        this.name = name;
+    }
+
+    public void attribute(String key, String value) {
+        if (attributes == null) attributes = new LinkedHashMap<>();
+        attributes.put(key, value);
+    }
+
+    public void error(Throwable error) {
+        this.error = error.getClass().getSimpleName() + (error.getMessage() == null ? "" : ": " + error.getMessage());
+    }
+
+    void end() {
+        durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+}
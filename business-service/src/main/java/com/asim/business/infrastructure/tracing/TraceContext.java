@@ -0,0 +1,68 @@
+package com.asim.business.infrastructure.tracing;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Identity of a span within its trace, carried between services as a W3C {@code traceparent} header
+ * ({@code 00-<32 hex trace id>-<16 hex span id>-<2 hex flags>}).
+ * The sampling decision is taken once, by the root span, and every span of the trace follows it.
+ */
+public record TraceContext(String traceId, String spanId, boolean sampled) {
+
+    public static final String TRACEPARENT = "traceparent";
+    private static final int TRACEPARENT_LENGTH = 55;
+    private static final HexFormat HEX = HexFormat.of();
+
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    /**
+     * @return The context of a {@code traceparent} header, null when it is missing or malformed
+     */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null || traceparent.length() < TRACEPARENT_LENGTH) return null;
+        //later versions may append fields, version 00 may not
+        String version = traceparent.substring(0, 2);
+        if (!isHex(version) || version.equals("ff")) return null;
+        if (version.equals("00") ? traceparent.length() != TRACEPARENT_LENGTH
+                : traceparent.length() > TRACEPARENT_LENGTH && traceparent.charAt(TRACEPARENT_LENGTH) != '-') return null;
+        if (traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-') return null;
+
+        String traceId = traceparent.substring(3, 35);
+        String spanId = traceparent.substring(36, 52);
+        String flags = traceparent.substring(53, 55);
+        if (!isHex(traceId) || !isHex(spanId) || !isHex(flags) || isZero(traceId) || isZero(spanId)) return null;
+        return new TraceContext(traceId, spanId, (HexFormat.fromHexDigits(flags) & 1) == 1);
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low = random.nextLong();
+        if (high == 0 && low == 0) low = 1;
+        return HEX.toHexDigits(high) + HEX.toHexDigits(low);
+    }
+
+    static String newSpanId() {
+        long id = ThreadLocalRandom.current().nextLong();
+        return HEX.toHexDigits(id == 0 ? 1 : id);
+    }
+
+    //lowercase only, as the specification requires
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != '0') return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.asim.business.infrastructure.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts and ends spans. The current span is the one of the current observation, so a span opened anywhere below an
+ * HTTP request or a gRPC call (a repository call, a Redis command) becomes its child.
+ */
+public class Tracer {
+
+    public static final String INTERNAL = "INTERNAL";
+
+    private final String service;
+    private final double samplingProbability;
+    private final SpanExporter exporter;
+
+    public Tracer(String service, double samplingProbability, SpanExporter exporter) {
+        this.service = service;
+        this.samplingProbability = samplingProbability;
+        this.exporter = exporter;
+    }
+
+    /**
+     * @return The span of the current observation, null outside a trace
+     */
+    public static Span currentSpan(ObservationRegistry observationRegistry) {
+        Observation current = observationRegistry.getCurrentObservation();
+        return current == null ? null : current.getContextView().get(Span.class);
+    }
+
+    /**
+     * @param parent The context of the parent span, local or received from the caller; null starts a new trace
+     */
+    public Span start(String name, String kind, TraceContext parent) {
+        if (parent == null) {
+            boolean sampled = ThreadLocalRandom.current().nextDouble() < samplingProbability;
+            return new Span(service, new TraceContext(TraceContext.newTraceId(), TraceContext.newSpanId(), sampled),
+                    null, name, kind);
+        }
+        return new Span(service, new TraceContext(parent.traceId(), TraceContext.newSpanId(), parent.sampled()),
+                parent.spanId(), name, kind);
+    }
+
+    /**
+     * Ends the span, and exports it when its trace is sampled.
+     */
+    public void end(Span span) {
+        span.end();
+        if (span.isSampled()) exporter.export(span);
+    }
+}
@@ -0,0 +1,68 @@
+package com.asim.business.infrastructure.web;
+
+import com.asim.business.common.annotation.web.CachedVersion;
+import com.asim.business.common.util.Versioned;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Answers a conditional GET of a {@link CachedVersion} resource with 304 straight from the cache,
+ * before the handler runs. On a cache miss, or when the tag does not match, the handler runs as usual
+ * and {@link EntityTagAdvice} compares the tag of the returned DTO.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final CacheManager cacheManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || !HttpMethod.GET.matches(request.getMethod())) return true;
+        if (!(handler instanceof HandlerMethod handlerMethod)) return true;
+
+        CachedVersion cachedVersion = handlerMethod.getMethodAnnotation(CachedVersion.class);
+        if (cachedVersion == null) return true;
+
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String id = variables != null ? variables.get(cachedVersion.idVariable()) : null;
+        Cache cache = cacheManager.getCache(cachedVersion.value());
+        if (id == null || cache == null) return true;
+
+        Versioned cached;
+        try {
+            cached = cache.get(Long.valueOf(id), Versioned.class);
+        } catch (NumberFormatException ex) {
+            //left to the handler validation
+            return true;
+        } catch (RuntimeException ex) {
+            //the cache is only a shortcut, the handler still answers without it
+            log.debug("Cached version of {} {} could not be read: {}", cachedVersion.value(), id, ex.getMessage());
+            return true;
+        }
+        if (cached == null) return true;
+
+        String eTag = ETags.strong(cached);
+        if (!ETags.matches(ifNoneMatch, eTag)) return true;
+
+        response.setStatus(HttpStatus.NOT_MODIFIED.value());
+        EntityTagAdvice.setHeaders(response, eTag);
+        return false;
+    }
+}
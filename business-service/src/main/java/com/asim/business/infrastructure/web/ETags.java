@@ -0,0 +1,74 @@
+package com.asim.business.infrastructure.web;
+
+import com.asim.business.common.model.dto.CursorSlice;
+import com.asim.business.common.model.dto.PageSlice;
+import com.asim.business.common.util.Versioned;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ETag;
+
+import java.util.List;
+
+/**
+ * Entity tags of the versioned resources, derived from their ids and versions instead of hashing the written body.
+ * - A single resource gets a strong tag, e.g. "12-3", the version changes with every update.
+ * - A page gets a weak tag, a hash of the id/version of its content and of its page fields (number, size, total...).
+ */
+public final class ETags {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETags() {
+    }
+
+    /**
+     * @param body A response body
+     * @return The tag of a versioned resource or of a page of them, null for anything else
+     */
+    public static String of(Object body) {
+        if (body instanceof Versioned resource) return strong(resource);
+
+        if (body instanceof Page<?> page)
+            return weak(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements());
+        if (body instanceof PageSlice<?> slice)
+            return weak(slice.getContent(), slice.getPage(), slice.getSize(), slice.isHasNext() ? 1 : 0);
+        if (body instanceof CursorSlice<?> slice)
+            return weak(slice.getContent(), slice.getSize(), slice.isHasNext() ? 1 : 0);
+
+        return null;
+    }
+
+    public static String strong(Versioned resource) {
+        return "\"" + resource.versionTag() + "\"";
+    }
+
+    /**
+     * If-None-Match is compared weakly, as required for GET, and * matches any existing resource.
+     *
+     * @param ifNoneMatch The If-None-Match header of the request, may be null
+     * @param eTag        The current tag of the resource
+     * @return Whether the client already has the current representation
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) return false;
+
+        ETag current = ETag.create(eTag);
+        for (ETag requested : ETag.parse(ifNoneMatch)) {
+            if (requested.isWildcard() || requested.compare(current, false)) return true;
+        }
+        return false;
+    }
+
+    private static String weak(List<?> content, long... fields) {
+        long hash = FNV_OFFSET;
+        for (Object element : content) {
+            if (!(element instanceof Versioned resource)) return null;
+
+            String tag = resource.versionTag();
+            for (int i = 0; i < tag.length(); i++) hash = (hash ^ tag.charAt(i)) * FNV_PRIME;
+            hash = (hash ^ ',') * FNV_PRIME;
+        }
+        for (long field : fields) hash = (hash ^ field) * FNV_PRIME;
+
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+}
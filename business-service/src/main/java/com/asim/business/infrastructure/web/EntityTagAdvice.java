@@ -0,0 +1,60 @@
+package com.asim.business.infrastructure.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Tags the GET responses of versioned resources and of their pages (see {@link ETags}),
+ * and answers 304 without writing the body when the request's If-None-Match still matches.
+ * <p>
+ * The responses are marked {@code Cache-Control: no-cache}, so clients keep them but revalidate before reuse.
+ */
+@ControllerAdvice
+public class EntityTagAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String NO_CACHE = CacheControl.noCache().getHeaderValue();
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request.getMethod() != HttpMethod.GET || !(response instanceof ServletServerHttpResponse servletResponse))
+            return body;
+
+        String eTag = ETags.of(body);
+        if (eTag == null) return body;
+
+        //set on the servlet response, a null body never flushes the headers of the wrapper
+        HttpServletResponse httpResponse = servletResponse.getServletResponse();
+        if (HttpStatus.valueOf(httpResponse.getStatus()).is2xxSuccessful()
+                && ETags.matches(request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            httpResponse.setStatus(HttpStatus.NOT_MODIFIED.value());
+            setHeaders(httpResponse, eTag);
+            return null;
+        }
+
+        setHeaders(httpResponse, eTag);
+        return body;
+    }
+
+    static void setHeaders(HttpServletResponse response, String eTag) {
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, NO_CACHE);
+    }
+}
@@ -0,0 +1,122 @@
+package com.asim.business.common.util;
+
+import com.asim.business.common.exception.BadRequestException;
+import com.asim.business.infrastructure.config.JacksonMapperConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Cursor Utility Tests")
+class CursorUtilsTest {
+
+    private CursorUtils cursorUtils;
+
+    @BeforeEach
+    void setUp() {
+        cursorUtils = new CursorUtils(new JacksonMapperConfig().objectMapper());
+    }
+
+    /**
+     * Creates a window of one element positioned at the given keys.
+     */
+    private Window<String> windowAt(Map<String, Object> keys, boolean hasNext) {
+        return Window.from(List.of("element"), index -> ScrollPosition.forward(keys), hasNext);
+    }
+
+    static class TestClass {
+        private Long id;
+        private String name;
+        private ZonedDateTime createdAt;
+        private TestClass parent;
+    }
+
+    @Nested
+    @DisplayName("Round Trip Tests")
+    class RoundTripTests {
+        @Test
+        @DisplayName("should return the initial position when cursor is empty")
+        void whenEmptyCursor_thenReturnInitialPosition() {
+            // Act
+            KeysetScrollPosition result = cursorUtils.decode("", Sort.unsorted(), TestClass.class);
+
+            // Assert
+            assertThat(result.isInitial()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should restore keys with their types when cursor is encoded from a window")
+        void whenEncodedAndDecoded_thenKeysAreRestoredWithTypes() {
+            // Arrange
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("createdAt", ZonedDateTime.parse("2024-01-01T10:15:30.123456Z"));
+            keys.put("parent.name", "Name");
+            keys.put("id", 42L);
+            Sort sort = Sort.by("createdAt", "parent.name");
+
+            // Act
+            String cursor = cursorUtils.encode(windowAt(keys, true));
+            KeysetScrollPosition result = cursorUtils.decode(cursor, sort, TestClass.class);
+
+            // Assert
+            assertThat(result.getKeys()).containsExactlyInAnyOrderEntriesOf(keys);
+        }
+
+        @Test
+        @DisplayName("should return no cursor when the window is the last one")
+        void whenWindowHasNoNext_thenReturnNull() {
+            // Act
+            String cursor = cursorUtils.encode(windowAt(Map.of("id", 1L), false));
+
+            // Assert
+            assertThat(cursor).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalid Cursor Tests")
+    class InvalidCursorTests {
+        @Test
+        @DisplayName("should throw BadRequestException when cursor is not base64 JSON")
+        void whenMalformedCursor_thenThrowBadRequestException() {
+            assertThrows(BadRequestException.class,
+                    () -> cursorUtils.decode("not a cursor", Sort.unsorted(), TestClass.class));
+        }
+
+        @Test
+        @DisplayName("should throw BadRequestException when cursor was created with another sort")
+        void whenSortChanged_thenThrowBadRequestException() {
+            // Arrange
+            String cursor = cursorUtils.encode(windowAt(Map.of("name", "Name", "id", 1L), true));
+
+            // Act & Assert
+            assertThrows(BadRequestException.class,
+                    () -> cursorUtils.decode(cursor, Sort.by("createdAt"), TestClass.class));
+        }
+
+        @Test
+        @DisplayName("should throw BadRequestException when the last element has an empty sort key")
+        void whenNullKey_thenThrowBadRequestException() {
+            // Arrange
+            Map<String, Object> keys = new HashMap<>();
+            keys.put("name", null);
+            keys.put("id", 1L);
+
+            // Act & Assert
+            assertThrows(BadRequestException.class, () -> cursorUtils.encode(windowAt(keys, true)));
+        }
+    }
+}
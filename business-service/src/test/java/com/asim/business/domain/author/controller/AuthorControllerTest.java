@@ -1,5 +1,6 @@
 package com.asim.business.domain.author.controller;
 
+import com.asim.business.common.model.dto.PageSlice;
 import com.asim.business.common.util.SortUtils;
 import com.asim.business.domain.author.model.dto.AuthorDto;
 import com.asim.business.domain.author.service.AuthorService;
@@ -15,6 +16,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 import java.util.Arrays;
@@ -22,6 +26,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -206,4 +211,25 @@ class AuthorControllerTest {
         verify(authorService).getAuthors(argThat(pageable ->
                 pageable.getSort().isUnsorted()), eq(null));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("should report whether a next page exists when the total is not requested")
+    void whenGetAuthorsWithoutTotal_thenReturnSlice() {
+        // Arrange
+        Sort unsortedSort = Sort.unsorted();
+        Slice<AuthorDto> authorSlice = new SliceImpl<>(authorDTOs, PageRequest.of(1, authorDTOs.size()), true);
+
+        when(sortUtils.createObject(eq(null), eq(AuthorDto.class))).thenReturn(unsortedSort);
+        when(authorService.getAuthorsSlice(any(), eq("name"))).thenReturn(authorSlice);
+
+        // Act
+        PageSlice<AuthorDto> result = authorController.getAuthorsWithoutTotal(1, authorDTOs.size(), null, "name");
+
+        // Assert
+        assertEquals(authorDTOs, result.getContent());
+        assertEquals(1, result.getPage());
+        assertTrue(result.isHasNext());
+        verify(authorService).getAuthorsSlice(argThat(pageable -> pageable.getPageNumber() == 1), eq("name"));
+        verify(authorService, never()).getAuthors(any(), any());
+    }
+}
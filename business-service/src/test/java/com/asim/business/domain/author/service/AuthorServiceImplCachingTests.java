@@ -4,6 +4,9 @@ import com.asim.business.common.model.mapper.EntityDtoMapper;
 import com.asim.business.domain.author.model.dto.AuthorDto;
 import com.asim.business.domain.author.model.entity.Author;
 import com.asim.business.domain.author.repository.AuthorRepository;
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.persistence.TableStatistics;
+import com.asim.business.infrastructure.search.BookSearchIndex;
 import com.asim.business.test.util.fixtures.AuthorTestFixtures;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.*;
@@ -76,8 +79,10 @@ class AuthorServiceImplCachingTests {
         @Bean
         public AuthorService authorService(AuthorRepository authorRepository,
                                            EntityDtoMapper<Author, AuthorDto> authorMapper,
-                                           EntityManager entityManager) {
-            return new AuthorServiceImpl(authorRepository, authorMapper, entityManager);
+                                           EntityManager entityManager,
+                                           CacheManager cacheManager) {
+            return new AuthorServiceImpl(authorRepository, authorMapper, entityManager, cacheManager, mock(BookSearchIndex.class),
+                    mock(TableStatistics.class), mock(QueryResultCache.class));
         }
 
         @Bean
@@ -8,6 +8,14 @@ import com.asim.business.common.model.mapper.EntityDtoMapper;
 import com.asim.business.domain.author.model.dto.AuthorDto;
 import com.asim.business.domain.author.model.entity.Author;
 import com.asim.business.domain.author.repository.AuthorRepository;
+import com.asim.business.domain.book.controller.BookController;
+import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.config.CacheConfigs;
+import com.asim.business.infrastructure.persistence.TableStatistics;
+import com.asim.business.infrastructure.search.BookSearchIndex;
+import com.asim.business.infrastructure.web.ConditionalGetInterceptor;
+import com.asim.business.infrastructure.web.ETags;
 import com.asim.business.test.util.fixtures.AuthorTestFixtures;
 import com.asim.business.test.util.fixtures.CommonTestFixtures;
 import jakarta.persistence.EntityManager;
@@ -19,13 +27,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,6 +59,13 @@ class AuthorServiceImplTest {
     private EntityDtoMapper<Author, AuthorDto> authorMapper;
     @Mock
     private EntityManager entityManager;
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private QueryResultCache queryResultCache;
 
     @InjectMocks
     private AuthorServiceImpl authorService;
@@ -353,4 +376,70 @@ class AuthorServiceImplTest {
             assertNull(matches);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Cached Books Tests")
+    class CachedBooksTests {
+        private static final Long BOOK_ID = 11L;
+
+        private ConcurrentMapCacheManager books;
+        private AuthorServiceImpl service;
+        private BookDto cachedBook;
+
+        @BeforeEach
+        void setUp() {
+            books = new ConcurrentMapCacheManager(CacheConfigs.BOOKS);
+            service = new AuthorServiceImpl(authorRepository, authorMapper, entityManager, books, bookSearchIndex,
+                    mock(TableStatistics.class), queryResultCache);
+
+            //cached with the author as it was before the change
+            AuthorDto previousAuthor = AuthorTestFixtures.getOneDtoWithAllFields();
+            previousAuthor.setId(AUTHOR_ID);
+            cachedBook = BookDto.builder().id(BOOK_ID).version(0).author(previousAuthor).build();
+            books.getCache(CacheConfigs.BOOKS).put(BOOK_ID, cachedBook);
+            when(authorRepository.findBookIds(AUTHOR_ID)).thenReturn(List.of(BOOK_ID));
+        }
+
+        private MockHttpServletResponse getBook(String ifNoneMatch) throws Exception {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/books/" + BOOK_ID);
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+            request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", BOOK_ID.toString()));
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            new ConditionalGetInterceptor(books).preHandle(request, response,
+                    new HandlerMethod(mock(BookController.class), BookController.class.getMethod("getBook", Long.class)));
+            return response;
+        }
+
+        @Test
+        @DisplayName("should not answer the old tag of a book from the cache when its author is updated")
+        void whenAuthorUpdated_thenOldBookTagGetsTheBook() throws Exception {
+            // Arrange
+            String oldTag = ETags.strong(cachedBook);
+            assertEquals(304, getBook(oldTag).getStatus());
+            when(authorRepository.findById(AUTHOR_ID)).thenReturn(Optional.of(author));
+            when(authorRepository.save(author)).thenReturn(author);
+            when(authorMapper.toDto(author)).thenReturn(authorDto);
+
+            // Act
+            service.updateAuthor(AUTHOR_ID, AuthorDto.builder().name(AuthorTestFixtures.UPDATED_NAME).build());
+
+            // Assert
+            assertNull(books.getCache(CacheConfigs.BOOKS).get(BOOK_ID));
+            assertEquals(200, getBook(oldTag).getStatus());
+        }
+
+        @Test
+        @DisplayName("should drop the cached books of an author when the author is deleted")
+        void whenAuthorDeleted_thenCachedBooksAreEvicted() {
+            // Arrange
+            when(authorRepository.existsById(AUTHOR_ID)).thenReturn(true);
+
+            // Act
+            service.deleteAuthor(AUTHOR_ID);
+
+            // Assert
+            assertNull(books.getCache(CacheConfigs.BOOKS).get(BOOK_ID));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.asim.business.domain.book.model.mapper;
+
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import com.asim.business.domain.author.model.entity.Author;
+import com.asim.business.domain.author.model.mapper.AuthorMapper;
+import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.domain.book.model.entity.Book;
+import com.asim.business.test.util.fixtures.AuthorTestFixtures;
+import com.asim.business.test.util.fixtures.BookTestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Book Mapper Tests")
+class BookMapperTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private BookMapper bookMapper;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        bookMapper = new BookMapper(new AuthorMapper());
+
+        Author author = AuthorTestFixtures.createEntity(AuthorTestFixtures.NAME, AuthorTestFixtures.AGE, 2L);
+        author.setCreatedAt(ZonedDateTime.parse("2024-01-01T10:00:00Z"));
+        author.setCreatedBy("creator");
+        author.setVersion(3);
+
+        book = BookTestFixtures.createEntity(BookTestFixtures.ISBN, BookTestFixtures.TITLE, author, 1L);
+        book.setCreatedAt(ZonedDateTime.parse("2024-02-01T10:00:00Z"));
+        book.setUpdatedAt(ZonedDateTime.parse("2024-03-01T10:00:00Z"));
+        book.setCreatedBy("creator");
+        book.setLastModifiedBy("editor");
+        book.setVersion(5);
+    }
+
+    @Nested
+    @DisplayName("ModelMapper Parity Tests")
+    class ParityTests {
+        @Test
+        @DisplayName("should produce the same DTO as ModelMapper when entity has all fields")
+        void whenToDto_thenSameAsModelMapper() {
+            // Act
+            BookDto result = bookMapper.toDto(book);
+
+            // Assert
+            assertThat(result).isEqualTo(modelMapper.map(book, BookDto.class));
+            assertThat(result.getAuthor()).isEqualTo(modelMapper.map(book.getAuthor(), AuthorDto.class));
+        }
+
+        @Test
+        @DisplayName("should produce the same entity as ModelMapper when DTO has all fields")
+        void whenToEntity_thenSameAsModelMapper() {
+            // Arrange
+            BookDto dto = modelMapper.map(book, BookDto.class);
+
+            // Act
+            Book result = bookMapper.toEntity(dto);
+
+            // Assert
+            assertThat(result).usingRecursiveComparison().isEqualTo(modelMapper.map(dto, Book.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Null Handling Tests")
+    class NullHandlingTests {
+        @Test
+        @DisplayName("should return null when input is null")
+        void whenNullInput_thenReturnNull() {
+            assertThat(bookMapper.toDto(null)).isNull();
+            assertThat(bookMapper.toEntity(null)).isNull();
+        }
+
+        @Test
+        @DisplayName("should keep author null when book has no author")
+        void whenNoAuthor_thenAuthorIsNull() {
+            // Arrange
+            book.setAuthor(null);
+
+            // Act & Assert
+            assertThat(bookMapper.toDto(book).getAuthor()).isNull();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.asim.business.domain.book.service;
+
+import com.asim.business.common.model.dto.BatchResult;
+import com.asim.business.domain.author.facade.AuthorFacadeImpl;
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import com.asim.business.domain.author.model.mapper.AuthorMapper;
+import com.asim.business.domain.author.repository.AuthorRepository;
+import com.asim.business.domain.author.service.AuthorService;
+import com.asim.business.domain.author.service.AuthorServiceImpl;
+import com.asim.business.domain.book.gateway.AuthorGatewayImpl;
+import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.domain.book.model.mapper.BookMapper;
+import com.asim.business.domain.book.repository.BookRepository;
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.persistence.TableStatistics;
+import com.asim.business.infrastructure.search.BookSearchIndex;
+import com.asim.business.test.util.fixtures.AuthorTestFixtures;
+import com.asim.business.test.util.fixtures.BookTestFixtures;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs against the database, as the batching and the per-item isolation are the point of the service.
+ * Not transactional, the service manages its own transactions per chunk.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(BookBatchServiceImplTest.BatchTestConfig.class)
+@ActiveProfiles("test")
+@DisplayName("Book Batch Service Tests")
+class BookBatchServiceImplTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private BookBatchService bookBatchService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should create all books and their authors once when the batch is valid")
+    void whenBatchIsValid_thenAllBooksAreCreated() {
+        // Arrange
+        String[] names = {"First Author", "Second Author", "Third Author"};
+        List<BookDto> books = new ArrayList<>();
+        for (int i = 0; i < 120; i++)
+            books.add(book(String.valueOf(1000000000L + i), AuthorTestFixtures.createDto(names[i % 3], 40)));
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        BatchResult<BookDto> result = bookBatchService.addBooks(books);
+
+        // Assert
+        assertThat(result.getSucceeded()).isEqualTo(120);
+        assertThat(result.getFailed()).isZero();
+        assertThat(result.getItems()).allSatisfy(item -> {
+            assertThat(item.getStatus()).isEqualTo(BatchResult.Status.CREATED);
+            assertThat(item.getResource().getId()).isNotNull();
+            assertThat(item.getResource().getAuthor().getId()).isNotNull();
+        });
+        assertThat(bookRepository.count()).isEqualTo(120);
+        assertThat(authorRepository.count()).isEqualTo(3);
+        //isbn check, author lookup, sequences and batched inserts instead of a statement per book
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    @DisplayName("should report failing items without aborting the others")
+    void whenSomeItemsAreInvalid_thenOnlyTheyFail() {
+        // Arrange
+        AuthorDto existing = authorService.addAuthor(AuthorTestFixtures.createDto("Existing Author", 50));
+        AuthorDto stale = AuthorTestFixtures.createDto("Existing Author", 50);
+        stale.setId(existing.getId());
+        stale.setVersion(existing.getVersion() + 1);
+        AuthorDto unknown = AuthorTestFixtures.createDto("Unknown Author", 50);
+        unknown.setId(existing.getId() + 1000);
+
+        List<BookDto> books = List.of(
+                book("1000000001", AuthorTestFixtures.createDto("New Author", 30)),
+                book(BookTestFixtures.TOO_SHORT_ISBN, AuthorTestFixtures.createDto("New Author", 30)),
+                book("1000000001", AuthorTestFixtures.createDto("New Author", 30)),
+                book("1000000002", existing),
+                book("1000000003", stale),
+                book("1000000004", unknown),
+                book("1000000005", AuthorTestFixtures.createDto("Existing Author", 50))
+        );
+
+        // Act
+        BatchResult<BookDto> result = bookBatchService.addBooks(books);
+
+        // Assert
+        List<BatchResult.Item<BookDto>> items = result.getItems();
+        assertThat(result.getSucceeded()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(items.get(0).getStatus()).isEqualTo(BatchResult.Status.CREATED);
+        assertThat(items.get(1).getError()).contains("isbn");
+        assertThat(items.get(2).getError()).contains("already exists");
+        assertThat(items.get(3).getResource().getAuthor().getId()).isEqualTo(existing.getId());
+        assertThat(items.get(4).getError()).contains("version");
+        assertThat(items.get(5).getError()).contains("not found");
+        //reused by name and age instead of duplicated
+        assertThat(items.get(6).getResource().getAuthor().getId()).isEqualTo(existing.getId());
+        assertThat(authorRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should fail the item when the isbn already exists")
+    void whenIsbnExists_thenItemFails() {
+        // Arrange
+        bookBatchService.addBooks(List.of(book("1000000001", AuthorTestFixtures.createDto("New Author", 30))));
+
+        // Act
+        BatchResult<BookDto> result = bookBatchService.addBooks(List.of(
+                book("1000000001", AuthorTestFixtures.createDto("New Author", 30)),
+                book("1000000002", AuthorTestFixtures.createDto("New Author", 30))
+        ));
+
+        // Assert
+        assertThat(result.getItems().get(0).getStatus()).isEqualTo(BatchResult.Status.FAILED);
+        assertThat(result.getItems().get(1).getStatus()).isEqualTo(BatchResult.Status.CREATED);
+        assertThat(bookRepository.count()).isEqualTo(2);
+        assertThat(authorRepository.count()).isEqualTo(1);
+    }
+
+    private static BookDto book(String isbn, AuthorDto author) {
+        return BookTestFixtures.createDto(isbn, BookTestFixtures.TITLE, author);
+    }
+
+    /**
+     * The services as beans, so their transactional methods are proxied as in the application.
+     */
+    @TestConfiguration
+    @EnableJpaAuditing(auditorAwareRef = "testAuditor")
+    static class BatchTestConfig {
+        @Bean
+        public AuditorAware<String> testAuditor() {
+            return () -> Optional.of("testUser");
+        }
+
+        @Bean
+        public AuthorMapper authorMapper() {
+            return new AuthorMapper();
+        }
+
+        @Bean
+        public AuthorService authorService(AuthorRepository authorRepository, AuthorMapper authorMapper, EntityManager entityManager) {
+            return new AuthorServiceImpl(authorRepository, authorMapper, entityManager, new ConcurrentMapCacheManager(),
+                    mock(BookSearchIndex.class), mock(TableStatistics.class), mock(QueryResultCache.class));
+        }
+
+        @Bean
+        public BookBatchService bookBatchService(BookRepository bookRepository, AuthorMapper authorMapper, AuthorService authorService,
+                                                 EntityManager entityManager, PlatformTransactionManager transactionManager) {
+            AuthorGatewayImpl authorGateway = new AuthorGatewayImpl(new AuthorFacadeImpl(authorService, null));
+            return new BookBatchServiceImpl(bookRepository, new BookMapper(authorMapper), authorGateway, entityManager,
+                    Validation.buildDefaultValidatorFactory().getValidator(), new TransactionTemplate(transactionManager),
+                    mock(BookSearchIndex.class), mock(QueryResultCache.class));
+        }
+    }
+}
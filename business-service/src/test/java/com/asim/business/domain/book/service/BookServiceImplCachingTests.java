@@ -8,6 +8,10 @@ import com.asim.business.domain.book.gateway.AuthorGateway;
 import com.asim.business.domain.book.model.dto.BookDto;
 import com.asim.business.domain.book.model.entity.Book;
 import com.asim.business.domain.book.repository.BookRepository;
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.persistence.TableStatistics;
+import com.asim.business.infrastructure.search.BookSearchIndex;
+import com.asim.business.infrastructure.search.TrigramSearchSupport;
 import com.asim.business.test.util.fixtures.AuthorTestFixtures;
 import com.asim.business.test.util.fixtures.BookTestFixtures;
 import jakarta.persistence.EntityManager;
@@ -94,8 +98,12 @@ class BookServiceImplCachingTests {
         public BookService bookService(BookRepository bookRepository,
                                        EntityDtoMapper<Book, BookDto> bookMapper,
                                        AuthorGateway authorGateway,
-                                       EntityManager entityManager) {
-            return new BookServiceImpl(bookRepository, bookMapper, authorGateway, entityManager);
+                                       EntityManager entityManager,
+                                       TrigramSearchSupport trigramSearchSupport,
+                                       BookSearchIndex bookSearchIndex,
+                                       CacheManager cacheManager) {
+            return new BookServiceImpl(bookRepository, bookMapper, authorGateway, entityManager, trigramSearchSupport,
+                    bookSearchIndex, cacheManager, mock(TableStatistics.class), mock(QueryResultCache.class));
         }
 
         @Bean
@@ -124,6 +132,16 @@ class BookServiceImplCachingTests {
             return mock(EntityManager.class);
         }
 
+        @Bean
+        public TrigramSearchSupport trigramSearchSupport() {
+            return mock(TrigramSearchSupport.class);
+        }
+
+        @Bean
+        public BookSearchIndex bookSearchIndex() {
+            return mock(BookSearchIndex.class);
+        }
+
         @Bean
         public AuthorMapper authorMapper() {
             return mock(AuthorMapper.class);
@@ -0,0 +1,286 @@
+package com.asim.business.domain.book.service;
+
+import com.asim.business.domain.author.facade.AuthorFacadeImpl;
+import com.asim.business.domain.author.model.entity.Author;
+import com.asim.business.domain.author.model.mapper.AuthorMapper;
+import com.asim.business.domain.author.repository.AuthorRepository;
+import com.asim.business.domain.author.service.AuthorServiceImpl;
+import com.asim.business.domain.book.gateway.AuthorGatewayImpl;
+import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.domain.book.model.entity.Book;
+import com.asim.business.domain.book.model.mapper.BookMapper;
+import com.asim.business.domain.book.repository.BookRepository;
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.persistence.TableStatistics;
+import com.asim.business.infrastructure.search.BookSearchIndex;
+import com.asim.business.infrastructure.search.TrigramSearchSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Guards the book listing against N+1 author selects.
+ * The number of prepared statements must not depend on the page size.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("Book Service Query Count Tests")
+class BookServiceImplQueryCountTest {
+    private static final int AUTHORS = 5;
+    private static final int BOOKS = 30;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final TableStatistics tableStatistics = mock(TableStatistics.class);
+    private BookService bookService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        bookService = newBookService();
+
+        for (int i = 0; i < AUTHORS; i++) {
+            Author author = authorRepository.save(Author.builder()
+                    .name("Author " + i).age(30 + i)
+                    .createdBy("testUser").lastModifiedBy("testUser")
+                    .build());
+
+            for (int j = i; j < BOOKS; j += AUTHORS) {
+                bookRepository.save(Book.builder()
+                        .isbn("isbn-" + j).title("Title " + j).author(author)
+                        .createdBy("testUser").lastModifiedBy("testUser")
+                        .build());
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("should use a constant number of queries when listing books of many authors")
+    void whenListingBooks_thenAuthorsAreResolvedInOneQuery() {
+        // Act
+        Page<BookDto> small = bookService.getBooks(PageRequest.of(0, 5, Sort.by("id")), null, null);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        //cold author cache again
+        bookService = newBookService();
+        Page<BookDto> large = bookService.getBooks(PageRequest.of(0, 25, Sort.by("id")), null, null);
+        long largePageStatements = statistics.getPrepareStatementCount();
+
+        // Assert
+        //page select + count + one author select
+        assertThat(smallPageStatements).isEqualTo(3);
+        assertThat(largePageStatements).isEqualTo(smallPageStatements);
+        assertThat(large.getContent()).allSatisfy(book -> {
+            assertThat(book.getAuthor().getName()).isNotNull();
+            assertThat(book.getAuthor().getVersion()).isNotNull();
+        });
+        assertThat(small.getContent().get(0).getAuthor().getName()).isEqualTo("Author 0");
+    }
+
+    @Test
+    @DisplayName("should not query authors when they are cached")
+    void whenAuthorsAreCached_thenOnlyBooksAreQueried() {
+        // Arrange
+        bookService.getBooks(PageRequest.of(0, 25), null, null);
+        entityManager.clear();
+        statistics.clear();
+
+        // Act
+        Page<BookDto> page = bookService.getBooks(PageRequest.of(0, 25), null, null);
+
+        // Assert
+        //page select + count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(page.getContent()).allSatisfy(book -> assertThat(book.getAuthor().getName()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("should use a constant number of queries when filtering by author name")
+    void whenFilteringByAuthor_thenAuthorsAreNotSelectedPerBook() {
+        // Act
+        Page<BookDto> page = bookService.getBooks(PageRequest.of(0, 25), null, "author");
+
+        // Assert
+        //page select (joined for the filter) + count + one author select
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(25);
+    }
+
+    @Test
+    @DisplayName("should read one extra row instead of counting when the total is not needed")
+    void whenListingWithoutTotal_thenNoCountQuery() {
+        // Act
+        Slice<BookDto> first = bookService.getBooksSlice(PageRequest.of(0, 10, Sort.by("id")), null, "author");
+        long firstStatements = statistics.getPrepareStatementCount();
+        Slice<BookDto> last = bookService.getBooksSlice(PageRequest.of(2, 10, Sort.by("id")), null, "author");
+        Page<BookDto> counted = bookService.getBooks(PageRequest.of(2, 10, Sort.by("id")), null, "author");
+
+        // Assert
+        //page select (size + 1) + one author select
+        assertThat(firstStatements).isEqualTo(2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent()).hasSize(10);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.getContent()).hasSize(10);
+        //the same rows as the counted page
+        assertThat(last.getContent()).extracting(BookDto::getId)
+                .containsExactlyElementsOf(counted.getContent().stream().map(BookDto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("should take the total from the table statistics when the listing is not filtered")
+    void whenTotalIsApproximate_thenEstimateIsUsed() {
+        // Arrange
+        when(tableStatistics.estimateRows("books")).thenReturn(OptionalLong.of(1000));
+
+        // Act
+        Page<BookDto> first = bookService.getBooksWithEstimatedTotal(PageRequest.of(0, 10), null, null);
+        long firstStatements = statistics.getPrepareStatementCount();
+        Page<BookDto> last = bookService.getBooksWithEstimatedTotal(PageRequest.of(2, 10), null, null);
+        Page<BookDto> filtered = bookService.getBooksWithEstimatedTotal(PageRequest.of(0, 10), "title 1", null);
+
+        // Assert
+        //page select (size + 1) + one author select
+        assertThat(firstStatements).isEqualTo(2);
+        assertThat(first.getTotalElements()).isEqualTo(1000);
+        //exact once the end is reached
+        assertThat(last.getTotalElements()).isEqualTo(BOOKS);
+        //title 1, title 10..19
+        assertThat(filtered.getTotalElements()).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("should not query again when the same page is listed again")
+    void whenSamePageIsListedAgain_thenQueryResultIsCached() {
+        // Arrange
+        QueryResultCache queryResultCache = new QueryResultCache(mock(StringRedisTemplate.class), new SimpleMeterRegistry(),
+                true, 100, Duration.ofMinutes(1));
+        bookService = newBookService(mock(BookSearchIndex.class), queryResultCache);
+        Page<BookDto> listed = bookService.getBooks(PageRequest.of(1, 10, Sort.by("title")), null, "Author");
+        entityManager.clear();
+        statistics.clear();
+
+        // Act
+        Page<BookDto> hydrated = bookService.getBooks(PageRequest.of(1, 10, Sort.by("title")), null, "author");
+        long hydrateStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        Page<BookDto> cached = bookService.getBooks(PageRequest.of(1, 10, Sort.by("title")), null, "AUTHOR");
+        long cachedStatements = statistics.getPrepareStatementCount();
+
+        // Assert
+        //books by id only, no page select or count, the first listing cached the authors but not the books
+        assertThat(hydrateStatements).isEqualTo(1);
+        assertThat(cachedStatements).isZero();
+        assertThat(cached.getTotalElements()).isEqualTo(BOOKS);
+        assertThat(cached.getContent()).extracting(BookDto::getId)
+                .containsExactlyElementsOf(listed.getContent().stream().map(BookDto::getId).toList());
+        assertThat(hydrated.getContent()).extracting(BookDto::getId)
+                .containsExactlyElementsOf(listed.getContent().stream().map(BookDto::getId).toList());
+        assertThat(cached.getContent()).allSatisfy(book -> assertThat(book.getAuthor().getName()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("should load only the page and no count when the search index answers the filter")
+    void whenSearchIndexAnswers_thenOnlyThePageIsLoaded() {
+        // Arrange
+        List<Long> ids = bookRepository.findAll(Sort.by("id")).stream().map(Book::getId).toList();
+        //matches in the order of the index, not of the ids
+        List<Long> matches = List.of(ids.get(7), ids.get(2), ids.get(5));
+        BookSearchIndex bookSearchIndex = mock(BookSearchIndex.class);
+        when(bookSearchIndex.findBookIds("title", null, Sort.unsorted())).thenReturn(Optional.of(matches));
+        bookService = newBookService(bookSearchIndex);
+        entityManager.clear();
+        statistics.clear();
+
+        // Act
+        Page<BookDto> page = bookService.getBooks(PageRequest.of(0, 2), "title", null);
+        long coldStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        Page<BookDto> cached = bookService.getBooks(PageRequest.of(0, 2), "title", null);
+
+        // Assert
+        //books by id + one author select, the total comes from the index
+        assertThat(coldStatements).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(BookDto::getId).containsExactly(ids.get(7), ids.get(2));
+        assertThat(page.getContent()).allSatisfy(book -> assertThat(book.getAuthor().getName()).isNotNull());
+        assertThat(cached.getContent()).extracting(BookDto::getId).containsExactly(ids.get(7), ids.get(2));
+    }
+
+    @Test
+    @DisplayName("should stream all books with their authors in a single query when exporting")
+    void whenExportingBooks_thenOneQueryIsUsed() {
+        // Arrange
+        List<BookDto> exported = new ArrayList<>();
+        List<BookDto> filtered = new ArrayList<>();
+
+        // Act
+        bookService.exportBooks(null, null, exported::add);
+        long exportStatements = statistics.getPrepareStatementCount();
+        bookService.exportBooks(null, "author 1", filtered::add);
+
+        // Assert
+        assertThat(exportStatements).isEqualTo(1);
+        assertThat(exported).hasSize(BOOKS);
+        assertThat(exported).extracting(BookDto::getId).isSorted();
+        assertThat(exported).allSatisfy(book -> assertThat(book.getAuthor().getName()).isNotNull());
+        assertThat(filtered).hasSize(BOOKS / AUTHORS)
+                .allSatisfy(book -> assertThat(book.getAuthor().getName()).isEqualTo("Author 1"));
+    }
+
+    private BookService newBookService() {
+        return newBookService(mock(BookSearchIndex.class));
+    }
+
+    private BookService newBookService(BookSearchIndex bookSearchIndex) {
+        return newBookService(bookSearchIndex, mock(QueryResultCache.class));
+    }
+
+    private BookService newBookService(BookSearchIndex bookSearchIndex, QueryResultCache queryResultCache) {
+        AuthorMapper authorMapper = new AuthorMapper();
+        AuthorServiceImpl authorService = new AuthorServiceImpl(authorRepository, authorMapper, entityManager, new ConcurrentMapCacheManager(), bookSearchIndex,
+                tableStatistics, queryResultCache);
+        AuthorGatewayImpl authorGateway = new AuthorGatewayImpl(new AuthorFacadeImpl(authorService, null));
+        return new BookServiceImpl(bookRepository, new BookMapper(authorMapper), authorGateway, entityManager, new TrigramSearchSupport(null),
+                bookSearchIndex, new ConcurrentMapCacheManager(), tableStatistics, queryResultCache);
+    }
+}
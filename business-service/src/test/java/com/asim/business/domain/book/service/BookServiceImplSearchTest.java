@@ -0,0 +1,173 @@
+package com.asim.business.domain.book.service;
+
+import com.asim.business.domain.author.facade.AuthorFacadeImpl;
+import com.asim.business.domain.author.model.entity.Author;
+import com.asim.business.domain.author.model.mapper.AuthorMapper;
+import com.asim.business.domain.author.repository.AuthorRepository;
+import com.asim.business.domain.author.service.AuthorServiceImpl;
+import com.asim.business.domain.book.gateway.AuthorGatewayImpl;
+import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.domain.book.model.entity.Book;
+import com.asim.business.domain.book.model.mapper.BookMapper;
+import com.asim.business.domain.book.repository.BookRepository;
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.persistence.TableStatistics;
+import com.asim.business.infrastructure.search.BookSearchIndex;
+import com.asim.business.infrastructure.search.TrigramSearchSupport;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Book Service Search Tests")
+class BookServiceImplSearchTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        Author tolkien = saveAuthor("John Tolkien", 81);
+        Author rowling = saveAuthor("Joanne Rowling", 58);
+
+        saveBook("1000000001", "The Hobbit and the Ring", tolkien);
+        saveBook("1000000002", "Ring", tolkien);
+        saveBook("1000000003", "Lord of the Rings", tolkien);
+        saveBook("1000000004", "Harry Potter", rowling);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Nested
+    @DisplayName("Without trigram support")
+    class FallbackTests {
+
+        @Test
+        @DisplayName("should stay unavailable when the database is not PostgreSQL")
+        void whenDatabaseIsNotPostgres_thenTrigramSearchIsUnavailable() {
+            // Arrange
+            TrigramSearchSupport trigramSearchSupport = new TrigramSearchSupport(jdbcTemplate);
+
+            // Act
+            trigramSearchSupport.createIndexes();
+
+            // Assert
+            assertThat(trigramSearchSupport.isAvailable()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should rank earlier and tighter matches first when searching by title")
+        void whenSearchingByTitle_thenEarlierAndShorterMatchesComeFirst() {
+            // Act
+            Page<BookDto> page = bookService(false).searchBooks(PageRequest.of(0, 10, Sort.by("isbn").descending()), "ring", null);
+
+            // Assert
+            assertThat(page.getTotalElements()).isEqualTo(3);
+            assertThat(page.getContent()).extracting(BookDto::getTitle)
+                    .containsExactly("Ring", "Lord of the Rings", "The Hobbit and the Ring");
+        }
+
+        @Test
+        @DisplayName("should combine the title and author terms when both are given")
+        void whenSearchingByTitleAndAuthor_thenBothAreFiltered() {
+            // Act
+            Page<BookDto> page = bookService(false).searchBooks(PageRequest.of(0, 10), "r", "rowling");
+
+            // Assert
+            assertThat(page.getContent()).extracting(BookDto::getTitle).containsExactly("Harry Potter");
+            assertThat(page.getContent().get(0).getAuthor().getName()).isEqualTo("Joanne Rowling");
+        }
+    }
+
+    @Nested
+    @DisplayName("With trigram support")
+    class TrigramTests {
+
+        @Test
+        @DisplayName("should order by word similarity when trigram search is available")
+        void whenTrigramIsAvailable_thenOrderedBySimilarity() throws SQLException {
+            // Arrange
+            //stands in for pg_trgm, so the generated query can run on H2
+            //on its own connection, as DDL would commit the test transaction
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("create alias if not exists word_similarity for \""
+                        + TrigramStandIn.class.getName() + ".wordSimilarity\"");
+            }
+
+            // Act
+            Page<BookDto> page = bookService(true).searchBooks(PageRequest.of(0, 10), "ring", null);
+
+            // Assert
+            assertThat(page.getContent()).extracting(BookDto::getTitle)
+                    .containsExactly("Ring", "Lord of the Rings", "The Hobbit and the Ring");
+        }
+    }
+
+    public static final class TrigramStandIn {
+        /**
+         * Share of the value taken by the term, a rough stand-in for the trigram word similarity.
+         */
+        public static double wordSimilarity(String term, String value) {
+            return value.contains(term) ? (double) term.length() / value.length() : 0;
+        }
+    }
+
+    private BookService bookService(boolean trigram) {
+        TrigramSearchSupport trigramSearchSupport = mock(TrigramSearchSupport.class);
+        when(trigramSearchSupport.isAvailable()).thenReturn(trigram);
+
+        AuthorMapper authorMapper = new AuthorMapper();
+        AuthorServiceImpl authorService = new AuthorServiceImpl(authorRepository, authorMapper, entityManager, new ConcurrentMapCacheManager(),
+                mock(BookSearchIndex.class), new TableStatistics(jdbcTemplate), mock(QueryResultCache.class));
+        AuthorGatewayImpl authorGateway = new AuthorGatewayImpl(new AuthorFacadeImpl(authorService, null));
+        return new BookServiceImpl(bookRepository, new BookMapper(authorMapper), authorGateway, entityManager, trigramSearchSupport,
+                mock(BookSearchIndex.class), new ConcurrentMapCacheManager(), new TableStatistics(jdbcTemplate), mock(QueryResultCache.class));
+    }
+
+    private Author saveAuthor(String name, int age) {
+        return authorRepository.save(Author.builder()
+                .name(name).age(age)
+                .createdBy("testUser").lastModifiedBy("testUser")
+                .build());
+    }
+
+    private void saveBook(String isbn, String title, Author author) {
+        bookRepository.save(Book.builder()
+                .isbn(isbn).title(title).author(author)
+                .createdBy("testUser").lastModifiedBy("testUser")
+                .build());
+    }
+}
@@ -10,6 +10,8 @@ import com.asim.business.domain.book.gateway.AuthorGateway;
 import com.asim.business.domain.book.model.dto.BookDto;
 import com.asim.business.domain.book.model.entity.Book;
 import com.asim.business.domain.book.repository.BookRepository;
+import com.asim.business.infrastructure.cache.QueryResultCache;
+import com.asim.business.infrastructure.search.BookSearchIndex;
 import com.asim.business.test.util.fixtures.AuthorTestFixtures;
 import com.asim.business.test.util.fixtures.BookTestFixtures;
 import jakarta.persistence.EntityManager;
@@ -25,10 +27,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -51,6 +57,12 @@ class BookServiceImplTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private QueryResultCache queryResultCache;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -355,5 +367,31 @@ class BookServiceImplTest {
             verify(bookRepository).findAll(any(Specification.class), eq(pageable));
             verify(bookMapper, times(books.size())).toDto(any(Book.class));
         }
+
+        @Test
+        @DisplayName("should scroll books without counting when a keyset position is provided")
+        void whenGetBooksWithPosition_thenWindowIsReturnedWithoutCount() {
+            // Arrange
+            List<Book> books = Arrays.asList(BookTestFixtures.getManyEntities());
+            Window<Book> bookWindow = Window.from(books, index -> ScrollPosition.forward(Map.of("id", index)), true);
+
+            when(bookRepository.findBy(any(Specification.class), any())).thenReturn(bookWindow);
+            when(bookMapper.toDto(any(Book.class))).thenAnswer(i -> {
+                Book b = i.getArgument(0);
+                return BookDto.builder()
+                        .id(b.getId())
+                        .title(b.getTitle())
+                        .build();
+            });
+
+            // Act
+            Window<BookDto> result = bookService.getBooks(ScrollPosition.keyset(), 10, Sort.by("title"), null, null);
+
+            // Assert
+            assertEquals(books.size(), result.size());
+            assertTrue(result.hasNext());
+            verify(bookRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+            verify(bookRepository, never()).count(any(Specification.class));
+        }
     }
 }
\ No newline at end of file
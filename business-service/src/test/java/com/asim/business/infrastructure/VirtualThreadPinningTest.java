@@ -0,0 +1,186 @@
+package com.asim.business.infrastructure;
+
+import com.asim.business.common.exception.UnauthorizedException;
+import com.asim.business.domain.user.model.entity.Role;
+import com.asim.business.infrastructure.config.CacheConfigs;
+import com.asim.business.infrastructure.cache.UserRoleNearCache;
+import com.asim.business.infrastructure.security.JwtTools;
+import com.asim.business.infrastructure.security.SessionRevocationIndex;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.tools.Server;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Guards the request paths against pinning a virtual thread to its carrier (spring.threads.virtual.enabled).
+ * JFR records whether a virtual thread had to park while holding a monitor. The queries go through Hikari to H2
+ * served over TCP, the Redis round trips behind the caches are simulated by sleeping; the load test records the same
+ * event in the services, with Lettuce talking to its Redis stand-in.
+ */
+@DisplayName("Virtual Thread Pinning Tests")
+class VirtualThreadPinningTest {
+    private static final String SECRET = "test-access-secret-with-at-least-256-bits-of-entropy";
+    private static final int THREADS = 200;
+    private static final long ROUND_TRIP_MILLIS = 5;
+
+    private static void roundTrip() {
+        try {
+            Thread.sleep(ROUND_TRIP_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<RecordedEvent> pinnedEvents(Callable<?> request) throws Exception {
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) futures.add(executor.submit(request));
+                for (Future<?> future : futures) future.get();
+            }
+
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("should record pinning when a virtual thread blocks inside a monitor")
+    void whenBlockedInsideMonitor_thenPinningIsRecorded() throws Exception {
+        // Arrange
+        Object monitor = new Object();
+
+        // Act
+        List<RecordedEvent> events = pinnedEvents(() -> {
+            synchronized (monitor) {
+                roundTrip();
+            }
+            return null;
+        });
+
+        // Assert
+        assertThat(events).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("should not pin when user roles are loaded on a miss")
+    void whenRolesAreLoaded_thenNoPinning() throws Exception {
+        // Arrange
+        UserRoleNearCache nearCache = new UserRoleNearCache(mock(StringRedisTemplate.class), new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1));
+
+        // Act
+        //few users, so most threads miss the same entries concurrently
+        List<RecordedEvent> events = pinnedEvents(() -> nearCache.getRole(Thread.currentThread().threadId() % 4, id -> {
+            roundTrip();
+            return Role.EDITOR;
+        }));
+
+        // Assert
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should not pin when access tokens are checked against the revocation index")
+    void whenTokensAreValidated_thenNoPinning() throws Exception {
+        // Arrange
+        //a small filter, so most lookups are false positives that fall through to the Redis cache
+        Cache invalidSessions = mock(Cache.class);
+        when(invalidSessions.get(anyString())).thenAnswer(invocation -> {
+            roundTrip();
+            return null;
+        });
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(CacheConfigs.INVALID_SESSION)).thenReturn(invalidSessions);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(mock(Cursor.class));
+        //short-lived entries, so the filters are rotated while the tokens are checked
+        SessionRevocationIndex sessionRevocationIndex = new SessionRevocationIndex(cacheManager, redisTemplate,
+                ROUND_TRIP_MILLIS * 4, 16, 0.5);
+        sessionRevocationIndex.backfill();
+        JwtTools jwtTools = new JwtTools(sessionRevocationIndex, new SimpleMeterRegistry(), SECRET);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tokens.add(Jwts.builder()
+                    .claims(Map.of("userId", i, "sessionId", "session-" + i, "type", "access"))
+                    .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                    .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS256)
+                    .compact());
+        }
+
+        // Act
+        List<RecordedEvent> events = pinnedEvents(() -> {
+            int i = (int) (Thread.currentThread().threadId() % tokens.size());
+            if (i % 5 == 0) sessionRevocationIndex.revoke("session-" + i);
+            try {
+                return jwtTools.validateAndParseToken(tokens.get(i));
+            } catch (UnauthorizedException ex) {
+                return null;
+            }
+        });
+
+        // Assert
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should not pin when queries wait for a pooled connection and cross a socket")
+    void whenQueriesRunOverTcp_thenNoPinning() throws Exception {
+        // Arrange
+        Server database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:pinning;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(10);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+            // Act
+            List<RecordedEvent> events = pinnedEvents(() -> jdbcTemplate.queryForObject("select count(*) from information_schema.tables", Long.class));
+
+            // Assert
+            assertThat(events).isEmpty();
+        } finally {
+            database.stop();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.asim.business.infrastructure.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Query Result Cache Tests")
+class QueryResultCacheTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10, Sort.by("title"));
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private MeterRegistry meterRegistry;
+    private QueryResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new QueryResultCache(redisTemplate, meterRegistry, true, 100, Duration.ofMinutes(1));
+    }
+
+    private QueryResultCache.Query books(Pageable pageable, String title) {
+        return QueryResultCache.Query.of(QueryResultCache.BOOKS, pageable).filter("title", title).filter("author", null);
+    }
+
+    private Optional<QueryResultCache.Result> listed(Pageable pageable, String title) {
+        QueryResultCache.Query query = books(pageable, title);
+        Optional<QueryResultCache.Result> result = cache.get(query);
+        if (result.isEmpty()) cache.put(query, List.of(3L, 1L, 2L), 42);
+        return result;
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+        @Test
+        @DisplayName("should keep the ids in order and the total when the same query is repeated")
+        void whenQueryRepeated_thenResultIsCached() {
+            // Act
+            Optional<QueryResultCache.Result> first = listed(FIRST_PAGE, "hobbit");
+            Optional<QueryResultCache.Result> second = listed(FIRST_PAGE, "hobbit");
+
+            // Assert
+            assertTrue(first.isEmpty());
+            assertTrue(second.isPresent());
+            assertEquals(List.of(3L, 1L, 2L), second.get().idList());
+            assertEquals(42, second.get().total());
+        }
+
+        @Test
+        @DisplayName("should share an entry when filters differ only by case or are empty")
+        void whenQueryIsEquivalent_thenEntryIsShared() {
+            // Arrange
+            listed(FIRST_PAGE, "Hobbit");
+
+            // Act & Assert
+            assertTrue(listed(FIRST_PAGE, "HOBBIT").isPresent());
+            listed(FIRST_PAGE, "");
+            assertTrue(listed(FIRST_PAGE, null).isPresent());
+        }
+
+        @Test
+        @DisplayName("should not share an entry when page, size or sort differ")
+        void whenPageOrSortDiffers_thenEntryIsNotShared() {
+            // Arrange
+            listed(FIRST_PAGE, "hobbit");
+
+            // Act & Assert
+            assertTrue(listed(PageRequest.of(1, 10, Sort.by("title")), "hobbit").isEmpty());
+            assertTrue(listed(PageRequest.of(0, 20, Sort.by("title")), "hobbit").isEmpty());
+            assertTrue(listed(PageRequest.of(0, 10, Sort.by("title").descending()), "hobbit").isEmpty());
+        }
+
+        @Test
+        @DisplayName("should not cache when the listing is unpaged")
+        void whenUnpaged_thenNotCached() {
+            // Act
+            listed(Pageable.unpaged(), null);
+
+            // Assert
+            assertTrue(listed(Pageable.unpaged(), null).isEmpty());
+        }
+
+        @Test
+        @DisplayName("should count hits and misses per query shape when listings are repeated")
+        void whenListed_thenHitRatioIsReportedPerShape() {
+            // Act
+            listed(FIRST_PAGE, "hobbit");
+            listed(FIRST_PAGE, "hobbit");
+            listed(PageRequest.of(1, 10, Sort.by("title")), "rings");
+            listed(FIRST_PAGE, null);
+
+            // Assert
+            String filtered = "book[title] sort=title:ASC";
+            assertEquals(1, meterRegistry.get("cache.query.gets").tags("shape", filtered, "result", "hit").functionCounter().count());
+            assertEquals(2, meterRegistry.get("cache.query.gets").tags("shape", filtered, "result", "miss").functionCounter().count());
+            assertEquals(1.0 / 3, meterRegistry.get("cache.query.hit.ratio").tag("shape", filtered).gauge().value(), 1e-9);
+            assertEquals(0, meterRegistry.get("cache.query.hit.ratio").tag("shape", "book[] sort=title:ASC").gauge().value());
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+        @Test
+        @DisplayName("should miss and broadcast when the region is invalidated locally")
+        void whenInvalidated_thenMissedAndBroadcast() {
+            // Arrange
+            listed(FIRST_PAGE, "hobbit");
+
+            // Act
+            cache.invalidate(QueryResultCache.BOOKS);
+
+            // Assert
+            assertTrue(listed(FIRST_PAGE, "hobbit").isEmpty());
+            verify(redisTemplate).convertAndSend(eq(QueryResultCache.INVALIDATION_CHANNEL), endsWith("\nbook"));
+        }
+
+        @Test
+        @DisplayName("should keep other regions when one region is invalidated")
+        void whenOtherRegionInvalidated_thenStillCached() {
+            // Arrange
+            listed(FIRST_PAGE, "hobbit");
+
+            // Act
+            cache.invalidate(QueryResultCache.AUTHORS);
+
+            // Assert
+            assertTrue(listed(FIRST_PAGE, "hobbit").isPresent());
+        }
+
+        @Test
+        @DisplayName("should not serve a result read before the invalidation when it is stored after it")
+        void whenInvalidatedDuringRead_thenResultIsNotServed() {
+            // Arrange
+            QueryResultCache.Query query = books(FIRST_PAGE, "hobbit");
+            cache.get(query);
+
+            // Act
+            cache.invalidate(QueryResultCache.BOOKS);
+            cache.put(query, List.of(1L), 1);
+
+            // Assert
+            assertTrue(listed(FIRST_PAGE, "hobbit").isEmpty());
+        }
+
+        @Test
+        @DisplayName("should invalidate only after commit when called in a transaction")
+        void whenInvalidatedInTransaction_thenDeferredUntilCommit() {
+            // Arrange
+            listed(FIRST_PAGE, "hobbit");
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // Act
+                cache.invalidate(QueryResultCache.BOOKS);
+
+                // Assert
+                assertTrue(listed(FIRST_PAGE, "hobbit").isPresent());
+                verifyNoInteractions(redisTemplate);
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+                assertTrue(listed(FIRST_PAGE, "hobbit").isEmpty());
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("should miss when another node broadcasts an invalidation")
+        void whenInvalidationMessageReceived_thenMissed() {
+            // Arrange
+            listed(FIRST_PAGE, "hobbit");
+            var message = new DefaultMessage(
+                    QueryResultCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    "other-node\nauthor,book".getBytes(StandardCharsets.UTF_8));
+
+            // Act
+            cache.onMessage(message, null);
+
+            // Assert
+            assertTrue(listed(FIRST_PAGE, "hobbit").isEmpty());
+        }
+
+        @Test
+        @DisplayName("should ignore its own broadcast when it is received back")
+        void whenOwnMessageReceived_thenIgnored() {
+            // Arrange
+            cache.invalidate(QueryResultCache.BOOKS);
+            ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+            verify(redisTemplate).convertAndSend(eq(QueryResultCache.INVALIDATION_CHANNEL), sent.capture());
+            listed(FIRST_PAGE, "hobbit");
+
+            // Act
+            cache.onMessage(new DefaultMessage(
+                    QueryResultCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    sent.getValue().getBytes(StandardCharsets.UTF_8)), null);
+
+            // Assert
+            assertTrue(listed(FIRST_PAGE, "hobbit").isPresent());
+        }
+    }
+}
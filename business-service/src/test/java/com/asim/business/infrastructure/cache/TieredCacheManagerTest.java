@@ -0,0 +1,314 @@
+package com.asim.business.infrastructure.cache;
+
+import com.asim.business.infrastructure.config.L1CacheProperties;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tiered Cache Manager Tests")
+class TieredCacheManagerTest {
+
+    private static final String BOOKS = "book";
+    private static final String SESSIONS = "invalidSession";
+    private static final String RUNTIME = "runtime";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager l2CacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private TieredCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        l2CacheManager = new ConcurrentMapCacheManager(BOOKS, SESSIONS);
+
+        L1CacheProperties properties = new L1CacheProperties();
+        properties.getCaches().put(SESSIONS, new L1CacheProperties.Spec(0L, null));
+
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TieredCacheManager(l2CacheManager, properties, redisTemplate, Set.of(RUNTIME), meterRegistry);
+        cacheManager.afterPropertiesSet();
+    }
+
+    private Cache l2Books() {
+        return l2CacheManager.getCache(BOOKS);
+    }
+
+    private TieredCache tieredBooks() {
+        return cacheManager.getTieredCaches().get(BOOKS);
+    }
+
+    @Nested
+    @DisplayName("Configuration Tests")
+    class ConfigurationTests {
+        @Test
+        @DisplayName("should front only caches with a positive L1 size")
+        void whenL1Disabled_thenCacheIsNotTiered() {
+            assertThat(cacheManager.getTieredCaches()).containsOnlyKeys(BOOKS);
+            assertThat(cacheManager.getCacheNames()).contains(BOOKS, SESSIONS, RUNTIME);
+        }
+    }
+
+    @Nested
+    @DisplayName("Read Through Tests")
+    class ReadThroughTests {
+        @Test
+        @DisplayName("should serve from L1 when value was read once from L2")
+        void whenReadTwice_thenSecondReadIsFromL1() {
+            // Arrange
+            l2Books().put(1L, "book");
+            Cache cache = cacheManager.getCache(BOOKS);
+
+            // Act
+            cache.get(1L);
+            l2Books().evict(1L);
+
+            // Assert
+            assertThat(cache.get(1L).get()).isEqualTo("book");
+        }
+    }
+
+    @Nested
+    @DisplayName("Multi Get Tests")
+    class MultiGetTests {
+        @Test
+        @DisplayName("should take L1 hits first and fill L1 from L2 when several keys are read")
+        void whenSeveralKeysRead_thenL1HitsThenL2AreUsed() {
+            // Arrange
+            Cache cache = cacheManager.getCache(BOOKS);
+            cache.put(1L, "first");
+            l2Books().put(2L, "second");
+
+            // Act
+            Map<Long, String> found = TieredCache.getAll(cache, List.of(1L, 2L, 3L), String.class);
+
+            // Assert
+            assertThat(found).containsExactlyInAnyOrderEntriesOf(Map.of(1L, "first", 2L, "second"));
+            assertThat(tieredBooks().getL1().getIfPresent("2")).isEqualTo("second");
+        }
+
+        @Test
+        @DisplayName("should read all L1 misses with one MGET when L2 is Redis")
+        void whenL2IsRedis_thenMissesAreReadWithOneMget() {
+            // Arrange
+            RedisCacheManager redisCacheManager = RedisCacheManager.builder(mock(RedisCacheWriter.class))
+                    .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().serializeValuesWith(
+                            RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer())))
+                    .initialCacheNames(Set.of(BOOKS))
+                    .build();
+            redisCacheManager.initializeCaches();
+            TieredCacheManager redisBacked = new TieredCacheManager(redisCacheManager, new L1CacheProperties(), redisTemplate,
+                    Set.of(), meterRegistry);
+            redisBacked.afterPropertiesSet();
+            redisBacked.getTieredCaches().get(BOOKS).getL1().put("1", "first");
+
+            List<List<String>> requests = new ArrayList<>();
+            RedisStringCommands strings = mock(RedisStringCommands.class, invocation -> {
+                List<String> keys = new ArrayList<>();
+                for (byte[] key : (byte[][]) invocation.getRawArguments()[0]) keys.add(new String(key, StandardCharsets.UTF_8));
+                requests.add(keys);
+                return Arrays.asList("second".getBytes(StandardCharsets.UTF_8), null);
+            });
+            RedisConnection connection = mock(RedisConnection.class);
+            when(connection.stringCommands()).thenReturn(strings);
+            when(redisTemplate.execute(any(RedisCallback.class)))
+                    .thenAnswer(invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+
+            // Act
+            Map<Long, String> found = TieredCache.getAll(redisBacked.getCache(BOOKS), List.of(1L, 2L, 3L), String.class);
+
+            // Assert
+            assertThat(found).containsExactlyInAnyOrderEntriesOf(Map.of(1L, "first", 2L, "second"));
+            assertThat(requests).containsExactly(List.of("book::2", "book::3"));
+            assertThat(redisBacked.getTieredCaches().get(BOOKS).getL1().getIfPresent("2")).isEqualTo("second");
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+        @Test
+        @DisplayName("should write both tiers and broadcast when value is put")
+        void whenPut_thenBothTiersAreWrittenAndBroadcast() {
+            // Act
+            cacheManager.getCache(BOOKS).put(1L, "book");
+
+            // Assert
+            assertThat(l2Books().get(1L).get()).isEqualTo("book");
+            assertThat(tieredBooks().getL1().getIfPresent("1")).isEqualTo("book");
+
+            ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+            verify(redisTemplate).convertAndSend(eq(TieredCacheManager.INVALIDATION_CHANNEL), message.capture());
+            assertThat(message.getValue()).endsWith("\nevict\nbook\n1");
+        }
+
+        @Test
+        @DisplayName("should drop L1 entry when another node broadcasts an evict")
+        void whenEvictMessageReceived_thenL1EntryIsDropped() {
+            // Arrange
+            cacheManager.getCache(BOOKS).put(1L, "book");
+            var message = new DefaultMessage(
+                    TieredCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    "other-node\nevict\nbook\n1".getBytes(StandardCharsets.UTF_8));
+
+            // Act
+            cacheManager.onMessage(message, null);
+
+            // Assert
+            assertThat(tieredBooks().getL1().getIfPresent("1")).isNull();
+            assertThat(l2Books().get(1L)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should not keep the value in L1 when an evict lands while it is read from L2")
+        void whenEvictedDuringL2Read_thenL1IsNotFilled() {
+            // Arrange
+            var message = new DefaultMessage(
+                    TieredCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    "other-node\nevict\nbook\n1".getBytes(StandardCharsets.UTF_8));
+            Cache cache = cacheManager.getCache(BOOKS);
+
+            // Act
+            Object loaded = cache.get(1L, () -> {
+                cacheManager.onMessage(message, null);
+                return "stale";
+            });
+            cache.get(2L, () -> "book");
+
+            // Assert
+            assertThat(loaded).isEqualTo("stale");
+            assertThat(tieredBooks().getL1().getIfPresent("1")).isNull();
+            assertThat(tieredBooks().getL1().getIfPresent("2")).isEqualTo("book");
+        }
+
+        @Test
+        @DisplayName("should ignore its own broadcasts when the message comes back")
+        void whenOwnMessageReceived_thenL1EntryIsKept() {
+            // Arrange
+            cacheManager.getCache(BOOKS).put(1L, "book");
+            ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+            verify(redisTemplate).convertAndSend(eq(TieredCacheManager.INVALIDATION_CHANNEL), sent.capture());
+
+            // Act
+            cacheManager.onMessage(new DefaultMessage(new byte[0], sent.getValue().getBytes(StandardCharsets.UTF_8)), null);
+
+            // Assert
+            assertThat(tieredBooks().getL1().getIfPresent("1")).isEqualTo("book");
+        }
+
+        @Test
+        @DisplayName("should not broadcast when a local only cache is written")
+        void whenLocalCachePut_thenNothingIsBroadcast() {
+            // Act
+            cacheManager.getCache(RUNTIME).put("key", "value");
+
+            // Assert
+            verifyNoInteractions(redisTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+        private CacheMetricsRegistrar registrar() {
+            CacheMeterBinderProvider<TieredCache> provider = TieredCacheMetrics::new;
+            return new CacheMetricsRegistrar(meterRegistry, List.of(provider));
+        }
+
+        private double gets(String result) {
+            return meterRegistry.get("cache.gets").tag("cache", BOOKS).tag("result", result).functionCounter().count();
+        }
+
+        private double tierGets(String tier, String result) {
+            return meterRegistry.get("cache.tier.gets").tag("cache", BOOKS).tag("tier", tier).tag("result", result)
+                    .functionCounter().count();
+        }
+
+        @Test
+        @DisplayName("should bind only tiered caches when the provider is registered")
+        void whenCachesAreBound_thenOnlyTieredCachesAreBound() {
+            // Act & Assert
+            assertThat(registrar().bindCacheToRegistry(tieredBooks(), Tag.of("cache.manager", "cacheManager"))).isTrue();
+            assertThat(registrar().bindCacheToRegistry(cacheManager.getCache(SESSIONS))).isFalse();
+        }
+
+        @Test
+        @DisplayName("should count hits per tier and misses when values are read")
+        void whenValuesAreRead_thenHitsAndMissesAreCountedPerTier() {
+            // Arrange
+            registrar().bindCacheToRegistry(tieredBooks());
+            l2Books().put(1L, "book");
+            Cache cache = cacheManager.getCache(BOOKS);
+
+            // Act
+            cache.get(1L);
+            cache.get(1L);
+            cache.get(2L);
+
+            // Assert
+            assertThat(gets("hit")).isEqualTo(2);
+            assertThat(gets("miss")).isEqualTo(1);
+            assertThat(tierGets("l1", "hit")).isEqualTo(1);
+            assertThat(tierGets("l1", "miss")).isEqualTo(2);
+            assertThat(tierGets("l2", "hit")).isEqualTo(1);
+            assertThat(tierGets("l2", "miss")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should count puts and removals and time L2 operations when values are written")
+        void whenValuesAreWritten_thenPutsRemovalsAndLatencyAreRecorded() {
+            // Arrange
+            registrar().bindCacheToRegistry(tieredBooks());
+            Cache cache = cacheManager.getCache(BOOKS);
+
+            // Act
+            cache.put(1L, "book");
+            cache.evict(1L);
+            cache.get(1L, () -> "loaded");
+
+            // Assert
+            assertThat(meterRegistry.get("cache.puts").tag("cache", BOOKS).functionCounter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("cache.removals").tag("cache", BOOKS).functionCounter().count()).isEqualTo(1);
+            assertThat(tierGets("l2", "miss")).isEqualTo(1);
+            assertThat(meterRegistry.get("cache.l2.latency").tag("cache", BOOKS).timers())
+                    .extracting(timer -> timer.getId().getTag("operation") + "=" + timer.count())
+                    .containsExactlyInAnyOrder("get=0", "load=1", "put=1", "evict=1");
+        }
+    }
+}
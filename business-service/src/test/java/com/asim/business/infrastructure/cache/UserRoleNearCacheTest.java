@@ -0,0 +1,104 @@
+package com.asim.business.infrastructure.cache;
+
+import com.asim.business.domain.user.model.entity.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("User Role Near Cache Tests")
+class UserRoleNearCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private MeterRegistry meterRegistry;
+    private UserRoleNearCache nearCache;
+    private AtomicInteger loads;
+    private Function<Long, Role> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nearCache = new UserRoleNearCache(redisTemplate, meterRegistry, 100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            return Role.EDITOR;
+        };
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).functionCounter().count();
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+        @Test
+        @DisplayName("should load once and count hits and misses when role is requested repeatedly")
+        void whenRoleRequestedTwice_thenLoadedOnce() {
+            // Act
+            nearCache.getRole(1L, loader);
+            Role result = nearCache.getRole(1L, loader);
+
+            // Assert
+            assertEquals(Role.EDITOR, result);
+            assertEquals(1, loads.get());
+            assertEquals(1, gets("hit"));
+            assertEquals(1, gets("miss"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+        @Test
+        @DisplayName("should reload and broadcast when user is invalidated locally")
+        void whenInvalidated_thenReloadedAndBroadcast() {
+            // Arrange
+            nearCache.getRole(1L, loader);
+
+            // Act
+            nearCache.invalidate(1L);
+            nearCache.getRole(1L, loader);
+
+            // Assert
+            assertEquals(2, loads.get());
+            verify(redisTemplate).convertAndSend(UserRoleNearCache.INVALIDATION_CHANNEL, "1");
+        }
+
+        @Test
+        @DisplayName("should reload when another node broadcasts an invalidation")
+        void whenInvalidationMessageReceived_thenReloaded() {
+            // Arrange
+            nearCache.getRole(1L, loader);
+            var message = new DefaultMessage(
+                    UserRoleNearCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    "1".getBytes(StandardCharsets.UTF_8));
+
+            // Act
+            nearCache.onMessage(message, null);
+            nearCache.getRole(1L, loader);
+
+            // Assert
+            assertEquals(2, loads.get());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.asim.business.infrastructure.cache.serialization;
+
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import com.asim.business.domain.book.model.dto.BookDto;
+import com.asim.business.domain.user.model.dto.UserViewDto;
+import com.asim.business.domain.user.model.entity.Role;
+import com.asim.business.infrastructure.config.JacksonMapperConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Binary Cache Serializer Tests")
+class BinaryCacheSerializerTest {
+
+    private GenericJackson2JsonRedisSerializer jsonSerializer;
+    private BinaryCacheSerializer serializer;
+    private BookDto book;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new JacksonMapperConfig().objectMapper();
+        objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL);
+        jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+        serializer = new BinaryCacheSerializer(
+                List.of(new BookDtoCodec(), new AuthorDtoCodec(), new UserViewDtoCodec()), jsonSerializer);
+
+        ZonedDateTime createdAt = ZonedDateTime.parse("2024-01-01T10:15:30.123456Z");
+        AuthorDto author = new AuthorDto("Author Name", 45, 2L, createdAt, null, "creator", "creator", 0);
+        book = new BookDto("1234567890", "Book Title ü", author, 1L, createdAt, createdAt.plusDays(1), "creator", "editor", 3);
+    }
+
+    /**
+     * A newer version of the book codec that writes one more field.
+     */
+    static class BookDtoCodecV2 extends BookDtoCodec {
+        @Override
+        public void write(BookDto value, BinaryWriter writer) {
+            super.write(value, writer);
+            writer.writeString(20, "new field");
+            writer.writeDateTime(21, ZonedDateTime.now());
+        }
+    }
+
+    @Nested
+    @DisplayName("Round Trip Tests")
+    class RoundTripTests {
+        @Test
+        @DisplayName("should restore an equal book with its author when book is serialized")
+        void whenBookSerialized_thenEqualBookIsRestored() {
+            // Act
+            byte[] bytes = serializer.serialize(book);
+
+            // Assert
+            assertThat(bytes[0]).isEqualTo(BinaryCacheSerializer.MAGIC);
+            assertThat(serializer.deserialize(bytes)).isEqualTo(book);
+        }
+
+        @Test
+        @DisplayName("should be smaller than the JSON form when book is serialized")
+        void whenBookSerialized_thenSmallerThanJson() {
+            assertThat(serializer.serialize(book).length).isLessThan(jsonSerializer.serialize(book).length / 3);
+        }
+
+        @Test
+        @DisplayName("should restore user when user has a role")
+        void whenUserSerialized_thenEqualUserIsRestored() {
+            // Arrange
+            UserViewDto user = new UserViewDto("user", Role.EDITOR, book.getCreatedAt(), null, 1);
+
+            // Act & Assert
+            assertThat(serializer.deserialize(serializer.serialize(user))).isEqualTo(user);
+        }
+    }
+
+    @Nested
+    @DisplayName("Compatibility Tests")
+    class CompatibilityTests {
+        @Test
+        @DisplayName("should use JSON when type has no codec")
+        void whenNoCodec_thenJsonIsUsed() {
+            // Act
+            byte[] bytes = serializer.serialize(true);
+
+            // Assert
+            assertThat(bytes).isEqualTo(jsonSerializer.serialize(true));
+            assertThat(serializer.deserialize(bytes)).isEqualTo(true);
+        }
+
+        @Test
+        @DisplayName("should read entries written as JSON before the switch")
+        void whenLegacyJsonPayload_thenValueIsRestored() {
+            assertThat(serializer.deserialize(jsonSerializer.serialize(book))).isEqualTo(book);
+        }
+
+        @Test
+        @DisplayName("should skip unknown fields when payload was written by a newer version")
+        void whenNewerFieldsPresent_thenTheyAreSkipped() {
+            // Arrange
+            var newer = new BinaryCacheSerializer(List.of(new BookDtoCodecV2()), jsonSerializer);
+
+            // Act & Assert
+            assertThat(serializer.deserialize(newer.serialize(book))).isEqualTo(book);
+        }
+
+        @Test
+        @DisplayName("should treat payload as a miss when its type is unknown")
+        void whenUnknownType_thenReturnNull() {
+            // Arrange
+            var older = new BinaryCacheSerializer(List.of(new AuthorDtoCodec()), jsonSerializer);
+
+            // Act & Assert
+            assertThat(older.deserialize(serializer.serialize(book))).isNull();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.asim.business.infrastructure.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Request Logging Interceptor Tests")
+class RequestLoggingInterceptorTest {
+
+    private final RequestLoggingInterceptor interceptor = new RequestLoggingInterceptor();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLoggingInterceptor.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Level previousLevel;
+
+    @BeforeEach
+    void setUp() {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/books");
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("Authorization", "Bearer secret-token");
+        request.setParameter("page", "2");
+        return request;
+    }
+
+    @Nested
+    @DisplayName("Request Id Tests")
+    class RequestIdTests {
+        @Test
+        @DisplayName("should keep the request id when the caller sent one")
+        void whenRequestIdHeaderPresent_thenItIsKept() {
+            // Arrange
+            MockHttpServletRequest request = request();
+            request.addHeader(RequestLoggingInterceptor.REQUEST_ID_HEADER, "caller-id");
+
+            // Act
+            interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+            // Assert
+            assertThat(request.getAttribute(RequestLoggingInterceptor.REQUEST_ID_ATTRIBUTE)).isEqualTo("caller-id");
+        }
+
+        @Test
+        @DisplayName("should generate distinct ids with the node prefix when the caller sent none")
+        void whenNoRequestIdHeader_thenDistinctIdsAreGenerated() {
+            // Arrange
+            MockHttpServletRequest first = request();
+            MockHttpServletRequest second = request();
+
+            // Act
+            interceptor.preHandle(first, new MockHttpServletResponse(), null);
+            interceptor.preHandle(second, new MockHttpServletResponse(), null);
+
+            // Assert
+            String firstId = (String) first.getAttribute(RequestLoggingInterceptor.REQUEST_ID_ATTRIBUTE);
+            String secondId = (String) second.getAttribute(RequestLoggingInterceptor.REQUEST_ID_ATTRIBUTE);
+            assertThat(firstId).matches("[0-9a-f]{16}-[0-9a-f]+").isNotEqualTo(secondId);
+            assertThat(secondId).startsWith(firstId.substring(0, 17));
+        }
+    }
+
+    @Nested
+    @DisplayName("Access Log Tests")
+    class AccessLogTests {
+        @Test
+        @DisplayName("should write one access record when a request completes")
+        void whenRequestCompletes_thenOneRecordIsWritten() {
+            // Arrange
+            MockHttpServletRequest request = request();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            response.setStatus(200);
+
+            // Act
+            interceptor.preHandle(request, response, null);
+            interceptor.afterCompletion(request, response, null, null);
+
+            // Assert
+            assertThat(appender.list).singleElement().satisfies(event -> {
+                assertThat(event.getLevel()).isEqualTo(Level.INFO);
+                assertThat(event.getFormattedMessage())
+                        .startsWith("requestId=" + request.getAttribute(RequestLoggingInterceptor.REQUEST_ID_ATTRIBUTE))
+                        .contains("method=GET uri=/api/v1/books status=200 durationMs=")
+                        .endsWith("ip=10.0.0.1 user=anonymous");
+            });
+        }
+
+        @Test
+        @DisplayName("should include the authenticated user when the request is authenticated")
+        void whenRequestAuthenticated_thenRecordHasUser() {
+            // Arrange
+            MockHttpServletRequest request = request();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(42L, null, List.of()));
+
+            // Act
+            interceptor.preHandle(request, response, null);
+            interceptor.afterCompletion(request, response, null, new IllegalStateException("failed"));
+
+            // Assert
+            assertThat(appender.list).singleElement().satisfies(event -> assertThat(event.getFormattedMessage())
+                    .contains("ip=10.0.0.1 user=42 exception=\"failed\""));
+        }
+
+        @Test
+        @DisplayName("should include the trace id when the request is traced")
+        void whenRequestTraced_thenRecordHasTraceId() {
+            // Arrange
+            MockHttpServletRequest request = request();
+            request.setAttribute(RequestLoggingInterceptor.TRACE_ID_ATTRIBUTE, "4bf92f3577b34da6a3ce929d0e0e4736");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // Act
+            interceptor.preHandle(request, response, null);
+            interceptor.afterCompletion(request, response, null, null);
+
+            // Assert
+            assertThat(appender.list).singleElement().satisfies(event -> assertThat(event.getFormattedMessage())
+                    .contains("traceId=4bf92f3577b34da6a3ce929d0e0e4736 method=GET"));
+        }
+
+        @Test
+        @DisplayName("should not read headers or parameters when DEBUG is disabled")
+        void whenDebugDisabled_thenHeadersAreNotCollected() {
+            // Arrange
+            HttpServletRequest request = mock(HttpServletRequest.class);
+
+            // Act
+            interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+            // Assert
+            verify(request, never()).getHeaderNames();
+            verify(request, never()).getParameterMap();
+        }
+
+        @Test
+        @DisplayName("should redact sensitive headers when DEBUG is enabled")
+        void whenDebugEnabled_thenSensitiveHeadersAreRedacted() {
+            // Arrange
+            logger.setLevel(Level.DEBUG);
+
+            // Act
+            interceptor.preHandle(request(), new MockHttpServletResponse(), null);
+
+            // Assert
+            assertThat(appender.list).singleElement().satisfies(event -> assertThat(event.getFormattedMessage())
+                    .contains("parameters={page=2}")
+                    .contains("Authorization=[REDACTED]")
+                    .doesNotContain("secret-token"));
+        }
+    }
+}
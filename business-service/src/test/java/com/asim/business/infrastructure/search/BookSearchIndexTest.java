@@ -0,0 +1,261 @@
+package com.asim.business.infrastructure.search;
+
+import com.asim.business.domain.author.repository.AuthorRepository;
+import com.asim.business.domain.book.repository.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Book Search Index Tests")
+class BookSearchIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new BookSearchIndex(bookRepository, authorRepository, redisTemplate, transactionManager, meterRegistry, true);
+
+        when(authorRepository.streamSearchEntries()).thenReturn(Stream.of(
+                author(1L, "John Tolkien"),
+                author(2L, "Joanne Rowling")));
+        when(bookRepository.streamSearchEntries()).thenReturn(Stream.of(
+                book(10L, "The Hobbit", 1L),
+                book(11L, "Lord of the Rings", 1L),
+                book(12L, "Harry Potter and the Goblet", 2L),
+                book(13L, "Harry Potter", 2L)));
+
+        index.rebuild();
+    }
+
+    private List<Long> find(String title, String author, Sort sort) {
+        return index.findBookIds(title, author, sort).orElseThrow();
+    }
+
+    @Nested
+    @DisplayName("Query Tests")
+    class QueryTests {
+        @Test
+        @DisplayName("should match title substrings ignoring case when filtering by title")
+        void whenFilteringByTitle_thenSubstringsMatchIgnoringCase() {
+            // Act & Assert
+            assertThat(find("HARRY", null, Sort.unsorted())).containsExactly(12L, 13L);
+            assertThat(find("the", null, Sort.unsorted())).containsExactly(10L, 11L, 12L);
+            //shorter than a trigram
+            assertThat(find("ob", null, Sort.unsorted())).containsExactly(10L, 12L);
+            //all trigrams present but not adjacent
+            assertThat(find("harry goblet", null, Sort.unsorted())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should match books of matching authors when filtering by author")
+        void whenFilteringByAuthor_thenBooksOfMatchingAuthorsAreFound() {
+            // Act & Assert
+            assertThat(find(null, "tolkien", Sort.unsorted())).containsExactly(10L, 11L);
+            assertThat(find("the", "rowling", Sort.unsorted())).containsExactly(12L);
+            assertThat(find(null, "nobody", Sort.unsorted())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should order by the requested fields and the id when sorted")
+        void whenSorted_thenOrderedByFieldsThenId() {
+            // Act & Assert
+            assertThat(find("o", null, Sort.by("author"))).containsExactly(10L, 11L, 12L, 13L);
+            assertThat(find("o", null, Sort.by(Sort.Order.desc("author"), Sort.Order.desc("id")))).containsExactly(13L, 12L, 11L, 10L);
+        }
+
+        @Test
+        @DisplayName("should not answer when the sort is not kept by the index")
+        void whenSortIsNotKept_thenEmpty() {
+            // Act & Assert
+            assertThat(index.findBookIds("harry", null, Sort.by("createdAt"))).isEmpty();
+            assertThat(index.findBookIds("harry", null, Sort.by(Sort.Order.asc("title").ignoreCase()))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should leave title and isbn sorts to the database when sorted by text")
+        void whenSortedByText_thenEmpty() {
+            // Arrange
+            //code unit order puts "Zebra" before "apple", the database collation does not
+            index.bookSaved(14L, "apple pie", 1L);
+            index.bookSaved(15L, "Zebra crossing", 1L);
+
+            // Act & Assert
+            assertThat(index.findBookIds(null, null, Sort.by("title"))).isEmpty();
+            assertThat(index.findBookIds(null, "tolkien", Sort.by(Sort.Order.desc("title")))).isEmpty();
+            //the collation also skips the hyphens an isbn may hold, code unit order does not
+            assertThat(index.findBookIds(null, "tolkien", Sort.by("isbn"))).isEmpty();
+            assertThat(index.findBookIds(null, "tolkien", Sort.by("id", "isbn"))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should not answer before it is built")
+        void whenNotBuilt_thenEmpty() {
+            // Arrange
+            BookSearchIndex notBuilt = new BookSearchIndex(bookRepository, authorRepository, redisTemplate, transactionManager,
+                    new SimpleMeterRegistry(), true);
+
+            // Act & Assert
+            assertThat(notBuilt.isReady()).isFalse();
+            assertThat(notBuilt.findBookIds("harry", null, Sort.unsorted())).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Change Tests")
+    class ChangeTests {
+        @Test
+        @DisplayName("should reflect and broadcast changes when books are saved and deleted")
+        void whenBooksChange_thenIndexIsUpdatedAndBroadcast() {
+            // Act
+            index.bookSaved(14L, "The Silmarillion", 1L);
+            index.bookSaved(10L, "The Hobbit, Revised", 2L);
+            index.bookDeleted(11L);
+
+            // Assert
+            assertThat(find("silmarillion", null, Sort.unsorted())).containsExactly(14L);
+            assertThat(find("revised", "rowling", Sort.unsorted())).containsExactly(10L);
+            assertThat(find(null, "tolkien", Sort.unsorted())).containsExactly(14L);
+            assertThat(find("rings", null, Sort.unsorted())).isEmpty();
+            verify(redisTemplate, times(3)).convertAndSend(eq(BookSearchIndex.CHANGE_CHANNEL), anyString());
+        }
+
+        @Test
+        @DisplayName("should match the new name when an author is renamed")
+        void whenAuthorRenamed_thenNewNameMatches() {
+            // Act
+            index.authorSaved(2L, "Robert Galbraith");
+
+            // Assert
+            assertThat(find(null, "rowling", Sort.unsorted())).isEmpty();
+            assertThat(find(null, "galbraith", Sort.unsorted())).containsExactly(12L, 13L);
+        }
+
+        @Test
+        @DisplayName("should reload the row when another node broadcasts a change")
+        void whenOtherNodeBroadcasts_thenRowIsReloaded() {
+            // Arrange
+            when(bookRepository.findSearchEntry(13L)).thenReturn(Optional.of(book(13L, "Fantastic Beasts", 2L)));
+            when(bookRepository.findSearchEntry(12L)).thenReturn(Optional.empty());
+
+            // Act
+            index.onMessage(message("other-node\nbook\n13"), null);
+            index.onMessage(message("other-node\nbook\n12"), null);
+
+            // Assert
+            assertThat(find("beasts", null, Sort.unsorted())).containsExactly(13L);
+            assertThat(find("harry", null, Sort.unsorted())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should ignore changes when disabled")
+        void whenDisabled_thenChangesAreIgnored() {
+            // Arrange
+            BookSearchIndex disabled = new BookSearchIndex(bookRepository, authorRepository, redisTemplate, transactionManager,
+                    new SimpleMeterRegistry(), false);
+
+            // Act
+            disabled.bookSaved(14L, "The Silmarillion", 1L);
+
+            // Assert
+            verifyNoInteractions(redisTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+        @Test
+        @DisplayName("should report size, memory and rebuild time when built")
+        void whenBuilt_thenMetricsAreReported() {
+            // Act & Assert
+            assertThat(meterRegistry.get("search.index.books").gauge().value()).isEqualTo(4);
+            assertThat(meterRegistry.get("search.index.memory").gauge().value()).isPositive();
+            assertThat(meterRegistry.get("search.index.rebuild").timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should follow the changes when books are saved and deleted")
+        void whenBooksChange_thenMetricsFollow() {
+            // Arrange
+            double built = meterRegistry.get("search.index.memory").gauge().value();
+
+            // Act
+            index.bookSaved(14L, "The Silmarillion", 3L);
+            double saved = meterRegistry.get("search.index.memory").gauge().value();
+            index.bookDeleted(14L);
+            double deleted = meterRegistry.get("search.index.memory").gauge().value();
+
+            // Assert
+            assertThat(saved).isGreaterThan(built);
+            assertThat(deleted).isLessThan(saved).isGreaterThanOrEqualTo(built);
+            assertThat(meterRegistry.get("search.index.books").gauge().value()).isEqualTo(4);
+        }
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(BookSearchIndex.CHANGE_CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static AuthorRepository.SearchEntry author(Long id, String name) {
+        return new AuthorRepository.SearchEntry() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private static BookRepository.SearchEntry book(Long id, String title, Long authorId) {
+        return new BookRepository.SearchEntry() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getTitle() {
+                return title;
+            }
+
+            public Long getAuthorId() {
+                return authorId;
+            }
+        };
+    }
+}
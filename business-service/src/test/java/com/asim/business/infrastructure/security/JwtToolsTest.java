@@ -0,0 +1,139 @@
+package com.asim.business.infrastructure.security;
+
+import com.asim.business.common.exception.UnauthorizedException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JWT Tools Tests")
+class JwtToolsTest {
+
+    private static final String SECRET = "test-access-secret-with-at-least-256-bits-of-entropy";
+    private static final String OTHER_SECRET = "other-access-secret-with-at-least-256-bits-of-entropy";
+
+    @Mock
+    private SessionRevocationIndex sessionRevocationIndex;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtTools jwtTools;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtTools = new JwtTools(sessionRevocationIndex, meterRegistry, SECRET);
+    }
+
+    private String token(String secret, String type, Date expiration) {
+        return Jwts.builder()
+                .claims(Map.of("userId", 7, "sessionId", "session-1", "type", type))
+                .expiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS256)
+                .compact();
+    }
+
+    private Date inOneHour() {
+        return new Date(System.currentTimeMillis() + 3_600_000);
+    }
+
+    @Nested
+    @DisplayName("Parse Token Tests")
+    class ParseTokenTests {
+        @Test
+        @DisplayName("should return typed claims when token is a valid access token")
+        void whenValidAccessToken_thenTypedClaimsAreReturned() {
+            // Arrange
+            Date expiration = inOneHour();
+
+            // Act
+            JwtClaims claims = jwtTools.parseToken(token(SECRET, "access", expiration));
+
+            // Assert
+            assertEquals(7L, claims.userId());
+            assertEquals("session-1", claims.sessionId());
+            assertEquals("access", claims.type());
+            assertEquals(expiration.getTime() / 1000, claims.expiresAt().getEpochSecond());
+        }
+
+        @Test
+        @DisplayName("should throw UnauthorizedException when token is not an access token")
+        void whenRefreshToken_thenThrowUnauthorizedException() {
+            String refreshToken = token(SECRET, "refresh", inOneHour());
+
+            assertThrows(UnauthorizedException.class, () -> jwtTools.parseToken(refreshToken));
+        }
+    }
+
+    @Nested
+    @DisplayName("Validate Token Tests")
+    class ValidateTokenTests {
+        @Test
+        @DisplayName("should throw UnauthorizedException when session has been revoked")
+        void whenSessionRevoked_thenThrowUnauthorizedException() {
+            // Arrange
+            String accessToken = token(SECRET, "access", inOneHour());
+            when(sessionRevocationIndex.isRevoked("session-1")).thenReturn(true);
+
+            // Act & Assert
+            assertThrows(UnauthorizedException.class, () -> jwtTools.validateAndParseToken(accessToken));
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+        private long validations(String result) {
+            return meterRegistry.get("jwt.validation").tag("result", result).timer().count();
+        }
+
+        @Test
+        @DisplayName("should time validations by outcome when tokens are valid, expired or revoked")
+        void whenTokensAreValidated_thenValidationsAreTimedByOutcome() {
+            // Arrange
+            String validToken = token(SECRET, "access", inOneHour());
+            String expiredToken = token(SECRET, "access", new Date(System.currentTimeMillis() - 60_000));
+            String revokedToken = token(SECRET, "access", inOneHour());
+            when(sessionRevocationIndex.isRevoked("session-1")).thenReturn(false, true);
+
+            // Act
+            jwtTools.validateAndParseToken(validToken);
+            assertThrows(UnauthorizedException.class, () -> jwtTools.validateAndParseToken(revokedToken));
+            assertThrows(UnauthorizedException.class, () -> jwtTools.validateAndParseToken(expiredToken));
+            assertThrows(UnauthorizedException.class, () -> jwtTools.validateAndParseToken("not-a-token"));
+
+            // Assert
+            assertEquals(1, validations("valid"));
+            assertEquals(1, validations("revoked"));
+            assertEquals(1, validations("expired"));
+            assertEquals(1, validations("invalid"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Signature Tests")
+    class SignatureTests {
+        @Test
+        @DisplayName("should throw UnauthorizedException when token is signed with another secret")
+        void whenSignedWithAnotherSecret_thenTokenIsRejected() {
+            // Arrange
+            String foreignToken = token(OTHER_SECRET, "access", inOneHour());
+
+            // Act & Assert
+            assertThrows(UnauthorizedException.class, () -> jwtTools.validateAndParseToken(foreignToken));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.asim.business.infrastructure.security;
+
+import com.asim.business.infrastructure.config.CacheConfigs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Session Revocation Index Tests")
+class SessionRevocationIndexTest {
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private Cache invalidSessionCache;
+
+    @Mock
+    private Cursor<String> cursor;
+
+    private SessionRevocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SessionRevocationIndex(cacheManager, redisTemplate, 3_600_000, 1000, 0.01);
+    }
+
+    private void backfillWith(String... sessionIds) {
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        var hasNext = when(cursor.hasNext());
+        for (int i = 0; i < sessionIds.length; i++) {
+            hasNext = hasNext.thenReturn(true);
+        }
+        hasNext.thenReturn(false);
+        if (sessionIds.length > 0) {
+            var next = when(cursor.next());
+            for (String sessionId : sessionIds) {
+                next = next.thenReturn("business:invalidSession::" + sessionId);
+            }
+        }
+        index.backfill();
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+        @Test
+        @DisplayName("should ask Redis when the index has not been backfilled yet")
+        void whenNotBackfilled_thenRedisIsConsulted() {
+            // Arrange
+            when(cacheManager.getCache(CacheConfigs.INVALID_SESSION)).thenReturn(invalidSessionCache);
+            when(invalidSessionCache.get("session-1")).thenReturn(() -> true);
+
+            // Act & Assert
+            assertTrue(index.isRevoked("session-1"));
+        }
+
+        @Test
+        @DisplayName("should answer locally when session was never revoked")
+        void whenSessionUnknown_thenRedisIsNotConsulted() {
+            // Arrange
+            backfillWith();
+
+            // Act & Assert
+            assertFalse(index.isRevoked("session-1"));
+            verifyNoInteractions(cacheManager);
+        }
+
+        @Test
+        @DisplayName("should answer locally when session was backfilled from Redis")
+        void whenSessionBackfilled_thenRevokedWithoutRedis() {
+            // Arrange
+            backfillWith("session-1", "session-2");
+
+            // Act & Assert
+            assertTrue(index.isRevoked("session-1"));
+            assertTrue(index.isRevoked("session-2"));
+            verifyNoInteractions(cacheManager);
+        }
+    }
+
+    @Nested
+    @DisplayName("Revocation Tests")
+    class RevocationTests {
+        @Test
+        @DisplayName("should mark session revoked and broadcast it when session is revoked")
+        void whenRevoked_thenRevokedLocallyAndBroadcast() {
+            // Arrange
+            backfillWith();
+
+            // Act
+            index.revoke("session-1");
+
+            // Assert
+            assertTrue(index.isRevoked("session-1"));
+            verify(redisTemplate).convertAndSend(SessionRevocationIndex.REVOCATION_CHANNEL, "session-1");
+        }
+
+        @Test
+        @DisplayName("should mark session revoked when another node broadcasts it")
+        void whenRevocationMessageReceived_thenRevoked() {
+            // Arrange
+            backfillWith();
+            var message = new DefaultMessage(
+                    SessionRevocationIndex.REVOCATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    "session-1".getBytes(StandardCharsets.UTF_8));
+
+            // Act
+            index.onMessage(message, null);
+
+            // Assert
+            assertTrue(index.isRevoked("session-1"));
+        }
+
+        @Test
+        @DisplayName("should write a batch in one pipeline and broadcast it once when sessions are revoked together")
+        void whenRevokedInBatch_thenPipelinedAndBroadcastOnce() {
+            // Arrange
+            backfillWith();
+            when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(true, false));
+
+            // Act
+            List<Boolean> written = index.revokeAll(List.of("session-1", "session-2"));
+
+            // Assert
+            assertEquals(List.of(true, false), written);
+            assertTrue(index.isRevoked("session-1"));
+            assertTrue(index.isRevoked("session-2"));
+            verify(redisTemplate).convertAndSend(SessionRevocationIndex.REVOCATION_CHANNEL, "session-1\nsession-2");
+        }
+
+        @Test
+        @DisplayName("should report every session unwritten but still revoke them when the pipeline fails")
+        void whenPipelineFails_thenUnwrittenButRevokedLocally() {
+            // Arrange
+            backfillWith();
+            when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new RedisConnectionFailureException("down"));
+
+            // Act
+            List<Boolean> written = index.revokeAll(List.of("session-1", "session-2"));
+
+            // Assert
+            assertEquals(List.of(false, false), written);
+            assertTrue(index.isRevoked("session-1"));
+        }
+
+        @Test
+        @DisplayName("should mark every session revoked when another node broadcasts a batch")
+        void whenBatchMessageReceived_thenAllRevoked() {
+            // Arrange
+            backfillWith();
+            var message = new DefaultMessage(
+                    SessionRevocationIndex.REVOCATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    "session-1\nsession-2".getBytes(StandardCharsets.UTF_8));
+
+            // Act
+            index.onMessage(message, null);
+
+            // Assert
+            assertTrue(index.isRevoked("session-1"));
+            assertTrue(index.isRevoked("session-2"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Bloom Filter Tests")
+    class BloomFilterTests {
+        @Test
+        @DisplayName("should keep false positives close to the configured rate when filled to capacity")
+        void whenFilledToCapacity_thenFalsePositiveRateIsBounded() {
+            // Arrange
+            var filter = new SessionRevocationIndex.BloomFilter(10_000, 0.01);
+            for (int i = 0; i < 10_000; i++) {
+                filter.put(UUID.randomUUID().toString());
+            }
+
+            // Act
+            int falsePositives = 0;
+            for (int i = 0; i < 10_000; i++) {
+                if (filter.mightContain(UUID.randomUUID().toString())) falsePositives++;
+            }
+
+            // Assert
+            assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.asim.business.infrastructure.sync;
+
+import com.asim.business.common.exception.DuplicateResourceException;
+import com.asim.business.common.exception.ResourceNotFoundException;
+import com.asim.business.domain.user.facade.UserFacade;
+import com.asim.business.domain.user.model.dto.UserCreateDto;
+import com.asim.business.domain.user.model.dto.UserViewDto;
+import com.asim.business.infrastructure.security.SessionRevocationIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Auth Service Sync Service Tests")
+class AuthServiceSyncServiceImplTest {
+
+    @Mock
+    private UserFacade userFacade;
+
+    @Mock
+    private SessionRevocationIndex sessionRevocationIndex;
+
+    @InjectMocks
+    private AuthServiceSyncServiceImpl syncService;
+
+    @Test
+    @DisplayName("should succeed when a user already created is delivered again")
+    void whenUserReplayed_thenSucceeds() {
+        // Arrange
+        when(userFacade.createUser(any())).thenThrow(new DuplicateResourceException("User", "id", "7"));
+        when(userFacade.getUser(7L)).thenReturn(UserViewDto.builder().name("alice").build());
+
+        // Act & Assert
+        assertTrue(syncService.processUserCreation(new UserCreateDto(7L, "alice")));
+    }
+
+    @Test
+    @DisplayName("should fail when the name belongs to another user")
+    void whenNameTakenByAnotherUser_thenFails() {
+        // Arrange
+        when(userFacade.createUser(any())).thenThrow(new DuplicateResourceException("User", "name", "alice"));
+        when(userFacade.getUser(7L)).thenThrow(new ResourceNotFoundException("User", 7L));
+
+        // Act & Assert
+        assertFalse(syncService.processUserCreation(new UserCreateDto(7L, "alice")));
+    }
+
+    @Test
+    @DisplayName("should report every user when a batch is partly applied")
+    void whenBatchPartlyApplied_thenResultPerUser() {
+        // Arrange
+        when(userFacade.createUser(any()))
+                .thenReturn(UserViewDto.builder().name("alice").build())
+                .thenThrow(new IllegalStateException("database is down"));
+
+        // Act
+        List<Boolean> results = syncService.processUserCreations(
+                List.of(new UserCreateDto(7L, "alice"), new UserCreateDto(8L, "bob")));
+
+        // Assert
+        assertEquals(List.of(true, false), results);
+    }
+}
@@ -0,0 +1,56 @@
+package com.asim.business.infrastructure.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Span Exporter Tests")
+class SpanExporterTest {
+
+    private static final long MAX_FILE_SIZE = 1024;
+
+    @TempDir
+    private Path directory;
+
+    private static Span span(int i) {
+        Span span = new Span("business-service", new TraceContext("4bf92f3577b34da6a3ce929d0e0e4736", "%016x".formatted(i), true),
+                null, "http get /api/v1/books/{id}", "server");
+        span.end();
+        return span;
+    }
+
+    @Nested
+    @DisplayName("Rotation Tests")
+    class RotationTests {
+        @Test
+        @DisplayName("should move the file aside and start a new one when it reaches its maximum size")
+        void whenFileReachesMaximumSize_thenItIsRotated() throws Exception {
+            // Arrange
+            Path file = directory.resolve("spans.jsonl");
+            SpanExporter exporter = new SpanExporter(file, 1024, MAX_FILE_SIZE, new ObjectMapper(), new SimpleMeterRegistry());
+
+            // Act
+            for (int i = 0; i < 100; i++) exporter.export(span(i));
+            exporter.close();
+
+            // Assert
+            Path rotated = directory.resolve("spans.jsonl.1");
+            assertThat(Files.size(file)).isLessThanOrEqualTo(MAX_FILE_SIZE);
+            assertThat(Files.size(rotated)).isLessThanOrEqualTo(MAX_FILE_SIZE);
+            //the last spans are kept, every line is whole
+            List<String> lines = Files.readAllLines(file);
+            assertThat(lines.getLast()).contains("\"spanId\":\"%016x\"".formatted(99));
+            assertThat(lines).allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+            assertThat(directory.toFile().list()).containsExactlyInAnyOrder("spans.jsonl", "spans.jsonl.1");
+        }
+    }
+}
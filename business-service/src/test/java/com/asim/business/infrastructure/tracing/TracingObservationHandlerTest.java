@@ -0,0 +1,188 @@
+package com.asim.business.infrastructure.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tracing Observation Handler Tests")
+class TracingObservationHandlerTest {
+
+    private static final String CALLER_TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @Mock
+    private SpanExporter exporter;
+    private ObservationRegistry observationRegistry;
+
+    @BeforeEach
+    void setUp() {
+        observationRegistry = registry(1.0);
+    }
+
+    private ObservationRegistry registry(double samplingProbability) {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(
+                new TracingObservationHandler(new Tracer("business-service", samplingProbability, exporter)));
+        return registry;
+    }
+
+    private static Observation received(ObservationRegistry registry, Map<String, String> headers) {
+        ReceiverContext<Map<String, String>> context = new ReceiverContext<>(Map::get);
+        context.setCarrier(headers);
+        return Observation.createNotStarted("http.server.requests", () -> context, registry);
+    }
+
+    private List<Span> exported() {
+        ArgumentCaptor<Span> spans = ArgumentCaptor.forClass(Span.class);
+        verify(exporter, atLeastOnce()).export(spans.capture());
+        return spans.getAllValues();
+    }
+
+    @Nested
+    @DisplayName("Traceparent Tests")
+    class TraceparentTests {
+        @Test
+        @DisplayName("should read the ids and the sampled flag when the header is valid")
+        void whenTraceparentValid_thenItIsParsed() {
+            // Act
+            TraceContext context = TraceContext.parse(CALLER_TRACEPARENT);
+
+            // Assert
+            assertThat(context).isEqualTo(new TraceContext("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa0ba902b7", true));
+            assertThat(context.traceparent()).isEqualTo(CALLER_TRACEPARENT);
+        }
+
+        @Test
+        @DisplayName("should reject the header when it is malformed")
+        void whenTraceparentMalformed_thenNullIsReturned() {
+            // Act & Assert
+            assertThat(TraceContext.parse(null)).isNull();
+            assertThat(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7")).isNull();
+            assertThat(TraceContext.parse("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01")).isNull();
+            assertThat(TraceContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01")).isNull();
+            assertThat(TraceContext.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01")).isNull();
+            assertThat(TraceContext.parse(CALLER_TRACEPARENT + "-extra")).isNull();
+        }
+
+        @Test
+        @DisplayName("should accept extra fields when the version is a later one")
+        void whenLaterVersionWithExtraFields_thenItIsParsed() {
+            // Act
+            TraceContext context = TraceContext.parse("01" + CALLER_TRACEPARENT.substring(2) + "-extra");
+
+            // Assert
+            assertThat(context).isNotNull();
+            assertThat(context.spanId()).isEqualTo("00f067aa0ba902b7");
+        }
+    }
+
+    @Nested
+    @DisplayName("Span Tests")
+    class SpanTests {
+        @Test
+        @DisplayName("should continue the caller's trace when a request carries a traceparent")
+        void whenRequestCarriesTraceparent_thenTraceIsContinued() {
+            // Act
+            received(observationRegistry, Map.of(TraceContext.TRACEPARENT, CALLER_TRACEPARENT)).start().stop();
+
+            // Assert
+            assertThat(exported()).singleElement().satisfies(span -> {
+                assertThat(span.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+                assertThat(span.getParentSpanId()).isEqualTo("00f067aa0ba902b7");
+                assertThat(span.getSpanId()).hasSize(16).isNotEqualTo("00f067aa0ba902b7");
+                assertThat(span.getKind()).isEqualTo("CONSUMER");
+            });
+        }
+
+        @Test
+        @DisplayName("should make nested observations child spans and pass the context on when calling out")
+        void whenObservationsNested_thenChildSpansShareTheTrace() {
+            // Arrange
+            Observation request = received(observationRegistry, Map.of()).start();
+            Map<String, String> outgoingHeaders = new HashMap<>();
+            SenderContext<Map<String, String>> sent = new SenderContext<>((carrier, key, value) -> carrier.put(key, value));
+            sent.setCarrier(outgoingHeaders);
+
+            // Act
+            try (Observation.Scope scope = request.openScope()) {
+                Observation.createNotStarted("security.role.lookup", observationRegistry)
+                        .lowCardinalityKeyValue("near-cache", "hit")
+                        .observe(() -> Observation.createNotStarted("grpc.client", () -> sent, observationRegistry)
+                                .observe(() -> {
+                                }));
+            }
+            request.stop();
+
+            // Assert
+            List<Span> spans = exported();
+            assertThat(spans).extracting(Span::getName).containsExactly("grpc.client", "security.role.lookup", "http.server.requests");
+            Span call = spans.get(0);
+            Span lookup = spans.get(1);
+            Span root = spans.get(2);
+            assertThat(spans).extracting(Span::getTraceId).containsOnly(root.getTraceId());
+            assertThat(root.getParentSpanId()).isNull();
+            assertThat(lookup.getParentSpanId()).isEqualTo(root.getSpanId());
+            assertThat(lookup.getAttributes()).containsEntry("near-cache", "hit");
+            assertThat(call.getParentSpanId()).isEqualTo(lookup.getSpanId());
+            assertThat(outgoingHeaders).containsEntry(TraceContext.TRACEPARENT, call.context().traceparent());
+        }
+
+        @Test
+        @DisplayName("should not trace an observation when it is made outside any trace")
+        void whenObservationOutsideTrace_thenNoSpanIsExported() {
+            // Act
+            Observation.createNotStarted("tasks.scheduled.execution", observationRegistry).observe(() -> {
+            });
+
+            // Assert
+            verify(exporter, never()).export(any());
+        }
+
+        @Test
+        @DisplayName("should record the error when the observation failed")
+        void whenObservationFails_thenSpanHasTheError() {
+            // Arrange
+            Observation request = received(observationRegistry, Map.of()).start();
+
+            // Act
+            request.error(new IllegalStateException("boom"));
+            request.stop();
+
+            // Assert
+            assertThat(exported()).singleElement()
+                    .satisfies(span -> assertThat(span.getError()).isEqualTo("IllegalStateException: boom"));
+        }
+
+        @Test
+        @DisplayName("should not export the trace when it is not sampled")
+        void whenTraceNotSampled_thenNothingIsExported() {
+            // Arrange
+            ObservationRegistry unsampled = registry(0.0);
+
+            // Act
+            received(unsampled, Map.of()).start().stop();
+            received(observationRegistry, Map.of(TraceContext.TRACEPARENT, CALLER_TRACEPARENT.replaceAll("01$", "00")))
+                    .start().stop();
+
+            // Assert
+            verify(exporter, never()).export(any());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.asim.business.infrastructure.web;
+
+import com.asim.business.common.model.dto.PageSlice;
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import com.asim.business.domain.book.model.dto.BookDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ETags Tests")
+class ETagsTest {
+
+    private static AuthorDto author(long id, int version) {
+        return AuthorDto.builder().id(id).version(version).name("John Tolkien").age(81).build();
+    }
+
+    private static BookDto book(long id, int version, AuthorDto author) {
+        return BookDto.builder().id(id).version(version).isbn("1234567890").title("The Hobbit").author(author).build();
+    }
+
+    @Nested
+    @DisplayName("Tag Tests")
+    class TagTests {
+        @Test
+        @DisplayName("should derive a strong tag from id and version when resource is versioned")
+        void whenResourceIsVersioned_thenStrongTag() {
+            // Act & Assert
+            assertEquals("\"7-2\"", ETags.of(author(7, 2)));
+            //the embedded author is part of the representation
+            assertEquals("\"12-3-2\"", ETags.of(book(12, 3, author(7, 2))));
+        }
+
+        @Test
+        @DisplayName("should change the weak tag of a page only when its content or page fields change")
+        void whenPageChanges_thenWeakTagChanges() {
+            // Arrange
+            PageRequest pageable = PageRequest.of(0, 2);
+            String tag = ETags.of(new PageImpl<>(List.of(author(1, 0), author(2, 0)), pageable, 5));
+
+            // Act & Assert
+            assertTrue(tag.startsWith("W/\""));
+            assertEquals(tag, ETags.of(new PageImpl<>(List.of(author(1, 0), author(2, 0)), pageable, 5)));
+            assertNotEquals(tag, ETags.of(new PageImpl<>(List.of(author(1, 0), author(2, 1)), pageable, 5)));
+            assertNotEquals(tag, ETags.of(new PageImpl<>(List.of(author(2, 0), author(1, 0)), pageable, 5)));
+            assertNotEquals(tag, ETags.of(new PageImpl<>(List.of(author(1, 0), author(2, 0)), pageable, 6)));
+            assertNotEquals(tag, ETags.of(new PageSlice<>(List.of(author(1, 0), author(2, 0)), 0, 2, false)));
+        }
+
+        @Test
+        @DisplayName("should not tag when body is not versioned")
+        void whenBodyIsNotVersioned_thenNoTag() {
+            // Act & Assert
+            assertNull(ETags.of("text"));
+            assertNull(ETags.of(null));
+            assertNull(ETags.of(new PageImpl<>(List.of("a", "b"))));
+        }
+    }
+
+    @Nested
+    @DisplayName("Match Tests")
+    class MatchTests {
+        @Test
+        @DisplayName("should match weakly when If-None-Match holds the current tag")
+        void whenIfNoneMatchHoldsTag_thenMatches() {
+            // Act & Assert
+            assertTrue(ETags.matches("\"7-2\"", "\"7-2\""));
+            assertTrue(ETags.matches("W/\"7-2\"", "\"7-2\""));
+            assertTrue(ETags.matches("\"1-0\", \"7-2\"", "\"7-2\""));
+            assertTrue(ETags.matches("*", "\"7-2\""));
+        }
+
+        @Test
+        @DisplayName("should not match when If-None-Match is absent or holds another tag")
+        void whenIfNoneMatchHoldsOtherTag_thenNoMatch() {
+            // Act & Assert
+            assertFalse(ETags.matches(null, "\"7-2\""));
+            assertFalse(ETags.matches("\"7-1\"", "\"7-2\""));
+            assertFalse(ETags.matches("\"7-2\"", null));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.asim.business.infrastructure.web;
+
+import com.asim.business.common.annotation.web.CachedVersion;
+import com.asim.business.domain.author.model.dto.AuthorDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Entity Tag Tests")
+class EntityTagAdviceTest {
+
+    private static final AuthorDto AUTHOR = AuthorDto.builder().id(7L).version(2).name("John Tolkien").age(81).build();
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/v1/authors/7");
+        response = new MockHttpServletResponse();
+    }
+
+    @Nested
+    @DisplayName("Advice Tests")
+    class AdviceTests {
+        private final EntityTagAdvice advice = new EntityTagAdvice();
+
+        private Object write(Object body) {
+            return advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON, null,
+                    new ServletServerHttpRequest(request), new ServletServerHttpResponse(response));
+        }
+
+        @Test
+        @DisplayName("should tag and write the body when the client has no tag")
+        void whenNoIfNoneMatch_thenTaggedAndWritten() {
+            // Act
+            Object body = write(AUTHOR);
+
+            // Assert
+            assertSame(AUTHOR, body);
+            assertEquals(200, response.getStatus());
+            assertEquals("\"7-2\"", response.getHeader(HttpHeaders.ETAG));
+            assertEquals("no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        }
+
+        @Test
+        @DisplayName("should answer not modified without a body when the client has the current tag")
+        void whenIfNoneMatchMatches_thenNotModified() {
+            // Arrange
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"7-2\"");
+
+            // Act
+            Object body = write(AUTHOR);
+
+            // Assert
+            assertNull(body);
+            assertEquals(304, response.getStatus());
+            assertEquals("\"7-2\"", response.getHeader(HttpHeaders.ETAG));
+        }
+
+        @Test
+        @DisplayName("should write the body when the client has an older tag")
+        void whenIfNoneMatchIsStale_thenWritten() {
+            // Arrange
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"7-1\"");
+
+            // Act & Assert
+            assertSame(AUTHOR, write(AUTHOR));
+            assertEquals(200, response.getStatus());
+        }
+
+        @Test
+        @DisplayName("should not tag when the request is not a GET")
+        void whenNotGet_thenNotTagged() {
+            // Arrange
+            request.setMethod("PATCH");
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"7-2\"");
+
+            // Act & Assert
+            assertSame(AUTHOR, write(AUTHOR));
+            assertNull(response.getHeader(HttpHeaders.ETAG));
+        }
+    }
+
+    @Nested
+    @DisplayName("Interceptor Tests")
+    class InterceptorTests {
+        private ConcurrentMapCacheManager cacheManager;
+        private ConditionalGetInterceptor interceptor;
+
+        @BeforeEach
+        void setUp() {
+            cacheManager = new ConcurrentMapCacheManager();
+            interceptor = new ConditionalGetInterceptor(cacheManager);
+            request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "7"));
+        }
+
+        private boolean preHandle(String method) throws Exception {
+            return interceptor.preHandle(request, response,
+                    new HandlerMethod(new Handler(), Handler.class.getMethod(method, Long.class)));
+        }
+
+        @Test
+        @DisplayName("should answer not modified before the handler when the cached version matches")
+        void whenCachedVersionMatches_thenHandlerIsSkipped() throws Exception {
+            // Arrange
+            cacheManager.getCache("author").put(7L, AUTHOR);
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"7-2\"");
+
+            // Act & Assert
+            assertFalse(preHandle("getAuthor"));
+            assertEquals(304, response.getStatus());
+            assertEquals("\"7-2\"", response.getHeader(HttpHeaders.ETAG));
+        }
+
+        @Test
+        @DisplayName("should run the handler when the cached version differs or is not cached")
+        void whenCachedVersionDiffersOrMissing_thenHandlerRuns() throws Exception {
+            // Arrange
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"7-1\"");
+
+            // Act & Assert
+            assertTrue(preHandle("getAuthor"));
+            cacheManager.getCache("author").put(7L, AUTHOR);
+            assertTrue(preHandle("getAuthor"));
+            assertEquals(200, response.getStatus());
+        }
+
+        @Test
+        @DisplayName("should run the handler when it is not marked with a cached version")
+        void whenHandlerIsNotMarked_thenHandlerRuns() throws Exception {
+            // Arrange
+            cacheManager.getCache("author").put(7L, AUTHOR);
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"7-2\"");
+
+            // Act & Assert
+            assertTrue(preHandle("getUnmarked"));
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    static class Handler {
+        @CachedVersion("author")
+        public AuthorDto getAuthor(Long id) {
+            return AUTHOR;
+        }
+
+        public AuthorDto getUnmarked(Long id) {
+            return AUTHOR;
+        }
+    }
+}
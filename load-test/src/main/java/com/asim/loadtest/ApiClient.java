@@ -0,0 +1,74 @@
+package com.asim.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * JSON calls to the REST APIs of both services, timed into {@link LatencyStats} under an endpoint name.
+ * A call fails with {@link CallFailedException} on a status outside 2xx, after being recorded as an error.
+ */
+public class ApiClient {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LatencyStats stats;
+    private final URI auth;
+    private final URI business;
+
+    public ApiClient(HttpClient httpClient, ObjectMapper objectMapper, LatencyStats stats, URI auth, URI business) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+        this.auth = auth;
+        this.business = business;
+    }
+
+    public JsonNode auth(String endpoint, String method, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        return call(endpoint, auth.resolve(path), method, token, body);
+    }
+
+    public JsonNode business(String endpoint, String method, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        return call(endpoint, business.resolve(path), method, token, body);
+    }
+
+    private JsonNode call(String endpoint, URI uri, String method, String token, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (body != null) request.header("Content-Type", "application/json");
+        if (token != null) request.header("Authorization", "Bearer " + token);
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            stats.record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+        boolean success = response.statusCode() / 100 == 2;
+        stats.record(endpoint, System.nanoTime() - start, success);
+
+        if (!success) throw new CallFailedException(endpoint, response.statusCode(), new String(response.body()));
+        return response.body().length == 0 ? null : objectMapper.readTree(response.body());
+    }
+
+    public static class CallFailedException extends RuntimeException {
+        public CallFailedException(String endpoint, int status, String body) {
+            super(endpoint + " answered " + status + ": " + (body.length() > 300 ? body.substring(0, 300) + "..." : body));
+        }
+    }
+}
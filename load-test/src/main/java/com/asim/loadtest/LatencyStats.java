@@ -0,0 +1,88 @@
+package com.asim.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies per endpoint, from the first byte sent to the whole response read, in microseconds with 3 significant
+ * digits. A failed call (an exception or a status outside 2xx) is counted as an error and its latency recorded too.
+ * Recording is off during the warmup.
+ */
+public class LatencyStats {
+    private static final long HIGHEST_MICROS = Duration.ofMinutes(5).toNanos() / 1000;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    public void startRecording() {
+        recording = true;
+    }
+
+    public void record(String endpoint, long nanos, boolean success) {
+        if (!recording) return;
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.latencies.recordValue(Math.min(Math.max(nanos / 1000, 1), HIGHEST_MICROS));
+        if (!success) stats.errors.increment();
+    }
+
+    /**
+     * Per endpoint, in the order the scenario calls them.
+     */
+    public Map<String, Summary> summarize(Duration elapsed, Iterable<String> order) {
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        for (String name : order) {
+            Endpoint stats = endpoints.get(name);
+            if (stats != null) summaries.put(name, Summary.of(stats.latencies, stats.errors.sum(), elapsed));
+        }
+        endpoints.forEach((name, stats) -> summaries.computeIfAbsent(name,
+                key -> Summary.of(stats.latencies, stats.errors.sum(), elapsed)));
+        return summaries;
+    }
+
+    private static final class Endpoint {
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * @param throughput requests per second
+     * @param histogram  requests per latency bucket, keyed by the upper bound of the bucket in milliseconds
+     */
+    public record Summary(long requests, long errors, double throughput, double meanMillis, double p50Millis,
+                          double p95Millis, double p99Millis, double maxMillis, Map<String, Long> histogram) {
+
+        private static final double[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+        static Summary of(Histogram latencies, long errors, Duration elapsed) {
+            Histogram snapshot = latencies.copy();
+            long requests = snapshot.getTotalCount();
+
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            long below = 0;
+            for (double bound : BUCKET_BOUNDS_MILLIS) {
+                long count = snapshot.getCountBetweenValues(0, (long) (bound * 1000)) - below;
+                histogram.put("<=" + format(bound), count);
+                below += count;
+            }
+            histogram.put(">" + format(BUCKET_BOUNDS_MILLIS[BUCKET_BOUNDS_MILLIS.length - 1]), requests - below);
+
+            return new Summary(requests, errors, requests / (elapsed.toNanos() / 1e9),
+                    snapshot.getMean() / 1000,
+                    snapshot.getValueAtPercentile(50) / 1000.0,
+                    snapshot.getValueAtPercentile(95) / 1000.0,
+                    snapshot.getValueAtPercentile(99) / 1000.0,
+                    snapshot.getMaxValue() / 1000.0,
+                    histogram);
+        }
+
+        private static String format(double millis) {
+            return (long) millis + "ms";
+        }
+    }
+}
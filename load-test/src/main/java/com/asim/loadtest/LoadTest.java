@@ -0,0 +1,224 @@
+package com.asim.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.tools.Server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test of both services on one machine, without Docker or network access:
+ * - PostgreSQL is stood in by H2 in PostgreSQL mode, served over TCP so every statement crosses a socket, with an
+ * auth_db and a business_db.
+ * - Each service gets its own {@link RedisStandIn}, as it has its own Redis in compose.yaml.
+ * - business-service and auth-service run in their own JVMs ({@link ServiceProcess}), on free ports, wired to the
+ * stand-ins and to each other over gRPC.
+ * - {@link Seeder} creates the accounts and the catalog, then the virtual users ({@link VirtualUser}) run the
+ * scenario for the warmup and the measured duration.
+ * Throughput and latency percentiles per endpoint are printed and written as JSON to the report file, with the
+ * latencies per hop taken from the spans both services export ({@link SpanStats}) and the virtual threads pinned to
+ * their carrier in either service ({@link PinningStats}).
+ * <p>
+ * The stand-ins do not behave like the real servers under load (H2 locks differently, no pg_trgm, the Redis
+ * stand-in has no eviction), so compare runs of this harness with each other, not with production numbers.
+ * <p>
+ * {@code mvn -pl load-test -am package -DskipTests}, then
+ * {@code java -jar load-test/target/load-test.jar [--users=32] [--duration=60s] [--warmup=15s] [--accounts=100]
+ * [--authors=500] [--books=20000] [--seed=42] [--service-jvm="-Xmx1g"] [--virtual-threads=true]
+ * [--report=load-test-report.json]}.
+ */
+@Slf4j
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Path logs = options.root().resolve("load-test/target/logs");
+
+        Server database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String authDb = h2Url(database, "auth_db");
+        String businessDb = h2Url(database, "business_db");
+        Path h2Jar = Path.of(Server.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        int authPort = freePort();
+        int businessPort = freePort();
+        int grpcPort = freePort();
+        Path businessLog = logs.resolve("business-service.log");
+        Path authLog = logs.resolve("auth-service.log");
+        Path businessSpans = logs.resolve("business-service-spans.jsonl");
+        Path authSpans = logs.resolve("auth-service-spans.jsonl");
+        Files.deleteIfExists(businessSpans);
+        Files.deleteIfExists(authSpans);
+        Path businessPinning = logs.resolve("business-service.jfr");
+        Path authPinning = logs.resolve("auth-service.jfr");
+        Path pinningSettings = logs.resolve("pinning.jfc");
+        Files.createDirectories(logs);
+        try (InputStream settings = LoadTest.class.getResourceAsStream("/pinning.jfc")) {
+            Files.copy(Objects.requireNonNull(settings), pinningSettings, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try (RedisStandIn authRedis = new RedisStandIn();
+             RedisStandIn businessRedis = new RedisStandIn();
+             ServiceProcess business = ServiceProcess.start("business-service", options.root().resolve("business-service"),
+                     "com.asim.business.BusinessApplication", List.of(h2Jar), jvmOptions(options, pinningSettings, businessPinning),
+                     serviceProperties(options, businessDb, businessRedis, businessPort, businessLog, businessSpans, Map.of(
+                             "grpc.server.port", String.valueOf(grpcPort),
+                             "logging.level.com.asim.business", "INFO")),
+                     businessPort, logs);
+             ServiceProcess auth = ServiceProcess.start("auth-service", options.root().resolve("auth-service"),
+                     "com.asim.auth.AuthApplication", List.of(h2Jar), jvmOptions(options, pinningSettings, authPinning),
+                     serviceProperties(options, authDb, authRedis, authPort, authLog, authSpans, Map.of(
+                             "grpc.client.grpc-service.address", "static://localhost:" + grpcPort,
+                             "logging.level.com.asim.auth", "INFO")),
+                     authPort, logs);
+             ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            business.awaitReady(httpClient, Duration.ofMinutes(3));
+            auth.awaitReady(httpClient, Duration.ofMinutes(3));
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            LatencyStats stats = new LatencyStats();
+            ApiClient api = new ApiClient(httpClient, objectMapper, stats, auth.baseUri(), business.baseUri());
+
+            log.info("Seeding {} accounts, {} authors and {} books", options.accounts(), options.authors(), options.books());
+            Seeder.Data data = new Seeder(api, businessDb, businessRedis, options.seed())
+                    .seed(options.accounts(), options.authors(), options.books());
+
+            Instant start = Instant.now();
+            Instant measureFrom = start.plus(options.warmup());
+            Instant deadline = measureFrom.plus(options.duration());
+            log.info("Running {} users for {} of warmup and {} measured", options.users(), options.warmup(), options.duration());
+            for (int i = 0; i < options.users(); i++) {
+                String account = data.accountNames().get(i % data.accountNames().size());
+                users.execute(new VirtualUser(api, data, deadline, options.seed() + i, account));
+            }
+
+            Thread.sleep(Duration.between(Instant.now(), measureFrom));
+            stats.startRecording();
+            Instant measured = Instant.now();
+            users.shutdown();
+            users.awaitTermination(options.duration().toSeconds() + 60, TimeUnit.SECONDS);
+
+            Map<String, LatencyStats.Summary> summaries = stats.summarize(Duration.between(measured, Instant.now()),
+                    VirtualUser.ENDPOINTS);
+
+            //the services write their last spans and their recording on shutdown
+            auth.close();
+            business.close();
+            Map<String, SpanStats.Summary> hops = SpanStats.summarize(objectMapper, List.of(authSpans, businessSpans), measured);
+            Map<String, Long> pinning = PinningStats.summarize(Map.of(
+                    "auth-service", authPinning, "business-service", businessPinning));
+            print(summaries, hops, pinning);
+            write(objectMapper, options, summaries, hops, pinning);
+        } finally {
+            database.stop();
+        }
+    }
+
+    private static List<String> jvmOptions(LoadTestOptions options, Path pinningSettings, Path recording) throws IOException {
+        Files.deleteIfExists(recording);
+        List<String> jvmOptions = new ArrayList<>(options.serviceJvm());
+        //dumped on shutdown, only the pinned parks are recorded so both thread modes pay the same small cost
+        jvmOptions.add("-XX:StartFlightRecording:settings=" + pinningSettings + ",filename=" + recording);
+        return jvmOptions;
+    }
+
+    private static Map<String, String> serviceProperties(LoadTestOptions options, String dbUrl, RedisStandIn redis,
+                                                         int httpPort, Path logFile, Path spanFile,
+                                                         Map<String, String> specific) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", String.valueOf(httpPort));
+        properties.put("spring.threads.virtual.enabled", String.valueOf(options.virtualThreads()));
+        properties.put("spring.datasource.url", dbUrl);
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.data.redis.host", "localhost");
+        properties.put("spring.data.redis.port", String.valueOf(redis.getPort()));
+        properties.put("spring.docker.compose.enabled", "false");
+        properties.put("logging.file.name", logFile.toString());
+        //off by default in the services, the hop latencies are taken from every trace
+        properties.put("tracing.enabled", "true");
+        properties.put("tracing.sampling.probability", "1.0");
+        properties.put("tracing.export.file", spanFile.toString());
+        //one run stays in a single file, SpanStats does not read the rotated one
+        properties.put("tracing.export.max-file-size", "4GB");
+        properties.putAll(specific);
+        return properties;
+    }
+
+    private static String h2Url(Server database, String name) {
+        return "jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:" + name
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void print(Map<String, LatencyStats.Summary> summaries, Map<String, SpanStats.Summary> hops,
+                              Map<String, Long> pinning) {
+        System.out.printf("%n%-36s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        summaries.forEach((endpoint, summary) -> System.out.printf("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, summary.requests(), summary.errors(), summary.throughput(),
+                summary.p50Millis(), summary.p95Millis(), summary.p99Millis(), summary.maxMillis()));
+
+        System.out.printf("%nlatency histogram (requests per bucket)%n");
+        summaries.forEach((endpoint, summary) -> System.out.printf("%-36s %s%n", endpoint, summary.histogram()));
+
+        System.out.printf("%n%-72s %9s %9s %9s %9s%n", "hop (slowest p99 first)", "spans", "p50 ms", "p99 ms", "max ms");
+        hops.entrySet().stream().limit(30).forEach(hop -> System.out.printf("%-72s %9d %9.2f %9.2f %9.2f%n",
+                hop.getKey(), hop.getValue().spans(), hop.getValue().p50Millis(), hop.getValue().p99Millis(),
+                hop.getValue().maxMillis()));
+
+        System.out.printf("%n%-72s %9s%n", "virtual thread pinned at", "parks");
+        if (pinning.isEmpty()) System.out.printf("%-72s %9d%n", "nowhere", 0);
+        pinning.forEach((site, parks) -> System.out.printf("%-72s %9d%n", site, parks));
+    }
+
+    private static void write(ObjectMapper objectMapper, LoadTestOptions options,
+                              Map<String, LatencyStats.Summary> summaries, Map<String, SpanStats.Summary> hops,
+                              Map<String, Long> pinning) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("users", options.users());
+        report.put("durationSeconds", options.duration().toSeconds());
+        report.put("warmupSeconds", options.warmup().toSeconds());
+        report.put("accounts", options.accounts());
+        report.put("authors", options.authors());
+        report.put("books", options.books());
+        report.put("seed", options.seed());
+        report.put("serviceJvm", options.serviceJvm());
+        report.put("virtualThreads", options.virtualThreads());
+        report.put("endpoints", summaries);
+        report.put("hops", hops);
+        report.put("pinning", pinning);
+
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.report().toFile(), report);
+        log.info("Report written to {}", options.report());
+    }
+}
@@ -0,0 +1,70 @@
+package com.asim.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of a run, given as {@code --name=value} arguments.
+ *
+ * @param users      concurrent virtual users, each looping over the scenario
+ * @param duration   measured time
+ * @param warmup     time run before measuring, lets the JIT and the caches settle
+ * @param accounts   registered users the virtual users log in as (round-robin)
+ * @param authors    authors of the seeded catalog
+ * @param books      books of the seeded catalog
+ * @param seed       seed of the random choices, two runs with the same settings send the same requests
+ * @param serviceJvm options of the service JVMs, space separated
+ * @param virtualThreads whether the services serve requests on virtual threads (spring.threads.virtual.enabled),
+ *                   false to compare with platform threads
+ * @param report     where the JSON report is written
+ * @param root       the repository, holding auth-service and business-service
+ */
+public record LoadTestOptions(int users, Duration duration, Duration warmup, int accounts, int authors, int books,
+                              long seed, List<String> serviceJvm, boolean virtualThreads, Path report,
+                              Path root) {
+
+    private static final Set<String> NAMES = Set.of("users", "duration", "warmup", "accounts", "authors", "books",
+            "seed", "service-jvm", "virtual-threads", "report", "root");
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0)
+                throw new IllegalArgumentException("Expected --name=value, found: " + arg);
+            String name = arg.substring(2, separator);
+            if (!NAMES.contains(name))
+                throw new IllegalArgumentException("Unknown option --" + name + ", known options: " + NAMES);
+            values.put(name, arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("users", "32")),
+                Duration.parse("PT" + values.getOrDefault("duration", "60s")),
+                Duration.parse("PT" + values.getOrDefault("warmup", "15s")),
+                Integer.parseInt(values.getOrDefault("accounts", "100")),
+                Integer.parseInt(values.getOrDefault("authors", "500")),
+                Integer.parseInt(values.getOrDefault("books", "20000")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Arrays.stream(values.getOrDefault("service-jvm", "-Xms512m -Xmx1g").split("\\s+"))
+                        .filter(option -> !option.isEmpty())
+                        .toList(),
+                Boolean.parseBoolean(values.getOrDefault("virtual-threads", "true")),
+                Path.of(values.getOrDefault("report", "load-test-report.json")).toAbsolutePath(),
+                values.containsKey("root") ? Path.of(values.get("root")).toAbsolutePath() : findRoot());
+    }
+
+    //the working directory or one of its parents, so it can be started from the repository or from load-test/
+    private static Path findRoot() {
+        for (Path dir = Path.of("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            if (dir.resolve("auth-service/pom.xml").toFile().isFile() && dir.resolve("business-service/pom.xml").toFile().isFile())
+                return dir;
+        }
+        throw new IllegalStateException("Repository not found from the working directory, pass --root=<path>");
+    }
+}
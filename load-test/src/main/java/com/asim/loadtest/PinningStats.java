@@ -0,0 +1,53 @@
+package com.asim.loadtest;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Virtual threads that parked while pinned to their carrier in the services, from the JFR recording each service
+ * writes on shutdown (pinning.jfc). These are the waits on PostgreSQL (H2 over TCP here) or Redis (through Lettuce)
+ * that hold a monitor. A site is a service and the innermost frame of this repository, or the top frame if none.
+ */
+public final class PinningStats {
+    private static final String OWN_PACKAGE = "com.asim.";
+
+    private PinningStats() {
+    }
+
+    /**
+     * @param recordings per service name
+     * @return Pinned parks per site, most first
+     */
+    public static Map<String, Long> summarize(Map<String, Path> recordings) throws IOException {
+        Map<String, Long> sites = new HashMap<>();
+        for (Map.Entry<String, Path> recording : recordings.entrySet()) {
+            if (!Files.exists(recording.getValue())) continue;
+            for (RecordedEvent event : RecordingFile.readAllEvents(recording.getValue())) {
+                if (!event.getEventType().getName().equals("jdk.VirtualThreadPinned")) continue;
+                sites.merge(recording.getKey() + " " + site(event), 1L, Long::sum);
+            }
+        }
+
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(site -> ordered.put(site.getKey(), site.getValue()));
+        return ordered;
+    }
+
+    private static String site(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) return "unknown";
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        RecordedFrame site = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(OWN_PACKAGE))
+                .findFirst()
+                .orElse(frames.getFirst());
+        return site.getMethod().getType().getName() + "." + site.getMethod().getName() + ":" + site.getLineNumber();
+    }
+}
@@ -0,0 +1,431 @@
+package com.asim.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * An in-process stand-in for the Redis of compose.yaml, speaking RESP2 on a loopback port.
+ * It implements what the services use through Lettuce and Spring Data Redis: strings with expiry
+ * (GET, SET with EX/PX/NX/XX/GET, DEL, EXISTS, MGET, INCR, EXPIRE, TTL), KEYS and SCAN for cache clearing and
+ * the session backfill, PUBLISH/SUBSCRIBE/PSUBSCRIBE for the invalidation channels, pipelining, and the connection
+ * handshake (HELLO is refused, so Lettuce falls back to RESP2). One database, no persistence, no eviction.
+ * <p>
+ * Keys and values are kept as ISO-8859-1 strings, which maps every byte to one char and back.
+ */
+@Slf4j
+public class RedisStandIn implements Closeable {
+    private static final String VERSION = "7.2.0";
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("redis-stand-in-", 0).factory());
+    private final Map<String, Entry> store = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> channels = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> patterns = new ConcurrentHashMap<>();
+    private final Map<String, Pattern> compiledPatterns = new ConcurrentHashMap<>();
+
+    private record Entry(String value, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt > 0 && expiresAt <= now;
+        }
+    }
+
+    public RedisStandIn() throws IOException {
+        serverSocket = new ServerSocket(0, 512, InetAddress.getLoopbackAddress());
+        connections.execute(this::accept);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> new Connection(socket).serve());
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) log.warn("Redis stand-in stopped accepting connections", e);
+                return;
+            }
+        }
+    }
+
+    private Entry live(String key) {
+        Entry entry = store.get(key);
+        if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+            store.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private List<String> keys(String pattern) {
+        Pattern regex = compiledPatterns.computeIfAbsent(pattern, RedisStandIn::globToRegex);
+        List<String> keys = new ArrayList<>();
+        for (String key : store.keySet()) {
+            if (live(key) != null && regex.matcher(key).matches()) keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * Removes a key, as {@code DEL} from redis-cli would.
+     */
+    public boolean delete(String key) {
+        return store.remove(key) != null;
+    }
+
+    /**
+     * Delivers a message to the subscribers of the channel, as {@code PUBLISH} from redis-cli would.
+     *
+     * @return the number of subscribers that received it
+     */
+    public int publish(String channel, String message) {
+        int receivers = 0;
+        for (Connection subscriber : channels.getOrDefault(channel, Set.of())) {
+            subscriber.push(List.of("message", channel, message));
+            receivers++;
+        }
+        for (Map.Entry<String, Set<Connection>> subscription : patterns.entrySet()) {
+            if (!compiledPatterns.computeIfAbsent(subscription.getKey(), RedisStandIn::globToRegex).matcher(channel).matches())
+                continue;
+            for (Connection subscriber : subscription.getValue()) {
+                subscriber.push(List.of("pmessage", subscription.getKey(), channel, message));
+                receivers++;
+            }
+        }
+        return receivers;
+    }
+
+    //redis glob: * ? [abc] and \ escapes
+    static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                case '[' -> {
+                    int end = glob.indexOf(']', i + 1);
+                    if (end < 0) {
+                        regex.append("\\[");
+                    } else {
+                        String set = glob.substring(i + 1, end);
+                        regex.append('[').append(set.startsWith("^") ? "^" + Pattern.quote(set.substring(1)) : Pattern.quote(set)).append(']');
+                        i = end;
+                    }
+                }
+                case '\\' -> {
+                    if (i + 1 < glob.length()) regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                }
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * One client connection, commands are answered in order so pipelining needs nothing more.
+     * Published messages may be written from other threads, the writes are serialized by the lock.
+     */
+    private final class Connection {
+        private final Socket socket;
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private final Set<String> subscribedChannels = new CopyOnWriteArraySet<>();
+        private final Set<String> subscribedPatterns = new CopyOnWriteArraySet<>();
+        private OutputStream out;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void serve() {
+            try (socket) {
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                out = new BufferedOutputStream(socket.getOutputStream());
+                List<String> command;
+                while ((command = readCommand(in)) != null) {
+                    if (command.isEmpty()) continue;
+                    Object reply = execute(command);
+                    if (reply == NO_REPLY) continue;
+                    write(reply, in.available() == 0);
+                    if (reply == QUIT) return;
+                }
+            } catch (SocketException e) {
+                //client went away
+            } catch (IOException e) {
+                log.debug("Redis stand-in connection failed", e);
+            } finally {
+                subscribedChannels.forEach(channel -> unsubscribe(channels, channel));
+                subscribedPatterns.forEach(pattern -> unsubscribe(patterns, pattern));
+            }
+        }
+
+        void push(List<?> message) {
+            try {
+                write(message, true);
+            } catch (IOException e) {
+                log.debug("Dropping a message for a closed subscriber", e);
+            }
+        }
+
+        private void write(Object reply, boolean flush) throws IOException {
+            writeLock.lock();
+            try {
+                writeReply(out, reply);
+                if (flush) out.flush();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private Object execute(List<String> command) {
+            String name = command.get(0).toUpperCase(Locale.ROOT);
+            List<String> args = command.subList(1, command.size());
+            try {
+                return switch (name) {
+                    case "PING" -> subscribed() ? List.of("pong", args.isEmpty() ? "" : args.get(0))
+                            : args.isEmpty() ? new Simple("PONG") : args.get(0);
+                    case "ECHO" -> args.get(0);
+                    case "HELLO" -> new Error("ERR unknown command 'HELLO'");
+                    case "CLIENT", "SELECT", "AUTH", "READONLY" -> new Simple("OK");
+                    case "QUIT" -> QUIT;
+                    case "INFO" -> "# Server\r\nredis_version:" + VERSION + "\r\nredis_mode:standalone\r\n";
+                    case "COMMAND" -> List.of();
+                    case "DBSIZE" -> (long) keys("*").size();
+                    case "FLUSHDB", "FLUSHALL" -> {
+                        store.clear();
+                        yield new Simple("OK");
+                    }
+                    case "GET" -> value(live(args.get(0)));
+                    case "MGET" -> args.stream().map(key -> value(live(key))).toList();
+                    case "SET" -> set(args);
+                    case "SETEX", "PSETEX" -> {
+                        long ttl = Long.parseLong(args.get(1)) * (name.equals("SETEX") ? 1000 : 1);
+                        store.put(args.get(0), new Entry(args.get(2), System.currentTimeMillis() + ttl));
+                        yield new Simple("OK");
+                    }
+                    case "SETNX" -> set(List.of(args.get(0), args.get(1), "NX")) == null ? 0L : 1L;
+                    case "DEL", "UNLINK" -> args.stream().filter(key -> live(key) != null && store.remove(key) != null).count();
+                    case "EXISTS" -> args.stream().filter(key -> live(key) != null).count();
+                    case "INCR", "INCRBY", "DECR", "DECRBY" -> increment(name, args);
+                    case "EXPIRE", "PEXPIRE" -> expire(args.get(0), Long.parseLong(args.get(1)) * (name.equals("EXPIRE") ? 1000 : 1));
+                    case "TTL", "PTTL" -> ttl(args.get(0), name.equals("TTL") ? 1000 : 1);
+                    case "PERSIST" -> expire(args.get(0), -1);
+                    case "TYPE" -> new Simple(live(args.get(0)) == null ? "none" : "string");
+                    case "KEYS" -> keys(args.get(0));
+                    case "SCAN" -> scan(args);
+                    case "PUBLISH" -> (long) publish(args.get(0), args.get(1));
+                    case "SUBSCRIBE" -> subscribe(channels, subscribedChannels, args, "subscribe");
+                    case "PSUBSCRIBE" -> subscribe(patterns, subscribedPatterns, args, "psubscribe");
+                    case "UNSUBSCRIBE" -> unsubscribeAll(channels, subscribedChannels, args, "unsubscribe");
+                    case "PUNSUBSCRIBE" -> unsubscribeAll(patterns, subscribedPatterns, args, "punsubscribe");
+                    default -> new Error("ERR unknown command '" + command.get(0) + "'");
+                };
+            } catch (IndexOutOfBoundsException e) {
+                return new Error("ERR wrong number of arguments for '" + command.get(0) + "' command");
+            } catch (NumberFormatException e) {
+                return new Error("ERR value is not an integer or out of range");
+            }
+        }
+
+        private boolean subscribed() {
+            return !subscribedChannels.isEmpty() || !subscribedPatterns.isEmpty();
+        }
+
+        private Object set(List<String> args) {
+            String key = args.get(0);
+            String value = args.get(1);
+            long expiresAt = 0;
+            boolean keepTtl = false, ifAbsent = false, ifPresent = false, returnOld = false;
+            for (int i = 2; i < args.size(); i++) {
+                switch (args.get(i).toUpperCase(Locale.ROOT)) {
+                    case "EX" -> expiresAt = System.currentTimeMillis() + Long.parseLong(args.get(++i)) * 1000;
+                    case "PX" -> expiresAt = System.currentTimeMillis() + Long.parseLong(args.get(++i));
+                    case "EXAT" -> expiresAt = Long.parseLong(args.get(++i)) * 1000;
+                    case "PXAT" -> expiresAt = Long.parseLong(args.get(++i));
+                    case "KEEPTTL" -> keepTtl = true;
+                    case "NX" -> ifAbsent = true;
+                    case "XX" -> ifPresent = true;
+                    case "GET" -> returnOld = true;
+                    default -> {
+                        return new Error("ERR syntax error");
+                    }
+                }
+            }
+
+            long ttl = expiresAt;
+            boolean nx = ifAbsent, xx = ifPresent, keep = keepTtl;
+            Entry[] old = new Entry[1];
+            store.compute(key, (k, entry) -> {
+                if (entry != null && entry.isExpired(System.currentTimeMillis())) entry = null;
+                old[0] = entry;
+                if ((nx && entry != null) || (xx && entry == null)) return entry;
+                return new Entry(value, keep && entry != null ? entry.expiresAt() : ttl);
+            });
+
+            boolean written = !((nx && old[0] != null) || (xx && old[0] == null));
+            if (returnOld) return value(old[0]);
+            return written ? new Simple("OK") : null;
+        }
+
+        private Object increment(String name, List<String> args) {
+            long delta = switch (name) {
+                case "INCR" -> 1;
+                case "DECR" -> -1;
+                case "INCRBY" -> Long.parseLong(args.get(1));
+                default -> -Long.parseLong(args.get(1));
+            };
+            Entry entry = store.compute(args.get(0), (key, current) -> {
+                boolean absent = current == null || current.isExpired(System.currentTimeMillis());
+                long value = absent ? 0 : Long.parseLong(current.value());
+                return new Entry(Long.toString(value + delta), absent ? 0 : current.expiresAt());
+            });
+            return Long.parseLong(entry.value());
+        }
+
+        private long expire(String key, long millis) {
+            Entry entry = live(key);
+            if (entry == null) return 0;
+            store.put(key, new Entry(entry.value(), millis < 0 ? 0 : System.currentTimeMillis() + millis));
+            return 1;
+        }
+
+        private long ttl(String key, long unit) {
+            Entry entry = live(key);
+            if (entry == null) return -2;
+            if (entry.expiresAt() == 0) return -1;
+            return (entry.expiresAt() - System.currentTimeMillis()) / unit;
+        }
+
+        //the whole keyspace in one step, COUNT is only a hint in Redis as well
+        private Object scan(List<String> args) {
+            String match = "*";
+            for (int i = 1; i < args.size(); i++) {
+                if (args.get(i).equalsIgnoreCase("MATCH")) match = args.get(++i);
+                else i++;
+            }
+            return List.of("0", keys(match));
+        }
+
+        private Object subscribe(Map<String, Set<Connection>> registry, Set<String> own, List<String> names, String kind) {
+            for (String name : names) {
+                registry.computeIfAbsent(name, key -> new CopyOnWriteArraySet<>()).add(this);
+                own.add(name);
+                push(List.of(kind, name, subscriptions()));
+            }
+            return NO_REPLY;
+        }
+
+        private Object unsubscribeAll(Map<String, Set<Connection>> registry, Set<String> own, List<String> names, String kind) {
+            List<String> targets = names.isEmpty() ? new ArrayList<>(own) : names;
+            if (targets.isEmpty()) {
+                push(Arrays.asList(kind, null, 0L));
+                return NO_REPLY;
+            }
+            for (String name : targets) {
+                if (own.remove(name)) {
+                    Set<Connection> subscribers = registry.get(name);
+                    if (subscribers != null) subscribers.remove(this);
+                }
+                push(List.of(kind, name, subscriptions()));
+            }
+            return NO_REPLY;
+        }
+
+        private long subscriptions() {
+            return subscribedChannels.size() + subscribedPatterns.size();
+        }
+
+        private void unsubscribe(Map<String, Set<Connection>> registry, String name) {
+            Set<Connection> subscribers = registry.get(name);
+            if (subscribers != null) subscribers.remove(this);
+        }
+    }
+
+    private static String value(Entry entry) {
+        return entry == null ? null : entry.value();
+    }
+
+    private record Simple(String value) {
+    }
+
+    private record Error(String message) {
+    }
+
+    private static final Object NO_REPLY = new Object();
+    private static final Object QUIT = new Simple("OK");
+
+    private static List<String> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) return null;
+        if (type != '*') {
+            //inline command, e.g. from telnet or redis-cli --no-raw
+            String line = (char) type + readLine(in);
+            return line.isBlank() ? List.of() : List.of(line.trim().split("\\s+"));
+        }
+
+        int count = Integer.parseInt(readLine(in));
+        List<String> command = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') throw new IOException("Expected a bulk string");
+            int length = Integer.parseInt(readLine(in));
+            byte[] bytes = in.readNBytes(length);
+            in.skipNBytes(2);
+            command.add(new String(bytes, StandardCharsets.ISO_8859_1));
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c == -1) throw new EOFException();
+            line.append((char) c);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static void writeReply(OutputStream out, Object reply) throws IOException {
+        switch (reply) {
+            case null -> out.write("$-1\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            case Simple simple -> out.write(("+" + simple.value() + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            case Error error -> out.write(("-" + error.message() + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            case Long number -> out.write((":" + number + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            case String bulk -> {
+                byte[] bytes = bulk.getBytes(StandardCharsets.ISO_8859_1);
+                out.write(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                out.write(bytes);
+                out.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            }
+            case List<?> array -> {
+                out.write(("*" + array.size() + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                for (Object element : array) writeReply(out, element);
+            }
+            default -> throw new IllegalArgumentException("Unsupported reply " + reply.getClass());
+        }
+    }
+}
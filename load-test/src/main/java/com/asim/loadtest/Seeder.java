@@ -0,0 +1,198 @@
+package com.asim.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prepares the data of a run through the public APIs where there is one:
+ * - The admin account (created by auth-service on startup) is given the ADMIN role in business_db and its cached
+ * user is dropped, as update_admin_role.sh does. The invalidations are also published, since every node keeps the
+ * user and its role in process as well.
+ * - The accounts are registered through auth-service, and once synced to business-service, made editors the same way
+ * so they can create and patch books.
+ * - The catalog is imported through {@code POST /api/v1/books/batch}, the authors are created with their books.
+ * Names and titles are drawn from word lists with the given seed, the validation only accepts letters in names.
+ */
+@Slf4j
+public class Seeder {
+    public static final String ADMIN_NAME = "admin";
+    public static final String ADMIN_PASSWORD = "adminPassword123!";
+    public static final String ACCOUNT_PASSWORD = "LoadTest123!";
+    public static final List<String> WORDS = List.of("harbor", "ember", "lantern", "river", "silent", "garden",
+            "winter", "copper", "shadow", "orchard", "meadow", "falcon", "marble", "crimson", "hollow", "summit",
+            "willow", "beacon", "tide", "forest", "atlas", "quiet", "northern", "glass", "iron", "velvet", "storm",
+            "island", "paper", "golden");
+    //as published by TieredCacheManager and UserRoleNearCache of business-service
+    private static final String CACHE_INVALIDATION_CHANNEL = "business:cache:invalidate";
+    private static final String ROLE_INVALIDATION_CHANNEL = "business:user-role:invalidate";
+    private static final Duration SYNC_TIMEOUT = Duration.ofMinutes(2);
+    private static final int BATCH_SIZE = 1000;
+
+    private final ApiClient api;
+    private final String businessDbUrl;
+    private final RedisStandIn businessRedis;
+    private final Random random;
+
+    public Seeder(ApiClient api, String businessDbUrl, RedisStandIn businessRedis, long seed) {
+        this.api = api;
+        this.businessDbUrl = businessDbUrl;
+        this.businessRedis = businessRedis;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @param accountNames the registered accounts, all with {@link #ACCOUNT_PASSWORD}
+     * @param bookIds      ids of the seeded books
+     * @param authors      id and version of the seeded authors, as a book creation references them
+     */
+    public record Data(List<String> accountNames, List<Long> bookIds, List<AuthorRef> authors) {
+    }
+
+    public record AuthorRef(long id, int version) {
+    }
+
+    public Data seed(int accounts, int authors, int books) throws Exception {
+        awaitSynced(List.of(ADMIN_NAME));
+        setRole(List.of(ADMIN_NAME), "ADMIN");
+        String adminToken = api.auth("seed", "POST", "/api/v1/auth/sessions/login", null,
+                Map.of("name", ADMIN_NAME, "password", ADMIN_PASSWORD)).get("accessToken").asText();
+
+        List<String> accountNames = registerAccounts(accounts);
+        awaitSynced(accountNames);
+        setRole(accountNames, "EDITOR");
+
+        List<Long> bookIds = new ArrayList<>(books);
+        Map<Long, AuthorRef> authorRefs = new LinkedHashMap<>();
+        List<String> authorNames = authorNames(authors);
+        for (int from = 0; from < books; from += BATCH_SIZE) {
+            List<Map<String, Object>> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + BATCH_SIZE, books); i++) {
+                batch.add(Map.of(
+                        "isbn", String.valueOf(9_780_000_000_000L + i),
+                        "title", title(random),
+                        "author", Map.of("name", authorNames.get(i % authors), "age", 30 + i % authors % 50)));
+            }
+
+            JsonNode result = api.business("seed", "POST", "/api/v1/books/batch", adminToken, batch);
+            for (JsonNode item : result.get("items")) {
+                if (!"CREATED".equals(item.get("status").asText()))
+                    throw new IllegalStateException("Seeding a book failed: " + item.get("error").asText());
+                JsonNode book = item.get("resource");
+                bookIds.add(book.get("id").asLong());
+                JsonNode author = book.get("author");
+                authorRefs.putIfAbsent(author.get("id").asLong(),
+                        new AuthorRef(author.get("id").asLong(), author.get("version").asInt()));
+            }
+            log.info("Seeded {} of {} books", bookIds.size(), books);
+        }
+
+        return new Data(accountNames, bookIds, List.copyOf(authorRefs.values()));
+    }
+
+    public static String title(Random random) {
+        return capitalize(word(random)) + " " + word(random) + " " + word(random) + " " + (1 + random.nextInt(999));
+    }
+
+    public static String word(Random random) {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private List<String> registerAccounts(int accounts) throws Exception {
+        List<String> names = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) names.add("loadtest-" + letters(i));
+
+        //bcrypt makes registering slow, register concurrently
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<JsonNode>> registrations = new ArrayList<>();
+            for (String name : names) {
+                registrations.add(executor.submit(() -> api.auth("seed", "POST", "/api/v1/auth/users/register", null,
+                        Map.of("name", name, "password", ACCOUNT_PASSWORD))));
+            }
+            for (Future<JsonNode> registration : registrations) registration.get();
+        }
+        log.info("Registered {} accounts", accounts);
+        return names;
+    }
+
+    private List<String> authorNames(int authors) {
+        Set<String> names = new LinkedHashSet<>();
+        while (names.size() < authors) {
+            names.add(capitalize(word(random)) + " " + capitalize(letters(names.size())) + " " + capitalize(word(random)));
+        }
+        return new ArrayList<>(names);
+    }
+
+    //the users reach business_db through the outbox of auth-service
+    private void awaitSynced(List<String> names) throws SQLException, InterruptedException {
+        Instant deadline = Instant.now().plus(SYNC_TIMEOUT);
+        try (Connection connection = DriverManager.getConnection(businessDbUrl, "sa", "")) {
+            while (true) {
+                int synced = 0;
+                try (PreparedStatement statement = connection.prepareStatement("select name from users")) {
+                    Set<String> existing = new HashSet<>();
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) existing.add(rows.getString(1));
+                    }
+                    for (String name : names) if (existing.contains(name)) synced++;
+                }
+                if (synced == names.size()) return;
+                if (Instant.now().isAfter(deadline))
+                    throw new IllegalStateException("Only " + synced + " of " + names.size() + " users reached business-service");
+                Thread.sleep(200);
+            }
+        }
+    }
+
+    private void setRole(List<String> names, String role) throws SQLException {
+        List<Long> ids = new ArrayList<>(names.size());
+        try (Connection connection = DriverManager.getConnection(businessDbUrl, "sa", "");
+             PreparedStatement update = connection.prepareStatement("update users set role = ? where name = ?");
+             PreparedStatement select = connection.prepareStatement("select id from users where name = ?")) {
+            for (String name : names) {
+                update.setString(1, role);
+                update.setString(2, name);
+                update.addBatch();
+            }
+            update.executeBatch();
+
+            for (String name : names) {
+                select.setString(1, name);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) ids.add(rows.getLong(1));
+                }
+            }
+        }
+
+        //the user was cached with its default role when it was synced
+        for (Long id : ids) {
+            businessRedis.delete("business:user::" + id);
+            businessRedis.publish(CACHE_INVALIDATION_CHANNEL, "load-test\nevict\nuser\n" + id);
+            businessRedis.publish(ROLE_INVALIDATION_CHANNEL, id.toString());
+        }
+    }
+
+    private static String letters(int index) {
+        StringBuilder letters = new StringBuilder();
+        do {
+            letters.append((char) ('a' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return letters.reverse().toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.asim.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A service started in its own JVM, from its compiled classes and the runtime classpath its build wrote to
+ * {@code target/runtime-classpath.txt}, the way it runs in production (the services cannot share a JVM, both have an
+ * application.properties at the classpath root). The given properties are passed as command line arguments,
+ * so they win over application.properties. The console output goes to {@code <logs>/<name>.out}.
+ */
+@Slf4j
+public class ServiceProcess implements AutoCloseable {
+    private final String name;
+    private final Process process;
+    private final int httpPort;
+    private final Path output;
+
+    private ServiceProcess(String name, Process process, int httpPort, Path output) {
+        this.name = name;
+        this.process = process;
+        this.httpPort = httpPort;
+        this.output = output;
+    }
+
+    /**
+     * @param moduleDir  the service module, holding {@code target/classes} and {@code target/runtime-classpath.txt}
+     * @param extraJars  added to the classpath of the service, e.g. the stand-in database driver
+     * @param jvmOptions e.g. heap settings
+     */
+    public static ServiceProcess start(String name, Path moduleDir, String mainClass, List<Path> extraJars,
+                                       List<String> jvmOptions, Map<String, String> properties, int httpPort,
+                                       Path logs) throws IOException {
+        Path classes = moduleDir.resolve("target/classes");
+        Path classpathFile = moduleDir.resolve("target/runtime-classpath.txt");
+        if (!Files.isDirectory(classes) || !Files.isRegularFile(classpathFile))
+            throw new IllegalStateException(name + " is not built, run 'mvn -pl load-test -am package -DskipTests' first");
+
+        StringBuilder classpath = new StringBuilder(classes.toString());
+        String dependencies = Files.readString(classpathFile).trim();
+        if (!dependencies.isEmpty()) classpath.append(File.pathSeparator).append(dependencies);
+        for (Path jar : extraJars) classpath.append(File.pathSeparator).append(jar);
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(classpath.toString());
+        command.add(mainClass);
+        properties.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        Files.createDirectories(logs);
+        Path output = logs.resolve(name + ".out");
+        Process process = new ProcessBuilder(command)
+                .directory(logs.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+
+        log.info("Started {} (pid {}) on port {}, output in {}", name, process.pid(), httpPort, output);
+        return new ServiceProcess(name, process, httpPort, output);
+    }
+
+    public URI baseUri() {
+        return URI.create("http://localhost:" + httpPort);
+    }
+
+    /**
+     * Waits until the service answers HTTP at all, any status counts: the port is only opened once the context is up.
+     */
+    public void awaitReady(HttpClient client, Duration timeout) throws InterruptedException {
+        Instant deadline = Instant.now().plus(timeout);
+        HttpRequest probe = HttpRequest.newBuilder(baseUri().resolve("/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+
+        while (Instant.now().isBefore(deadline)) {
+            if (!process.isAlive())
+                throw new IllegalStateException(name + " exited with " + process.exitValue() + ", see " + output);
+            try {
+                client.send(probe, HttpResponse.BodyHandlers.discarding());
+                log.info("{} is up", name);
+                return;
+            } catch (IOException e) {
+                Thread.sleep(500);
+            }
+        }
+        throw new IllegalStateException(name + " did not start within " + timeout + ", see " + output);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        //stopped early to read what it wrote on shutdown
+        if (!process.isAlive()) return;
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+        log.info("Stopped {}", name);
+    }
+}
@@ -0,0 +1,72 @@
+package com.asim.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies per hop, from the span files the services export (tracing.export.file), so the p99 of an endpoint can be
+ * attributed to the role lookup, a repository call, a Redis command or the gRPC sync behind it.
+ * A hop is a service and a span name, Redis commands are prefixed with {@code redis}. Only the spans started during
+ * the measured part of the run count.
+ */
+public final class SpanStats {
+    private static final long HIGHEST_MICROS = Duration.ofMinutes(5).toNanos() / 1000;
+
+    private SpanStats() {
+    }
+
+    /**
+     * @return Per hop, slowest p99 first
+     */
+    public static Map<String, Summary> summarize(ObjectMapper objectMapper, List<Path> spanFiles, Instant from)
+            throws IOException {
+        long fromMicros = TimeUnit.SECONDS.toMicros(from.getEpochSecond()) + from.getNano() / 1000;
+        Map<String, Histogram> hops = new HashMap<>();
+        for (Path file : spanFiles) {
+            if (!Files.exists(file)) continue;
+            try (BufferedReader reader = Files.newBufferedReader(file)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    JsonNode span = objectMapper.readTree(line);
+                    if (span.path("startEpochMicros").asLong() < fromMicros) continue;
+                    hops.computeIfAbsent(hop(span), name -> new Histogram(HIGHEST_MICROS, 3))
+                            .recordValue(Math.min(Math.max(span.path("durationMicros").asLong(), 1), HIGHEST_MICROS));
+                }
+            }
+        }
+
+        List<Map.Entry<String, Summary>> summaries = new ArrayList<>();
+        hops.forEach((hop, latencies) -> summaries.add(Map.entry(hop, Summary.of(latencies))));
+        summaries.sort(Comparator.comparingDouble((Map.Entry<String, Summary> entry) -> entry.getValue().p99Millis()).reversed());
+
+        Map<String, Summary> ordered = new LinkedHashMap<>();
+        summaries.forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+        return ordered;
+    }
+
+    private static String hop(JsonNode span) {
+        String name = span.path("name").asText();
+        String system = span.path("attributes").path("db.system").asText(null);
+        return span.path("service").asText() + " " + (system == null ? name : system + " " + name);
+    }
+
+    public record Summary(long spans, double p50Millis, double p99Millis, double maxMillis) {
+
+        static Summary of(Histogram latencies) {
+            return new Summary(latencies.getTotalCount(),
+                    latencies.getValueAtPercentile(50) / 1000.0,
+                    latencies.getValueAtPercentile(99) / 1000.0,
+                    latencies.getMaxValue() / 1000.0);
+        }
+    }
+}
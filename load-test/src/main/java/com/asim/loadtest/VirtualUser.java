@@ -0,0 +1,88 @@
+package com.asim.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A user looping over a session until the deadline:
+ * login → list books → search books → get a book → create a book → patch it → logout.
+ * The listed page, the searched word and the fetched book are random, so the caches see a realistic mix of hits and
+ * misses. A failed call ends the iteration (it is already recorded as an error), the next one starts with a login.
+ */
+@Slf4j
+public class VirtualUser implements Runnable {
+    public static final String LOGIN = "POST /api/v1/auth/sessions/login";
+    public static final String LIST = "GET /api/v1/books";
+    public static final String SEARCH = "GET /api/v1/books/search";
+    public static final String GET = "GET /api/v1/books/{id}";
+    public static final String CREATE = "POST /api/v1/books";
+    public static final String PATCH = "PATCH /api/v1/books/{id}";
+    public static final String LOGOUT = "POST /api/v1/auth/sessions/logout";
+    public static final List<String> ENDPOINTS = List.of(LOGIN, LIST, SEARCH, GET, CREATE, PATCH, LOGOUT);
+
+    private static final String[] SORTS = {"title,asc", "id,desc", "createdAt,desc"};
+    private static final int PAGE_SIZE = 20;
+    //isbns of created books, after the seeded range
+    private static final AtomicLong NEXT_ISBN = new AtomicLong(9_790_000_000_000L);
+
+    private final ApiClient api;
+    private final Seeder.Data data;
+    private final Instant deadline;
+    private final Random random;
+    private final String account;
+
+    public VirtualUser(ApiClient api, Seeder.Data data, Instant deadline, long seed, String account) {
+        this.api = api;
+        this.data = data;
+        this.deadline = deadline;
+        this.random = new Random(seed);
+        this.account = account;
+    }
+
+    @Override
+    public void run() {
+        while (Instant.now().isBefore(deadline)) {
+            try {
+                iterate();
+            } catch (ApiClient.CallFailedException e) {
+                log.debug("Iteration of {} failed: {}", account, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.debug("Iteration of {} failed", account, e);
+            }
+        }
+    }
+
+    private void iterate() throws Exception {
+        String token = api.auth(LOGIN, "POST", "/api/v1/auth/sessions/login", null,
+                Map.of("name", account, "password", Seeder.ACCOUNT_PASSWORD)).get("accessToken").asText();
+
+        int pages = Math.max(1, data.bookIds().size() / PAGE_SIZE);
+        api.business(LIST, "GET", "/api/v1/books?page=" + random.nextInt(Math.min(pages, 50)) + "&size=" + PAGE_SIZE
+                + "&sort=" + SORTS[random.nextInt(SORTS.length)], token, null);
+
+        api.business(SEARCH, "GET", "/api/v1/books/search?title=" + Seeder.word(random) + "&size=" + PAGE_SIZE, token, null);
+
+        long bookId = data.bookIds().get(random.nextInt(data.bookIds().size()));
+        api.business(GET, "GET", "/api/v1/books/" + bookId, token, null);
+
+        Seeder.AuthorRef author = data.authors().get(random.nextInt(data.authors().size()));
+        JsonNode created = api.business(CREATE, "POST", "/api/v1/books", token, Map.of(
+                "isbn", String.valueOf(NEXT_ISBN.getAndIncrement()),
+                "title", Seeder.title(random),
+                "author", Map.of("id", author.id(), "version", author.version())));
+
+        api.business(PATCH, "PATCH", "/api/v1/books/" + created.get("id").asLong(), token,
+                Map.of("title", Seeder.title(random)));
+
+        api.auth(LOGOUT, "POST", "/api/v1/auth/sessions/logout", token, null);
+    }
+}